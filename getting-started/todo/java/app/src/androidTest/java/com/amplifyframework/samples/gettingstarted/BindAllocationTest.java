@@ -0,0 +1,163 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.os.Bundle;
+import android.os.Debug;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.widget.CheckBox;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// Binds TODOS Todos of every Priority, completed and not, to HOLDERS rows through the adapter over and over
+// as scrolling does, and counts the objects the main thread allocates once every row has been bound once.
+// The views themselves allocate when their text, tint or check state changes, so the same changes are first
+// made straight on the same views, and binding may allocate at most MAX_EXTRA_ALLOCATIONS more than that.
+// A bind that built a tint or drawable state of its own would allocate several objects every time.
+// Counts are logged under BindAllocationTest and reported as instrumentation status.
+@RunWith(AndroidJUnit4.class)
+public class BindAllocationTest {
+    private static final String TAG = "BindAllocationTest";
+    private static final int TODOS = 300;
+    // About a screen of rows, not a multiple of the Priority count so reused rows change tint
+    private static final int HOLDERS = 13;
+    private static final int BINDS = 20000;
+    // One allocation per hundred binds, for one-off allocations such as a resized buffer
+    private static final int MAX_EXTRA_ALLOCATIONS = BINDS / 100;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void bindingRowsAllocatesNoMoreThanTheViews() {
+        Todo[] todos = buildTodos();
+        int[] allocations = new int[2];
+        instrumentation.runOnMainSync(() -> {
+            Context context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.Theme_Todo);
+            FrameLayout parent = new FrameLayout(context);
+            TodoItemAdapter adapter = new TodoItemAdapter(new TodoItemAdapter.OnItemClickListener() {
+                @Override
+                public void onCheckClick(int position, boolean isChecked) {
+                }
+
+                @Override
+                public void onTextClick(int position, String text, Priority priority) {
+                }
+            });
+            adapter.setList(new ArrayList<>(Arrays.asList(todos)));
+            adapter.submitList(); // The first list is shown straight away, without a diff
+            assertEquals(TODOS, adapter.getItemCount());
+            TodoItemAdapter.ItemViewHolder[] holders = new TodoItemAdapter.ItemViewHolder[HOLDERS];
+            for (int i = 0; i < HOLDERS; i++) {
+                holders[i] = (TodoItemAdapter.ItemViewHolder) adapter.onCreateViewHolder(parent, 0);
+            }
+            for (int i = 0; i < TODOS; i++) {
+                adapter.onBindViewHolder(holders[i % HOLDERS], i); // Builds the shared tints and warms up each row
+            }
+            ColorStateList[] tints = sharedTints(adapter, holders);
+
+            setViews(holders, todos, tints, TODOS); // Warms up setting the views directly
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            setViews(holders, todos, tints, BINDS);
+            Debug.stopAllocCounting();
+            allocations[0] = Debug.getThreadAllocCount();
+
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            for (int i = 0; i < BINDS; i++) {
+                adapter.onBindViewHolder(holders[i % HOLDERS], i % TODOS);
+            }
+            Debug.stopAllocCounting();
+            allocations[1] = Debug.getThreadAllocCount();
+        });
+
+        Bundle results = new Bundle();
+        report(results, "binds", BINDS);
+        report(results, "viewAllocations", allocations[0]);
+        report(results, "allocations", allocations[1]);
+        instrumentation.sendStatus(0, results);
+        assertTrue("Allocated " + allocations[1] + " objects in " + BINDS + " binds, the views alone "
+                        + allocations[0], allocations[1] <= allocations[0] + MAX_EXTRA_ALLOCATIONS);
+    }
+
+    // Binds a row to a Todo of each Priority and returns the tint it gets, by Priority ordinal,
+    // checking two rows bound to different Todos of the same Priority get the same tint instance
+    private static ColorStateList[] sharedTints(TodoItemAdapter adapter, TodoItemAdapter.ItemViewHolder[] holders) {
+        int priorities = Priority.values().length;
+        ColorStateList[] tints = new ColorStateList[priorities];
+        for (int i = 0; i < priorities; i++) {
+            adapter.onBindViewHolder(holders[0], i);
+            tints[i] = checkBoxOf(holders[0]).getButtonTintList();
+        }
+        adapter.onBindViewHolder(holders[1], priorities);
+        assertSame(tints[0], checkBoxOf(holders[1]).getButtonTintList());
+        return tints;
+    }
+
+    // Makes the changes a bind makes straight on the views, in the same order binding would
+    private static void setViews(TodoItemAdapter.ItemViewHolder[] holders, Todo[] todos, ColorStateList[] tints,
+            int binds) {
+        TextView[] names = new TextView[HOLDERS];
+        CheckBox[] checkBoxes = new CheckBox[HOLDERS];
+        for (int i = 0; i < HOLDERS; i++) {
+            names[i] = holders[i].itemView.findViewById(R.id.todo_row_item);
+            checkBoxes[i] = checkBoxOf(holders[i]);
+        }
+        for (int i = 0; i < binds; i++) {
+            Todo todo = todos[i % TODOS];
+            CheckBox checkBox = checkBoxes[i % HOLDERS];
+            ColorStateList tint = tints[todo.getPriority().ordinal()];
+            names[i % HOLDERS].setText(todo.getName());
+            if (checkBox.getButtonTintList() != tint) {
+                checkBox.setButtonTintList(tint);
+            }
+            checkBox.setChecked(todo.getCompletedAt() != null);
+        }
+    }
+
+    private static CheckBox checkBoxOf(TodoItemAdapter.ItemViewHolder holder) {
+        return holder.itemView.findViewById(R.id.todo_checkbox);
+    }
+
+    // Returns Todos cycling through every Priority, every fourth one completed
+    private static Todo[] buildTodos() {
+        Temporal.DateTime completedAt = new Temporal.DateTime(new Date(), 0);
+        Todo[] todos = new Todo[TODOS];
+        for (int i = 0; i < TODOS; i++) {
+            todos[i] = Todo.builder()
+                    .name("Task " + i)
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .completedAt(i % 4 == 0 ? completedAt : null)
+                    .rank((double) i)
+                    .build();
+        }
+        return todos;
+    }
+
+    private static void report(Bundle results, String name, long value) {
+        Log.i(TAG, name + ": " + value);
+        results.putLong(name, value);
+    }
+}
@@ -0,0 +1,196 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+import com.amplifyframework.samples.core.MainApplication;
+import com.amplifyframework.samples.core.MemoryModelStore;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Fires EVENTS_PER_SECOND changes a second at TodoItemAdapter through its store for SECONDS, spread over TODOS ids
+// so most of them repeat an id changed earlier in the same frame, as a first sync or a reconnect does.
+// Checks the list is published at most once a frame however fast the changes come, and that it ends up
+// matching the store. Counts are logged under ChangeBurstSoakTest and reported as instrumentation status.
+@RunWith(AndroidJUnit4.class)
+public class ChangeBurstSoakTest {
+    private static final String TAG = "ChangeBurstSoakTest";
+    private static final int EVENTS_PER_SECOND = 10000;
+    private static final int SECONDS = 10;
+    private static final int TODOS = 500;
+    private static final int DELETE_EVERY = 97; // Every so often an event deletes its Todo, the next one recreates it
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void burstsArePublishedAtMostOncePerFrame() throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(1);
+        instrumentation.runOnMainSync(() -> MainApplication.whenReady(ready::countDown));
+        await(ready);
+        MemoryModelStore<Todo> store = new MemoryModelStore<>(TodoCodec.table());
+        TestOwner owner = new TestOwner();
+        FrameCounter frames = new FrameCounter();
+        TodoItemAdapter[] adapter = new TodoItemAdapter[1];
+        instrumentation.runOnMainSync(() -> {
+            adapter[0] = new TodoItemAdapter(new TodoItemAdapter.OnItemClickListener() {
+                @Override
+                public void onCheckClick(int position, boolean isChecked) {
+                }
+
+                @Override
+                public void onTextClick(int position, String text, Priority priority) {
+                }
+            });
+            adapter[0].setStore(store);
+            owner.lifecycle.setCurrentState(Lifecycle.State.RESUMED);
+            adapter[0].bindTo(owner);
+            adapter[0].observe();
+            frames.start();
+        });
+
+        Map<String, String> expected = fireEvents(store);
+        awaitStore(store);
+        SystemClock.sleep(100); // A few frames for the last batch to be applied
+        int[] batches = new int[1];
+        long[] merged = new long[1];
+        Map<String, String> listed = new HashMap<>();
+        instrumentation.runOnMainSync(() -> {
+            frames.stop();
+            batches[0] = adapter[0].getChangeBatchCount();
+            merged[0] = adapter[0].getMergedChangeCount();
+            for (Todo todo : adapter[0].getList()) {
+                listed.put(todo.getId(), todo.getName());
+            }
+            owner.lifecycle.setCurrentState(Lifecycle.State.DESTROYED);
+        });
+
+        Bundle results = new Bundle();
+        report(results, "events", EVENTS_PER_SECOND * SECONDS);
+        report(results, "mergedEvents", merged[0]);
+        report(results, "frames", frames.count);
+        report(results, "publishedBatches", batches[0]);
+        instrumentation.sendStatus(0, results);
+        assertTrue("Published " + batches[0] + " batches in " + frames.count + " frames", batches[0] <= frames.count);
+        assertTrue("No events were merged", merged[0] > 0);
+        assertEquals(expected, listed);
+    }
+
+    // Saves or deletes a Todo EVENTS_PER_SECOND times a second for SECONDS, returning the name of each Todo left
+    private static Map<String, String> fireEvents(MemoryModelStore<Todo> store) {
+        String[] ids = new String[TODOS];
+        for (int i = 0; i < TODOS; i++) {
+            ids[i] = UUID.randomUUID().toString();
+        }
+        Map<String, Todo> saved = new HashMap<>();
+        long start = System.nanoTime();
+        long interval = TimeUnit.SECONDS.toNanos(1) / EVENTS_PER_SECOND;
+        for (int event = 0; event < EVENTS_PER_SECOND * SECONDS; event++) {
+            long due = start + event * interval;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String id = ids[event % TODOS];
+            Todo previous = saved.get(id);
+            if (previous != null && event % DELETE_EVERY == 0) {
+                saved.remove(id);
+                store.delete(previous, deleted -> { }, ChangeBurstSoakTest::logFailure);
+                continue;
+            }
+            Todo todo = Todo.builder()
+                    .name("Task " + event)
+                    .priority(Priority.values()[event % Priority.values().length])
+                    .completedAt(null)
+                    .rank((double) event)
+                    .id(id)
+                    .build();
+            saved.put(id, todo);
+            store.save(todo, done -> { }, ChangeBurstSoakTest::logFailure);
+        }
+        Map<String, String> names = new HashMap<>();
+        for (Todo todo : saved.values()) {
+            names.put(todo.getId(), todo.getName());
+        }
+        return names;
+    }
+
+    // Waits until the store has handled every save and delete, which it does in turn before a query
+    private static void awaitStore(MemoryModelStore<Todo> store) throws InterruptedException {
+        CountDownLatch queried = new CountDownLatch(1);
+        store.query(Where.matchesAll(), results -> queried.countDown(), failure -> queried.countDown());
+        await(queried);
+    }
+
+    private static void logFailure(Exception failure) {
+        Log.e(TAG, "Store operation failed", failure);
+    }
+
+    private static void report(Bundle results, String name, long value) {
+        Log.i(TAG, name + ": " + value);
+        results.putLong(name, value);
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue("Timed out", latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    // Counts the frames drawn while it runs, on the main thread
+    private static final class FrameCounter implements Choreographer.FrameCallback {
+        int count = 0;
+        private boolean running = false;
+
+        void start() {
+            running = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void stop() {
+            running = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            count++;
+            if (running) {
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+    }
+
+    // Stands in for TodoListActivity as the adapter's UI owner, driven by the test on the main thread
+    private static final class TestOwner implements LifecycleOwner {
+        final LifecycleRegistry lifecycle = new LifecycleRegistry(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return lifecycle;
+        }
+    }
+}
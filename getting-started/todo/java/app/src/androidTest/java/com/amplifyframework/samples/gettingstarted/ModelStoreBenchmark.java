@@ -0,0 +1,243 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+import com.amplifyframework.samples.core.DataStoreModelStore;
+import com.amplifyframework.samples.core.MainApplication;
+import com.amplifyframework.samples.core.MemoryModelStore;
+import com.amplifyframework.samples.core.ModelStore;
+import com.amplifyframework.samples.core.SqliteModelStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Compares the stores ItemAdapter can use, for a table of size Todos: throughput of saving and deleting them all
+// at once, latency of one save or delete waited on before the next, and latency of the queries the list runs.
+// Results are logged under ModelStoreBenchmark and reported as instrumentation status.
+// DataStore queues every save to sync, so run it against a sandbox backend; its 100k run takes several minutes.
+@RunWith(Parameterized.class)
+public class ModelStoreBenchmark {
+    private static final String TAG = "ModelStoreBenchmark";
+    private static final int SAMPLES = 100; // Operations timed one at a time
+    private static final long TIMEOUT_MINUTES = 30;
+
+    @Parameterized.Parameters(name = "{0} {1}")
+    public static Collection<Object[]> stores() {
+        List<Object[]> stores = new ArrayList<>();
+        for (int size : new int[] {10000, 100000}) {
+            for (String store : new String[] {"Memory", "Sqlite", "DataStore"}) {
+                stores.add(new Object[] {store, size});
+            }
+        }
+        return stores;
+    }
+
+    private final String storeName;
+    private final int size;
+    private ModelStore<Todo> store;
+    private List<Todo> todos;
+
+    public ModelStoreBenchmark(String storeName, int size) {
+        this.storeName = storeName;
+        this.size = size;
+    }
+
+    @Before
+    public void openStore() throws InterruptedException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        if (storeName.equals("Memory")) {
+            store = new MemoryModelStore<>(TodoCodec.table());
+        } else if (storeName.equals("Sqlite")) {
+            context.deleteDatabase(databaseName());
+            store = new SqliteModelStore<>(context, databaseName(), TodoCodec.table());
+        } else {
+            CountDownLatch ready = new CountDownLatch(1);
+            InstrumentationRegistry.getInstrumentation()
+                    .runOnMainSync(() -> MainApplication.whenReady(ready::countDown));
+            await(ready);
+            clearDataStore();
+            store = new DataStoreModelStore<>(Todo.class);
+        }
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(Todo.builder()
+                    .name("Task " + i)
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .completedAt(i % 4 == 3 ? new Temporal.DateTime(new Date(i * 1000L), 0) : null)
+                    .rank((double) i)
+                    .build());
+        }
+    }
+
+    @After
+    public void closeStore() throws InterruptedException {
+        if (store instanceof SqliteModelStore) {
+            ((SqliteModelStore<Todo>) store).close();
+            InstrumentationRegistry.getInstrumentation().getTargetContext().deleteDatabase(databaseName());
+        } else if (store instanceof DataStoreModelStore) {
+            clearDataStore();
+        }
+    }
+
+    @Test
+    public void compareStores() throws InterruptedException {
+        Bundle results = new Bundle();
+        long start = SystemClock.elapsedRealtimeNanos();
+        saveAll(todos);
+        report(results, "saveAllPerSecond", size * 1e9 / (SystemClock.elapsedRealtimeNanos() - start));
+
+        List<Todo> updated = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            updated.add(todos.get(i).copyOfBuilder().name("Renamed " + i).build());
+        }
+        report(results, "saveOneMicros", timeEach(updated, true));
+
+        TodoQuery created = new TodoQuery(TodoQuery.SortBy.CREATED, TodoItemAdapter.SortOrder.ASCENDING);
+        TodoQuery priority = new TodoQuery(TodoQuery.SortBy.PRIORITY, TodoItemAdapter.SortOrder.DESCENDING);
+        TodoQuery manual = new TodoQuery(TodoQuery.SortBy.MANUAL, TodoItemAdapter.SortOrder.ASCENDING);
+        assertEquals(size - size / 4, count(created.build()));
+        report(results, "queryActiveByCreatedMicros", timeQueries(created.build()));
+        report(results, "queryActiveByPriorityMicros", timeQueries(priority.build()));
+        report(results, "queryActiveByRankMicros", timeQueries(manual.build()));
+        report(results, "queryCompletedPageMicros",
+                timeQueries(Arrays.asList(created.buildCompletedPage(0, 0), created.buildCompletedPage(0, 10))));
+
+        report(results, "deleteOneMicros", timeEach(todos.subList(0, SAMPLES), false));
+        start = SystemClock.elapsedRealtimeNanos();
+        deleteAll(todos.subList(SAMPLES, size));
+        report(results, "deleteAllPerSecond", (size - SAMPLES) * 1e9 / (SystemClock.elapsedRealtimeNanos() - start));
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    // Saves every model at once, returning when the last save has finished
+    private void saveAll(List<Todo> models) throws InterruptedException {
+        CountDownLatch saved = new CountDownLatch(models.size());
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (Todo todo : models) {
+            store.save(todo, done -> saved.countDown(), error -> failAll(failure, error, saved));
+        }
+        await(saved);
+        assertNoFailure(failure);
+    }
+
+    // Deletes every model at once, returning when the last delete has finished
+    private void deleteAll(List<Todo> models) throws InterruptedException {
+        CountDownLatch deleted = new CountDownLatch(models.size());
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (Todo todo : models) {
+            store.delete(todo, done -> deleted.countDown(), error -> failAll(failure, error, deleted));
+        }
+        await(deleted);
+        assertNoFailure(failure);
+    }
+
+    // Saves or deletes each model after the last has finished, returning the mean time for one in microseconds
+    private double timeEach(List<Todo> models, boolean save) throws InterruptedException {
+        long total = 0;
+        for (Todo todo : models) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            if (save) {
+                saveAll(Collections.singletonList(todo));
+            } else {
+                deleteAll(Collections.singletonList(todo));
+            }
+            total += SystemClock.elapsedRealtimeNanos() - start;
+        }
+        return total / 1e3 / models.size();
+    }
+
+    // Runs the queries one after another and reads every result, as the list does when it loads,
+    // returning the median time to run them all in microseconds
+    private double timeQueries(List<QueryOptions> queries) throws InterruptedException {
+        long[] samples = new long[9];
+        for (int i = 0; i < samples.length; i++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            count(queries);
+            samples[i] = SystemClock.elapsedRealtimeNanos() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2] / 1e3;
+    }
+
+    // Runs the queries one after another, returning the number of models read
+    private int count(List<QueryOptions> queries) throws InterruptedException {
+        int count = 0;
+        for (QueryOptions query : queries) {
+            CountDownLatch read = new CountDownLatch(1);
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            int[] rows = new int[1];
+            store.query(query, results -> {
+                while (results.hasNext()) {
+                    results.next();
+                    rows[0]++;
+                }
+                read.countDown();
+            }, error -> failAll(failure, error, read));
+            await(read);
+            assertNoFailure(failure);
+            count += rows[0];
+        }
+        return count;
+    }
+
+    private void clearDataStore() throws InterruptedException {
+        CountDownLatch cleared = new CountDownLatch(1);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Amplify.DataStore.clear(cleared::countDown, error -> failAll(failure, error, cleared));
+        await(cleared);
+        assertNoFailure(failure);
+    }
+
+    private String databaseName() {
+        return "benchmark-" + size + ".db";
+    }
+
+    private void report(Bundle results, String name, double value) {
+        Log.i(TAG, storeName + " " + size + " " + name + ": " + String.format("%.1f", value));
+        results.putDouble(storeName + "_" + size + "_" + name, value);
+    }
+
+    // Keeps the first failure and releases whoever waits on latch, so the test fails rather than times out
+    private static void failAll(AtomicReference<Exception> failure, Exception error, CountDownLatch latch) {
+        failure.compareAndSet(null, error);
+        while (latch.getCount() > 0) {
+            latch.countDown();
+        }
+    }
+
+    private static void assertNoFailure(AtomicReference<Exception> failure) {
+        if (failure.get() != null) {
+            throw new AssertionError("Store operation failed", failure.get());
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue("Timed out", latch.await(TIMEOUT_MINUTES, TimeUnit.MINUTES));
+    }
+}
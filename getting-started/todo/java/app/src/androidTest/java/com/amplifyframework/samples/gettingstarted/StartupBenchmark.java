@@ -0,0 +1,206 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+import com.amplifyframework.samples.core.MainApplication;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertTrue;
+
+// Times launching TodoListActivity without a startup snapshot, from the launch to its first frame and to the frame
+// that first shows the loaded list of ROWS Todos, the point at which it reports itself fully drawn.
+// The first frame must not wait for the list, so it is checked to come no later than the loaded one.
+// The instrumented process has already configured Amplify, so this covers the activity's own startup; a cold start
+// also configures Amplify in the background, which README.md describes how to measure with am start.
+// Results are logged under StartupBenchmark and reported as instrumentation status.
+// The benchmark replaces every Todo in DataStore, so run it against a sandbox backend.
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+    private static final String TAG = "StartupBenchmark";
+    private static final int ROWS = 1000;
+    private static final int SAMPLES = 15;
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private final Application application = ApplicationProvider.getApplicationContext();
+
+    @Before
+    public void seedDataStore() throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(1);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> MainApplication.whenReady(ready::countDown));
+        await(ready);
+        clearDataStore();
+        CountDownLatch saved = new CountDownLatch(ROWS);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (int i = 0; i < ROWS; i++) {
+            Todo todo = Todo.builder()
+                    .name("Task " + i)
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .completedAt(null)
+                    .rank((double) i)
+                    .build();
+            Amplify.DataStore.save(todo, done -> saved.countDown(), error -> failAll(failure, error, saved));
+        }
+        await(saved);
+        assertNoFailure(failure);
+    }
+
+    @After
+    public void clear() throws InterruptedException {
+        TodoListActivity.startupSnapshotFile(application).delete();
+        clearDataStore();
+    }
+
+    @Test
+    public void timeToFirstFrameAndLoadedList() throws InterruptedException {
+        long[] firstFrame = new long[SAMPLES];
+        long[] loadedList = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            TodoListActivity.startupSnapshotFile(application).delete(); // Written as each launch stops
+            long[] times = launch();
+            firstFrame[i] = times[0];
+            loadedList[i] = times[1];
+            assertTrue("The first frame waited for the list", firstFrame[i] <= loadedList[i]);
+        }
+        Bundle results = new Bundle();
+        report(results, "firstFrameMillis", median(firstFrame));
+        report(results, "loadedListMillis", median(loadedList));
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    // Launches the activity and returns the milliseconds until its first frame and until the first frame drawn
+    // with every row loaded, then closes it
+    private long[] launch() throws InterruptedException {
+        CountDownLatch loaded = new CountDownLatch(1);
+        long[] times = {-1, -1};
+        long[] start = new long[1];
+        Application.ActivityLifecycleCallbacks callbacks = new ActivityStartedCallbacks(activity -> {
+            View content = activity.findViewById(android.R.id.content);
+            RecyclerView recyclerView = activity.findViewById(R.id.recycler_view);
+            content.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+                @Override
+                public void onDraw() {
+                    long now = SystemClock.uptimeMillis();
+                    if (times[0] == -1) {
+                        times[0] = now - start[0];
+                    }
+                    if (loaded.getCount() > 0 && recyclerView.getAdapter().getItemCount() >= ROWS) {
+                        times[1] = now - start[0];
+                        loaded.countDown();
+                        content.post(() -> content.getViewTreeObserver().removeOnDrawListener(this));
+                    }
+                }
+            });
+        });
+        application.registerActivityLifecycleCallbacks(callbacks);
+        start[0] = SystemClock.uptimeMillis();
+        try (ActivityScenario<TodoListActivity> scenario = ActivityScenario.launch(TodoListActivity.class)) {
+            await(loaded);
+        } finally {
+            application.unregisterActivityLifecycleCallbacks(callbacks);
+        }
+        return times;
+    }
+
+    // Calls onStarted as each TodoListActivity starts, after onCreate has set up its list and before its first frame
+    private static final class ActivityStartedCallbacks implements Application.ActivityLifecycleCallbacks {
+        private final Consumer<Activity> onStarted;
+
+        ActivityStartedCallbacks(Consumer<Activity> onStarted) {
+            this.onStarted = onStarted;
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+            if (activity instanceof TodoListActivity) {
+                onStarted.accept(activity);
+            }
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+        }
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private void clearDataStore() throws InterruptedException {
+        CountDownLatch cleared = new CountDownLatch(1);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Amplify.DataStore.clear(cleared::countDown, error -> failAll(failure, error, cleared));
+        await(cleared);
+        assertNoFailure(failure);
+    }
+
+    private static void report(Bundle results, String name, long value) {
+        Log.i(TAG, ROWS + " " + name + ": " + value);
+        results.putLong(ROWS + "_" + name, value);
+    }
+
+    // Keeps the first failure and releases whoever waits on latch, so the test fails rather than times out
+    private static void failAll(AtomicReference<Exception> failure, Exception error, CountDownLatch latch) {
+        failure.compareAndSet(null, error);
+        while (latch.getCount() > 0) {
+            latch.countDown();
+        }
+    }
+
+    private static void assertNoFailure(AtomicReference<Exception> failure) {
+        if (failure.get() != null) {
+            throw new AssertionError("DataStore operation failed", failure.get());
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue("Timed out", latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,213 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+import com.amplifyframework.samples.core.MainApplication;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertTrue;
+
+// Compares the time from launching TodoListActivity to the first frame that shows a row, with the startup snapshot
+// kept by the last launch and without it, for a list of ROWS Todos.
+// The instrumented process has already configured Amplify, so the launches without the snapshot only wait for
+// the DataStore query; on a cold start they also wait for Amplify to configure, which the snapshot does not.
+// Results are logged under StartupSnapshotBenchmark and reported as instrumentation status.
+// The benchmark replaces every Todo in DataStore, so run it against a sandbox backend.
+@RunWith(AndroidJUnit4.class)
+public class StartupSnapshotBenchmark {
+    private static final String TAG = "StartupSnapshotBenchmark";
+    private static final int ROWS = 1000;
+    private static final int SAMPLES = 15; // Launches timed each way
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private final Application application = ApplicationProvider.getApplicationContext();
+    private final File snapshotFile = TodoListActivity.startupSnapshotFile(application);
+
+    @Before
+    public void seedDataStore() throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(1);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> MainApplication.whenReady(ready::countDown));
+        await(ready);
+        clearDataStore();
+        CountDownLatch saved = new CountDownLatch(ROWS);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (int i = 0; i < ROWS; i++) {
+            Todo todo = Todo.builder()
+                    .name("Task " + i)
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .completedAt(null)
+                    .rank((double) i)
+                    .build();
+            Amplify.DataStore.save(todo, done -> saved.countDown(), error -> failAll(failure, error, saved));
+        }
+        await(saved);
+        assertNoFailure(failure);
+    }
+
+    @After
+    public void clearSnapshot() throws InterruptedException {
+        snapshotFile.delete();
+        clearDataStore();
+    }
+
+    @Test
+    public void compareTimeToFirstRow() throws InterruptedException {
+        timeToFirstRow(); // Loads the list once, which keeps the snapshot as the activity stops
+        assertTrue("No startup snapshot was written", snapshotFile.isFile());
+        long[] withSnapshot = new long[SAMPLES];
+        long[] withoutSnapshot = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            withSnapshot[i] = timeToFirstRow();
+            snapshotFile.delete(); // Written again as each launch stops, so deleted before every launch without it
+            withoutSnapshot[i] = timeToFirstRow();
+        }
+        Bundle results = new Bundle();
+        report(results, "firstRowWithSnapshotMillis", median(withSnapshot));
+        report(results, "firstRowWithoutSnapshotMillis", median(withoutSnapshot));
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    // Launches the activity and returns the milliseconds until a frame with at least one row has been drawn,
+    // closing it again once the whole list has loaded
+    private long timeToFirstRow() throws InterruptedException {
+        CountDownLatch drawn = new CountDownLatch(1);
+        long[] drawnAt = new long[1];
+        Application.ActivityLifecycleCallbacks callbacks = new ActivityStartedCallbacks(activity -> {
+            RecyclerView recyclerView = activity.findViewById(R.id.recycler_view);
+            recyclerView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+                @Override
+                public void onDraw() {
+                    if (drawn.getCount() > 0 && recyclerView.getChildCount() > 0) {
+                        drawnAt[0] = SystemClock.uptimeMillis();
+                        drawn.countDown();
+                        recyclerView.post(() -> recyclerView.getViewTreeObserver().removeOnDrawListener(this));
+                    }
+                }
+            });
+        });
+        application.registerActivityLifecycleCallbacks(callbacks);
+        long start = SystemClock.uptimeMillis();
+        try (ActivityScenario<TodoListActivity> scenario = ActivityScenario.launch(TodoListActivity.class)) {
+            await(drawn);
+            awaitLoaded(scenario);
+        } finally {
+            application.unregisterActivityLifecycleCallbacks(callbacks);
+        }
+        return drawnAt[0] - start;
+    }
+
+    // Waits until the activity's list holds every row from DataStore, so each launch stops with the same list
+    private static void awaitLoaded(ActivityScenario<TodoListActivity> scenario) throws InterruptedException {
+        long deadline = SystemClock.uptimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        int[] count = new int[1];
+        do {
+            SystemClock.sleep(10);
+            scenario.onActivity(activity -> count[0] = ((RecyclerView) activity.findViewById(R.id.recycler_view))
+                    .getAdapter().getItemCount());
+        } while (count[0] < ROWS && SystemClock.uptimeMillis() < deadline);
+        assertTrue("Timed out loading the list", count[0] >= ROWS);
+    }
+
+    // Calls onStarted as each TodoListActivity starts, after onCreate has set up its list and before its first frame
+    private static final class ActivityStartedCallbacks implements Application.ActivityLifecycleCallbacks {
+        private final Consumer<Activity> onStarted;
+
+        ActivityStartedCallbacks(Consumer<Activity> onStarted) {
+            this.onStarted = onStarted;
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+            if (activity instanceof TodoListActivity) {
+                onStarted.accept(activity);
+            }
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+        }
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private void clearDataStore() throws InterruptedException {
+        CountDownLatch cleared = new CountDownLatch(1);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Amplify.DataStore.clear(cleared::countDown, error -> failAll(failure, error, cleared));
+        await(cleared);
+        assertNoFailure(failure);
+    }
+
+    private static void report(Bundle results, String name, long value) {
+        Log.i(TAG, ROWS + " " + name + ": " + value);
+        results.putLong(ROWS + "_" + name, value);
+    }
+
+    // Keeps the first failure and releases whoever waits on latch, so the test fails rather than times out
+    private static void failAll(AtomicReference<Exception> failure, Exception error, CountDownLatch latch) {
+        failure.compareAndSet(null, error);
+        while (latch.getCount() > 0) {
+            latch.countDown();
+        }
+    }
+
+    private static void assertNoFailure(AtomicReference<Exception> failure) {
+        if (failure.get() != null) {
+            throw new AssertionError("DataStore operation failed", failure.get());
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue("Timed out", latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,52 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.os.SystemClock;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class TodoListActivityLeakTest {
+    private static final int ROTATIONS = 20;
+    private static final long GC_TIMEOUT_MILLIS = 10000;
+
+    // Recreates the activity as a rotation would, then checks no destroyed activity is still reachable
+    @Test
+    public void rotatingDoesNotRetainDestroyedActivities() {
+        List<WeakReference<TodoListActivity>> destroyed = new ArrayList<>();
+        try (ActivityScenario<TodoListActivity> scenario = ActivityScenario.launch(TodoListActivity.class)) {
+            for (int i = 0; i < ROTATIONS; i++) {
+                scenario.onActivity(activity -> destroyed.add(new WeakReference<>(activity)));
+                scenario.recreate();
+            }
+        }
+        assertEquals(0, countRetained(destroyed));
+    }
+
+    // Returns how many of the references are still reachable after collecting garbage for a while
+    private static int countRetained(List<WeakReference<TodoListActivity>> references) {
+        long deadline = SystemClock.uptimeMillis() + GC_TIMEOUT_MILLIS;
+        int retained;
+        do {
+            Runtime.getRuntime().gc();
+            System.runFinalization();
+            SystemClock.sleep(100);
+            retained = 0;
+            for (WeakReference<TodoListActivity> reference : references) {
+                if (reference.get() != null) {
+                    retained++;
+                }
+            }
+        } while (retained > 0 && SystemClock.uptimeMillis() < deadline);
+        return retained;
+    }
+}
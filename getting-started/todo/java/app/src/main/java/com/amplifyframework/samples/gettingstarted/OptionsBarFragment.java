@@ -23,23 +23,23 @@ import org.jetbrains.annotations.NotNull;
 public class OptionsBarFragment extends BottomSheetDialogFragment implements View.OnClickListener {
 
     private static final String IS_NEW_ITEM = "IsNewItem";
-    private static final String POSITION = "Position";
+    private static final String ITEM_ID = "ItemId";
     private static final String ITEM_ADAPTER = "ItemAdapter";
     private static final String ITEM_TEXT = "ItemText";
     private static final String PRIORITY = "Priority";
     private View sheetView;
     private TodoItemAdapter itemAdapter;
-    private int position;
+    private String id; // Id of the Todo being edited, null for a new one
     private boolean isNewItem;
     private Priority priority;
     private ImageButton saveBtn;
     private RadioGroup priorityRadioGroup;
     private EditText textBox;
 
-    public OptionsBarFragment(TodoItemAdapter itemAdapter, boolean isNewItem, int position, String text, Priority priority) {
+    public OptionsBarFragment(TodoItemAdapter itemAdapter, boolean isNewItem, String id, String text, Priority priority) {
         Bundle b = new Bundle();
         b.putBoolean(IS_NEW_ITEM, isNewItem);
-        b.putInt(POSITION, position);
+        b.putString(ITEM_ID, id);
         b.putSerializable(ITEM_ADAPTER, itemAdapter);
         b.putString(ITEM_TEXT, text);
         b.putSerializable(PRIORITY, priority);
@@ -62,7 +62,7 @@ public class OptionsBarFragment extends BottomSheetDialogFragment implements Vie
         Bundle b = getArguments();
         if (b != null) {
             itemAdapter = (TodoItemAdapter) b.getSerializable(ITEM_ADAPTER);
-            position = b.getInt(POSITION);
+            id = b.getString(ITEM_ID);
             isNewItem = b.getBoolean(IS_NEW_ITEM);
             priority = (Priority) b.getSerializable(PRIORITY);
             String text = b.getString(ITEM_TEXT);
@@ -144,13 +144,21 @@ public class OptionsBarFragment extends BottomSheetDialogFragment implements Vie
             priority = getPriority(sheetView, priorityRadioGroup, priority);
             Todo item = itemAdapter.createModel(todoEntry, priority);
             itemAdapter.addModel(item, true);
-            itemAdapter.notifyItemInserted(itemAdapter.getItemCount() - 1);
+            itemAdapter.submitList();
         } else {
-            Todo item = itemAdapter.getItem(position);
+            Todo item = itemAdapter.getItem(id);
+            if (item == null) {
+                dismiss(); // Deleted while it was being edited
+                return;
+            }
             String todoEntry = textBox.getText().toString();
             priority = getPriority(sheetView, priorityRadioGroup, priority);
-            itemAdapter.setModel(position, itemAdapter.updateModel(item, todoEntry, priority, null));
-            itemAdapter.notifyItemChanged(position);
+            // Editing keeps the task's completion, so it stays in the same section
+            // Saving without changing the name or priority sends nothing and leaves the list as it is
+            Todo updated = itemAdapter.updateModel(item, todoEntry, priority, item.getCompletedAt());
+            if (itemAdapter.setModel(updated)) {
+                itemAdapter.submitList();
+            }
         }
         textBox.getText().clear();
     }
@@ -168,7 +176,7 @@ public class OptionsBarFragment extends BottomSheetDialogFragment implements Vie
         if (isNewItem) {
             dismiss();
         } else {
-            itemAdapter.deleteModel(position);
+            itemAdapter.deleteModel(id);
             textBox.getText().clear();
             isNewItem = true;
             priority = Priority.LOW;
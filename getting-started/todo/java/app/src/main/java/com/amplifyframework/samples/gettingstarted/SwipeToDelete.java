@@ -15,10 +15,13 @@ import org.jetbrains.annotations.NotNull;
 
 public abstract class SwipeToDelete extends ItemTouchHelper.SimpleCallback {
     private final ColorDrawable background;
-    private final int backgroundColor;
     private final Drawable deleteIcon;
     private int inHeight = 0;
     private int inWidth = 0;
+    // Row bounds the delete icon was last placed for, the icon only moves when the row does
+    private int iconRowTop = -1;
+    private int iconRowBottom = -1;
+    private int iconRowRight = -1;
 
     public boolean onMove(
             @NotNull RecyclerView recyclerView,
@@ -36,9 +39,7 @@ public abstract class SwipeToDelete extends ItemTouchHelper.SimpleCallback {
             int actionState,
             boolean isCurrentlyActive) {
         View itemView = viewHolder.itemView;
-        int itemHeight = itemView.getBottom() - itemView.getTop();
 
-        this.background.setColor(this.backgroundColor);
         this.background.setBounds(
                 itemView.getRight() + (int) dX,
                 itemView.getTop(),
@@ -46,13 +47,20 @@ public abstract class SwipeToDelete extends ItemTouchHelper.SimpleCallback {
                 itemView.getBottom());
         this.background.draw(c);
 
-        int iconTop = itemView.getTop() + (itemHeight - this.inHeight) / 2;
-        int iconMargin = (itemHeight - this.inHeight) / 2;
-        int iconLeft = itemView.getRight() - iconMargin - this.inWidth;
-        int iconRight = itemView.getRight() - iconMargin;
-        int iconBottom = iconTop + this.inHeight;
-
-        this.deleteIcon.setBounds(iconLeft, iconTop, iconRight, iconBottom);
+        if (itemView.getTop() != this.iconRowTop
+                || itemView.getBottom() != this.iconRowBottom
+                || itemView.getRight() != this.iconRowRight) {
+            this.iconRowTop = itemView.getTop();
+            this.iconRowBottom = itemView.getBottom();
+            this.iconRowRight = itemView.getRight();
+            int itemHeight = itemView.getBottom() - itemView.getTop();
+            int iconTop = itemView.getTop() + (itemHeight - this.inHeight) / 2;
+            int iconMargin = (itemHeight - this.inHeight) / 2;
+            int iconLeft = itemView.getRight() - iconMargin - this.inWidth;
+            int iconRight = itemView.getRight() - iconMargin;
+            int iconBottom = iconTop + this.inHeight;
+            this.deleteIcon.setBounds(iconLeft, iconTop, iconRight, iconBottom);
+        }
         this.deleteIcon.draw(c);
 
         super.onChildDraw(c, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
@@ -60,8 +68,7 @@ public abstract class SwipeToDelete extends ItemTouchHelper.SimpleCallback {
 
     public SwipeToDelete(@NotNull Context context) {
         super(0, ItemTouchHelper.LEFT);
-        this.background = new ColorDrawable();
-        this.backgroundColor = ContextCompat.getColor(context, R.color.red);
+        this.background = new ColorDrawable(ContextCompat.getColor(context, R.color.red));
         this.deleteIcon = ContextCompat.getDrawable(context, R.drawable.ic_baseline_delete_24);
         if (this.deleteIcon != null) {
             this.inHeight = this.deleteIcon.getIntrinsicHeight();
@@ -0,0 +1,275 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+import com.amplifyframework.samples.core.ModelStore;
+import com.amplifyframework.samples.list.ChangeCoalescer;
+import com.amplifyframework.samples.list.ListCounts;
+import com.amplifyframework.samples.list.ListPartition;
+import com.amplifyframework.samples.list.NameIndex;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Counts every Todo by Priority and completion and indexes every name for search, for the whole process
+// The index keeps only each Todo's id and name, so whole Todos are not held for every row ever synced
+// The catalog observes the store from the first time a screen asks for it for as long as the process lives,
+// so a recreated screen finds the counts ready instead of reading every Todo again
+// Every Todo, completed ones included, is read once, but only when count is called: once a screen's first list
+// has loaded, or a search is typed first, so launch reads only the Todos the list shows. The store has no count
+// query and search needs every name, so the read itself cannot be avoided, only kept off the launch path;
+// until it finishes there are no counts and search returns null
+// Observed changes are merged by id and applied once a frame, then handed on to each screen's list
+// Must only be used on the main thread, once Amplify is configured
+final class TodoCatalog {
+    // Told each batch of observed changes, the counts as they change, and asked which Todos are hidden
+    interface Listener extends ListCounts.Listener {
+        // Called once a frame with the changes observed since the last one, merged by id, after they are counted
+        void onChanges(List<ChangeCoalescer.Change<Todo>> batch);
+
+        // Returns true if the Todo is hidden waiting to be deleted, so changes to it are not counted
+        boolean isDeletePending(String id);
+    }
+
+    // What the search index keeps of each Todo, its priority and completion are read back from the counts
+    private static final class IndexedName {
+        final String id;
+        final String name;
+
+        IndexedName(Todo todo) {
+            this.id = todo.getId();
+            this.name = todo.getName();
+        }
+    }
+
+    private static final NameIndex.Keys<IndexedName> NAME_KEYS = new NameIndex.Keys<IndexedName>() {
+        @Override
+        public String idOf(IndexedName item) {
+            return item.id;
+        }
+
+        @Override
+        public String nameOf(IndexedName item) {
+            return item.name;
+        }
+    };
+
+    private static TodoCatalog shared; // Catalog of the store in use, replaced if the store is
+
+    private final ModelStore<Todo> store;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final ChangeCoalescer<Todo> changes = new ChangeCoalescer<>(new TodoItemAdapter.TodoKeys());
+    private final Choreographer.FrameCallback changesTask = frameTimeNanos -> applyChanges();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile Cancelable observation; // Set once observe has started
+    private volatile boolean closed = false;
+    private boolean counting = false; // Set once count has started reading every Todo
+    private ListCounts<Todo> counts; // Null until every Todo has been counted
+    private NameIndex<IndexedName> names; // Set with counts once every Todo has been indexed
+    private final Map<String, Todo> uncounted = new LinkedHashMap<>(); // Changes seen while counting, null for deletes
+
+    private TodoCatalog(ModelStore<Todo> store) {
+        this.store = store;
+    }
+
+    // Returns the catalog of store, starting it the first time it is asked for
+    static TodoCatalog of(ModelStore<Todo> store) {
+        if (shared == null || shared.store != store) {
+            if (shared != null) {
+                shared.close();
+            }
+            shared = new TodoCatalog(store);
+            shared.start();
+        }
+        return shared;
+    }
+
+    // Starts observing ahead of count, so nothing changed during the count is missed
+    private void start() {
+        Choreographer choreographer = Choreographer.getInstance(); // The main thread's, which any thread can post to
+        store.observe(
+                started -> {
+                    observation = started;
+                    if (closed) {
+                        started.cancel();
+                    }
+                    Log.i("MyAmplifyApp", "Observation began.");
+                },
+                (type, todo) -> {
+                    if (changes.add(type, todo)) {
+                        choreographer.postFrameCallback(changesTask);
+                    }
+                },
+                failure -> Log.e("MyAmplifyApp", "Observation failed.", failure)
+        );
+    }
+
+    // Reads every Todo to count it and index its name, the first time it is called
+    void count() {
+        if (counting) {
+            return;
+        }
+        counting = true;
+        store.query(
+                Where.matchesAll(),
+                results -> {
+                    ListCounts<Todo> counted =
+                            new ListCounts<>(new TodoItemAdapter.TodoKeys(), Priority.values().length);
+                    NameIndex<IndexedName> indexed = new NameIndex<>(NAME_KEYS);
+                    while (results.hasNext()) {
+                        Todo todo = results.next();
+                        counted.put(todo);
+                        indexed.put(new IndexedName(todo));
+                    }
+                    mainHandler.post(() -> setCounts(counted, indexed));
+                },
+                failure -> Log.e("Tutorial", "Count Failed", failure)
+        );
+    }
+
+    // Stops observing a store that is no longer in use
+    private void close() {
+        closed = true;
+        Cancelable started = observation;
+        if (started != null) {
+            started.cancel();
+        }
+        Choreographer.getInstance().removeFrameCallback(changesTask);
+        listeners.clear();
+    }
+
+    // Takes over the counts and names built by start, applying the changes seen while they were built
+    private void setCounts(ListCounts<Todo> counted, NameIndex<IndexedName> indexed) {
+        if (closed) {
+            return;
+        }
+        for (Map.Entry<String, Todo> change : uncounted.entrySet()) {
+            if (change.getValue() == null) {
+                counted.remove(change.getKey());
+                indexed.remove(change.getKey());
+            } else {
+                counted.put(change.getValue());
+                indexed.put(new IndexedName(change.getValue()));
+            }
+        }
+        uncounted.clear();
+        counts = counted;
+        names = indexed;
+        counts.setListener(current -> {
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onCountsChanged(current);
+            }
+        });
+    }
+
+    // Adds a listener, telling it the counts straight away if they are known
+    void addListener(Listener listener) {
+        listeners.add(listener);
+        if (counts != null) {
+            listener.onCountsChanged(counts);
+        }
+    }
+
+    void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Returns up to limit Todos whose name contains text, ignoring case, the active ones followed by the completed
+    // Returns null until every Todo has been indexed
+    List<TodoSearchAdapter.Result> search(String text, int limit) {
+        if (names == null) {
+            return null;
+        }
+        List<TodoSearchAdapter.Result> active = new ArrayList<>();
+        List<TodoSearchAdapter.Result> completed = new ArrayList<>();
+        Priority[] priorities = Priority.values();
+        for (IndexedName found : names.search(text, limit)) {
+            int group = counts.getGroup(found.id);
+            if (group == -1) {
+                continue; // Never counted, so not a Todo that exists
+            }
+            boolean isCompleted = counts.isCompleted(found.id);
+            TodoSearchAdapter.Result result =
+                    new TodoSearchAdapter.Result(found.id, found.name, priorities[group], isCompleted);
+            (isCompleted ? completed : active).add(result);
+        }
+        active.addAll(completed);
+        return active;
+    }
+
+    // Counts and indexes a created or updated Todo
+    void put(Todo todo) {
+        if (counts != null) {
+            counts.put(todo);
+            names.put(new IndexedName(todo));
+        } else {
+            uncounted.put(todo.getId(), todo);
+        }
+    }
+
+    // Counts and indexes a batch of Todos, telling listeners the counts once
+    void putAll(List<Todo> batch) {
+        if (counts != null) {
+            counts.putAll(batch);
+            for (Todo todo : batch) {
+                names.put(new IndexedName(todo));
+            }
+        } else {
+            for (Todo todo : batch) {
+                uncounted.put(todo.getId(), todo);
+            }
+        }
+    }
+
+    // Stops counting and indexing a deleted Todo
+    void remove(String id) {
+        if (counts != null) {
+            counts.remove(id);
+            names.remove(id);
+        } else {
+            uncounted.put(id, null);
+        }
+    }
+
+    // Counts the changes observed since the last frame, then hands them to every listener
+    private void applyChanges() {
+        List<ChangeCoalescer.Change<Todo>> batch = changes.drain();
+        for (ChangeCoalescer.Change<Todo> change : batch) {
+            Todo todo = change.getItem();
+            if (isDeletePending(todo.getId())) {
+                continue;
+            }
+            if (change.getType() == ListPartition.ChangeType.DELETE) {
+                remove(todo.getId());
+            } else {
+                put(todo);
+            }
+        }
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onChanges(batch);
+        }
+    }
+
+    private boolean isDeletePending(String id) {
+        for (Listener listener : listeners) {
+            if (listener.isDeletePending(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the number of observed changes merged into a later change to the same Todo and never applied
+    long getMergedChangeCount() {
+        return changes.getMergedCount();
+    }
+}
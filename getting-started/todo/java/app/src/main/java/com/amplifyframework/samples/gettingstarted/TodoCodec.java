@@ -0,0 +1,66 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+import com.amplifyframework.samples.core.ModelTable;
+import com.amplifyframework.samples.list.ModelCodec;
+
+import java.util.Locale;
+import java.util.UUID;
+
+// Converts Todos to and from the records of import and export files
+// An exported file imports back onto the same Todos, while records from other tools, whose ids are not
+// UUIDs and which may leave out everything but a name, become new Todos
+public final class TodoCodec implements ModelCodec<Todo> {
+    private static final String[] FIELDS = {"id", "name", "priority", "completedAt", "rank"};
+
+    // Returns the table Todos are kept in by the stores that keep them outside DataStore
+    public static ModelTable<Todo> table() {
+        return new ModelTable<>("Todo", new TodoCodec(), ModelTable.ColumnType.TEXT, ModelTable.ColumnType.TEXT,
+                ModelTable.ColumnType.TEXT, ModelTable.ColumnType.TEXT, ModelTable.ColumnType.REAL);
+    }
+
+    @Override
+    public String[] getFields() {
+        return FIELDS.clone();
+    }
+
+    @Override
+    public void encode(Todo todo, String[] values) {
+        values[0] = todo.getId();
+        values[1] = todo.getName();
+        values[2] = todo.getPriority().name();
+        values[3] = todo.getCompletedAt() == null ? null : todo.getCompletedAt().format();
+        values[4] = todo.getRank() == null ? null : todo.getRank().toString();
+    }
+
+    @Override
+    public Todo decode(String[] values) {
+        Todo.BuildStep builder = Todo.builder()
+                .name(values[1] == null ? "" : values[1])
+                .priority(values[2] == null ? Priority.LOW : Priority.valueOf(values[2].trim().toUpperCase(Locale.ROOT)))
+                .completedAt(isBlank(values[3]) ? null : new Temporal.DateTime(values[3].trim()))
+                .rank(isBlank(values[4]) ? null : Double.valueOf(values[4]));
+        if (isUuid(values[0])) {
+            builder.id(values[0]);
+        }
+        return builder.build();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    // Returns true if value is a UUID written out in full, the only ids Todos can be saved with
+    private static boolean isUuid(String value) {
+        if (value == null) {
+            return false;
+        }
+        try {
+            return UUID.fromString(value).toString().equalsIgnoreCase(value);
+        } catch (IllegalArgumentException notUuid) {
+            return false;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.amplifyframework.samples.gettingstarted;
 
-import android.app.Activity;
+import android.content.Context;
 import android.content.res.ColorStateList;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.Log;
 import android.view.View;
 import android.view.View.OnClickListener;
@@ -9,53 +12,296 @@ import android.widget.CheckBox;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.appcompat.widget.AppCompatCheckBox;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.RecyclerView.ViewHolder;
 
-import com.amplifyframework.core.Amplify;
-import com.amplifyframework.core.model.query.QuerySortBy;
-import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.model.query.QueryOptions;
 import com.amplifyframework.core.model.temporal.Temporal;
 import com.amplifyframework.datastore.generated.model.Priority;
 import com.amplifyframework.datastore.generated.model.Todo;
+import com.amplifyframework.samples.core.DataStoreModelStore;
 import com.amplifyframework.samples.core.ItemAdapter;
-
+import com.amplifyframework.samples.core.MainApplication;
+import com.amplifyframework.samples.core.ModelStore;
+import com.amplifyframework.samples.list.ChangeCoalescer;
+import com.amplifyframework.samples.list.IdList;
+import com.amplifyframework.samples.list.ListCounts;
+import com.amplifyframework.samples.list.ListPartition;
+import com.amplifyframework.samples.list.ListSnapshotFile;
+import com.amplifyframework.samples.list.Ranks;
+
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class TodoItemAdapter extends ItemAdapter<Todo> implements Serializable {
-    private final List<Todo> completedItems;
+    private final Map<Priority, ColorStateList> priorityTints = new EnumMap<>(Priority.class); // Built on first bind
+    private final ListPartition<Todo> partition = new ListPartition<>(new TodoKeys()); // Tracks completed items
     private final TodoItemAdapter.OnItemClickListener listener;
-
-    // Reacts dynamically to updates of data to the underlying Storage Engine
+    private static final TodoQuery LAUNCH_QUERY = new TodoQuery(TodoQuery.SortBy.CREATED, SortOrder.ASCENDING);
+    private TodoQuery currentQuery = LAUNCH_QUERY;
+    private boolean completedShown = false; // Whether the completed section is attached and paged in as it scrolls
+    private boolean loading = true; // Whether the current list is still loading, and so can't be cached
+    private int completedSegment = 0; // Segment of completed items the next page is read from
+    private int completedPage = 0; // Next page to read within completedSegment
+    private boolean loadingCompleted = false; // Whether a page of completed items is being read
+    private Runnable onListLoaded;
+    // Shared by every screen using DataStore, so they also share one TodoCatalog
+    private static final ModelStore<Todo> dataStore = new DataStoreModelStore<>(Todo.class);
+    private TodoCatalog catalog; // Set once observing
+    private boolean listLoaded = false; // Whether a list has finished loading, after which the catalog may count
+    private final TodoCatalog.Listener catalogListener = new CatalogListener();
+    private int changeBatchCount = 0; // Batches of changes applied, at most one a frame
+    private Double highestRank; // Highest rank seen, new items are ranked after it
+    private String movedId; // Item being dragged, ranked once it is dropped
+    private ListCounts<?> counts; // Counts by Priority and completion, null until every Todo has been counted
+    private ListCounts.Listener countsListener;
+    private static final long SEARCH_DELAY_MILLIS = 150; // Typing pause after which a search runs
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchTask = this::runSearch;
+    private String searchText = ""; // Text being searched for, empty when not searching
+    private SearchListener searchListener;
+    private boolean rebalanceQueued = false;
+    private final MessageQueue.IdleHandler rebalanceTask = this::rebalance;
+    private static final int MAX_SNAPSHOTS = 4; // Sort modes kept warm at once
+    private static final int MAX_SNAPSHOT_ITEMS = 20000; // Rows kept across all snapshots
+    // Changes in one batch past which the snapshots are dropped rather than patched, as re-querying is cheaper
+    private static final int MAX_PATCHED_CHANGES = 100;
+    // Change payload flags, one for each part of a row that can be rebound on its own
+    private static final int CHANGED_NAME = 1;
+    private static final int CHANGED_PRIORITY = 1 << 1;
+    private static final int CHANGED_COMPLETED = 1 << 2;
+    // Loaded lists keyed by sort mode, least recently used first
+    private final LinkedHashMap<TodoQuery, Snapshot> snapshots = new LinkedHashMap<>(MAX_SNAPSHOTS, 0.75f, true);
+    private int snapshotItemCount = 0;
+    private static final int MAX_STARTUP_ROWS = 500; // Active rows kept for the next launch, more than fill a screen
+    private static final long STARTUP_WRITE_DELAY_MILLIS = 1000; // How long list changes are merged into one write
+    private static final String STARTUP_KEY = LAUNCH_QUERY.getSortBy() + " " + LAUNCH_QUERY.getSortOrder();
+    // Writes the rows for the next launch, shared by every adapter so recreated screens add no threads
+    private static final ScheduledExecutorService startupWriter = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "StartupSnapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ListSnapshotFile<Todo> startupSnapshot; // Rows shown at launch, null until restoreStartupSnapshot
+    private final AtomicReference<List<Todo>> unwrittenRows = new AtomicReference<>(); // Next rows to write
+    private boolean showingStartupRows = false; // Whether the list still holds the rows restored at launch
+    private List<Todo> reconciled; // Loaded rows waiting to replace the startup rows, null when not reconciling
+    private final Map<String, Todo> changedWhileReconciling = new LinkedHashMap<>(); // Null for deletes
+
+    // Reacts dynamically to updates of data to the underlying Storage Engine once Amplify is configured,
+    // until the UI owner is destroyed
+    // Changes and counts come from the process's TodoCatalog, which reads every Todo only once
     public void observe() {
-        Amplify.DataStore.observe(Todo.class,
-                started -> Log.i("MyAmplifyApp", "Observation began."),
-                change -> Log.i("MyAmplifyApp", change.item().toString()),
-                failure -> Log.e("MyAmplifyApp", "Observation failed.", failure),
-                () -> Log.i("MyAmplifyApp", "Observation complete.")
-        );
+        MainApplication.whenReady(() -> {
+            if (!isBound()) {
+                return;
+            }
+            catalog = TodoCatalog.of(getStore());
+            catalog.addListener(catalogListener);
+            countOnceLoaded();
+        });
+    }
+
+    // Lets the catalog read every Todo once the first list has loaded, so that read does not hold the list up
+    private void countOnceLoaded() {
+        if (catalog != null && listLoaded) {
+            catalog.count();
+        }
+    }
+
+    // Sets the listener told the counts by Priority and completion each time they change, once they are known
+    // Groups are numbered by Priority.ordinal()
+    public void setOnCountsChanged(ListCounts.Listener listener) {
+        countsListener = listener;
+        if (counts != null && listener != null) {
+            listener.onCountsChanged(counts);
+        }
+    }
+
+    // Receives this screen's share of the catalog: observed changes, counts and which Todos it has hidden
+    private final class CatalogListener implements TodoCatalog.Listener {
+        @Override
+        public void onChanges(List<ChangeCoalescer.Change<Todo>> batch) {
+            applyChanges(batch);
+        }
+
+        @Override
+        public void onCountsChanged(ListCounts<?> changed) {
+            boolean first = counts == null;
+            counts = changed;
+            if (countsListener != null) {
+                countsListener.onCountsChanged(changed);
+            }
+            if (first && !searchText.isEmpty()) {
+                runSearch(); // Typed before there was anything to search
+            }
+        }
+
+        @Override
+        public boolean isDeletePending(String id) {
+            return TodoItemAdapter.this.isDeletePending(id);
+        }
+    }
+
+    // Counts and indexes a created or updated Todo
+    private void count(Todo todo) {
+        if (catalog != null) {
+            catalog.put(todo);
+            queueSearch();
+        }
+    }
+
+    // Stops counting and indexing a deleted Todo
+    private void uncount(String id) {
+        if (catalog != null) {
+            catalog.remove(id);
+            queueSearch();
+        }
+    }
+
+    // Searches Todo names for text once it has stopped changing for SEARCH_DELAY_MILLIS, so a search runs
+    // once the user pauses rather than for every key; empty text ends the search
+    // The listener is told the active matches followed by the completed ones, at most MAX_SEARCH_RESULTS of them
+    public void search(String text, SearchListener listener) {
+        searchText = text;
+        searchListener = listener;
+        searchHandler.removeCallbacks(searchTask);
+        if (text.isEmpty()) {
+            listener.onSearchResults(text, new ArrayList<>());
+        } else {
+            searchHandler.postDelayed(searchTask, SEARCH_DELAY_MILLIS);
+        }
+    }
+
+    // Searches again after a change, so the results shown stay current
+    private void queueSearch() {
+        if (!searchText.isEmpty()) {
+            searchHandler.removeCallbacks(searchTask);
+            searchHandler.postDelayed(searchTask, SEARCH_DELAY_MILLIS);
+        }
+    }
+
+    private void runSearch() {
+        if (catalog == null || searchText.isEmpty() || !isBound()) {
+            return;
+        }
+        catalog.count(); // Searching needs every name, even if the list has not loaded yet
+        List<TodoSearchAdapter.Result> results = catalog.search(searchText, MAX_SEARCH_RESULTS);
+        if (results != null) { // Otherwise searched once every name has been indexed
+            searchListener.onSearchResults(searchText, results);
+        }
+    }
+
+    // Stops listening to the catalog once the UI owner is destroyed, so the catalog does not keep this adapter alive
+    @Override
+    protected void onUnbind() {
+        if (catalog != null) {
+            catalog.removeListener(catalogListener);
+            catalog = null;
+        }
+        searchHandler.removeCallbacks(searchTask);
+    }
+
+    // Sets an action to run each time a sort mode has finished loading its list
+    public void setOnListLoaded(Runnable onListLoaded) {
+        this.onListLoaded = onListLoaded;
+    }
+
+    // Applies the changes observed since the last frame, merged by id, and publishes the list once for all of them
+    // A burst of hundreds of changes a second, as during the first sync, then costs one diff and layout a frame
+    // The catalog has already counted and indexed them
+    private void applyChanges(List<ChangeCoalescer.Change<Todo>> batch) {
+        if (!isBound()) {
+            return;
+        }
+        if (batch.size() > MAX_PATCHED_CHANGES) {
+            clearSnapshots();
+        }
+        boolean applied = false;
+        for (ChangeCoalescer.Change<Todo> change : batch) {
+            applied |= applyChange(change.getType(), change.getItem());
+        }
+        if (applied) {
+            changeBatchCount++;
+            submitList();
+            queueSearch();
+        }
+    }
+
+    // Returns the number of batches of observed changes applied to the list, each published once
+    public int getChangeBatchCount() {
+        return changeBatchCount;
+    }
+
+    // Returns the number of observed changes merged into a later change to the same Todo and never applied
+    public long getMergedChangeCount() {
+        return catalog != null ? catalog.getMergedChangeCount() : 0;
+    }
+
+    // Applies a created, updated or deleted Todo to the active or completed items without re-querying
+    // Returns true if the list was changed, for the caller to publish
+    private boolean applyChange(ListPartition.ChangeType type, Todo todo) {
+        if (isDeletePending(todo.getId())) {
+            return false;
+        }
+        if (type != ListPartition.ChangeType.DELETE && isImportEcho(todo)) {
+            return false; // Added to the list with the rest of its batch
+        }
+        patchSnapshots(type, todo);
+        noteRank(todo);
+        noteReconcileChange(todo.getId(), type == ListPartition.ChangeType.DELETE ? null : todo);
+        partition.apply(getList(), type, todo);
+        return true;
     }
 
     public TodoItemAdapter(OnItemClickListener listener) {
         this.listener = listener;
-        completedItems = new ArrayList<>();
+        setStore(dataStore);
+    }
+
+    // Reads the id, completion state and Priority of a Todo for ListPartition and ListCounts
+    static class TodoKeys implements ListCounts.Keys<Todo> {
+        @Override
+        public String idOf(Todo item) {
+            return item.getId();
+        }
+
+        @Override
+        public boolean isCompleted(Todo item) {
+            return item.getCompletedAt() != null;
+        }
+
+        @Override
+        public int groupOf(Todo item) {
+            return item.getPriority().ordinal();
+        }
     }
 
-    // Creates and returns a model
+    // Creates and returns a model, ranked after every item so the manual sort shows it last
     public Todo createModel(String name, Priority priority) {
+        highestRank = Ranks.between(highestRank, null);
         return Todo.builder()
                 .name(name)
                 .priority(priority)
                 .completedAt(null)
+                .rank(highestRank)
                 .build();
     }
 
@@ -83,200 +329,601 @@ public class TodoItemAdapter extends ItemAdapter<Todo> implements Serializable {
         return new ItemViewHolder(view);
     }
 
-    // A custom query method specifically for TodoItemAdapter class
-    public void query(Boolean showStatus) {
+    // Returns flags for the shown fields that differ, fields that are not shown need no rebind at all
+    @Override
+    public Object getChangePayload(Todo oldItem, Todo newItem) {
+        int changes = 0;
+        if (!oldItem.getName().equals(newItem.getName())) {
+            changes |= CHANGED_NAME;
+        }
+        if (oldItem.getPriority() != newItem.getPriority()) {
+            changes |= CHANGED_PRIORITY;
+        }
+        if ((oldItem.getCompletedAt() == null) != (newItem.getCompletedAt() == null)) {
+            changes |= CHANGED_COMPLETED;
+        }
+        return changes;
+    }
+
+    // Compares the fields this app writes, so an edit that leaves them all as they were is not sent to DataStore
+    @Override
+    protected boolean hasChanges(Todo current, Todo updated) {
+        return !Objects.equals(current.getName(), updated.getName())
+                || current.getPriority() != updated.getPriority()
+                || !Objects.equals(current.getCompletedAt(), updated.getCompletedAt())
+                || !Objects.equals(current.getRank(), updated.getRank());
+    }
+
+    // Reloads the current sort mode from the store
+    @Override
+    public void query() {
+        clearSnapshots();
+        query(currentQuery, false);
+    }
+
+    // Clears the list and fills it from the snapshot for todoQuery if there is one,
+    // otherwise streams in the results of each query built from todoQuery, in order
+    private void query(TodoQuery todoQuery, boolean useSnapshot) {
+        if (useSnapshot && !loading) {
+            // The list being left has been kept current by observe, so it can be reused later
+            putSnapshot(currentQuery);
+        }
+        int generation = startQueryGeneration(); // Stops any query still reading for the list being left
+        Snapshot snapshot = useSnapshot ? snapshots.get(todoQuery) : null;
+        boolean reconciling = snapshot == null && showingStartupRows && todoQuery.equals(currentQuery);
+        currentQuery = todoQuery;
+        changedWhileReconciling.clear();
+        if (reconciling) {
+            reconciled = new ArrayList<>(); // The startup rows stay shown until every query has finished
+        } else {
+            showingStartupRows = false;
+            reconciled = null;
+            clearList();
+        }
+        partition.clear();
+        loadingCompleted = false;
+        if (snapshot != null) {
+            addLoadedItems(snapshot.items);
+            completedSegment = snapshot.completedSegment;
+            completedPage = snapshot.completedPage;
+            partition.setCompletedLoaded(!hasMoreCompleted());
+            loading = false;
+            submitList();
+            loadMoreCompleted();
+        } else {
+            completedSegment = 0;
+            completedPage = 0;
+            partition.setCompletedLoaded(false);
+            loading = true;
+            MainApplication.whenReady(() -> runQueries(generation, todoQuery.build(), 0));
+        }
+    }
+
+    // Runs the query at index and then the ones after it, publishing the list once all have finished
+    // and then reading the first page of completed items if they are shown
+    // The chain stops as soon as a newer query starts, so replaced sort modes cost no further scans
+    private void runQueries(int generation, List<QueryOptions> queries, int index) {
+        if (isStale(generation)) {
+            return;
+        }
+        if (index == queries.size()) {
+            if (reconciled != null) {
+                replaceStartupRows();
+            }
+            loading = false;
+            submitList();
+            listLoaded = true;
+            countOnceLoaded();
+            if (onListLoaded != null) {
+                onListLoaded.run();
+            }
+            loadMoreCompleted();
+            return;
+        }
+        getStore().query(
+                queries.get(index),
+                results -> loadResults(generation, results, () -> runQueries(generation, queries, index + 1)),
+                failure -> Log.e("Tutorial", "Query Failed", failure)
+        );
+    }
+
+    // Streams query results into the list, dropping them if a newer query has started
+    private void loadResults(int generation, Iterator<Todo> results, Action onComplete) {
+        streamResults(
+                generation,
+                results,
+                chunk -> {
+                    if (reconciled != null) {
+                        reconciled.addAll(chunk); // Shown in one go, as the startup rows are replaced
+                        return;
+                    }
+                    addLoadedItems(chunk);
+                    submitList();
+                },
+                onComplete
+        );
+    }
+
+    // Shows the rows the last launch kept in file straight away, until the first query has loaded the real ones
+    // From then on the active rows of the launch sort mode are kept in file for the next launch as they change
+    // Must be called on the main thread before the first query
+    public void restoreStartupSnapshot(File file) {
+        startupSnapshot = new ListSnapshotFile<>(file, new TodoCodec());
+        if (!getList().isEmpty() || !currentQuery.equals(LAUNCH_QUERY)) {
+            return;
+        }
+        List<Todo> rows;
+        try {
+            rows = startupSnapshot.read(STARTUP_KEY);
+        } catch (IOException failure) {
+            Log.w("Tutorial", "Could not read the startup snapshot", failure);
+            return;
+        }
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        addLoadedItems(rows);
+        showingStartupRows = true;
+        submitList();
+    }
+
+    // Swaps the startup rows for the loaded ones, then reapplies the changes seen while they loaded
+    // They are published as one list, so the diff leaves rows that were already right where they are
+    private void replaceStartupRows() {
+        List<Todo> loaded = reconciled;
+        reconciled = null;
+        showingStartupRows = false;
         clearList();
-        completedItems.clear();
-        Amplify.DataStore.query(
-                getModelClass(),
+        partition.clear();
+        addLoadedItems(loaded);
+        for (Map.Entry<String, Todo> change : changedWhileReconciling.entrySet()) {
+            if (change.getValue() != null) {
+                partition.apply(getList(), ListPartition.ChangeType.UPDATE, change.getValue());
+                continue;
+            }
+            int position = partition.indexOf(getList(), change.getKey());
+            if (position != -1) {
+                partition.forget(getList().remove(position));
+            }
+        }
+        changedWhileReconciling.clear();
+        Log.i("Tutorial", "Replaced startup rows with " + getList().size() + " loaded rows");
+    }
+
+    // Remembers a change made to the startup rows, which the loaded rows may be missing, null for a delete
+    private void noteReconcileChange(String id, Todo todo) {
+        if (reconciled != null) {
+            changedWhileReconciling.put(id, todo);
+        }
+    }
+
+    // Queues the active rows of a published list to be written for the next launch if it is in the launch sort mode,
+    // merging the lists published within STARTUP_WRITE_DELAY_MILLIS into one write
+    private void queueStartupSnapshot(List<Todo> published) {
+        if (startupSnapshot == null || loading || !currentQuery.equals(LAUNCH_QUERY)) {
+            return;
+        }
+        List<Todo> rows = published.subList(0, Math.min(getSectionSplit(published), MAX_STARTUP_ROWS));
+        if (unwrittenRows.getAndSet(rows) == null) {
+            startupWriter.schedule(this::writeStartupSnapshot, STARTUP_WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Writes the queued rows for the next launch now, if any are waiting, from any thread
+    public void writeStartupSnapshot() {
+        if (startupSnapshot == null) {
+            return;
+        }
+        synchronized (startupSnapshot) { // Writes finish in the order their rows were taken, so the newest lands last
+            List<Todo> rows = unwrittenRows.getAndSet(null);
+            if (rows == null) {
+                return;
+            }
+            try {
+                startupSnapshot.write(STARTUP_KEY, rows);
+            } catch (IOException failure) {
+                Log.w("Tutorial", "Could not write the startup snapshot", failure);
+            }
+        }
+    }
+
+    // Publishes the list and queues its active rows to be shown on the next launch
+    @Override
+    public void submitList() {
+        super.submitList();
+        queueStartupSnapshot(getSnapshot());
+    }
+
+    // Returns true if some completed items have not been read yet
+    public boolean hasMoreCompleted() {
+        return completedSegment < currentQuery.getCompletedSegmentCount();
+    }
+
+    // Reads the next page of completed items onto the end of the list, if they are shown and any are left to read
+    public void loadMoreCompleted() {
+        if (!completedShown || loading || loadingCompleted || !hasMoreCompleted()) {
+            return;
+        }
+        loadingCompleted = true;
+        int generation = getQueryGeneration();
+        getStore().query(
+                currentQuery.buildCompletedPage(completedSegment, completedPage),
                 results -> {
-                    while (results.hasNext()) {
-                        Todo item = results.next();
-                        if (item.getCompletedAt() == null) {
-                            addModel(item, false);
-                        } else {
-                            completedItems.add(item);
-                        }
-                        Log.i("Tutorial", "Item loaded: " + item.getId());
-                    }
-                    if (!showStatus) {
-                        appendList(completedItems);
-                    }
-                    if (cont instanceof Activity) {
-                        ((Activity) cont).runOnUiThread(this::notifyDataSetChanged);
+                    List<Todo> page = new ArrayList<>(TodoQuery.COMPLETED_PAGE_SIZE);
+                    while (results.hasNext() && !isStale(generation)) {
+                        page.add(results.next());
                     }
+                    runOnUiThread(() -> addCompletedPage(generation, page));
                 },
-                failure -> Log.e("Tutorial", "Query Failed", failure)
+                failure -> {
+                    Log.e("Tutorial", "Query Failed", failure);
+                    runOnUiThread(() -> {
+                        if (!isStale(generation)) {
+                            loadingCompleted = false;
+                        }
+                    });
+                }
         );
     }
 
-    // Sorts list by date created
-    public void sortDateCreated(Boolean showStatus) {
-        query(showStatus);
+    // Adds a page of completed items to the list and moves on to the next page, or the next segment
+    // once a short page shows the current one has been read to the end
+    private void addCompletedPage(int generation, List<Todo> page) {
+        if (isStale(generation)) {
+            return; // The sort mode changed while the page was read
+        }
+        loadingCompleted = false;
+        addLoadedItems(page);
+        submitList();
+        if (page.size() == TodoQuery.COMPLETED_PAGE_SIZE) {
+            completedPage++;
+            return;
+        }
+        completedSegment++;
+        completedPage = 0;
+        partition.setCompletedLoaded(!hasMoreCompleted());
+        loadMoreCompleted();
     }
 
-    public enum SortOrder {
-        ASCENDING, DESCENDING
+    // Adds loaded items to the list, tracking completed items in partition
+    // Items already in the list came from observe or an earlier page and are at least as new as the loaded copy
+    private void addLoadedItems(List<Todo> loaded) {
+        List<Todo> fresh = new ArrayList<>(loaded.size());
+        for (Todo item : loaded) {
+            if (!isDeletePending(item.getId())) {
+                fresh.add(item);
+                noteRank(item);
+            }
+        }
+        partition.addLoaded(getList(), fresh);
     }
 
-    public static class PrioritySorter implements Comparator<Todo> {
-        private final SortOrder sort;
+    // Remembers the highest rank seen, so items created later can be ranked after it
+    private void noteRank(Todo todo) {
+        Double rank = todo.getRank();
+        if (rank != null && (highestRank == null || rank > highestRank)) {
+            highestRank = rank;
+        }
+    }
 
-        public PrioritySorter(SortOrder sort) {
-            this.sort = sort;
+    // Returns true if the row at position can be dragged, only active items in the manual sort can be
+    public boolean canMove(int position) {
+        if (currentQuery.getSortBy() != TodoQuery.SortBy.MANUAL || loading) {
+            return false;
         }
+        Todo todo = getItem(position);
+        return todo != null && todo.getCompletedAt() == null;
+    }
 
-        public int compare(Todo t1, Todo t2) {
-            if (sort == SortOrder.ASCENDING) {
-                return t1.getPriority().compareTo(t2.getPriority());
-            } else if (sort == SortOrder.DESCENDING) {
-                return t2.getPriority().compareTo(t1.getPriority());
-            } else {
-                return 0;
-            }
+    // Moves a dragged row past another as it is dragged over it, nothing is saved until it is dropped
+    // The row moves on screen straight away, so each move starts from where the last one left it
+    public boolean moveItem(int from, int to) {
+        if (!canMove(from) || !canMove(to)) {
+            return false;
+        }
+        movedId = getItem(from).getId();
+        moveShown(from, to);
+        return true;
+    }
+
+    // Ranks a dropped row between its new neighbours and saves only that row
+    // If the neighbours are unranked or too close to split, the list is spread out once the UI is idle instead
+    public void finishMove() {
+        endDrag();
+        int position = movedId == null ? -1 : positionOf(movedId);
+        movedId = null;
+        if (position == -1) {
+            return;
+        }
+        List<Todo> list = getList();
+        Todo moved = list.get(position);
+        Todo before = position > 0 ? list.get(position - 1) : null;
+        Todo after = position + 1 < list.size() && list.get(position + 1).getCompletedAt() == null
+                ? list.get(position + 1)
+                : null;
+        Double beforeRank = before != null ? before.getRank() : null;
+        Double afterRank = after != null ? after.getRank() : null;
+        if ((before != null && beforeRank == null) || (after != null && afterRank == null)
+                || (beforeRank != null && afterRank != null && Ranks.isCrowded(beforeRank, afterRank))) {
+            queueRebalance();
+            return;
+        }
+        Double rank = moved.getRank();
+        if (rank != null && (beforeRank == null || beforeRank < rank) && (afterRank == null || rank < afterRank)) {
+            return; // Dropped back where it already sorts
+        }
+        Todo ranked = moved.copyOfBuilder().rank(Ranks.between(beforeRank, afterRank)).build();
+        noteRank(ranked);
+        setModelAt(position, ranked);
+        submitList();
+    }
+
+    // Spreads the ranks out again the next time the main thread is idle
+    private void queueRebalance() {
+        if (!rebalanceQueued) {
+            rebalanceQueued = true;
+            Looper.myQueue().addIdleHandler(rebalanceTask);
         }
     }
 
-    // Sorts list by priority ascending
-    public void sortPriority(Boolean showStatus, SortOrder sort) {
-        ArrayList<Todo> list = getList();
-        ArrayList<Todo> newList = new ArrayList<>();
-        for (Todo item : list) {
-            if (!completedItems.contains(item)) {
-                newList.add(item);
+    // Gives the active items evenly spread ranks in the order they are shown, saving those whose rank changes
+    // Returns true to stay queued while a row is still being dragged
+    private boolean rebalance() {
+        if (movedId != null) {
+            return true;
+        }
+        rebalanceQueued = false;
+        if (currentQuery.getSortBy() != TodoQuery.SortBy.MANUAL || loading) {
+            return false; // The next drop in the manual sort will find the ranks crowded again
+        }
+        List<Todo> list = getList();
+        int activeCount = 0;
+        while (activeCount < list.size() && list.get(activeCount).getCompletedAt() == null) {
+            activeCount++;
+        }
+        double[] ranks = Ranks.spread(activeCount);
+        for (int i = 0; i < activeCount; i++) {
+            Todo todo = list.get(i);
+            if (todo.getRank() == null || todo.getRank() != ranks[i]) {
+                Todo ranked = todo.copyOfBuilder().rank(ranks[i]).build();
+                noteRank(ranked);
+                setModelAt(i, ranked);
             }
         }
+        submitList();
+        return false;
+    }
 
-        Collections.sort(newList, new PrioritySorter(sort));
-        setList(newList);
-        if (!showStatus) {
-            Collections.sort(completedItems, new PrioritySorter(sort));
-            appendList(completedItems);
+    // A loaded list kept for a sort mode, with how far its completed items had been read
+    // Its items are indexed by id, so a change is patched in without scanning it
+    private static final class Snapshot {
+        final IdList<Todo> items;
+        final int completedSegment;
+        final int completedPage;
+
+        Snapshot(IdList<Todo> items, int completedSegment, int completedPage) {
+            this.items = items;
+            this.completedSegment = completedSegment;
+            this.completedPage = completedPage;
         }
     }
 
-    // Sorts by name
-    public void sortName(Boolean showStatus, SortOrder sort) {
-        if (sort == SortOrder.ASCENDING) {
-            sort(Todo.NAME.ascending(), showStatus);
-        } else if (sort == SortOrder.DESCENDING) {
-            sort(Todo.NAME.descending(), showStatus);
+    // Keeps a copy of the loaded list, evicting the least recently used snapshots to stay under the caps
+    private void putSnapshot(TodoQuery key) {
+        List<Todo> list = getList();
+        Snapshot previous = snapshots.put(key, new Snapshot(new IdList<>(Todo::getId, list), completedSegment, completedPage));
+        if (previous != null) {
+            snapshotItemCount -= previous.items.size();
+        }
+        snapshotItemCount += list.size();
+        Iterator<Snapshot> eldest = snapshots.values().iterator();
+        while ((snapshots.size() > MAX_SNAPSHOTS || snapshotItemCount > MAX_SNAPSHOT_ITEMS) && eldest.hasNext()) {
+            snapshotItemCount -= eldest.next().items.size();
+            eldest.remove();
         }
     }
 
-    // Sort method that takes in a QuerySortBy and sorts using DataStore.query()
-    private void sort(QuerySortBy sortBy, Boolean showStatus) {
-        clearList();
-        completedItems.clear();
-        Amplify.DataStore.query(
-                getModelClass(),
-                Where.sorted(sortBy),
-                results -> {
-                    while (results.hasNext()) {
-                        Todo item = results.next();
-                        if (item.getCompletedAt() == null) {
-                            addModel(item, false);
-                        } else {
-                            completedItems.add(item);
-                        }
-                        Log.i("Tutorial", "Item loaded: " + item.getId());
-                    }
-                    if (!showStatus) {
-                        appendList(completedItems);
-                    }
-                    if (cont instanceof Activity) {
-                        ((Activity) cont).runOnUiThread(this::notifyDataSetChanged);
-                    }
-                },
-                failure -> Log.e("Tutorial", "Query Failed", failure)
-        );
+    // Patches cached snapshots with a change, dropping any whose order or filter the change affects
+    private void patchSnapshots(ListPartition.ChangeType type, Todo todo) {
+        Iterator<Map.Entry<TodoQuery, Snapshot>> iterator = snapshots.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TodoQuery, Snapshot> entry = iterator.next();
+            IdList<Todo> snapshot = entry.getValue().items;
+            int position = snapshot.indexOfId(todo.getId());
+            if (type == ListPartition.ChangeType.DELETE) {
+                if (position != -1) {
+                    snapshot.remove(position);
+                    snapshotItemCount--;
+                }
+            } else if (position != -1 && keepsOrder(snapshot.get(position), todo)) {
+                snapshot.set(position, todo);
+            } else if (position == -1 && todo.getCompletedAt() != null
+                    && entry.getValue().completedSegment < entry.getKey().getCompletedSegmentCount()) {
+                continue; // Not paged in yet, it will be read in order with a later page of completed items
+            } else {
+                snapshotItemCount -= snapshot.size();
+                iterator.remove();
+            }
+        }
+    }
+
+    // Returns true if an update leaves every field the sort modes order or filter by unchanged
+    private static boolean keepsOrder(Todo before, Todo after) {
+        return before.getName().equals(after.getName())
+                && before.getPriority() == after.getPriority()
+                && Objects.equals(before.getCompletedAt(), after.getCompletedAt())
+                && Objects.equals(before.getRank(), after.getRank());
+    }
+
+    // Drops every cached snapshot
+    private void clearSnapshots() {
+        snapshots.clear();
+        snapshotItemCount = 0;
+    }
+
+    // Sorts list by date created
+    public void sortDateCreated() {
+        query(new TodoQuery(TodoQuery.SortBy.CREATED, SortOrder.ASCENDING), true);
+    }
+
+    public enum SortOrder {
+        ASCENDING, DESCENDING
     }
 
-    // Marks an item as complete by setting completedAt to current DateTime
+    // Sorts by priority
+    public void sortPriority(SortOrder sort) {
+        query(new TodoQuery(TodoQuery.SortBy.PRIORITY, sort), true);
+    }
+
+    // Sorts by name
+    public void sortName(SortOrder sort) {
+        query(new TodoQuery(TodoQuery.SortBy.NAME, sort), true);
+    }
+
+    // Sorts in the order set by dragging rows
+    public void sortManual() {
+        query(new TodoQuery(TodoQuery.SortBy.MANUAL, SortOrder.ASCENDING), true);
+    }
+
+    // Marks an item as complete by setting completedAt to current DateTime, moving it to the completed section
     public void markComplete(Todo todo) {
-        Date date = new Date();
-        int offsetMillis = TimeZone.getDefault().getOffset(date.getTime());
-        int offsetSeconds = (int) TimeUnit.MILLISECONDS.toSeconds(offsetMillis);
-        Temporal.DateTime temporalDateTime = new Temporal.DateTime(date, offsetSeconds);
+        long millis = System.currentTimeMillis();
+        int offsetSeconds = TimeZone.getDefault().getOffset(millis) / 1000;
+        Temporal.DateTime temporalDateTime = new Temporal.DateTime(new Date(millis), offsetSeconds);
         Todo updatedTodo = updateModel(todo, todo.getName(), todo.getPriority(), temporalDateTime);
-        completedItems.add(updatedTodo);
+        partition.apply(getList(), ListPartition.ChangeType.UPDATE, updatedTodo);
         save(updatedTodo);
+        submitList();
     }
 
-    // Marks an item as incomplete by setting completedAt to null
-    public void markIncomplete(int position, Todo todo) {
-        completedItems.remove(todo);
+    // Marks an item as incomplete by setting completedAt to null, moving it to the end of the active section
+    public void markIncomplete(Todo todo) {
         Todo updatedTodo = updateModel(todo, todo.getName(), todo.getPriority(), null);
-        setModel(position, updatedTodo);
+        partition.apply(getList(), ListPartition.ChangeType.UPDATE, updatedTodo);
+        save(updatedTodo);
+        submitList();
     }
 
     // Defines the colors corresponding to each Priority
-    private int priorityColor(Priority priority) {
+    static int priorityColor(Context context, Priority priority) {
         int color = 0;
         if (priority == Priority.LOW) {
-            color = ContextCompat.getColor(cont, R.color.blue);
+            color = ContextCompat.getColor(context, R.color.blue);
         } else if (priority == Priority.NORMAL) {
-            color = ContextCompat.getColor(cont, R.color.yellow);
+            color = ContextCompat.getColor(context, R.color.yellow);
         } else if (priority == Priority.HIGH) {
-            color = ContextCompat.getColor(cont, R.color.red);
+            color = ContextCompat.getColor(context, R.color.red);
         }
         return color;
     }
 
-    // Sets the color of the checkBox
-    private void setCheckBoxColor(AppCompatCheckBox checkBox, int color) {
-        ColorStateList colorstateList = new ColorStateList(
-                new int[][]{
-                        new int[]{-android.R.attr.state_checked}, // unchecked
-                        new int[]{android.R.attr.state_checked} // checked
-                },
-                new int[]{
-                        color, // unchecked color
-                        color // checked color
-                }
-        );
-        // set the radio button's button tint list
-        //noinspection RestrictedApi
-        checkBox.setButtonTintList(colorstateList);
+    // Returns the checkBox tint for a Priority, the same for checked and unchecked
+    // The tints are built once for every Priority and shared by all rows
+    private ColorStateList priorityTint(Context context, Priority priority) {
+        if (priorityTints.isEmpty()) {
+            for (Priority each : Priority.values()) {
+                priorityTints.put(each, ColorStateList.valueOf(priorityColor(context, each)));
+            }
+        }
+        return priorityTints.get(priority);
     }
 
-    // Shows completed tasks in recyclerView
+    // Shows completed tasks by attaching the completed section, reading the first page of them if none are loaded
     public void showCompletedTasks() {
-        appendList(completedItems);
-        notifyDataSetChanged();
+        completedShown = true;
+        setTailShown(true);
+        loadMoreCompleted();
     }
 
-    // Hides completed tasks in recyclerView
+    // Hides completed tasks by detaching the completed section, the loaded ones are kept for when it is shown again
     public void hideCompletedTasks() {
-        ArrayList<Todo> list = getList();
-        ArrayList<Todo> newList = new ArrayList<>();
-        boolean contained;
-        for (Todo todo : list) {
-            contained = false;
-            for (Todo completedTodo : completedItems) {
-                if (todo.getId().equals(completedTodo.getId())) {
-                    contained = true;
-                    break;
-                }
-            }
-            if (!contained) {
-                newList.add(todo);
-            }
+        completedShown = false;
+        setTailShown(false);
+    }
+
+    // Active items are shown in this adapter's section and completed items in the tail section
+    @Override
+    protected int getSectionSplit(List<Todo> list) {
+        return partition.getActiveCount(list);
+    }
+
+    // Adds a new model at the end of the active items, ahead of any completed items already loaded
+    @Override
+    public void addModel(Todo model, Boolean save) {
+        partition.apply(getList(), ListPartition.ChangeType.CREATE, model);
+        if (save) {
+            save(model);
         }
-        setList(newList);
-        notifyDataSetChanged();
     }
 
-    // Deletes model from ItemAdapter list and completedItems list
+    // Queues a model to be saved and counts it straight away, this covers creates, edits and marking complete
+    // or incomplete; the echo of the save from observe is then counted as no change
     @Override
-    public Todo deleteModel(int position) {
-        Todo todo = (Todo) super.deleteModel(position);
-        completedItems.remove(todo);
+    public void save(Todo model) {
+        super.save(model);
+        count(model);
+        noteReconcileChange(model.getId(), model);
+    }
+
+    // Deletes model from ItemAdapter list, completed items and counts
+    @Override
+    public Todo deleteModel(String id) {
+        Todo todo = super.deleteModel(id);
+        if (todo == null) {
+            return null;
+        }
+        partition.forget(todo);
+        uncount(todo.getId());
+        noteReconcileChange(todo.getId(), null);
+        return todo;
+    }
+
+    // Hides model from ItemAdapter list, completed items and counts until its delete is sent or undone
+    @Override
+    public Todo queueDelete(String id) {
+        Todo todo = super.queueDelete(id);
+        if (todo == null) {
+            return null;
+        }
+        partition.forget(todo);
+        uncount(todo.getId());
         return todo;
     }
 
+    // Restores a hidden model to ItemAdapter list, completed items and counts
+    @Override
+    public boolean undoDelete(int position, Todo todo) {
+        boolean restored = super.undoDelete(position, todo);
+        if (restored) {
+            count(todo);
+        }
+        return restored;
+    }
+
+    // Restores a Todo within its own section, which may have grown or shrunk while the delete could be undone
+    @Override
+    protected void restoreToList(List<Todo> list, int position, Todo todo) {
+        partition.restore(list, position, todo);
+    }
+
+    // Adds a batch of imported Todos to their sections with one notify, counting, indexing and ranking them as it goes
+    // Snapshots of other sort modes are dropped, as the imported Todos belong in them too
+    @Override
+    protected void onModelsImported(List<Todo> batch) {
+        clearSnapshots();
+        for (Todo todo : batch) {
+            noteRank(todo);
+        }
+        if (catalog != null) {
+            catalog.putAll(batch);
+            queueSearch();
+        }
+        partition.applyAll(getList(), batch);
+        submitList();
+    }
+
     // ViewHolder class
-    public class ItemViewHolder extends ViewHolder implements Binder<Todo>, OnClickListener {
+    public class ItemViewHolder extends ViewHolder implements PartialBinder<Todo>, OnClickListener {
         private final TextView textView;
         private final CheckBox checkBox;
         private String text;
@@ -292,16 +939,49 @@ public class TodoItemAdapter extends ItemAdapter<Todo> implements Serializable {
 
         @Override
         public void bind(Todo data) {
+            bindName(data);
+            bindPriority(data);
+            bindCompleted(data);
+        }
+
+        // Rebinds only the parts of the row flagged by getChangePayload
+        @Override
+        public void bind(Todo data, List<Object> payloads) {
+            int changes = 0;
+            for (Object payload : payloads) {
+                changes |= (Integer) payload;
+            }
+            if ((changes & CHANGED_NAME) != 0) {
+                bindName(data);
+            }
+            if ((changes & CHANGED_PRIORITY) != 0) {
+                bindPriority(data);
+            }
+            if ((changes & CHANGED_COMPLETED) != 0) {
+                bindCompleted(data);
+            }
+        }
+
+        private void bindName(Todo data) {
             textView.setText(data.getName());
-            setCheckBoxColor((AppCompatCheckBox) checkBox, priorityColor(data.getPriority()));
-            checkBox.setChecked(data.getCompletedAt() != null);
             text = data.getName();
+        }
+
+        private void bindPriority(Todo data) {
+            ColorStateList tint = priorityTint(itemView.getContext(), data.getPriority());
+            if (checkBox.getButtonTintList() != tint) {
+                checkBox.setButtonTintList(tint);
+            }
             priority = data.getPriority();
         }
 
+        private void bindCompleted(Todo data) {
+            checkBox.setChecked(data.getCompletedAt() != null);
+        }
+
         @Override
         public void onClick(View v) {
-            int position = getAdapterPosition();
+            int position = getAbsoluteAdapterPosition();
             if (v.getId() == R.id.todo_checkbox) {
                 listener.onCheckClick(position, checkBox.isChecked());
             } else if (v.getId() == R.id.todo_row_item) {
@@ -310,6 +990,10 @@ public class TodoItemAdapter extends ItemAdapter<Todo> implements Serializable {
         }
     }
 
+    public interface SearchListener {
+        void onSearchResults(String text, List<TodoSearchAdapter.Result> results);
+    }
+
     interface OnItemClickListener {
         void onCheckClick(int position, boolean isChecked);
 
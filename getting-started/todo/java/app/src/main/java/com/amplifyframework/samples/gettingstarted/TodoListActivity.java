@@ -1,10 +1,19 @@
 package com.amplifyframework.samples.gettingstarted;
 
+import android.content.Context;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Parcelable;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
+import android.view.View;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.ActionBar;
+import androidx.appcompat.widget.SearchView;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -14,40 +23,123 @@ import com.amplifyframework.datastore.generated.model.Priority;
 import com.amplifyframework.datastore.generated.model.Todo;
 import com.amplifyframework.samples.core.ItemAdapter;
 import com.amplifyframework.samples.core.ListActivity;
+import com.amplifyframework.samples.list.TransferFormat;
+import com.google.android.material.snackbar.Snackbar;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 public class TodoListActivity extends ListActivity implements TodoItemAdapter.OnItemClickListener {
+    private static final int LOAD_MORE_DISTANCE = 20; // Rows from the end at which more completed tasks are read
     private final TodoItemAdapter itemAdapter = new TodoItemAdapter(this);
-    private Boolean hideStatus = true; // Whether we want to show or hide completed tasks
+    private final TodoSearchAdapter searchAdapter = new TodoSearchAdapter(this::openSearchResult);
+    private MenuItem searchItem;
+    private MenuItem showHideItem;
+    private Parcelable listState; // Where the list was scrolled to when search results replaced it
+    private TransferFormat exportFormat = TransferFormat.JSON; // Format of the file being created to export to
+    private final ActivityResultLauncher<String[]> importPicker =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importTasks);
+    private final ActivityResultLauncher<String> exportPicker =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument(), this::exportTasks);
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         RecyclerView recyclerView = findViewById(R.id.recycler_view);
         SwipeRefreshLayout swipeRefresh = findViewById(R.id.swiperefresh);
-        recyclerView.setAdapter(itemAdapter);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        recyclerView.setAdapter(itemAdapter.getSections()); // Active tasks, then completed tasks while they are shown
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
+
+        // Read completed tasks a page at a time as the end of the list comes into view
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                if (isSearching()) {
+                    return;
+                }
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= layoutManager.getItemCount() - LOAD_MORE_DISTANCE) {
+                    itemAdapter.loadMoreCompleted();
+                }
+            }
+        });
 
-        // Swipe to delete feature
+        // Swipe to delete feature, the delete is held back until the undo window closes
+        // In the manual sort, active rows can also be dragged up and down to reorder them
+        // Search results are not rows of the list, so they can be neither swiped nor dragged
         SwipeToDelete swipeHandler = new SwipeToDelete(this) {
+            @Override
+            public int getSwipeDirs(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder) {
+                return isSearching() ? 0 : super.getSwipeDirs(recyclerView, viewHolder);
+            }
+
+            @Override
+            public int getDragDirs(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder) {
+                return !isSearching() && itemAdapter.canMove(viewHolder.getAbsoluteAdapterPosition())
+                        ? ItemTouchHelper.UP | ItemTouchHelper.DOWN
+                        : 0;
+            }
+
+            @Override
+            public boolean onMove(
+                    @NonNull RecyclerView recyclerView,
+                    @NonNull RecyclerView.ViewHolder viewHolder,
+                    @NonNull RecyclerView.ViewHolder target) {
+                return itemAdapter.moveItem(viewHolder.getAbsoluteAdapterPosition(), target.getAbsoluteAdapterPosition());
+            }
+
+            @Override
+            public void clearView(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder) {
+                super.clearView(recyclerView, viewHolder);
+                itemAdapter.finishMove();
+            }
+
             public void onSwiped(RecyclerView.ViewHolder viewHolder, int direction) {
-                TodoItemAdapter adapter = (TodoItemAdapter) recyclerView.getAdapter();
-                if (adapter != null) {
-                    adapter.deleteModel(viewHolder.getAdapterPosition());
+                int position = viewHolder.getAbsoluteAdapterPosition();
+                Todo shown = itemAdapter.getItem(position);
+                Todo todo = shown != null ? itemAdapter.queueDelete(shown.getId()) : null;
+                if (todo == null) {
+                    return; // Already deleted, the row goes once the list catches up
                 }
+                Snackbar.make(recyclerView, R.string.task_deleted, (int) itemAdapter.getUndoWindow())
+                        .setAction(R.string.undo, v -> itemAdapter.undoDelete(position, todo))
+                        .show();
             }
         };
 
         // Pull to refresh feature
         swipeRefresh.setOnRefreshListener(
                 () -> {
-                    itemAdapter.query(hideStatus);
+                    itemAdapter.query();
                     swipeRefresh.setRefreshing(false);
                 }
         );
 
         ItemTouchHelper itemTouchHelper = new ItemTouchHelper(swipeHandler);
         itemTouchHelper.attachToRecyclerView(recyclerView);
-        ItemAdapter.setContext(this);
+        itemAdapter.bindTo(this);
+
+        // Show the rows kept by the last launch in the first frame, the first query replaces them once it has loaded
+        itemAdapter.restoreStartupSnapshot(startupSnapshotFile(this));
+
+        // Tell the system when the first list is on screen, so startup time can be measured to real content
+        itemAdapter.setOnListLoaded(this::reportFullyDrawn);
+
+        // Show how many high priority tasks are open and how many are completed under the title
+        itemAdapter.setOnCountsChanged(counts -> {
+            ActionBar actionBar = getSupportActionBar();
+            if (actionBar != null) {
+                actionBar.setSubtitle(getString(R.string.counts_summary,
+                        counts.getOpen(Priority.HIGH.ordinal()), counts.getCompletedTotal()));
+            }
+        });
 
         // Observe changes bi-directional
         itemAdapter.observe();
@@ -57,7 +149,22 @@ public class TodoListActivity extends ListActivity implements TodoItemAdapter.On
     @Override
     public void onStart() {
         super.onStart();
-        itemAdapter.query(hideStatus);
+        itemAdapter.query();
+    }
+
+    // Send any saves and deletes still being held back before the app goes to the background,
+    // and keep the rows to show on the next launch
+    @Override
+    public void onStop() {
+        super.onStop();
+        itemAdapter.flushSaves();
+        itemAdapter.flushDeletes();
+        itemAdapter.writeStartupSnapshot();
+    }
+
+    // Returns the file the rows shown at launch are kept in, a cache the system may clear at any time
+    static File startupSnapshotFile(Context context) {
+        return new File(context.getCacheDir(), "todo_list.snapshot");
     }
 
     // Inflates the options menu
@@ -65,39 +172,118 @@ public class TodoListActivity extends ListActivity implements TodoItemAdapter.On
     public boolean onCreateOptionsMenu(Menu menu) {
         MenuInflater inflater = getMenuInflater();
         inflater.inflate(R.menu.todo_menu, menu);
+
+        // Search task names as they are typed, the results replace the list until the search is closed
+        showHideItem = menu.findItem(R.id.show_hide);
+        searchItem = menu.findItem(R.id.search);
+        SearchView searchView = (SearchView) searchItem.getActionView();
+        searchView.setQueryHint(getString(R.string.search_tasks));
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                searchView.clearFocus();
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                itemAdapter.search(newText, TodoListActivity.this::showSearchResults);
+                return true;
+            }
+        });
         return true;
     }
 
+    // Returns true while search results are shown in place of the list
+    private boolean isSearching() {
+        RecyclerView recyclerView = findViewById(R.id.recycler_view);
+        return recyclerView.getAdapter() == searchAdapter;
+    }
+
+    // Shows search results in place of the list, or the list again where it was left once the text is cleared
+    private void showSearchResults(String text, List<TodoSearchAdapter.Result> results) {
+        RecyclerView recyclerView = findViewById(R.id.recycler_view);
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (text.isEmpty()) {
+            if (isSearching()) {
+                recyclerView.setAdapter(itemAdapter.getSections());
+                layoutManager.onRestoreInstanceState(listState);
+            }
+            return;
+        }
+        searchAdapter.setResults(results);
+        if (!isSearching()) {
+            listState = layoutManager.onSaveInstanceState();
+            recyclerView.setAdapter(searchAdapter);
+        }
+    }
+
+    // Closes the search and, if the tapped Todo is loaded in the list, scrolls to it and opens it for editing
+    // A loaded completed Todo is shown first if completed tasks are hidden, one not paged in yet is only pointed out
+    private void openSearchResult(TodoSearchAdapter.Result result) {
+        searchItem.collapseActionView();
+        RecyclerView recyclerView = findViewById(R.id.recycler_view);
+        if (itemAdapter.positionOf(result.getId()) == -1) {
+            if (result.isCompleted()) {
+                Snackbar.make(recyclerView, getString(R.string.search_result_not_loaded, result.getName()),
+                        Snackbar.LENGTH_LONG).show();
+            }
+            return;
+        }
+        if (itemAdapter.sectionPositionOf(result.getId()) == -1) {
+            setCompletedShown(true);
+        }
+        recyclerView.scrollToPosition(itemAdapter.sectionPositionOf(result.getId()));
+        edit(result.getId(), result.getName(), result.getPriority());
+    }
+
+    // Shows or hides completed tasks, and names the other choice in the menu
+    private void setCompletedShown(boolean shown) {
+        if (shown) {
+            itemAdapter.showCompletedTasks();
+            showHideItem.setTitle(getString(R.string.hide_tasks));
+        } else {
+            itemAdapter.hideCompletedTasks();
+            showHideItem.setTitle(getString(R.string.show_tasks));
+        }
+    }
+
     // Click listener for menu items
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         int itemID = item.getItemId();
         boolean processing = false;
         if (itemID == R.id.show_hide) {
-            if (item.getTitle() == getString(R.string.show_tasks)) {
-                hideStatus = false;
-                itemAdapter.showCompletedTasks();
-                item.setTitle(getString(R.string.hide_tasks));
-            } else {
-                hideStatus = true;
-                itemAdapter.hideCompletedTasks();
-                item.setTitle(getString(R.string.show_tasks));
-            }
+            setCompletedShown(item.getTitle() == getString(R.string.show_tasks));
             processing = true;
         } else if (itemID == R.id.created) {
-            itemAdapter.sortDateCreated(hideStatus);
+            itemAdapter.sortDateCreated();
             processing = true;
         } else if (itemID == R.id.priority_asc) {
-            itemAdapter.sortPriority(hideStatus, TodoItemAdapter.SortOrder.ASCENDING);
+            itemAdapter.sortPriority(TodoItemAdapter.SortOrder.ASCENDING);
             processing = true;
         } else if (itemID == R.id.priority_des) {
-            itemAdapter.sortPriority(hideStatus, TodoItemAdapter.SortOrder.DESCENDING);
+            itemAdapter.sortPriority(TodoItemAdapter.SortOrder.DESCENDING);
             processing = true;
         } else if (itemID == R.id.name_asc) {
-            itemAdapter.sortName(hideStatus, TodoItemAdapter.SortOrder.ASCENDING);
+            itemAdapter.sortName(TodoItemAdapter.SortOrder.ASCENDING);
             processing = true;
         } else if (itemID == R.id.name_des) {
-            itemAdapter.sortName(hideStatus, TodoItemAdapter.SortOrder.DESCENDING);
+            itemAdapter.sortName(TodoItemAdapter.SortOrder.DESCENDING);
+            processing = true;
+        } else if (itemID == R.id.manual) {
+            itemAdapter.sortManual();
+            processing = true;
+        } else if (itemID == R.id.import_tasks) {
+            importPicker.launch(new String[] {"application/json", "text/csv", "text/comma-separated-values"});
+            processing = true;
+        } else if (itemID == R.id.export_json) {
+            exportFormat = TransferFormat.JSON;
+            exportPicker.launch("todos.json");
+            processing = true;
+        } else if (itemID == R.id.export_csv) {
+            exportFormat = TransferFormat.CSV;
+            exportPicker.launch("todos.csv");
             processing = true;
         } else {
             super.onOptionsItemSelected(item);
@@ -105,28 +291,108 @@ public class TodoListActivity extends ListActivity implements TodoItemAdapter.On
         return processing;
     }
 
+    // Imports tasks from the picked JSON or CSV file
+    private void importTasks(Uri uri) {
+        if (uri == null) {
+            return; // Nothing was picked
+        }
+        String type = getContentResolver().getType(uri);
+        TransferFormat format = type != null && (type.contains("csv") || type.contains("comma-separated"))
+                ? TransferFormat.CSV
+                : TransferFormat.JSON;
+        try {
+            InputStream stream = getContentResolver().openInputStream(uri);
+            if (stream == null) {
+                throw new FileNotFoundException("Could not open " + uri); // The provider has crashed
+            }
+            InputStreamReader in = new InputStreamReader(stream, StandardCharsets.UTF_8);
+            itemAdapter.importModels(in, format, new TodoCodec(),
+                    transferListener(R.string.importing_tasks, R.string.tasks_imported));
+        } catch (FileNotFoundException failure) {
+            showTransferFailure(failure);
+        }
+    }
+
+    // Exports every task to the created file, in exportFormat
+    private void exportTasks(Uri uri) {
+        if (uri == null) {
+            return; // No file was created
+        }
+        try {
+            OutputStream stream = getContentResolver().openOutputStream(uri);
+            if (stream == null) {
+                throw new FileNotFoundException("Could not open " + uri); // The provider has crashed
+            }
+            OutputStreamWriter out = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+            itemAdapter.exportModels(out, exportFormat, new TodoCodec(),
+                    transferListener(R.string.exporting_tasks, R.string.tasks_exported));
+        } catch (FileNotFoundException failure) {
+            showTransferFailure(failure);
+        }
+    }
+
+    // Returns a listener that shows how many tasks an import or export has moved while it runs, then in total
+    private ItemAdapter.TransferListener transferListener(int progressText, int doneText) {
+        View view = findViewById(R.id.recycler_view);
+        Snackbar progressBar = Snackbar.make(view, getString(progressText, 0), Snackbar.LENGTH_INDEFINITE);
+        progressBar.show();
+        return new ItemAdapter.TransferListener() {
+            @Override
+            public void onProgress(long count) {
+                progressBar.setText(getString(progressText, count));
+            }
+
+            @Override
+            public void onComplete(long count) {
+                progressBar.dismiss();
+                Snackbar.make(view, getString(doneText, count), Snackbar.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onFailure(Exception error) {
+                progressBar.dismiss();
+                showTransferFailure(error);
+            }
+        };
+    }
+
+    private void showTransferFailure(Exception error) {
+        Snackbar.make(findViewById(R.id.recycler_view), getString(R.string.transfer_failed, error.getMessage()),
+                Snackbar.LENGTH_LONG).show();
+    }
+
     @Override
     public void fabAction() {
-        OptionsBarFragment optionsInstance = new OptionsBarFragment(itemAdapter, true, -1, "", Priority.LOW);
+        OptionsBarFragment optionsInstance = new OptionsBarFragment(itemAdapter, true, null, "", Priority.LOW);
         optionsInstance.show(getSupportFragmentManager(), "TAG");
     }
 
-    // If hideStatus is true, when checkBox is clicked, remove item from list and mark it complete/incomplete
-    // Else, simply get the item and mark it complete/incomplete
+    // When checkBox is clicked, mark the item complete/incomplete, which moves it to the other section
     @Override
     public void onCheckClick(int position, boolean isChecked) {
-        Todo todo = hideStatus ? itemAdapter.removeItemFromList(position) : itemAdapter.getItem(position);
+        Todo todo = itemAdapter.getItem(position);
+        if (todo == null) {
+            return; // Deleted since the row was drawn
+        }
         if (isChecked) {
             itemAdapter.markComplete(todo);
         } else {
-            itemAdapter.markIncomplete(position, todo);
+            itemAdapter.markIncomplete(todo);
         }
     }
 
     // When text is clicked, open up the OptionsBarFragment to edit item
     @Override
     public void onTextClick(int position, String text, Priority priority) {
-        OptionsBarFragment optionsInstance = new OptionsBarFragment(itemAdapter, false, position, text, priority);
+        Todo todo = itemAdapter.getItem(position);
+        if (todo != null) {
+            edit(todo.getId(), text, priority);
+        }
+    }
+
+    // Opens the OptionsBarFragment to edit the Todo with the given id, which it looks up again when saving
+    private void edit(String id, String text, Priority priority) {
+        OptionsBarFragment optionsInstance = new OptionsBarFragment(itemAdapter, false, id, text, priority);
         optionsInstance.show(getSupportFragmentManager(), "TAG");
     }
 }
@@ -0,0 +1,112 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import com.amplifyframework.core.model.query.Page;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.core.model.query.QuerySortBy;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.core.model.query.predicate.QueryField;
+import com.amplifyframework.datastore.generated.model.Priority;
+import com.amplifyframework.datastore.generated.model.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Turns a sort mode into DataStore queries for the active items and for pages of completed items,
+// so that SQLite does all of the ordering and filtering of the Todo list
+public final class TodoQuery {
+    public static final int COMPLETED_PAGE_SIZE = 100; // Completed items read at a time when they are shown
+    private static final QueryField CREATED_AT = QueryField.field("Todo", "createdAt");
+
+    public enum SortBy {
+        CREATED, PRIORITY, NAME, MANUAL
+    }
+
+    private final SortBy sortBy;
+    private final TodoItemAdapter.SortOrder sortOrder;
+
+    public TodoQuery(SortBy sortBy, TodoItemAdapter.SortOrder sortOrder) {
+        this.sortBy = sortBy;
+        this.sortOrder = sortOrder;
+    }
+
+    public SortBy getSortBy() {
+        return sortBy;
+    }
+
+    public TodoItemAdapter.SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    // Returns the queries for active items (completedAt == null) to run in order; their results,
+    // read one after another, are the top of the list to display
+    public List<QueryOptions> build() {
+        List<QueryOptions> queries = new ArrayList<>();
+        if (sortBy == SortBy.PRIORITY) {
+            // Priority is stored by name, which SQLite would order alphabetically, so each level gets its own query
+            for (Priority priority : priorityOrder()) {
+                queries.add(Where.matches(Todo.PRIORITY.eq(priority).and(Todo.COMPLETED_AT.eq(null)))
+                        .sorted(CREATED_AT.ascending()));
+            }
+        } else if (sortBy == SortBy.MANUAL) {
+            // Items that have never been ranked sort first, in the order they were created
+            queries.add(Where.matches(Todo.COMPLETED_AT.eq(null)).sorted(sortKey(), CREATED_AT.ascending()));
+        } else {
+            queries.add(Where.matches(Todo.COMPLETED_AT.eq(null)).sorted(sortKey()));
+        }
+        return queries;
+    }
+
+    // Returns how many segments completed items are read in
+    public int getCompletedSegmentCount() {
+        return sortBy == SortBy.PRIORITY ? Priority.values().length : 1;
+    }
+
+    // Returns the query for one page of completed items within a segment; every page of every segment,
+    // read in order, follows the active items in the list to display
+    public QueryOptions buildCompletedPage(int segment, int page) {
+        QueryOptions query = sortBy == SortBy.PRIORITY
+                ? Where.matches(Todo.PRIORITY.eq(priorityOrder()[segment]).and(Todo.COMPLETED_AT.ne(null)))
+                        .sorted(CREATED_AT.ascending())
+                : Where.matches(Todo.COMPLETED_AT.ne(null)).sorted(sortKey());
+        return query.paginated(Page.startingAt(page).withLimit(COMPLETED_PAGE_SIZE));
+    }
+
+    // Returns the key that name, date created and manual sorts order by
+    private QuerySortBy sortKey() {
+        if (sortBy == SortBy.MANUAL) {
+            return Todo.RANK.ascending();
+        }
+        QueryField field = sortBy == SortBy.NAME ? Todo.NAME : CREATED_AT;
+        return sortOrder == TodoItemAdapter.SortOrder.ASCENDING ? field.ascending() : field.descending();
+    }
+
+    // Returns every Priority in sort order
+    private Priority[] priorityOrder() {
+        Priority[] priorities = Priority.values(); // LOW, NORMAL, HIGH
+        Priority[] ordered = new Priority[priorities.length];
+        for (int i = 0; i < priorities.length; i++) {
+            ordered[i] = sortOrder == TodoItemAdapter.SortOrder.ASCENDING
+                    ? priorities[i]
+                    : priorities[priorities.length - 1 - i];
+        }
+        return ordered;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TodoQuery that = (TodoQuery) o;
+        return sortBy == that.sortBy && sortOrder == that.sortOrder;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortBy, sortOrder);
+    }
+}
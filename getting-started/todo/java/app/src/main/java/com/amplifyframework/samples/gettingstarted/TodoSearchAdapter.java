@@ -0,0 +1,120 @@
+package com.amplifyframework.samples.gettingstarted;
+
+import android.content.res.ColorStateList;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CheckBox;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.amplifyframework.datastore.generated.model.Priority;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Shows the Todos found by TodoItemAdapter.search in place of the list while the user searches
+// Rows look like the list's, tapping one hands its Result to the listener
+public class TodoSearchAdapter extends RecyclerView.Adapter<TodoSearchAdapter.ResultViewHolder> {
+    private final Map<Priority, ColorStateList> priorityTints = new EnumMap<>(Priority.class); // Built on first bind
+    private final OnResultClickListener listener;
+    private List<Result> results = new ArrayList<>();
+
+    public TodoSearchAdapter(OnResultClickListener listener) {
+        this.listener = listener;
+    }
+
+    // Shows a new set of results, which are few enough to rebind without diffing
+    public void setResults(List<Result> results) {
+        this.results = results;
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public ResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.todo_item, parent, false);
+        return new ResultViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ResultViewHolder holder, int position) {
+        holder.bind(results.get(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return results.size();
+    }
+
+    private ColorStateList priorityTint(View view, Priority priority) {
+        if (priorityTints.isEmpty()) {
+            for (Priority each : Priority.values()) {
+                priorityTints.put(each, ColorStateList.valueOf(TodoItemAdapter.priorityColor(view.getContext(), each)));
+            }
+        }
+        return priorityTints.get(priority);
+    }
+
+    // A Todo found by a search, as much of it as a row shows
+    // Read from the search index and counts, which keep only ids, names and states rather than whole Todos
+    public static final class Result {
+        private final String id;
+        private final String name;
+        private final Priority priority;
+        private final boolean completed;
+
+        Result(String id, String name, Priority priority, boolean completed) {
+            this.id = id;
+            this.name = name;
+            this.priority = priority;
+            this.completed = completed;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+
+    // ViewHolder class, the checkBox only shows whether the Todo is completed
+    public class ResultViewHolder extends RecyclerView.ViewHolder {
+        private final TextView textView;
+        private final CheckBox checkBox;
+        private Result result;
+
+        public ResultViewHolder(@NonNull View view) {
+            super(view);
+            this.textView = view.findViewById(R.id.todo_row_item);
+            this.checkBox = view.findViewById(R.id.todo_checkbox);
+            this.checkBox.setClickable(false);
+            this.textView.setOnClickListener(v -> listener.onResultClick(result));
+        }
+
+        void bind(Result data) {
+            result = data;
+            textView.setText(data.getName());
+            checkBox.setButtonTintList(priorityTint(itemView, data.getPriority()));
+            checkBox.setChecked(data.isCompleted());
+        }
+    }
+
+    interface OnResultClickListener {
+        void onResultClick(Result result);
+    }
+}
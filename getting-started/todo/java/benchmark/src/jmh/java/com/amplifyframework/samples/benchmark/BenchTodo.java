@@ -0,0 +1,69 @@
+package com.amplifyframework.samples.benchmark;
+
+import com.amplifyframework.samples.list.ListPartition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A stand-in for the generated Todo model, holding only what ListPartition reads
+final class BenchTodo {
+    static final ListPartition.Keys<BenchTodo> KEYS = new ListPartition.Keys<BenchTodo>() {
+        @Override
+        public String idOf(BenchTodo item) {
+            return item.id;
+        }
+
+        @Override
+        public boolean isCompleted(BenchTodo item) {
+            return item.completed;
+        }
+    };
+
+    final String id;
+    final boolean completed;
+    final int priority; // 0 to 2, standing in for the ordinal of Todo's Priority
+
+    BenchTodo(String id, boolean completed) {
+        this(id, completed, 0);
+    }
+
+    BenchTodo(String id, boolean completed, int priority) {
+        this.id = id;
+        this.completed = completed;
+        this.priority = priority;
+    }
+
+    // Compares every field, as the generated Todo's equals does
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BenchTodo)) {
+            return false;
+        }
+        BenchTodo todo = (BenchTodo) other;
+        return id.equals(todo.id) && completed == todo.completed && priority == todo.priority;
+    }
+
+    @Override
+    public int hashCode() {
+        return (id.hashCode() * 31 + (completed ? 1 : 0)) * 31 + priority;
+    }
+
+    // Returns size items with every fourth one completed and priorities taking turns,
+    // active items first as the queries load them
+    static List<BenchTodo> generate(int size) {
+        List<BenchTodo> active = new ArrayList<>();
+        List<BenchTodo> completed = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (i % 4 == 3) {
+                completed.add(new BenchTodo("todo-" + i, true, i % 3));
+            } else {
+                active.add(new BenchTodo("todo-" + i, false, i % 3));
+            }
+        }
+        active.addAll(completed);
+        return active;
+    }
+}
@@ -0,0 +1,147 @@
+package com.amplifyframework.samples.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Measures hiding and showing completed Todos and sorting by priority, the way TodoItemAdapter did in memory
+// before and after it kept completed Todos in a map by id instead of a list.
+// The *ListScan benchmarks replay the list code: hiding compares every shown id with every completed id,
+// and sorting filters with List.contains, which compares whole Todos with equals.
+// The *IdMap benchmarks replay the map code, which filters with containsKey.
+// TodoItemAdapter now sorts in SQLite and shows or hides completed Todos as a section of their own,
+// so these measure the change to the in-memory code, not what the app does today.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompletedFilterBenchmark {
+    private static final Comparator<BenchTodo> BY_PRIORITY = (a, b) -> Integer.compare(a.priority, b.priority);
+
+    @Param({"50000"})
+    public int size;
+
+    private List<BenchTodo> shown; // Every Todo, active first, as the list is while completed Todos are shown
+    private List<BenchTodo> active;
+    private List<BenchTodo> completedList;
+    private Map<String, BenchTodo> completedMap;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        shown = BenchTodo.generate(size);
+        active = new ArrayList<>();
+        completedList = new ArrayList<>();
+        completedMap = new LinkedHashMap<>();
+        for (BenchTodo todo : shown) {
+            if (todo.completed) {
+                completedList.add(todo);
+                completedMap.put(todo.id, todo);
+            } else {
+                active.add(todo);
+            }
+        }
+    }
+
+    // Hides completed Todos by looking for each shown id in the list of completed Todos
+    @Benchmark
+    public List<BenchTodo> hideCompletedListScan() {
+        List<BenchTodo> list = new ArrayList<>();
+        boolean contained;
+        for (BenchTodo todo : shown) {
+            contained = false;
+            for (BenchTodo completedTodo : completedList) {
+                if (todo.id.equals(completedTodo.id)) {
+                    contained = true;
+                    break;
+                }
+            }
+            if (!contained) {
+                list.add(todo);
+            }
+        }
+        return list;
+    }
+
+    // Hides completed Todos by looking up each shown id in the map of completed Todos
+    @Benchmark
+    public List<BenchTodo> hideCompletedIdMap() {
+        List<BenchTodo> list = new ArrayList<>();
+        for (BenchTodo todo : shown) {
+            if (!completedMap.containsKey(todo.id)) {
+                list.add(todo);
+            }
+        }
+        return list;
+    }
+
+    // Shows completed Todos by appending the list of them
+    @Benchmark
+    public List<BenchTodo> showCompletedListScan() {
+        return append(completedList);
+    }
+
+    // Shows completed Todos by appending the map's values, without copying them first
+    @Benchmark
+    public List<BenchTodo> showCompletedIdMap() {
+        return append(completedMap.values());
+    }
+
+    // Sorts shown Todos by priority, filtering out completed ones with List.contains
+    // The completed Todos are sorted as a copy, so every call starts from the same order
+    @Benchmark
+    public List<BenchTodo> sortPriorityListScan() {
+        List<BenchTodo> list = new ArrayList<>();
+        for (BenchTodo todo : shown) {
+            if (!completedList.contains(todo)) {
+                list.add(todo);
+            }
+        }
+        list.sort(BY_PRIORITY);
+        List<BenchTodo> completed = new ArrayList<>(completedList);
+        completed.sort(BY_PRIORITY);
+        list.addAll(completed);
+        return list;
+    }
+
+    // Sorts shown Todos by priority, filtering out completed ones with containsKey,
+    // then keeps the completed Todos in their sorted order in a new map
+    @Benchmark
+    public void sortPriorityIdMap(Blackhole blackhole) {
+        List<BenchTodo> list = new ArrayList<>();
+        for (BenchTodo todo : shown) {
+            if (!completedMap.containsKey(todo.id)) {
+                list.add(todo);
+            }
+        }
+        list.sort(BY_PRIORITY);
+        List<BenchTodo> completed = new ArrayList<>(completedMap.values());
+        completed.sort(BY_PRIORITY);
+        Map<String, BenchTodo> sorted = new LinkedHashMap<>();
+        for (BenchTodo todo : completed) {
+            sorted.put(todo.id, todo);
+        }
+        list.addAll(completed);
+        blackhole.consume(sorted);
+        blackhole.consume(list);
+    }
+
+    private List<BenchTodo> append(Collection<BenchTodo> completed) {
+        List<BenchTodo> list = new ArrayList<>(active);
+        list.addAll(completed);
+        return list;
+    }
+}
@@ -0,0 +1,144 @@
+package com.amplifyframework.samples.benchmark;
+
+import com.amplifyframework.samples.list.IdList;
+import com.amplifyframework.samples.list.ListPartition;
+import com.amplifyframework.samples.list.SnapshotList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Measures the client-side list work done by TodoItemAdapter: loading query results, sorting by priority,
+// hiding and showing completed items, applying a DataStore change, and deleting then restoring an item.
+// SQLite does the sorting itself, so sorting here is loading a result already in priority order.
+// Benchmarks that change the list undo the change before they return, so every call starts from the same list.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ListPartitionBenchmark {
+    private static final int COMPLETED_PAGE_SIZE = 100; // Completed items read at a time, as in TodoQuery
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<BenchTodo> loaded;
+    private List<BenchTodo> activeByPriority;
+    private List<List<BenchTodo>> completedPages;
+    private List<List<BenchTodo>> completedPagesByPriority;
+    private SnapshotList<BenchTodo> items;
+    private ListPartition<BenchTodo> partition;
+    private BenchTodo lastActive;
+    private BenchTodo lastActiveCompleted;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        loaded = BenchTodo.generate(size);
+        List<BenchTodo> active = new ArrayList<>();
+        List<BenchTodo> completed = new ArrayList<>();
+        for (BenchTodo todo : loaded) {
+            (todo.completed ? completed : active).add(todo);
+        }
+        // The last active item, so a change that moves it to the end of the active section and its undo
+        // leave the list as it was
+        lastActive = active.get(active.size() - 1);
+        lastActiveCompleted = new BenchTodo(lastActive.id, true, lastActive.priority);
+        completedPages = pages(completed);
+        Comparator<BenchTodo> order = (a, b) -> Integer.compare(a.priority, b.priority);
+        activeByPriority = new ArrayList<>(active);
+        activeByPriority.sort(order);
+        List<BenchTodo> completedByPriority = new ArrayList<>(completed);
+        completedByPriority.sort(order);
+        completedPagesByPriority = pages(completedByPriority);
+    }
+
+    private static List<List<BenchTodo>> pages(List<BenchTodo> completed) {
+        List<List<BenchTodo>> pages = new ArrayList<>();
+        for (int start = 0; start < completed.size(); start += COMPLETED_PAGE_SIZE) {
+            pages.add(completed.subList(start, Math.min(start + COMPLETED_PAGE_SIZE, completed.size())));
+        }
+        return pages;
+    }
+
+    @Setup(Level.Iteration)
+    public void load() {
+        items = new SnapshotList<>(Thread.currentThread(), BenchTodo.KEYS::idOf);
+        partition = new ListPartition<>(BenchTodo.KEYS);
+        partition.setCompletedLoaded(true);
+        partition.addLoaded(items.edit(), loaded);
+    }
+
+    // Loads a full query result into an empty list
+    @Benchmark
+    public List<BenchTodo> loadResults() {
+        ListPartition<BenchTodo> fresh = new ListPartition<>(BenchTodo.KEYS);
+        fresh.setCompletedLoaded(true);
+        List<BenchTodo> rows = new IdList<>(BenchTodo.KEYS::idOf); // As TodoItemAdapter's list is
+        fresh.addLoaded(rows, loaded);
+        return rows;
+    }
+
+    // Sorts by priority: loads the active items sorted by SQLite, then their completed items a page at a time
+    @Benchmark
+    public List<BenchTodo> sortPriority() {
+        ListPartition<BenchTodo> fresh = new ListPartition<>(BenchTodo.KEYS);
+        List<BenchTodo> rows = new IdList<>(BenchTodo.KEYS::idOf); // As TodoItemAdapter's list is
+        fresh.addLoaded(rows, activeByPriority);
+        for (List<BenchTodo> page : completedPagesByPriority) {
+            fresh.addLoaded(rows, page);
+        }
+        return rows;
+    }
+
+    // Hides completed items: publishes the list and shows only the active section of it
+    @Benchmark
+    public List<BenchTodo> hideCompleted() {
+        List<BenchTodo> snapshot = items.publish();
+        return snapshot.subList(0, partition.getActiveCount(snapshot));
+    }
+
+    // Shows completed items that have not been loaded yet, a page at a time after the active items
+    // The completed items the last call loaded are taken out first
+    @Benchmark
+    public List<BenchTodo> showCompleted() {
+        List<BenchTodo> list = items.edit();
+        int activeCount = partition.getActiveCount(list);
+        list.subList(activeCount, list.size()).clear();
+        partition.clear();
+        for (List<BenchTodo> page : completedPages) {
+            partition.addLoaded(list, page);
+        }
+        return list;
+    }
+
+    // Applies an update that marks the last active item complete, then one that marks it active again
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public List<BenchTodo> applyUpdate() {
+        List<BenchTodo> list = items.edit();
+        partition.apply(list, ListPartition.ChangeType.UPDATE, lastActiveCompleted);
+        partition.apply(list, ListPartition.ChangeType.UPDATE, lastActive);
+        return list;
+    }
+
+    // Deletes the last active item, then restores it as an undo would
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public List<BenchTodo> deleteAndRestore() {
+        List<BenchTodo> list = items.edit();
+        partition.apply(list, ListPartition.ChangeType.DELETE, lastActive);
+        partition.apply(list, ListPartition.ChangeType.CREATE, lastActive);
+        return list;
+    }
+}
@@ -0,0 +1,124 @@
+package com.amplifyframework.samples.benchmark;
+
+import com.amplifyframework.samples.list.ListPartition;
+import com.amplifyframework.samples.list.ModelCodec;
+import com.amplifyframework.samples.list.ModelTransfer;
+import com.amplifyframework.samples.list.TransferFormat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Measures import and export throughput in items per second for a file of SIZE Todos.
+// Imports hand each batch to a store thread, standing in for Datastore, which adds it to the list the way
+// TodoItemAdapter does; importOneAtATime adds each item on its own instead, as one save and notify per item would.
+// Datastore's own write cost is not included, it can only be measured on a device.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ModelTransferBenchmark {
+    private static final int SIZE = 20000;
+
+    @Param({"JSON", "CSV"})
+    public TransferFormat format;
+
+    // Writes a name as well, so records are as long as a Todo's, though BenchTodo does not keep it
+    private static final ModelCodec<BenchTodo> CODEC = new ModelCodec<BenchTodo>() {
+        @Override
+        public String[] getFields() {
+            return new String[] {"id", "name", "completed"};
+        }
+
+        @Override
+        public void encode(BenchTodo item, String[] values) {
+            values[0] = item.id;
+            values[1] = "Follow up on " + item.id + ", then \"file\" it";
+            values[2] = Boolean.toString(item.completed);
+        }
+
+        @Override
+        public BenchTodo decode(String[] values) {
+            return new BenchTodo(values[0], Boolean.parseBoolean(values[2]));
+        }
+    };
+
+    private List<BenchTodo> items;
+    private String file;
+    private ExecutorService store;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        items = BenchTodo.generate(SIZE);
+        file = export();
+        store = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        store.shutdown();
+    }
+
+    // Reads the file in batches, each added to the list in one go on the store thread
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public List<BenchTodo> importBatches() throws Exception {
+        ListPartition<BenchTodo> partition = new ListPartition<>(BenchTodo.KEYS);
+        partition.setCompletedLoaded(true);
+        List<BenchTodo> list = new ArrayList<>(SIZE);
+        new ModelTransfer<>(CODEC).importAll(
+                format.openReader(new StringReader(file), CODEC.getFields()),
+                (batch, done) -> store.execute(() -> {
+                    partition.applyAll(list, batch);
+                    done.onWritten();
+                }),
+                count -> { }
+        );
+        return list;
+    }
+
+    // Reads the file and adds each item to the list on its own
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public List<BenchTodo> importOneAtATime() throws IOException {
+        ListPartition<BenchTodo> partition = new ListPartition<>(BenchTodo.KEYS);
+        partition.setCompletedLoaded(true);
+        List<BenchTodo> list = new ArrayList<>(SIZE);
+        String[] values = new String[CODEC.getFields().length];
+        TransferFormat.RecordReader reader = format.openReader(new StringReader(file), CODEC.getFields());
+        while (reader.read(values)) {
+            partition.apply(list, ListPartition.ChangeType.CREATE, CODEC.decode(values));
+        }
+        return list;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public String exportAll() throws IOException {
+        return export();
+    }
+
+    private String export() throws IOException {
+        StringWriter out = new StringWriter(SIZE * 64);
+        try (TransferFormat.RecordWriter writer = format.openWriter(out, CODEC.getFields())) {
+            new ModelTransfer<>(CODEC).exportAll(items.iterator(), writer, count -> { });
+        }
+        return out.toString();
+    }
+}
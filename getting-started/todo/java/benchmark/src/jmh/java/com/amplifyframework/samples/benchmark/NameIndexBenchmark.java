@@ -0,0 +1,123 @@
+package com.amplifyframework.samples.benchmark;
+
+import com.amplifyframework.samples.list.NameIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Measures searching Todo names as TodoItemAdapter does while the user types, for texts of one to five
+// characters, and keeping the index current as a Todo is renamed.
+// Names are made of words drawn from a fixed vocabulary, so short texts match many names and long ones a few.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameIndexBenchmark {
+    private static final int RESULTS = 100; // Results shown at a time, as in TodoItemAdapter
+    private static final int WORDS = 2000;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"e", "ma", "ing", "stor", "water"})
+    public String text;
+
+    private List<Named> items;
+    private NameIndex<Named> index;
+    private Named renamed;
+    private Named original;
+
+    // A Todo's id and name, which is all the index reads
+    static final class Named {
+        final String id;
+        final String name;
+
+        Named(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static final NameIndex.Keys<Named> KEYS = new NameIndex.Keys<Named>() {
+        @Override
+        public String idOf(Named item) {
+            return item.id;
+        }
+
+        @Override
+        public String nameOf(Named item) {
+            return item.name;
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(random);
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 2 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    name.append(' ');
+                }
+                name.append(vocabulary[random.nextInt(vocabulary.length)]);
+            }
+            items.add(new Named("todo-" + i, name.toString()));
+        }
+        index = new NameIndex<>(KEYS);
+        index.putAll(items);
+        original = items.get(size / 2);
+        renamed = new Named(original.id, original.name + " later");
+    }
+
+    // Returns made-up words plus a few real ones that the searched texts appear in
+    private static String[] vocabulary(Random random) {
+        String[] words = new String[WORDS];
+        String[] real = {"email", "mail", "making", "store", "storage", "water", "watering", "meeting"};
+        System.arraycopy(real, 0, words, 0, real.length);
+        for (int i = real.length; i < WORDS; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(7);
+            for (int c = 0; c < length; c++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    // Builds the index from every name, as TodoItemAdapter does once in the background
+    @Benchmark
+    public NameIndex<Named> build() {
+        NameIndex<Named> fresh = new NameIndex<>(KEYS);
+        fresh.putAll(items);
+        return fresh;
+    }
+
+    // Searches for the first page of names containing text
+    @Benchmark
+    public List<Named> search() {
+        return index.search(text, RESULTS);
+    }
+
+    // Renames an item and renames it back, as a save and then its undo would
+    @Benchmark
+    public NameIndex<Named> rename() {
+        index.put(renamed);
+        index.put(original);
+        return index;
+    }
+}
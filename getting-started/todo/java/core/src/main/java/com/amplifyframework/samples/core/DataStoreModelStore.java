@@ -0,0 +1,48 @@
+package com.amplifyframework.samples.core;
+
+import android.util.Log;
+
+import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.samples.list.ListPartition;
+
+import java.util.Iterator;
+
+// Keeps models in Amplify DataStore, which syncs them with the backend
+// Must only be used once Amplify is configured
+public final class DataStoreModelStore<T extends Model> implements ModelStore<T> {
+    private final Class<T> modelClass;
+
+    public DataStoreModelStore(Class<T> modelClass) {
+        this.modelClass = modelClass;
+    }
+
+    @Override
+    public void query(QueryOptions options, Consumer<Iterator<T>> onResults, Consumer<Exception> onFailure) {
+        Amplify.DataStore.query(modelClass, options, onResults, onFailure::accept);
+    }
+
+    @Override
+    public void save(T model, Consumer<T> onSaved, Consumer<Exception> onFailure) {
+        Amplify.DataStore.save(model, saved -> onSaved.accept(saved.item()), onFailure::accept);
+    }
+
+    @Override
+    public void delete(T model, Consumer<T> onDeleted, Consumer<Exception> onFailure) {
+        Amplify.DataStore.delete(model, deleted -> onDeleted.accept(deleted.item()), onFailure::accept);
+    }
+
+    @Override
+    public void observe(Consumer<Cancelable> onStart, ChangeListener<T> onChange, Consumer<Exception> onFailure) {
+        Amplify.DataStore.observe(
+                modelClass,
+                onStart,
+                change -> onChange.onChange(ListPartition.ChangeType.valueOf(change.type().name()), change.item()),
+                onFailure::accept,
+                () -> Log.i("MyAmplifyApp", "Observation complete.")
+        );
+    }
+}
@@ -1,28 +1,121 @@
 package com.amplifyframework.samples.core;
 
-import android.app.Activity;
-import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.ConcatAdapter;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Action;
+import com.amplifyframework.core.Consumer;
 import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.Where;
+import com.amplifyframework.samples.list.ModelCodec;
+import com.amplifyframework.samples.list.ModelTransfer;
+import com.amplifyframework.samples.list.SnapshotList;
+import com.amplifyframework.samples.list.TransferFormat;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class ItemAdapter<T extends Model> extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
-    private ArrayList<T> items = new ArrayList<>(); // List that gets displayed by viewHolder
-    public static Context cont;
+    private static final int FIRST_CHUNK_SIZE = 32; // Enough rows to fill the first frame
+    private static final int MAX_CHUNK_SIZE = 1024; // Upper bound on rows published at once
+    private static final long DEFAULT_SAVE_WINDOW_MILLIS = 500; // How long saves are held to be merged
+    private static final long DEFAULT_UNDO_WINDOW_MILLIS = 4000; // How long a queued delete can be undone
+    // List that changes are made to, edited on the main thread and published to the RecyclerView as immutable copies
+    private final SnapshotList<T> items = new SnapshotList<>(Looper.getMainLooper().getThread(), Model::getId);
+    // Diffs items against the list shown by viewHolder on a background thread
+    private final AsyncListDiffer<T> differ = new AsyncListDiffer<>(
+            new HeadUpdates(), new AsyncDifferConfig.Builder<>(new ModelDiffCallback<>(this)).build());
+    // Rows of this adapter as shown while a row is dragged, moved in place rather than diffed, null otherwise
+    private List<T> dragRows;
+    private final Map<String, Long> stableIds = new HashMap<>(); // RecyclerView item id given to each model id
+    private static final int MIN_STABLE_IDS = 256; // Stable ids kept before any are dropped
+    private int stableIdLimit = MIN_STABLE_IDS; // Size stableIds can grow to before it is pruned
+    private long nextStableId = 0;
+    private final TailSection tail = new TailSection(); // Shows the items after getSectionSplit
+    private ConcatAdapter sections; // Built on first use, after stable ids are set
+    // Bumped by each new query, results of older queries are dropped and their reads stop early
+    private volatile int queryGeneration = 0;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, T> pendingSaves = new LinkedHashMap<>(); // Latest unsaved state of each model
+    private final Runnable flushTask = this::flushSaves;
+    private final Map<String, T> pendingDeletes = new LinkedHashMap<>(); // Hidden models waiting to be deleted
+    private final Runnable deleteTask = this::flushDeletes;
+    // Ids of imported models saved but not yet echoed back by observe, written from the import thread
+    private final Set<String> importing = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private long saveWindowMillis = DEFAULT_SAVE_WINDOW_MILLIS;
+    private long undoWindowMillis = DEFAULT_UNDO_WINDOW_MILLIS;
+    private int savedMutationCount = 0; // Saves sent to the store
+    private int coalescedSaveCount = 0; // Saves merged into a later save of the same model
+    private int skippedSaveCount = 0; // Saves skipped because the model was unchanged
+    private LifecycleOwner owner; // UI owner results are delivered to, null once it is destroyed
+    private volatile ModelStore<T> store; // Where models are read and written, DataStore unless set
+    private final LifecycleEventObserver ownerObserver = (source, event) -> {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            unbind();
+        }
+    };
+
+    public ItemAdapter() {
+        setHasStableIds(true);
+    }
+
+    // Delivers results to owner until it is destroyed, replacing any owner bound before
+    // Must be called on the main thread
+    public void bindTo(LifecycleOwner owner) {
+        unbind();
+        this.owner = owner;
+        owner.getLifecycle().addObserver(ownerObserver);
+    }
+
+    // Returns true while a UI owner is bound and not yet destroyed
+    public boolean isBound() {
+        return owner != null;
+    }
+
+    // Lets go of the UI owner and drops in-flight queries, so nothing is retained or delivered to a dead screen
+    private void unbind() {
+        if (owner == null) {
+            return;
+        }
+        owner.getLifecycle().removeObserver(ownerObserver);
+        owner = null;
+        startQueryGeneration();
+        onUnbind();
+    }
 
-    public static void setContext(Context con) {
-        cont = con;
+    // Called once the UI owner is destroyed, for subclasses to stop any work they started for it
+    protected void onUnbind() {
     }
 
     @NotNull
@@ -34,17 +127,251 @@ public abstract class ItemAdapter<T extends Model> extends RecyclerView.Adapter<
     }
 
     public void onBindViewHolder(@NotNull RecyclerView.ViewHolder holder, int position) {
-        T item = items.get(position);
-        ((ItemAdapter.Binder<T>) holder).bind(item);
+        bindModel(holder, shownHead().get(position), Collections.emptyList());
+    }
+
+    @Override
+    public void onBindViewHolder(
+            @NotNull RecyclerView.ViewHolder holder,
+            int position,
+            @NotNull List<Object> payloads) {
+        bindModel(holder, shownHead().get(position), payloads);
+    }
+
+    // Rebinds only the parts of a row named by the payloads, falling back to a full bind when there are none
+    private void bindModel(RecyclerView.ViewHolder holder, T item, List<Object> payloads) {
+        if (payloads.isEmpty() || !(holder instanceof PartialBinder)) {
+            ((ItemAdapter.Binder<T>) holder).bind(item);
+        } else {
+            ((PartialBinder<T>) holder).bind(item, payloads);
+        }
+    }
+
+    // Told how an import or export is going, on the main thread
+    public interface TransferListener {
+        void onProgress(long count);
+
+        void onComplete(long count);
+
+        void onFailure(Exception error);
     }
 
     public interface Binder<T> {
         void bind(T data);
     }
 
-    // Returns the size of the list
+    // Binder that can update a row from the change payloads returned by getChangePayload
+    public interface PartialBinder<T> extends Binder<T> {
+        void bind(T data, List<Object> payloads);
+    }
+
+    // Returns the size of the displayed list
     public int getItemCount() {
-        return items.size();
+        return shownHead().size();
+    }
+
+    // Returns the stable id of the row at position, so RecyclerView can match views across changes
+    @Override
+    public long getItemId(int position) {
+        return stableIdOf(shownHead().get(position).getId());
+    }
+
+    // Returns the rows this adapter shows, the dragged order while a row is being dragged
+    private List<T> shownHead() {
+        return dragRows != null ? dragRows : differ.getCurrentList();
+    }
+
+    // Passes the diffs of this adapter's rows on to the RecyclerView, except while dragRows are shown instead
+    private class HeadUpdates implements ListUpdateCallback {
+        private final AdapterListUpdateCallback adapterUpdates = new AdapterListUpdateCallback(ItemAdapter.this);
+
+        @Override
+        public void onInserted(int position, int count) {
+            if (dragRows == null) {
+                adapterUpdates.onInserted(position, count);
+            }
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            if (dragRows == null) {
+                adapterUpdates.onRemoved(position, count);
+            }
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            if (dragRows == null) {
+                adapterUpdates.onMoved(fromPosition, toPosition);
+            }
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            if (dragRows == null) {
+                adapterUpdates.onChanged(position, count, payload);
+            }
+        }
+    }
+
+    // Returns the adapter to give the RecyclerView: this adapter's rows, followed by the tail section when it is shown
+    // Positions in it are positions in the list as last diffed, use getAbsoluteAdapterPosition() to read them
+    // from a ViewHolder and getItem(int) to find the model they show
+    public ConcatAdapter getSections() {
+        if (sections == null) {
+            ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+                    .setIsolateViewTypes(false) // Rows look the same in both sections, so views are shared
+                    .setStableIdMode(ConcatAdapter.Config.StableIdMode.SHARED_STABLE_IDS)
+                    .build();
+            sections = new ConcatAdapter(config, this);
+        }
+        return sections;
+    }
+
+    // Attaches or detaches the tail section, its items stay in the list either way so nothing is copied or reloaded
+    public void setTailShown(boolean shown) {
+        if (shown == isTailShown()) {
+            return;
+        }
+        if (shown) {
+            getSections().addAdapter(tail);
+        } else {
+            getSections().removeAdapter(tail);
+        }
+    }
+
+    // Returns true if the tail section is attached
+    public boolean isTailShown() {
+        return sections != null && sections.getAdapters().contains(tail);
+    }
+
+    // Returns how many items at the start of list this adapter shows, the rest are shown by the tail section
+    // Every item is shown here unless a subclass splits its list into two sections
+    protected int getSectionSplit(List<T> list) {
+        return list.size();
+    }
+
+    // Shows the items after the section split as a second adapter in getSections()
+    // While detached it keeps only the latest items, and diffs them once it is attached again
+    private class TailSection extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private final AsyncListDiffer<T> tailDiffer =
+                new AsyncListDiffer<>(this, new ModelDiffCallback<>(ItemAdapter.this));
+        private List<T> latest = Collections.emptyList();
+        private boolean attached = false;
+
+        TailSection() {
+            setHasStableIds(true);
+        }
+
+        void submitList(List<T> list) {
+            latest = list;
+            if (attached) {
+                tailDiffer.submitList(list);
+            }
+        }
+
+        @Override
+        public void onAttachedToRecyclerView(@NotNull RecyclerView recyclerView) {
+            attached = true;
+            tailDiffer.submitList(latest);
+        }
+
+        @Override
+        public void onDetachedFromRecyclerView(@NotNull RecyclerView recyclerView) {
+            attached = false;
+        }
+
+        @NotNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NotNull ViewGroup parent, int viewType) {
+            return ItemAdapter.this.onCreateViewHolder(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(@NotNull RecyclerView.ViewHolder holder, int position) {
+            bindModel(holder, tailDiffer.getCurrentList().get(position), Collections.emptyList());
+        }
+
+        @Override
+        public void onBindViewHolder(
+                @NotNull RecyclerView.ViewHolder holder,
+                int position,
+                @NotNull List<Object> payloads) {
+            bindModel(holder, tailDiffer.getCurrentList().get(position), payloads);
+        }
+
+        @Override
+        public int getItemCount() {
+            return tailDiffer.getCurrentList().size();
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return stableIdOf(tailDiffer.getCurrentList().get(position).getId());
+        }
+
+        List<T> getCurrentList() {
+            return tailDiffer.getCurrentList();
+        }
+    }
+
+    // Returns the model shown at a position of getSections(), or null if there is none
+    // Until the latest publish has been diffed this can differ from the model at the same position in getList()
+    private T displayedAt(int position) {
+        List<T> head = shownHead();
+        if (position < 0) {
+            return null;
+        } else if (position < head.size()) {
+            return head.get(position);
+        }
+        List<T> shownTail = isTailShown() ? tail.getCurrentList() : Collections.emptyList();
+        return position - head.size() < shownTail.size() ? shownTail.get(position - head.size()) : null;
+    }
+
+    // Returns the RecyclerView item id for a model id
+    // Ids are handed out in order rather than hashed from the model id, so two models can never share one
+    protected long stableIdOf(String modelId) {
+        Long stableId = stableIds.get(modelId);
+        if (stableId == null) {
+            stableId = nextStableId++;
+            stableIds.put(modelId, stableId);
+        }
+        return stableId;
+    }
+
+    // Drops the stable ids of models that are neither in the list nor shown, once twice as many are held
+    // as after the last time, so each id handed out costs a constant share of the scans. Called as a diff is applied
+    private void pruneStableIds() {
+        if (stableIds.size() <= stableIdLimit) {
+            return;
+        }
+        Set<String> listed = new HashSet<>();
+        addIds(listed, items.edit());
+        addIds(listed, differ.getCurrentList());
+        addIds(listed, tail.getCurrentList());
+        if (dragRows != null) {
+            addIds(listed, dragRows);
+        }
+        stableIds.keySet().retainAll(listed);
+        stableIdLimit = Math.max(MIN_STABLE_IDS, stableIds.size() * 2);
+    }
+
+    private static <T extends Model> void addIds(Set<String> ids, List<T> models) {
+        for (T model : models) {
+            ids.add(model.getId());
+        }
+    }
+
+    // Returns what changed between two versions of a model, passed to PartialBinder to update part of its row,
+    // or null to rebind the whole row. Called on a background thread, so it must only read its arguments
+    public Object getChangePayload(T oldItem, T newItem) {
+        return null;
+    }
+
+    // Returns true if saving updated in place of current would change the stored model
+    // Every field is compared by default, subclasses can compare only the fields they write
+    protected boolean hasChanges(T current, T updated) {
+        return !current.equals(updated);
     }
 
     // Returns the ViewHolder
@@ -56,88 +383,482 @@ public abstract class ItemAdapter<T extends Model> extends RecyclerView.Adapter<
     // Returns the model class
     public abstract Class<T> getModelClass();
 
-    // Queries models from Datastore into a list
+    // Returns the store models are read from and written to
+    public ModelStore<T> getStore() {
+        if (store == null) {
+            store = new DataStoreModelStore<>(getModelClass());
+        }
+        return store;
+    }
+
+    // Sets the store models are read from and written to, before anything is queried or saved
+    public void setStore(ModelStore<T> store) {
+        this.store = store;
+    }
+
+    // Queries models from the store into a list once Amplify is configured
     public void query() {
-        Amplify.DataStore.query(
-                getModelClass(),
-                results -> {
-                    while (results.hasNext()) {
-                        T item = results.next();
-                        items.add(item);
-                        Log.i("Tutorial", "Item loaded: " + item.getId());
-                    }
-                    if (cont instanceof Activity) {
-                        ((Activity) cont).runOnUiThread(this::notifyDataSetChanged);
+        int generation = startQueryGeneration();
+        MainApplication.whenReady(() -> {
+            if (isStale(generation)) {
+                return;
+            }
+            getStore().query(
+                    Where.matchesAll(),
+                    results -> streamResults(
+                            generation,
+                            results,
+                            chunk -> {
+                                items.edit().addAll(chunk);
+                                submitList();
+                            },
+                            () -> { }
+                    ),
+                    failure -> Log.e("Tutorial", "Query Failed", failure)
+            );
+        });
+    }
+
+    // Starts a new query generation, making every query of an older one stale
+    // Must be called on the main thread
+    protected int startQueryGeneration() {
+        return ++queryGeneration;
+    }
+
+    // Returns the generation of the latest query
+    protected int getQueryGeneration() {
+        return queryGeneration;
+    }
+
+    // Returns true if a newer query has started since the query of the given generation
+    protected boolean isStale(int generation) {
+        return generation != queryGeneration;
+    }
+
+    // Reads query results in growing chunks of at most MAX_CHUNK_SIZE rows and hands each one to
+    // onChunk on the main thread, so the first rows show before the whole table has been read
+    // Once the generation is stale, reading stops and no further chunks or onComplete are handed over
+    protected void streamResults(int generation, Iterator<T> results, Consumer<List<T>> onChunk, Action onComplete) {
+        boolean logItems = Log.isLoggable("Tutorial", Log.VERBOSE);
+        int chunkSize = FIRST_CHUNK_SIZE;
+        ArrayList<T> chunk = new ArrayList<>(chunkSize);
+        while (results.hasNext()) {
+            if (isStale(generation)) {
+                return;
+            }
+            T item = results.next();
+            chunk.add(item);
+            if (logItems) {
+                Log.v("Tutorial", "Item loaded: " + item.getId());
+            }
+            if (chunk.size() == chunkSize) {
+                List<T> fullChunk = chunk;
+                runOnUiThread(() -> {
+                    if (!isStale(generation)) {
+                        onChunk.accept(fullChunk);
                     }
-                },
-                failure -> Log.e("Tutorial", "Query Failed", failure)
-        );
+                });
+                chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        List<T> lastChunk = chunk;
+        runOnUiThread(() -> {
+            if (isStale(generation)) {
+                return;
+            }
+            if (!lastChunk.isEmpty()) {
+                onChunk.accept(lastChunk);
+            }
+            onComplete.call();
+        });
     }
 
-    // Saves models into Datastore
+    // Runs an action on the main thread if a UI owner is still bound by then, otherwise drops it
+    protected void runOnUiThread(Runnable action) {
+        mainHandler.post(() -> {
+            if (owner != null) {
+                action.run();
+            }
+        });
+    }
+
+    // Queues a model to be saved into the store, saves of the same model within the save window merge into one
+    // Must be called on the main thread
     public void save(T model) {
-        Amplify.DataStore.save(
-                model,
-                saved -> Log.i("Tutorial", "Saved item: " + model.getId()),
-                failure -> Log.e("Tutorial", "Could not save item to DataStore", failure)
-        );
+        if (pendingSaves.put(model.getId(), model) != null) {
+            coalescedSaveCount++;
+        } else if (pendingSaves.size() == 1) {
+            mainHandler.postDelayed(flushTask, saveWindowMillis);
+        }
+    }
+
+    // Saves the latest state of every queued model into the store now, or once Amplify is configured
+    public void flushSaves() {
+        mainHandler.removeCallbacks(flushTask);
+        if (!MainApplication.isReady()) {
+            MainApplication.whenReady(this::flushSaves); // Saves keep merging until then
+            return;
+        }
+        for (T model : pendingSaves.values()) {
+            getStore().save(
+                    model,
+                    saved -> Log.i("Tutorial", "Saved item: " + model.getId()),
+                    failure -> Log.e("Tutorial", "Could not save item", failure)
+            );
+            savedMutationCount++;
+        }
+        pendingSaves.clear();
+        Log.i("Tutorial", "Saves sent: " + savedMutationCount + ", merged: " + coalescedSaveCount
+                + ", skipped: " + skippedSaveCount);
+    }
+
+    // Sets how long saves are held before being sent to the store
+    public void setSaveWindow(long millis) {
+        saveWindowMillis = millis;
+    }
+
+    // Returns the number of saves sent to the store
+    public int getSavedMutationCount() {
+        return savedMutationCount;
     }
 
-    // Adds a model to DataStore if save is true, otherwise only adds model to list
+    // Returns the number of saves that were merged into a later save and never sent
+    public int getCoalescedSaveCount() {
+        return coalescedSaveCount;
+    }
+
+    // Returns the number of saves skipped by setModel because they would not have changed the model
+    public int getSkippedSaveCount() {
+        return skippedSaveCount;
+    }
+
+    // Adds a model to the store if save is true, otherwise only adds model to list
     public void addModel(T model, Boolean save) {
-        items.add(model);
+        items.edit().add(model);
         if (save) {
             save(model);
         }
     }
 
-    // Deletes a model from Datastore and list
-    public Model deleteModel(int position) {
-        Model item = removeItemFromList(position);
-        Amplify.DataStore.delete(
+    // Deletes the model with the given id from the store and list, returns null if it is not in the list
+    public T deleteModel(String id) {
+        T item = removeItemFromList(id);
+        if (item == null) {
+            return null;
+        }
+        pendingSaves.remove(item.getId());
+        MainApplication.whenReady(() -> getStore().delete(
                 item,
                 deleted -> Log.i("Tutorial", "deleted item"),
                 failure -> Log.e("Tutorial", "Could not delete item", failure)
-        );
+        ));
+        return item;
+    }
+
+    // Hides the model with the given id and deletes it from the store once the undo window closes,
+    // returns null if it is not in the list. Deletes queued close together are sent in one batch
+    public T queueDelete(String id) {
+        T item = removeItemFromList(id);
+        if (item == null) {
+            return null;
+        }
+        pendingDeletes.put(item.getId(), item);
+        mainHandler.removeCallbacks(deleteTask);
+        mainHandler.postDelayed(deleteTask, undoWindowMillis);
         return item;
     }
 
-    // Sets a model at a certain position in the list
-    public void setModel(int position, T model) {
-        items.set(position, model);
+    // Puts a queued model back at its position instead of deleting it
+    public boolean undoDelete(int position, T item) {
+        if (pendingDeletes.remove(item.getId()) == null) {
+            return false;
+        }
+        restoreToList(items.edit(), position, item);
+        submitList();
+        return true;
+    }
+
+    // Puts a model whose delete was undone back in list at position, or at the end if the list is now shorter
+    // Subclasses that split the list into sections keep it within its own, as the list may have changed since
+    protected void restoreToList(List<T> list, int position, T item) {
+        list.add(Math.min(position, list.size()), item);
+    }
+
+    // Deletes every queued model from the store now, or once Amplify is configured
+    public void flushDeletes() {
+        mainHandler.removeCallbacks(deleteTask);
+        if (!MainApplication.isReady()) {
+            MainApplication.whenReady(this::flushDeletes); // Deletes can still be undone until then
+            return;
+        }
+        for (T item : pendingDeletes.values()) {
+            pendingSaves.remove(item.getId());
+            getStore().delete(
+                    item,
+                    deleted -> Log.i("Tutorial", "deleted item"),
+                    failure -> Log.e("Tutorial", "Could not delete item", failure)
+            );
+        }
+        Log.i("Tutorial", "Deleted batch of " + pendingDeletes.size() + " items");
+        pendingDeletes.clear();
+    }
+
+    // Returns true if the model with the given id is hidden waiting to be deleted
+    public boolean isDeletePending(String id) {
+        return pendingDeletes.containsKey(id);
+    }
+
+    // Imports every model read from in on a background thread, closing in once done
+    // Each batch is saved to the store and then added to the list with a single notify, and the next batch
+    // is only read once the store has caught up, so a large file is never held in memory as a whole
+    public void importModels(Reader in, TransferFormat format, ModelCodec<T> codec, TransferListener listener) {
+        MainApplication.whenFailed(failure -> abandonTransfer(in, listener, failure));
+        MainApplication.whenReady(() -> new Thread(() -> {
+            long count;
+            try (Reader input = in; TransferFormat.RecordReader reader = format.openReader(input, codec.getFields())) {
+                count = new ModelTransfer<>(codec).importAll(
+                        reader,
+                        this::saveBatch,
+                        progress -> runOnUiThread(() -> listener.onProgress(progress))
+                );
+            } catch (IOException | InterruptedException | RuntimeException failure) {
+                // RuntimeExceptions cover malformed files, which the JSON reader and codecs report unchecked
+                Log.e("Tutorial", "Import failed", failure);
+                runOnUiThread(() -> {
+                    importing.clear();
+                    query(); // Models of a failed batch may be saved without having been added to the list
+                    listener.onFailure(failure);
+                });
+                return;
+            }
+            runOnUiThread(() -> {
+                importing.clear();
+                listener.onComplete(count);
+            });
+        }, "ModelImport").start());
+    }
+
+    // Closes the file of a transfer that can never start, because Amplify could not be configured,
+    // and tells listener why
+    private static void abandonTransfer(Closeable file, TransferListener listener, Exception failure) {
+        try {
+            file.close();
+        } catch (IOException closeFailure) {
+            Log.w("Tutorial", "Could not close the transfer file", closeFailure);
+        }
+        listener.onFailure(failure);
+    }
+
+    // Saves a batch of imported models into the store, then adds it to the list once every save has finished
+    private void saveBatch(List<T> batch, ModelTransfer.Done done) {
+        for (T model : batch) {
+            importing.add(model.getId());
+        }
+        AtomicInteger unsaved = new AtomicInteger(batch.size());
+        AtomicBoolean failed = new AtomicBoolean(false);
+        for (T model : batch) {
+            getStore().save(
+                    model,
+                    saved -> {
+                        if (unsaved.decrementAndGet() == 0) {
+                            runOnUiThread(() -> onModelsImported(batch));
+                            done.onWritten();
+                        }
+                    },
+                    failure -> {
+                        if (failed.compareAndSet(false, true)) {
+                            done.onFailed(failure);
+                        }
+                    }
+            );
+        }
+    }
+
+    // Adds a batch of imported models to the list and publishes it, called on the main thread
+    protected void onModelsImported(List<T> batch) {
+        items.edit().addAll(batch);
+        submitList();
+    }
+
+    // Returns true if a change from observe is the echo of an imported model's save, which onModelsImported
+    // has or will put in the list, so that each batch is shown with one notify rather than one per model
+    // Must be called on the main thread, at most once for each change
+    protected boolean isImportEcho(T model) {
+        return importing.remove(model.getId());
+    }
+
+    // Exports every model in the store to out on a background thread, closing out once the file is finished
+    public void exportModels(Writer out, TransferFormat format, ModelCodec<T> codec, TransferListener listener) {
+        flushSaves();
+        MainApplication.whenFailed(failure -> abandonTransfer(out, listener, failure));
+        MainApplication.whenReady(() -> getStore().query(
+                Where.matchesAll(),
+                results -> {
+                    long count;
+                    try (Writer output = out;
+                         TransferFormat.RecordWriter writer = format.openWriter(output, codec.getFields())) {
+                        count = new ModelTransfer<>(codec).exportAll(
+                                results,
+                                writer,
+                                progress -> runOnUiThread(() -> listener.onProgress(progress))
+                        );
+                    } catch (IOException | RuntimeException failure) {
+                        Log.e("Tutorial", "Export failed", failure);
+                        runOnUiThread(() -> listener.onFailure(failure));
+                        return;
+                    }
+                    runOnUiThread(() -> listener.onComplete(count)); // Once the file is finished and closed
+                },
+                failure -> {
+                    Log.e("Tutorial", "Export query failed", failure);
+                    runOnUiThread(() -> listener.onFailure(failure));
+                }
+        ));
+    }
+
+    // Sets how long a queued delete can be undone before it is sent to the store
+    public void setUndoWindow(long millis) {
+        undoWindowMillis = millis;
+    }
+
+    // Returns how long a queued delete can be undone
+    public long getUndoWindow() {
+        return undoWindowMillis;
+    }
+
+    // Replaces the model with the same id in the list and saves it, unless it is unchanged or no longer listed
+    // Returns true if the model was changed, so the caller knows whether there is anything to publish
+    public boolean setModel(T model) {
+        int index = positionOf(model.getId());
+        return index != -1 && setModelAt(index, model);
+    }
+
+    // Sets the model at an index of getList() and saves it, unless it is unchanged from the model there
+    protected boolean setModelAt(int index, T model) {
+        List<T> list = items.edit();
+        if (!hasChanges(list.get(index), model)) {
+            skippedSaveCount++;
+            return false;
+        }
+        list.set(index, model);
         save(model);
+        return true;
     }
 
-    // Returns a model at a certain position
+    // Moves a row of this adapter being dragged from one position to another straight away, without saving it
+    // Until endDrag the rows are moved in place and not diffed, so the RecyclerView keeps up with every move.
+    // The model is placed in the list after the row now shown before it, or failing that before the one after it
+    public void moveShown(int from, int to) {
+        if (dragRows == null) {
+            dragRows = new ArrayList<>(differ.getCurrentList());
+        }
+        T moved = dragRows.remove(from);
+        dragRows.add(to, moved);
+        notifyItemMoved(from, to);
+        List<T> list = items.edit();
+        int index = positionOf(moved.getId());
+        if (index == -1) {
+            return; // Removed since, it goes once the drag ends
+        }
+        list.remove(index);
+        int at = -1;
+        if (to > 0) {
+            int before = positionOf(dragRows.get(to - 1).getId());
+            at = before != -1 ? before + 1 : -1;
+        }
+        if (at == -1 && to + 1 < dragRows.size()) {
+            at = positionOf(dragRows.get(to + 1).getId());
+        }
+        list.add(at != -1 ? at : index, moved);
+    }
+
+    // Diffs this adapter's rows again once a drag is over: the dragged order is taken as shown,
+    // and the list is then published against it
+    public void endDrag() {
+        if (dragRows == null) {
+            return;
+        }
+        differ.submitList(new ArrayList<>(dragRows), () -> {
+            dragRows = null;
+            submitList();
+        });
+    }
+
+    // Returns the model shown at a position of getSections() as it is now in the list,
+    // or null if it has been removed since, positions of rows in view always name the row the user sees
     public T getItem(int position) {
-        return items.get(position);
+        T shown = displayedAt(position);
+        return shown != null ? getItem(shown.getId()) : null;
+    }
+
+    // Returns the model with the given id, or null if it is not in the list
+    public T getItem(String id) {
+        int index = positionOf(id);
+        return index != -1 ? items.edit().get(index) : null;
     }
 
-    // Removes a model at a certain position
-    public T removeItemFromList(int position) {
-        T item = items.get(position);
-        items.remove(item);
-        notifyDataSetChanged();
+    // Returns the position of the model with the given id, or -1 if it is not in the list
+    // A hash lookup, unless the list was edited ahead of the model since it was last found, see IdList
+    public int positionOf(String id) {
+        return items.edit().indexOfId(id);
+    }
+
+    // Returns the position in getSections() the model with the given id is shown at once the list is diffed,
+    // or -1 if it is not in the list or is in the tail section while that is detached
+    public int sectionPositionOf(String id) {
+        int index = positionOf(id);
+        if (index == -1 || isTailShown()) {
+            return index; // The tail section follows this adapter's rows, so positions run on across both
+        }
+        return index < getSectionSplit(items.edit()) ? index : -1;
+    }
+
+    // Removes the model with the given id and publishes the list, returns null if it is not in the list
+    public T removeItemFromList(String id) {
+        int index = positionOf(id);
+        if (index == -1) {
+            return null;
+        }
+        T item = items.edit().remove(index);
+        submitList();
         return item;
     }
 
     // Appends another list to this list
-    public void appendList(List<T> list) {
-        items.addAll(list);
+    public void appendList(Collection<T> list) {
+        items.edit().addAll(list);
     }
 
     // Clears list
     public void clearList() {
-        items.clear();
+        items.edit().clear();
     }
 
-    // Returns list
-    public ArrayList<T> getList() {
-        return items;
+    // Returns the list for editing, must be called on the main thread
+    public List<T> getList() {
+        return items.edit();
     }
 
-    // Sets list with another list
+    // Returns the list as last published, from any thread without blocking
+    public List<T> getSnapshot() {
+        return items.current();
+    }
+
+    // Sets list with a copy of another list, must be called on the main thread
     public void setList(ArrayList<T> list) {
-        items = list;
+        items.replace(list);
+    }
+
+    // Publishes a copy of the list to the RecyclerView, notifying only the rows that changed
+    // The items before the section split go to this adapter and the rest to the tail section
+    // Must be called on the main thread
+    public void submitList() {
+        List<T> snapshot = items.publish();
+        int split = getSectionSplit(snapshot);
+        if (dragRows == null) {
+            differ.submitList(snapshot.subList(0, split), this::pruneStableIds); // Otherwise once the drag ends
+        }
+        tail.submitList(snapshot.subList(split, snapshot.size()));
     }
 }
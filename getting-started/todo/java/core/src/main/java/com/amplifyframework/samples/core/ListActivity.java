@@ -6,6 +6,7 @@ import android.view.View;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.amplifyframework.samples.core.databinding.ActivityMainBinding;
+import com.google.android.material.snackbar.Snackbar;
 
 public abstract class ListActivity extends AppCompatActivity {
 
@@ -17,6 +18,14 @@ public abstract class ListActivity extends AppCompatActivity {
         setContentView(view);
 
         binding.floatingActionButton.setOnClickListener(v -> fabAction());
+
+        // Nothing can be loaded or saved if Amplify could not be configured, so say why
+        MainApplication.whenFailed(failure -> {
+            if (!isDestroyed()) {
+                Snackbar.make(view, getString(R.string.amplify_failed, failure.getMessage()),
+                        Snackbar.LENGTH_INDEFINITE).show();
+            }
+        });
     }
 
     public abstract void fabAction();
@@ -1,25 +1,94 @@
 package com.amplifyframework.samples.core;
 
 import android.app.Application;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.amplifyframework.AmplifyException;
 import com.amplifyframework.api.aws.AWSApiPlugin;
 import com.amplifyframework.core.Amplify;
+import com.amplifyframework.core.Consumer;
 import com.amplifyframework.datastore.AWSDataStorePlugin;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class MainApplication extends Application {
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final List<Runnable> readyActions = new ArrayList<>(); // Waiting for Amplify, main thread only
+    private static final List<Consumer<AmplifyException>> failureActions = new ArrayList<>(); // Main thread only
+    private static boolean ready = false; // Whether Amplify is configured, main thread only
+    private static AmplifyException failure; // Why Amplify could not be configured, main thread only
+
     public void onCreate() {
         super.onCreate();
 
-        try {
-            Amplify.addPlugin(new AWSDataStorePlugin());
-            Amplify.addPlugin(new AWSApiPlugin());
-            Amplify.configure(getApplicationContext());
-            Log.i("MyAmplifyApp", "Initialized Amplify");
-        } catch (AmplifyException failure) {
-            Log.e("MyAmplifyApp", "Could not initialize Amplify", failure);
+        // Configure Amplify off the main thread so the first activity can draw in the meantime
+        Context context = getApplicationContext();
+        long startMillis = SystemClock.elapsedRealtime();
+        new Thread(() -> {
+            try {
+                Amplify.addPlugin(new AWSDataStorePlugin());
+                Amplify.addPlugin(new AWSApiPlugin());
+                Amplify.configure(context);
+                Log.i("MyAmplifyApp", "Initialized Amplify in " + (SystemClock.elapsedRealtime() - startMillis) + " ms");
+                mainHandler.post(MainApplication::onReady);
+            } catch (AmplifyException failure) {
+                Log.e("MyAmplifyApp", "Could not initialize Amplify", failure);
+                mainHandler.post(() -> onFailed(failure));
+            }
+        }, "AmplifyInit").start();
+    }
+
+    // Runs every action that was waiting for Amplify to be configured
+    private static void onReady() {
+        ready = true;
+        for (Runnable action : readyActions) {
+            action.run();
+        }
+        readyActions.clear();
+        failureActions.clear();
+    }
+
+    // Drops every action that was waiting for Amplify, which will never be configured now,
+    // and tells whoever asked with whenFailed instead
+    private static void onFailed(AmplifyException error) {
+        failure = error;
+        readyActions.clear();
+        for (Consumer<AmplifyException> action : failureActions) {
+            action.accept(error);
         }
+        failureActions.clear();
+    }
+
+    // Returns true once Amplify is configured and its categories can be used
+    // Must be called on the main thread
+    public static boolean isReady() {
+        return ready;
+    }
 
+    // Runs an action on the main thread once Amplify is configured, straight away if it already is
+    // The action is dropped if configuring fails, use whenFailed to hear about that
+    // Must be called on the main thread
+    public static void whenReady(Runnable action) {
+        if (ready) {
+            action.run();
+        } else if (failure == null) {
+            readyActions.add(action);
+        }
+    }
+
+    // Runs an action on the main thread with the error if Amplify could not be configured, straight away
+    // if it already failed. The action is dropped once Amplify is configured
+    // Must be called on the main thread
+    public static void whenFailed(Consumer<AmplifyException> action) {
+        if (failure != null) {
+            action.accept(failure);
+        } else if (!ready) {
+            failureActions.add(action);
+        }
     }
 }
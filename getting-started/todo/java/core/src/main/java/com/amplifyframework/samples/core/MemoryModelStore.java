@@ -0,0 +1,116 @@
+package com.amplifyframework.samples.core;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.samples.list.ListPartition;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Keeps models in memory only, for benchmarks and for screens whose models need not outlive the process
+// Every call runs in turn on one store thread, so callbacks arrive off the main thread as DataStore's do
+// and a query always sees the saves and deletes made before it
+public final class MemoryModelStore<T extends Model> implements ModelStore<T> {
+    private final ModelTable<T> table;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "MemoryModelStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Stored<T>> stored = new LinkedHashMap<>(); // In creation order, store thread only
+    private final List<ChangeListener<T>> observers = new CopyOnWriteArrayList<>();
+
+    // A model along with the values it is filtered and sorted by
+    private static final class Stored<T> {
+        final T model;
+        final Object[] row;
+
+        Stored(T model, Object[] row) {
+            this.model = model;
+            this.row = row;
+        }
+    }
+
+    public MemoryModelStore(ModelTable<T> table) {
+        this.table = table;
+    }
+
+    @Override
+    public void query(QueryOptions options, Consumer<Iterator<T>> onResults, Consumer<Exception> onFailure) {
+        worker.execute(() -> {
+            StoreQuery query;
+            try {
+                query = new StoreQuery(table, options);
+            } catch (IllegalArgumentException unsupported) {
+                onFailure.accept(unsupported);
+                return;
+            }
+            List<Stored<T>> matches = new ArrayList<>();
+            for (Stored<T> entry : stored.values()) {
+                if (query.matches(entry.row)) {
+                    matches.add(entry);
+                }
+            }
+            List<Stored<T>> page = query.sortAndPage(matches, entry -> entry.row);
+            List<T> results = new ArrayList<>(page.size());
+            for (Stored<T> entry : page) {
+                results.add(entry.model);
+            }
+            onResults.accept(results.iterator());
+        });
+    }
+
+    @Override
+    public void save(T model, Consumer<T> onSaved, Consumer<Exception> onFailure) {
+        worker.execute(() -> {
+            Stored<T> previous = stored.get(model.getId());
+            long createdAt = previous == null
+                    ? System.currentTimeMillis()
+                    : (Long) previous.row[table.getColumnCount() - 1];
+            Object[] row;
+            try {
+                row = table.toRow(model, createdAt);
+            } catch (RuntimeException failure) { // A model that will not encode, which is left unsaved
+                onFailure.accept(failure);
+                return;
+            }
+            stored.put(model.getId(), new Stored<>(model, row));
+            onSaved.accept(model);
+            notifyObservers(
+                    previous == null ? ListPartition.ChangeType.CREATE : ListPartition.ChangeType.UPDATE, model);
+        });
+    }
+
+    @Override
+    public void delete(T model, Consumer<T> onDeleted, Consumer<Exception> onFailure) {
+        worker.execute(() -> {
+            Stored<T> removed = stored.remove(model.getId());
+            onDeleted.accept(model);
+            if (removed != null) {
+                notifyObservers(ListPartition.ChangeType.DELETE, removed.model);
+            }
+        });
+    }
+
+    @Override
+    public void observe(Consumer<Cancelable> onStart, ChangeListener<T> onChange, Consumer<Exception> onFailure) {
+        worker.execute(() -> {
+            observers.add(onChange);
+            onStart.accept(() -> observers.remove(onChange));
+        });
+    }
+
+    private void notifyObservers(ListPartition.ChangeType type, T model) {
+        for (ChangeListener<T> observer : observers) {
+            observer.onChange(type, model);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.amplifyframework.samples.core;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.amplifyframework.core.model.Model;
+
+// Matches models by id so DiffUtil can work out inserts, removes, moves and changes
+// Changed models carry the adapter's change payload so their rows can be partly rebound
+public class ModelDiffCallback<T extends Model> extends DiffUtil.ItemCallback<T> {
+    private final ItemAdapter<T> adapter;
+
+    public ModelDiffCallback(ItemAdapter<T> adapter) {
+        this.adapter = adapter;
+    }
+
+    @Override
+    public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+        return oldItem.getId().equals(newItem.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+        return oldItem.equals(newItem);
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+        return adapter.getChangePayload(oldItem, newItem);
+    }
+}
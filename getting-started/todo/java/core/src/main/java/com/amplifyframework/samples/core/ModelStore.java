@@ -0,0 +1,29 @@
+package com.amplifyframework.samples.core;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.samples.list.ListPartition;
+
+import java.util.Iterator;
+
+// Where an ItemAdapter reads and writes its models, so the storage engine can be swapped without touching the list
+// Calls return straight away and callbacks run later on a thread of the store's choosing, as DataStore's do
+public interface ModelStore<T extends Model> {
+    // Reads the models matching options, in the order they give
+    void query(QueryOptions options, Consumer<Iterator<T>> onResults, Consumer<Exception> onFailure);
+
+    // Creates the model, or replaces the stored model with the same id
+    void save(T model, Consumer<T> onSaved, Consumer<Exception> onFailure);
+
+    void delete(T model, Consumer<T> onDeleted, Consumer<Exception> onFailure);
+
+    // Tells onChange about every model saved or deleted from when onStart is called until the observation it is
+    // given is cancelled
+    void observe(Consumer<Cancelable> onStart, ChangeListener<T> onChange, Consumer<Exception> onFailure);
+
+    interface ChangeListener<T> {
+        void onChange(ListPartition.ChangeType type, T model);
+    }
+}
@@ -0,0 +1,132 @@
+package com.amplifyframework.samples.core;
+
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.temporal.Temporal;
+import com.amplifyframework.samples.list.ModelCodec;
+
+import java.util.Arrays;
+
+// Lays a model class out as a table of typed columns, for the stores that keep models outside DataStore.
+// The columns are the codec's fields, the first of which must be the id, followed by createdAt, which the store
+// sets when a model is first saved as DataStore does. Values are stored and compared the way SQLite would.
+public final class ModelTable<T extends Model> {
+    public static final String CREATED_AT = "createdAt";
+
+    // How the values of a column are stored, as a SQLite type affinity
+    public enum ColumnType {
+        TEXT, INTEGER, REAL
+    }
+
+    private final String name;
+    private final ModelCodec<T> codec;
+    private final String[] columns;
+    private final ColumnType[] types;
+
+    public ModelTable(String name, ModelCodec<T> codec, ColumnType... fieldTypes) {
+        String[] fields = codec.getFields();
+        if (fieldTypes.length != fields.length) {
+            throw new IllegalArgumentException("Expected a type for each of " + Arrays.toString(fields));
+        }
+        if (!"id".equals(fields[0])) {
+            throw new IllegalArgumentException("The first field must be the id");
+        }
+        this.name = name;
+        this.codec = codec;
+        columns = Arrays.copyOf(fields, fields.length + 1);
+        columns[fields.length] = CREATED_AT;
+        types = Arrays.copyOf(fieldTypes, fields.length + 1);
+        types[fields.length] = ColumnType.INTEGER;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ModelCodec<T> getCodec() {
+        return codec;
+    }
+
+    // Returns the number of columns, the codec's fields and then createdAt
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    String getColumn(int column) {
+        return columns[column];
+    }
+
+    ColumnType getType(int column) {
+        return types[column];
+    }
+
+    // Returns the index of the named column
+    // Throws IllegalArgumentException if there is no such column
+    int columnOf(String column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equals(column)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column " + column + " in " + name);
+    }
+
+    // Returns the values model is stored as, typed by column and ending with createdAt
+    Object[] toRow(T model, long createdAt) {
+        String[] values = new String[columns.length - 1];
+        codec.encode(model, values);
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < values.length; i++) {
+            row[i] = withAffinity(values[i], types[i]);
+        }
+        row[values.length] = createdAt;
+        return row;
+    }
+
+    // Converts a value as SQLite does when storing it in a column of the given type,
+    // leaving text that is not a number as it is
+    private static Object withAffinity(String value, ColumnType type) {
+        if (value == null || type == ColumnType.TEXT) {
+            return value;
+        }
+        try {
+            return type == ColumnType.INTEGER ? (Object) Long.valueOf(value) : (Object) Double.valueOf(value);
+        } catch (NumberFormatException notNumber) {
+            return value;
+        }
+    }
+
+    // Returns a value given in a query in the form the codecs write it in
+    static Object toColumnValue(Object value) {
+        if (value == null || value instanceof String) {
+            return value;
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        } else if (value instanceof Temporal.DateTime) {
+            return ((Temporal.DateTime) value).format();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        } else if (value instanceof Double || value instanceof Float) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value.toString();
+    }
+
+    // Orders two stored values as SQLite does: null first, then numbers, then text
+    static int compare(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        boolean aNumber = a instanceof Number;
+        boolean bNumber = b instanceof Number;
+        if (a instanceof Long && b instanceof Long) {
+            return Long.compare((Long) a, (Long) b);
+        } else if (aNumber && bNumber) {
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        } else if (aNumber != bNumber) {
+            return aNumber ? -1 : 1;
+        }
+        return ((String) a).compareTo((String) b);
+    }
+}
@@ -0,0 +1,231 @@
+package com.amplifyframework.samples.core;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import com.amplifyframework.core.Consumer;
+import com.amplifyframework.core.async.Cancelable;
+import com.amplifyframework.core.model.Model;
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.samples.list.ListPartition;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Keeps models in a SQLite table of their own, one column per field, without DataStore's sync, mutation outbox
+// or JSON conversion. Writes go through statements compiled once, and every save and delete waiting when the
+// store thread gets to them is committed in one transaction, so a burst of writes costs one commit rather than one each
+// Every call runs in turn on one store thread, so callbacks arrive off the main thread as DataStore's do
+public final class SqliteModelStore<T extends Model> implements ModelStore<T> {
+    private final ModelTable<T> table;
+    private final SQLiteOpenHelper helper;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "SqliteModelStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<Write<T>> writes = new ConcurrentLinkedQueue<>(); // Waiting for the next commit
+    private final List<ChangeListener<T>> observers = new CopyOnWriteArrayList<>();
+    // Compiled on the store thread on first use
+    private SQLiteStatement insert;
+    private SQLiteStatement update;
+    private SQLiteStatement delete;
+
+    // A save or delete waiting to be committed
+    private static final class Write<T> {
+        final T model;
+        final boolean isDelete;
+        final Consumer<T> onDone;
+        final Consumer<Exception> onFailure;
+        ListPartition.ChangeType change; // Set once written, null if a delete found nothing to delete
+
+        Write(T model, boolean isDelete, Consumer<T> onDone, Consumer<Exception> onFailure) {
+            this.model = model;
+            this.isDelete = isDelete;
+            this.onDone = onDone;
+            this.onFailure = onFailure;
+        }
+    }
+
+    // Opens the database named databaseName in the app's storage, creating it with the table if it doesn't exist
+    public SqliteModelStore(Context context, String databaseName, ModelTable<T> table) {
+        this.table = table;
+        helper = new SQLiteOpenHelper(context.getApplicationContext(), databaseName, null, 1) {
+            @Override
+            public void onCreate(SQLiteDatabase db) {
+                StringBuilder sql = new StringBuilder("CREATE TABLE ").append(quote(table.getName())).append(" (");
+                for (int i = 0; i < table.getColumnCount(); i++) {
+                    sql.append(i == 0 ? "" : ", ")
+                            .append(quote(table.getColumn(i))).append(' ').append(table.getType(i).name())
+                            .append(i == 0 ? " PRIMARY KEY NOT NULL" : "");
+                }
+                db.execSQL(sql.append(')').toString());
+            }
+
+            @Override
+            public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            }
+        };
+    }
+
+    @Override
+    public void query(QueryOptions options, Consumer<Iterator<T>> onResults, Consumer<Exception> onFailure) {
+        worker.execute(() -> {
+            List<T> results = new ArrayList<>();
+            String[] values = new String[table.getColumnCount() - 1];
+            try {
+                StoreQuery query = new StoreQuery(table, options);
+                try (Cursor cursor = helper.getReadableDatabase().rawQuery(query.toSql(), query.getArgs())) {
+                    while (cursor.moveToNext()) {
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = cursor.getString(i);
+                        }
+                        results.add(table.getCodec().decode(values));
+                    }
+                }
+            } catch (RuntimeException failure) { // Opening the database, the query or a row that will not decode
+                onFailure.accept(failure);
+                return;
+            }
+            onResults.accept(results.iterator());
+        });
+    }
+
+    @Override
+    public void save(T model, Consumer<T> onSaved, Consumer<Exception> onFailure) {
+        writes.add(new Write<>(model, false, onSaved, onFailure));
+        worker.execute(this::commitWrites);
+    }
+
+    @Override
+    public void delete(T model, Consumer<T> onDeleted, Consumer<Exception> onFailure) {
+        writes.add(new Write<>(model, true, onDeleted, onFailure));
+        worker.execute(this::commitWrites);
+    }
+
+    @Override
+    public void observe(Consumer<Cancelable> onStart, ChangeListener<T> onChange, Consumer<Exception> onFailure) {
+        worker.execute(() -> {
+            observers.add(onChange);
+            onStart.accept(() -> observers.remove(onChange));
+        });
+    }
+
+    // Writes every waiting save and delete in one transaction, then reports each of them
+    // Writes added meanwhile were already committed by an earlier call if none are left waiting
+    private void commitWrites() {
+        List<Write<T>> batch = new ArrayList<>();
+        for (Write<T> write = writes.poll(); write != null; write = writes.poll()) {
+            batch.add(write);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            SQLiteDatabase db = helper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (Write<T> write : batch) {
+                    write.change = write.isDelete ? deleteRow(db, write.model) : saveRow(db, write.model);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } catch (RuntimeException failure) { // Opening the database, a statement or a model that will not encode
+            for (Write<T> write : batch) {
+                write.onFailure.accept(failure); // The whole transaction was rolled back
+            }
+            return;
+        }
+        for (Write<T> write : batch) {
+            write.onDone.accept(write.model);
+            if (write.change != null) {
+                for (ChangeListener<T> observer : observers) {
+                    observer.onChange(write.change, write.model);
+                }
+            }
+        }
+    }
+
+    // Updates the row for model, or inserts one if there is none, keeping createdAt from when it was inserted
+    private ListPartition.ChangeType saveRow(SQLiteDatabase db, T model) {
+        Object[] row = table.toRow(model, System.currentTimeMillis());
+        int createdAt = row.length - 1;
+        if (update == null) {
+            StringBuilder sql = new StringBuilder("UPDATE ").append(quote(table.getName())).append(" SET ");
+            for (int i = 1; i < createdAt; i++) {
+                sql.append(i == 1 ? "" : ", ").append(quote(table.getColumn(i))).append(" = ?");
+            }
+            update = db.compileStatement(sql.append(" WHERE \"id\" = ?").toString());
+            StringBuilder columns = new StringBuilder();
+            StringBuilder params = new StringBuilder();
+            for (int i = 0; i < row.length; i++) {
+                columns.append(i == 0 ? "" : ", ").append(quote(table.getColumn(i)));
+                params.append(i == 0 ? "?" : ", ?");
+            }
+            insert = db.compileStatement(
+                    "INSERT INTO " + quote(table.getName()) + " (" + columns + ") VALUES (" + params + ")");
+        }
+        for (int i = 1; i < createdAt; i++) {
+            bind(update, i, row[i]);
+        }
+        bind(update, createdAt, row[0]);
+        if (update.executeUpdateDelete() > 0) {
+            return ListPartition.ChangeType.UPDATE;
+        }
+        for (int i = 0; i < row.length; i++) {
+            bind(insert, i + 1, row[i]);
+        }
+        insert.executeInsert();
+        return ListPartition.ChangeType.CREATE;
+    }
+
+    // Deletes the row for model, returning null if there was none
+    private ListPartition.ChangeType deleteRow(SQLiteDatabase db, T model) {
+        if (delete == null) {
+            delete = db.compileStatement("DELETE FROM " + quote(table.getName()) + " WHERE \"id\" = ?");
+        }
+        delete.bindString(1, model.getId());
+        return delete.executeUpdateDelete() > 0 ? ListPartition.ChangeType.DELETE : null;
+    }
+
+    // Binds a stored value to the parameter at index, which counts from 1
+    private static void bind(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Long) {
+            statement.bindLong(index, (Long) value);
+        } else if (value instanceof Double) {
+            statement.bindDouble(index, (Double) value);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+
+    // Closes the database once the writes and queries already asked for have finished
+    public void close() {
+        worker.execute(() -> {
+            for (SQLiteStatement statement : new SQLiteStatement[] {insert, update, delete}) {
+                if (statement != null) {
+                    statement.close();
+                }
+            }
+            helper.close();
+        });
+        worker.shutdown();
+    }
+}
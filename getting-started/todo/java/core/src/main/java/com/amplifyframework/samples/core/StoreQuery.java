@@ -0,0 +1,218 @@
+package com.amplifyframework.samples.core;
+
+import com.amplifyframework.core.model.query.QueryOptions;
+import com.amplifyframework.core.model.query.QueryPaginationInput;
+import com.amplifyframework.core.model.query.QuerySortBy;
+import com.amplifyframework.core.model.query.QuerySortOrder;
+import com.amplifyframework.core.model.query.predicate.EqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.GreaterOrEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.GreaterThanQueryOperator;
+import com.amplifyframework.core.model.query.predicate.LessOrEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.LessThanQueryOperator;
+import com.amplifyframework.core.model.query.predicate.NotEqualQueryOperator;
+import com.amplifyframework.core.model.query.predicate.QueryOperator;
+import com.amplifyframework.core.model.query.predicate.QueryPredicate;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup;
+import com.amplifyframework.core.model.query.predicate.QueryPredicateOperation;
+import com.amplifyframework.core.model.query.predicate.QueryPredicates;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// A DataStore query compiled against a ModelTable, both to SQL for SqliteModelStore and to the same filter
+// and order over stored rows for MemoryModelStore, so the two return the same models in the same order
+// Supports what DataStore queries are built from here: AND and OR of comparisons, sorting and pages
+final class StoreQuery {
+    private final ModelTable<?> table;
+    private final StringBuilder where = new StringBuilder(); // SQL condition, with a ? for each of args
+    private final List<String> args = new ArrayList<>();
+    private final RowFilter filter;
+    private final StringBuilder orderBy = new StringBuilder();
+    private final List<Comparator<Object[]>> order = new ArrayList<>();
+    private final int offset;
+    private final int limit; // -1 for every row
+
+    // Holds for the rows a predicate matches
+    private interface RowFilter {
+        boolean matches(Object[] row);
+    }
+
+    // Throws IllegalArgumentException if options filter or sort by anything the table can't
+    StoreQuery(ModelTable<?> table, QueryOptions options) {
+        this.table = table;
+        QueryPredicate predicate = options.getQueryPredicate();
+        filter = predicate == null || QueryPredicates.all().equals(predicate) ? row -> true : compile(predicate);
+        List<QuerySortBy> sortBy = options.getSortBy() == null ? Collections.emptyList() : options.getSortBy();
+        for (QuerySortBy sort : sortBy) {
+            int column = table.columnOf(sort.getField());
+            boolean descending = sort.getSortOrder() == QuerySortOrder.DESCENDING;
+            orderBy.append(quote(table.getColumn(column))).append(descending ? " DESC, " : " ASC, ");
+            Comparator<Object[]> ascending = (a, b) -> ModelTable.compare(a[column], b[column]);
+            order.add(descending ? Collections.reverseOrder(ascending) : ascending);
+        }
+        orderBy.append("rowid"); // Ties stay in the order models were created, as the memory store keeps them
+        QueryPaginationInput page = options.getPaginationInput();
+        offset = page == null ? 0 : page.getPage() * page.getLimit();
+        limit = page == null ? -1 : page.getLimit();
+    }
+
+    // Compiles a predicate into both a SQL condition appended to where and a filter over rows
+    private RowFilter compile(QueryPredicate predicate) {
+        if (predicate instanceof QueryPredicateGroup) {
+            QueryPredicateGroup group = (QueryPredicateGroup) predicate;
+            if (group.type() == QueryPredicateGroup.Type.NOT) {
+                throw new IllegalArgumentException("NOT is not supported"); // SQL's NOT treats nulls differently
+            }
+            boolean any = group.type() == QueryPredicateGroup.Type.OR;
+            List<RowFilter> filters = new ArrayList<>();
+            where.append('(');
+            for (QueryPredicate member : group.predicates()) {
+                if (!filters.isEmpty()) {
+                    where.append(any ? " OR " : " AND ");
+                }
+                filters.add(compile(member));
+            }
+            where.append(')');
+            return row -> {
+                for (RowFilter member : filters) {
+                    if (member.matches(row) == any) {
+                        return any;
+                    }
+                }
+                return !any;
+            };
+        } else if (predicate instanceof QueryPredicateOperation) {
+            QueryPredicateOperation<?> operation = (QueryPredicateOperation<?>) predicate;
+            return compare(table.columnOf(operation.field()), operation.operator());
+        }
+        throw new IllegalArgumentException("Unsupported predicate " + predicate);
+    }
+
+    // Compiles a comparison of a column with a value, which like SQL never holds for a null unless it is
+    // an equality test against null
+    private RowFilter compare(int column, QueryOperator<?> operator) {
+        Object value = ModelTable.toColumnValue(operandOf(operator));
+        where.append(quote(table.getColumn(column)));
+        if (value == null) {
+            boolean isNull = operator.type() == QueryOperator.Type.EQUAL;
+            if (!isNull && operator.type() != QueryOperator.Type.NOT_EQUAL) {
+                throw new IllegalArgumentException("Only equality can be tested against null");
+            }
+            where.append(isNull ? " IS NULL" : " IS NOT NULL");
+            return row -> (row[column] == null) == isNull;
+        }
+        String sql;
+        ValueTest test;
+        switch (operator.type()) {
+            case EQUAL:
+                sql = " = ?";
+                test = comparison -> comparison == 0;
+                break;
+            case NOT_EQUAL:
+                sql = " <> ?";
+                test = comparison -> comparison != 0;
+                break;
+            case LESS_THAN:
+                sql = " < ?";
+                test = comparison -> comparison < 0;
+                break;
+            case LESS_OR_EQUAL:
+                sql = " <= ?";
+                test = comparison -> comparison <= 0;
+                break;
+            case GREATER_THAN:
+                sql = " > ?";
+                test = comparison -> comparison > 0;
+                break;
+            case GREATER_OR_EQUAL:
+                sql = " >= ?";
+                test = comparison -> comparison >= 0;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported operator " + operator.type());
+        }
+        where.append(sql);
+        args.add(value.toString());
+        return row -> row[column] != null && test.holds(ModelTable.compare(row[column], value));
+    }
+
+    // Holds for the results of comparing a column with a value that a comparison operator accepts
+    private interface ValueTest {
+        boolean holds(int comparison);
+    }
+
+    // Returns the value an operator compares with
+    private static Object operandOf(QueryOperator<?> operator) {
+        if (operator instanceof EqualQueryOperator) {
+            return ((EqualQueryOperator) operator).value();
+        } else if (operator instanceof NotEqualQueryOperator) {
+            return ((NotEqualQueryOperator) operator).value();
+        } else if (operator instanceof LessThanQueryOperator) {
+            return ((LessThanQueryOperator<?>) operator).value();
+        } else if (operator instanceof LessOrEqualQueryOperator) {
+            return ((LessOrEqualQueryOperator<?>) operator).value();
+        } else if (operator instanceof GreaterThanQueryOperator) {
+            return ((GreaterThanQueryOperator<?>) operator).value();
+        } else if (operator instanceof GreaterOrEqualQueryOperator) {
+            return ((GreaterOrEqualQueryOperator<?>) operator).value();
+        }
+        throw new IllegalArgumentException("Unsupported operator " + operator.type());
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+
+    // Returns the SQL that reads the codec's fields of the matching rows, in order and paged
+    String toSql() {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < table.getColumnCount() - 1; i++) {
+            sql.append(i == 0 ? "" : ", ").append(quote(table.getColumn(i)));
+        }
+        sql.append(" FROM ").append(quote(table.getName()));
+        if (where.length() > 0) {
+            sql.append(" WHERE ").append(where);
+        }
+        sql.append(" ORDER BY ").append(orderBy);
+        if (limit != -1) {
+            sql.append(" LIMIT ").append(limit).append(" OFFSET ").append(offset);
+        }
+        return sql.toString();
+    }
+
+    // Returns the values bound to the ? in toSql(), in order
+    String[] getArgs() {
+        return args.toArray(new String[0]);
+    }
+
+    boolean matches(Object[] row) {
+        return filter.matches(row);
+    }
+
+    // Sorts rows, matched and in creation order, into the query's order and returns the requested page of them
+    // Rows that tie keep their creation order, since the sort is stable
+    <R> List<R> sortAndPage(List<R> rows, RowOf<R> rowOf) {
+        if (!order.isEmpty()) {
+            Collections.sort(rows, (a, b) -> {
+                for (Comparator<Object[]> key : order) {
+                    int comparison = key.compare(rowOf.get(a), rowOf.get(b));
+                    if (comparison != 0) {
+                        return comparison;
+                    }
+                }
+                return 0;
+            });
+        }
+        if (limit == -1) {
+            return rows;
+        }
+        return rows.subList(Math.min(offset, rows.size()), Math.min(offset + limit, rows.size()));
+    }
+
+    // Reads the stored values of whatever the memory store keeps for each model
+    interface RowOf<R> {
+        Object[] get(R entry);
+    }
+}
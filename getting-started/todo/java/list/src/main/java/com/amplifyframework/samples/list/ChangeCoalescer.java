@@ -0,0 +1,69 @@
+package com.amplifyframework.samples.list;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Buffers changes to a list's items from any thread until they are drained as one batch, such as once per frame.
+// Only the latest change to each item is kept, since it alone says what state the item ends up in,
+// so a burst of changes to a few items costs one change each however long the burst is.
+// Items keep the place of their first change in the batch, so new items are added in the order they arrived.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+public final class ChangeCoalescer<T> {
+    // A created, updated or deleted item
+    public static final class Change<T> {
+        private final ListPartition.ChangeType type;
+        private final T item;
+
+        Change(ListPartition.ChangeType type, T item) {
+            this.type = type;
+            this.item = item;
+        }
+
+        public ListPartition.ChangeType getType() {
+            return type;
+        }
+
+        public T getItem() {
+            return item;
+        }
+    }
+
+    private final ListPartition.Keys<T> keys;
+    private Map<String, Change<T>> pending = new LinkedHashMap<>(); // Latest change to each item, by id
+    private long addedCount = 0; // Changes added
+    private long mergedCount = 0; // Changes replaced by a later change to the same item before being drained
+
+    public ChangeCoalescer(ListPartition.Keys<T> keys) {
+        this.keys = keys;
+    }
+
+    // Buffers a change, replacing any buffered change to the same item
+    // Returns true if the buffer was empty, when the caller should arrange for it to be drained
+    public synchronized boolean add(ListPartition.ChangeType type, T item) {
+        boolean wasEmpty = pending.isEmpty();
+        addedCount++;
+        if (pending.put(keys.idOf(item), new Change<>(type, item)) != null) {
+            mergedCount++;
+        }
+        return wasEmpty;
+    }
+
+    // Returns every buffered change, in the order their items were first changed, and empties the buffer
+    public synchronized List<Change<T>> drain() {
+        List<Change<T>> batch = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>(); // Rather than cleared, so a burst's table is not kept once it is over
+        return batch;
+    }
+
+    // Returns the number of changes added
+    public synchronized long getAddedCount() {
+        return addedCount;
+    }
+
+    // Returns the number of changes that were replaced by a later change to the same item and never applied
+    public synchronized long getMergedCount() {
+        return mergedCount;
+    }
+}
@@ -0,0 +1,123 @@
+package com.amplifyframework.samples.list;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+// A list that also keeps the position of each item by id, so an item is found by id with a hash lookup
+// rather than a scan. Ids must be unique within the list.
+// Inserting or removing an item still shifts every item after it, as in an ArrayList, so both cost O(n).
+// Their positions are indexed again lazily: the next lookup after an edit indexes from the first shifted position
+// up to the item it looks for, so it costs at most the scan it replaces, and lookups between edits cost O(1).
+// Appends onto a fully indexed list are indexed as they are made.
+public final class IdList<T> extends AbstractList<T> implements RandomAccess {
+    // Reads the id of an item
+    public interface Ids<T> {
+        String idOf(T item);
+    }
+
+    private final Ids<T> ids;
+    private final ArrayList<T> items;
+    private final Map<String, Integer> positions = new HashMap<>(); // Right for every item before indexed
+    private int indexed = 0; // Items before this position have been indexed since they last moved
+
+    public IdList(Ids<T> ids) {
+        this.ids = ids;
+        this.items = new ArrayList<>();
+    }
+
+    public IdList(Ids<T> ids, Collection<? extends T> list) {
+        this.ids = ids;
+        this.items = new ArrayList<>(list);
+    }
+
+    // Returns the position of the item with the given id, or -1 if it is not in the list
+    public int indexOfId(String id) {
+        Integer position = positions.get(id);
+        if (position != null && position < indexed && ids.idOf(items.get(position)).equals(id)) {
+            return position;
+        }
+        // Any item indexed at its current position was found above, so the item can only be further on
+        while (indexed < items.size()) {
+            String next = ids.idOf(items.get(indexed));
+            positions.put(next, indexed);
+            indexed++;
+            if (next.equals(id)) {
+                return indexed - 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public T set(int index, T item) {
+        T previous = items.set(index, item);
+        String id = ids.idOf(item);
+        String previousId = ids.idOf(previous);
+        if (!id.equals(previousId)) {
+            positions.remove(previousId);
+            if (index < indexed) {
+                positions.put(id, index);
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T item) {
+        items.add(index, item);
+        modCount++;
+        if (index == indexed && index == items.size() - 1) {
+            positions.put(ids.idOf(item), index);
+            indexed++;
+        } else {
+            indexed = Math.min(indexed, index);
+        }
+    }
+
+    @Override
+    public T remove(int index) {
+        T removed = items.remove(index);
+        modCount++;
+        positions.remove(ids.idOf(removed));
+        indexed = Math.min(indexed, index);
+        return removed;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> added) {
+        modCount++;
+        return items.addAll(added); // Indexed by the first lookup that reaches them
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        items.clear();
+        positions.clear();
+        indexed = 0;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        modCount++;
+        for (int i = fromIndex; i < toIndex; i++) {
+            positions.remove(ids.idOf(items.get(i)));
+        }
+        items.subList(fromIndex, toIndex).clear();
+        indexed = Math.min(indexed, fromIndex);
+    }
+}
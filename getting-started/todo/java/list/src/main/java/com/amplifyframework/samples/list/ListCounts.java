@@ -0,0 +1,133 @@
+package com.amplifyframework.samples.list;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts a list's items by group and by completion, kept current one change at a time.
+// The state each item was last counted in is kept by id, so a change is counted against the state it replaces,
+// and the same change seen twice, such as a local save and its echo from observe, is only counted once.
+public final class ListCounts<T> {
+    // Reads the id, completion state and group of an item, groups are numbered from 0
+    public interface Keys<T> extends ListPartition.Keys<T> {
+        int groupOf(T item);
+    }
+
+    public interface Listener {
+        void onCountsChanged(ListCounts<?> counts);
+    }
+
+    private final Keys<T> keys;
+    private final int[] open;
+    private final int[] completed;
+    private int openTotal = 0;
+    private int completedTotal = 0;
+    private final Map<String, Integer> states = new HashMap<>(); // Counted state of each item, see stateOf
+    private Listener listener;
+
+    public ListCounts(Keys<T> keys, int groupCount) {
+        this.keys = keys;
+        this.open = new int[groupCount];
+        this.completed = new int[groupCount];
+    }
+
+    // Sets the listener told each time the counts change, and tells it the current counts
+    public void setListener(Listener listener) {
+        this.listener = listener;
+        notifyListener();
+    }
+
+    // Counts an item that was created or updated
+    public void put(T item) {
+        if (record(item)) {
+            notifyListener();
+        }
+    }
+
+    // Counts a batch of items, telling the listener once
+    public void putAll(Iterable<T> items) {
+        boolean changed = false;
+        for (T item : items) {
+            changed |= record(item);
+        }
+        if (changed) {
+            notifyListener();
+        }
+    }
+
+    // Stops counting the item with the given id, used when it is deleted
+    public void remove(String id) {
+        Integer previous = states.remove(id);
+        if (previous != null) {
+            add(previous, -1);
+            notifyListener();
+        }
+    }
+
+    // Returns the number of items in a group that are not completed
+    public int getOpen(int group) {
+        return open[group];
+    }
+
+    // Returns the number of items in a group that are completed
+    public int getCompleted(int group) {
+        return completed[group];
+    }
+
+    // Returns the number of items that are not completed
+    public int getOpenTotal() {
+        return openTotal;
+    }
+
+    // Returns the number of items that are completed
+    public int getCompletedTotal() {
+        return completedTotal;
+    }
+
+    // Returns the group the item with the given id was last counted in, or -1 if it is not counted
+    public int getGroup(String id) {
+        Integer state = states.get(id);
+        return state == null ? -1 : state / 2;
+    }
+
+    // Returns true if the item with the given id was last counted as completed
+    public boolean isCompleted(String id) {
+        Integer state = states.get(id);
+        return state != null && state % 2 == 1;
+    }
+
+    // Moves an item's count from its previous state to its current one, returns true if that changed anything
+    private boolean record(T item) {
+        int state = stateOf(item);
+        Integer previous = states.put(keys.idOf(item), state);
+        if (previous != null && previous == state) {
+            return false;
+        }
+        if (previous != null) {
+            add(previous, -1);
+        }
+        add(state, 1);
+        return true;
+    }
+
+    // Packs an item's group and completion state into one int
+    private int stateOf(T item) {
+        return keys.groupOf(item) * 2 + (keys.isCompleted(item) ? 1 : 0);
+    }
+
+    private void add(int state, int delta) {
+        int group = state / 2;
+        if (state % 2 == 1) {
+            completed[group] += delta;
+            completedTotal += delta;
+        } else {
+            open[group] += delta;
+            openTotal += delta;
+        }
+    }
+
+    private void notifyListener() {
+        if (listener != null) {
+            listener.onCountsChanged(this);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.amplifyframework.samples.list;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps track of which items in a list are completed and applies changes to the right section of it.
+// Active items come first in the list and the completed items loaded so far follow them,
+// so the list can be shown as an active section and a completed section.
+// Finding an item is a lookup when the list is an IdList and a scan otherwise, while moving one between sections
+// shifts the items after it as any insert or remove in an array does, so each change costs O(n) either way.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+public final class ListPartition<T> {
+    // Reads the id and completion state of an item
+    public interface Keys<T> {
+        String idOf(T item);
+
+        boolean isCompleted(T item);
+    }
+
+    public enum ChangeType {
+        CREATE, UPDATE, DELETE
+    }
+
+    private final Keys<T> keys;
+    private final Map<String, T> completedItems = new LinkedHashMap<>(); // Completed items keyed by id, in insertion order
+    private boolean completedLoaded = false; // Whether every completed item has been loaded into the list
+
+    public ListPartition(Keys<T> keys) {
+        this.keys = keys;
+    }
+
+    // Returns whether every completed item has been loaded into the list
+    public boolean isCompletedLoaded() {
+        return completedLoaded;
+    }
+
+    // Sets whether every completed item has been loaded into the list, until then newly completed items
+    // are left for a later page to load in order
+    public void setCompletedLoaded(boolean completedLoaded) {
+        this.completedLoaded = completedLoaded;
+    }
+
+    // Records an item in the list as completed if it is, used as items are loaded
+    public void track(T item) {
+        if (keys.isCompleted(item)) {
+            completedItems.put(keys.idOf(item), item);
+        }
+    }
+
+    // Appends loaded items to the list, tracking the completed ones
+    // Items already in the list, such as ones a change added before their page loaded, are skipped
+    public void addLoaded(List<T> list, Collection<T> loaded) {
+        Set<String> listed = listedIds(list);
+        for (T item : loaded) {
+            String id = keys.idOf(item);
+            if (listed != null ? listed.add(id) : indexOf(list, id) == -1) {
+                list.add(item);
+                track(item);
+            }
+        }
+    }
+
+    // Stops tracking an item as completed, used when it is taken out of the list
+    public void forget(T item) {
+        completedItems.remove(keys.idOf(item));
+    }
+
+    // Returns true if the item with the given id is tracked as completed
+    public boolean isCompleted(String id) {
+        return completedItems.containsKey(id);
+    }
+
+    // Returns the completed items, in the order they were tracked
+    public Collection<T> getCompletedItems() {
+        return completedItems.values();
+    }
+
+    // Stops tracking all completed items
+    public void clear() {
+        completedItems.clear();
+    }
+
+    // Returns the number of active items, which come before the completed ones in the list
+    public int getActiveCount(List<T> list) {
+        return list.size() - completedItems.size();
+    }
+
+    // Applies a created, updated or deleted item to the list and the completed items
+    // An item whose completion changes moves from the end of one section to the end of the other
+    public void apply(List<T> list, ChangeType type, T item) {
+        String id = keys.idOf(item);
+        int position = indexOf(list, id);
+        boolean wasCompleted = completedItems.containsKey(id);
+        boolean completed = keys.isCompleted(item);
+
+        if (type != ChangeType.DELETE && position != -1 && wasCompleted == completed) {
+            list.set(position, item);
+            if (completed) {
+                completedItems.put(id, item);
+            }
+            return;
+        }
+        if (position != -1) {
+            list.remove(position);
+        }
+        completedItems.remove(id);
+        if (type == ChangeType.DELETE) {
+            return;
+        }
+        insert(list, id, item);
+    }
+
+    // Applies a batch of created or updated items as apply would one at a time, with one scan of the list
+    // rather than one per item: items new to the list go straight to the end of their section
+    public void applyAll(List<T> list, Collection<T> items) {
+        Set<String> listed = listedIds(list);
+        for (T item : items) {
+            String id = keys.idOf(item);
+            if (listed != null ? listed.add(id) : indexOf(list, id) == -1) {
+                insert(list, id, item);
+            } else {
+                apply(list, ChangeType.UPDATE, item);
+            }
+        }
+    }
+
+    // Puts back an item taken out of the list at position, as an undone delete does
+    // The list may have changed since, so the item goes to the nearest position within its own section,
+    // or is updated in place if a change has put it back in the list already
+    public void restore(List<T> list, int position, T item) {
+        String id = keys.idOf(item);
+        if (indexOf(list, id) != -1) {
+            apply(list, ChangeType.UPDATE, item);
+            return;
+        }
+        int activeCount = getActiveCount(list);
+        if (!keys.isCompleted(item)) {
+            list.add(Math.max(0, Math.min(position, activeCount)), item);
+        } else {
+            list.add(Math.max(activeCount, Math.min(position, list.size())), item);
+            completedItems.put(id, item);
+        }
+    }
+
+    // Adds an item that is not in the list to the end of its section, or leaves a completed one
+    // for paging until every completed item is loaded
+    private void insert(List<T> list, String id, T item) {
+        if (!keys.isCompleted(item)) {
+            list.add(getActiveCount(list), item);
+        } else if (completedLoaded) {
+            list.add(item);
+            completedItems.put(id, item);
+        }
+    }
+
+    // Returns the ids of the items in the list, or null if it is an IdList, which looks them up itself
+    private Set<String> listedIds(List<T> list) {
+        if (list instanceof IdList) {
+            return null;
+        }
+        Set<String> listed = new HashSet<>();
+        for (T item : list) {
+            listed.add(keys.idOf(item));
+        }
+        return listed;
+    }
+
+    // Returns the position of the item with the given id in the list, or -1 if it is not there
+    public int indexOf(List<T> list, String id) {
+        if (list instanceof IdList) {
+            return ((IdList<T>) list).indexOfId(id);
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (keys.idOf(list.get(i)).equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,159 @@
+package com.amplifyframework.samples.list;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Keeps a list of models in a compact binary file that can be memory-mapped and decoded quickly,
+// so a list can be shown on launch before the store that really holds it has opened.
+// The file starts with a header of its format version, a key naming the list it holds and the codec's fields,
+// followed by each model's field values as a varint length plus one (zero for null) and UTF-8 bytes.
+// A file whose key or fields differ from the reader's, or that cannot be decoded, is read as no list at all.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+public final class ListSnapshotFile<T> {
+    private static final int MAGIC = 0x4C534E50; // "LSNP"
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final ModelCodec<T> codec;
+
+    public ListSnapshotFile(File file, ModelCodec<T> codec) {
+        this.file = file;
+        this.codec = codec;
+    }
+
+    // Returns the list last written with key, or null if there is none
+    public List<T> read(String key) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), key);
+        } catch (BufferUnderflowException | IllegalArgumentException unreadable) {
+            return null; // Cut short or written by a different version, it will be replaced by the next write
+        }
+    }
+
+    // Replaces the file with items under key, writing to a temporary file first so that a reader only ever
+    // finds a whole list; writes from different threads are made one after another
+    public synchronized void write(String key, List<T> items) throws IOException {
+        String[] fields = codec.getFields();
+        String[] values = new String[fields.length];
+        File temporary = new File(file.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temporary)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            writeString(output, key);
+            writeVarint(output, fields.length);
+            for (String field : fields) {
+                writeString(output, field);
+            }
+            writeVarint(output, items.size());
+            for (T item : items) {
+                Arrays.fill(values, null);
+                codec.encode(item, values);
+                for (String value : values) {
+                    writeString(output, value);
+                }
+            }
+            output.flush();
+            stream.getFD().sync(); // On disk before the rename makes it the list read on the next launch
+        }
+        if (!temporary.renameTo(file)) {
+            temporary.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    // Deletes the file, so the next read finds no list
+    public synchronized void delete() {
+        file.delete();
+    }
+
+    // Decodes the list in buffer, or returns null if it was written with a different key or fields
+    private List<T> decode(ByteBuffer buffer, String key) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !key.equals(readString(buffer))) {
+            return null;
+        }
+        String[] fields = codec.getFields();
+        if (readVarint(buffer) != fields.length) {
+            return null;
+        }
+        for (String field : fields) {
+            if (!field.equals(readString(buffer))) {
+                return null;
+            }
+        }
+        int count = readVarint(buffer);
+        if (count > buffer.remaining()) {
+            return null; // Every value takes at least a byte, so the count is corrupt
+        }
+        List<T> items = new ArrayList<>(count);
+        String[] values = new String[fields.length];
+        for (int i = 0; i < count; i++) {
+            for (int field = 0; field < values.length; field++) {
+                values[field] = readString(buffer);
+            }
+            items.add(codec.decode(values));
+        }
+        return items;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            writeVarint(output, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(output, bytes.length + 1);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarint(buffer);
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length - 1];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Writes a non-negative int seven bits at a time, low bits first, so small numbers take one byte
+    private static void writeVarint(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte next = buffer.get();
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid length in snapshot");
+    }
+}
@@ -0,0 +1,15 @@
+package com.amplifyframework.samples.list;
+
+// Converts a model to and from a record of named string fields, the form JSON and CSV files are read and written in.
+// The same values array is passed for every record, so a large file is encoded or decoded without a copy per row.
+public interface ModelCodec<T> {
+    // Returns the field names, in the order encode fills in values and decode reads them
+    String[] getFields();
+
+    // Fills in values with the fields of item, null for a field that is not set
+    void encode(T item, String[] values);
+
+    // Builds a model from values, where a field missing from the record is null
+    // Throws IllegalArgumentException if the values do not make a valid model
+    T decode(String[] values);
+}
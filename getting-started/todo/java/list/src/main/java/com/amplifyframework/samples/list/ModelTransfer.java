@@ -0,0 +1,145 @@
+package com.amplifyframework.samples.list;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// Moves models between files and a store in bounded batches, reporting progress once per batch.
+// An import hands each batch to a sink that writes it asynchronously, and only reads the next batch
+// while fewer than maxPendingBatches are still being written, so memory stays flat however large the file is
+// and reading never runs ahead of the store.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+public final class ModelTransfer<T> {
+    public static final int DEFAULT_BATCH_SIZE = 250; // Models read, written and shown at a time
+    public static final int DEFAULT_PENDING_BATCHES = 2; // Batches written at once, one can be read meanwhile
+
+    // Writes a batch of models, calling done exactly once when all of them are stored or one has failed
+    public interface Sink<T> {
+        void write(List<T> batch, Done done);
+    }
+
+    // Told the outcome of writing a batch, from any thread
+    public interface Done {
+        void onWritten();
+
+        void onFailed(Exception error);
+    }
+
+    // Told how many models have been moved so far, once per batch and always in increasing order
+    public interface Progress {
+        void onProgress(long count);
+    }
+
+    private final ModelCodec<T> codec;
+    private final int batchSize;
+    private final int maxPendingBatches;
+
+    public ModelTransfer(ModelCodec<T> codec) {
+        this(codec, DEFAULT_BATCH_SIZE, DEFAULT_PENDING_BATCHES);
+    }
+
+    public ModelTransfer(ModelCodec<T> codec, int batchSize, int maxPendingBatches) {
+        this.codec = codec;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+    }
+
+    // Reads every record from reader and writes them to sink in batches, blocking until the last batch is written
+    // Returns the number of models imported. Stops reading at the first failed batch or record and throws,
+    // batches already written stay written
+    public long importAll(TransferFormat.RecordReader reader, Sink<T> sink, Progress progress)
+            throws IOException, InterruptedException {
+        Batches batches = new Batches(progress);
+        String[] values = new String[codec.getFields().length];
+        List<T> batch = new ArrayList<>(batchSize);
+        long read = 0;
+        IOException invalid = null;
+        boolean more = true;
+        while (more && batches.failure == null) {
+            more = reader.read(values);
+            if (more) {
+                read++;
+                try {
+                    batch.add(codec.decode(values));
+                } catch (IllegalArgumentException error) {
+                    invalid = new IOException("Invalid record " + read, error);
+                    break;
+                }
+            }
+            if (batch.size() == batchSize || (!more && !batch.isEmpty())) {
+                batches.pending.acquire();
+                List<T> full = batch;
+                sink.write(full, new Done() {
+                    @Override
+                    public void onWritten() {
+                        batches.written(full.size());
+                    }
+
+                    @Override
+                    public void onFailed(Exception error) {
+                        batches.failed(error);
+                    }
+                });
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        batches.pending.acquire(maxPendingBatches); // Waits for every batch still being written
+        if (invalid != null) {
+            throw invalid;
+        }
+        if (batches.failure != null) {
+            throw batches.failure instanceof IOException
+                    ? (IOException) batches.failure
+                    : new IOException("Could not write a batch", batches.failure);
+        }
+        return batches.count;
+    }
+
+    // Writes every model from models to writer, reporting progress once per batch of them
+    // Returns the number of models exported. The writer is left open for the caller to close, which finishes the file
+    public long exportAll(Iterator<T> models, TransferFormat.RecordWriter writer, Progress progress)
+            throws IOException {
+        String[] values = new String[codec.getFields().length];
+        long count = 0;
+        while (models.hasNext()) {
+            codec.encode(models.next(), values);
+            writer.write(values);
+            if (++count % batchSize == 0) {
+                progress.onProgress(count);
+            }
+        }
+        if (count % batchSize != 0 || count == 0) {
+            progress.onProgress(count);
+        }
+        return count;
+    }
+
+    // Tracks the batches of one import as sinks finish writing them
+    private final class Batches {
+        final Semaphore pending = new Semaphore(maxPendingBatches); // A permit for each batch that can be written
+        private final Progress progress;
+        volatile long count = 0;
+        volatile Exception failure;
+
+        Batches(Progress progress) {
+            this.progress = progress;
+        }
+
+        // Counts a written batch, reporting under the lock so counts are never reported out of order
+        synchronized void written(int size) {
+            count += size;
+            progress.onProgress(count);
+            pending.release();
+        }
+
+        // Keeps the first failure, which stops the import
+        synchronized void failed(Exception error) {
+            if (failure == null) {
+                failure = error;
+            }
+            pending.release();
+        }
+    }
+}
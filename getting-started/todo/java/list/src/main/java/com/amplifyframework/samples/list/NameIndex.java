@@ -0,0 +1,242 @@
+package com.amplifyframework.samples.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Finds items whose name contains a piece of text, ignoring case, without reading every name.
+// Each name is indexed by the three-character sequences (trigrams) in it, so a search only reads the items
+// that have every trigram of the text. Names are padded at the end, so every character of a name starts a trigram
+// and searches shorter than a trigram read the trigrams that start with them.
+// Kept current one change at a time; a changed or removed item leaves a gap that is only cleared out
+// once there are more gaps than items, so changes stay cheap.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+public final class NameIndex<T> {
+    // Reads the id and name of an item
+    public interface Keys<T> {
+        String idOf(T item);
+
+        String nameOf(T item);
+    }
+
+    private static final int GRAM = 3;
+    private static final char PAD = '\0'; // Pads names so their last characters start trigrams too, never searched for
+    private static final int MIN_COMPACT_GAPS = 1024; // Gaps left before any are cleared out
+
+    private final Keys<T> keys;
+    private final TreeMap<String, Postings> grams = new TreeMap<>(); // Documents containing each trigram
+    private final Map<String, Integer> documents = new HashMap<>(); // Document of each item, by id
+    private final List<T> items = new ArrayList<>(); // Item of each document, null once it is changed or removed
+    private final List<String> texts = new ArrayList<>(); // Searched text of each document, null with its item
+    private int gaps = 0; // Documents whose item has been changed or removed
+
+    public NameIndex(Keys<T> keys) {
+        this.keys = keys;
+    }
+
+    // Indexes an item that was created or updated, replacing its previous name
+    public void put(T item) {
+        String id = keys.idOf(item);
+        String text = normalize(keys.nameOf(item));
+        Integer document = documents.get(id);
+        if (document != null && texts.get(document).equals(text)) {
+            items.set(document, item); // Same name, so the same trigrams
+            return;
+        }
+        if (document != null) {
+            clear(document);
+        }
+        add(id, item, text);
+        compactIfSparse();
+    }
+
+    // Indexes a batch of items
+    public void putAll(Iterable<T> items) {
+        for (T item : items) {
+            put(item);
+        }
+    }
+
+    // Stops indexing the item with the given id, used when it is deleted
+    public void remove(String id) {
+        Integer document = documents.remove(id);
+        if (document != null) {
+            clear(document);
+            compactIfSparse();
+        }
+    }
+
+    // Returns the number of items indexed
+    public int size() {
+        return documents.size();
+    }
+
+    // Returns up to limit items whose name contains text, ignoring case, in the order they were last indexed
+    // Empty text matches nothing
+    public List<T> search(String text, int limit) {
+        String query = normalize(text).replace(String.valueOf(PAD), "");
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return query.length() < GRAM ? searchPrefix(query, limit) : searchGrams(query, limit);
+    }
+
+    // Reads the documents that have every trigram in query, then checks each one holds the trigrams in order
+    private List<T> searchGrams(String query, int limit) {
+        Set<String> queryGrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            queryGrams.add(query.substring(i, i + GRAM));
+        }
+        Postings[] lists = new Postings[queryGrams.size()];
+        int n = 0;
+        for (String gram : queryGrams) {
+            Postings postings = grams.get(gram);
+            if (postings == null) {
+                return Collections.emptyList();
+            }
+            lists[n++] = postings;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size)); // The rarest trigram bounds the work
+        List<T> found = new ArrayList<>();
+        Postings rarest = lists[0];
+        for (int i = 0; i < rarest.size && found.size() < limit; i++) {
+            int document = rarest.documents[i];
+            T item = items.get(document);
+            if (item != null && inAll(lists, document) && texts.get(document).contains(query)) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    private static boolean inAll(Postings[] lists, int document) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].documents, 0, lists[i].size, document) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Merges the documents of every trigram starting with query in document order, each of them contains query
+    private List<T> searchPrefix(String query, int limit) {
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>();
+        for (Postings postings : grams.subMap(query, query + Character.MAX_VALUE).values()) {
+            cursors.add(new Cursor(postings));
+        }
+        List<T> found = new ArrayList<>();
+        int last = -1;
+        while (!cursors.isEmpty() && found.size() < limit) {
+            Cursor cursor = cursors.poll();
+            int document = cursor.current();
+            if (document != last && items.get(document) != null) {
+                found.add(items.get(document));
+            }
+            last = document;
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return found;
+    }
+
+    // Gives an item a new document, after every other, and adds it to the postings of its trigrams
+    private void add(String id, T item, String text) {
+        int document = items.size();
+        items.add(item);
+        texts.add(text);
+        documents.put(id, document);
+        String padded = text + PAD + PAD;
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            String gram = padded.substring(i, i + GRAM);
+            Postings postings = grams.get(gram);
+            if (postings == null) {
+                postings = new Postings();
+                grams.put(gram, postings);
+            }
+            postings.add(document);
+        }
+    }
+
+    // Leaves a gap where a document was, its postings are skipped until compactIfSparse clears them out
+    private void clear(int document) {
+        items.set(document, null);
+        texts.set(document, null);
+        gaps++;
+    }
+
+    // Indexes every item again without gaps once gaps outnumber items, so searches do not slow down over time
+    private void compactIfSparse() {
+        if (gaps < MIN_COMPACT_GAPS || gaps <= documents.size()) {
+            return;
+        }
+        List<T> live = new ArrayList<>(documents.size());
+        List<String> liveTexts = new ArrayList<>(documents.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) != null) {
+                live.add(items.get(i));
+                liveTexts.add(texts.get(i));
+            }
+        }
+        grams.clear();
+        documents.clear();
+        items.clear();
+        texts.clear();
+        gaps = 0;
+        for (int i = 0; i < live.size(); i++) {
+            add(keys.idOf(live.get(i)), live.get(i), liveTexts.get(i));
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    // Documents containing a trigram, in ascending order as documents are only ever added after every other
+    private static final class Postings {
+        int[] documents = new int[2];
+        int size = 0;
+
+        void add(int document) {
+            if (size > 0 && documents[size - 1] == document) {
+                return; // The trigram is in the name more than once
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+    }
+
+    // Reads one trigram's documents in order while they are merged with others
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Postings postings;
+        private int position = 0;
+
+        Cursor(Postings postings) {
+            this.postings = postings;
+        }
+
+        int current() {
+            return postings.documents[position];
+        }
+
+        // Moves to the next document, returns false if there are none left
+        boolean advance() {
+            return ++position < postings.size;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Integer.compare(current(), other.current());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.amplifyframework.samples.list;
+
+// Fractional ranks for a list ordered by hand. An item moved between two others takes a rank between theirs,
+// so a move writes only the moved item instead of renumbering the list.
+// Each split halves the gap, so after enough moves into the same spot the ranks are spread out again.
+public final class Ranks {
+    public static final double STEP = 1024; // Gap between neighbours when ranks are spread out
+    private static final double MIN_GAP = 1e-12; // Gap, relative to the ranks, below which neighbours are crowded
+
+    private Ranks() {
+    }
+
+    // Returns a rank that sorts between before and after, either of which is null at that end of the list
+    public static double between(Double before, Double after) {
+        if (before == null && after == null) {
+            return STEP;
+        }
+        if (before == null) {
+            return after - STEP;
+        }
+        if (after == null) {
+            return before + STEP;
+        }
+        return before + (after - before) / 2;
+    }
+
+    // Returns true if before and after are too close to split much further, so the list should be spread out
+    public static boolean isCrowded(double before, double after) {
+        double scale = Math.max(1, Math.max(Math.abs(before), Math.abs(after)));
+        return after - before <= MIN_GAP * scale;
+    }
+
+    // Returns count ranks STEP apart, in order
+    public static double[] spread(int count) {
+        double[] ranks = new double[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = (i + 1) * STEP;
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,54 @@
+package com.amplifyframework.samples.list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Holds a list that one writer thread edits and any thread can read.
+// The writer edits a working copy and publishes it as an immutable snapshot, so readers never block
+// and only ever see a list as it was when it was published, never one half way through an edit.
+// The working copy indexes its items by id, so the writer can find them without a scan.
+public final class SnapshotList<T> {
+    private final Thread writer;
+    private final IdList.Ids<T> ids;
+    private IdList<T> working; // Only touched by the writer
+    private volatile List<T> published = Collections.emptyList();
+
+    public SnapshotList(Thread writer, IdList.Ids<T> ids) {
+        this.writer = writer;
+        this.ids = ids;
+        this.working = new IdList<>(ids);
+    }
+
+    // Returns the working copy for the writer to edit, readers see none of it until it is published
+    public IdList<T> edit() {
+        checkWriter();
+        return working;
+    }
+
+    // Replaces the working copy with a copy of list
+    public void replace(Collection<T> list) {
+        checkWriter();
+        working = new IdList<>(ids, list);
+    }
+
+    // Publishes an immutable copy of the working copy and returns it
+    public List<T> publish() {
+        checkWriter();
+        List<T> snapshot = Collections.unmodifiableList(new ArrayList<>(working));
+        published = snapshot;
+        return snapshot;
+    }
+
+    // Returns the last published snapshot, from any thread
+    public List<T> current() {
+        return published;
+    }
+
+    private void checkWriter() {
+        if (Thread.currentThread() != writer) {
+            throw new IllegalStateException("SnapshotList can only be edited on " + writer.getName());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.amplifyframework.samples.list;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// File formats models are imported from and exported to, read and written one record at a time.
+// JSON files hold an array of objects, CSV files a header row naming the columns followed by one row per model.
+// Fields are matched to keys or columns by name, ignoring case, so files from other tools can order them freely
+// and carry extra ones; a field with no key or column is read as null.
+public enum TransferFormat {
+    JSON {
+        @Override
+        public RecordReader openReader(Reader in, String[] fields) throws IOException {
+            return new JsonRecordReader(in, fields);
+        }
+
+        @Override
+        public RecordWriter openWriter(Writer out, String[] fields) throws IOException {
+            return new JsonRecordWriter(buffered(out), fields);
+        }
+    },
+    CSV {
+        @Override
+        public RecordReader openReader(Reader in, String[] fields) throws IOException {
+            return new CsvRecordReader(in, fields);
+        }
+
+        @Override
+        public RecordWriter openWriter(Writer out, String[] fields) throws IOException {
+            return new CsvRecordWriter(buffered(out), fields);
+        }
+    };
+
+    // Reads records one at a time into a values array ordered like the fields it was opened with
+    public interface RecordReader extends Closeable {
+        // Fills in values with the next record and returns true, or returns false at the end of the input
+        boolean read(String[] values) throws IOException;
+    }
+
+    // Writes records one at a time from a values array ordered like the fields it was opened with
+    // Closing it finishes the file and closes the underlying writer
+    public interface RecordWriter extends Closeable {
+        void write(String[] values) throws IOException;
+    }
+
+    // Opens a reader for records in this format, with values ordered like fields
+    public abstract RecordReader openReader(Reader in, String[] fields) throws IOException;
+
+    // Opens a writer for records in this format, with values ordered like fields
+    public abstract RecordWriter openWriter(Writer out, String[] fields) throws IOException;
+
+    // Returns the index of each field keyed by its name in lower case
+    private static Map<String, Integer> indexFields(String[] fields) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            indexes.put(fields[i].toLowerCase(Locale.ROOT), i);
+        }
+        return indexes;
+    }
+
+    // Records are written a few fields at a time, so writes go through a buffer
+    private static Writer buffered(Writer out) {
+        return out instanceof BufferedWriter ? out : new BufferedWriter(out);
+    }
+
+    // Streams the objects of a top-level JSON array
+    private static final class JsonRecordReader implements RecordReader {
+        private final JsonReader json;
+        private final Map<String, Integer> indexes;
+        private boolean ended = false;
+
+        JsonRecordReader(Reader in, String[] fields) throws IOException {
+            json = new JsonReader(in);
+            indexes = indexFields(fields);
+            try {
+                json.beginArray();
+            } catch (IllegalStateException notArray) {
+                throw new IOException("Expected a JSON array of objects", notArray);
+            }
+        }
+
+        @Override
+        public boolean read(String[] values) throws IOException {
+            if (ended) {
+                return false;
+            }
+            try {
+                if (!json.hasNext()) {
+                    json.endArray();
+                    ended = true;
+                    return false;
+                }
+                Arrays.fill(values, null);
+                json.beginObject();
+                while (json.hasNext()) {
+                    Integer index = indexes.get(json.nextName().toLowerCase(Locale.ROOT));
+                    JsonToken token = json.peek();
+                    if (index == null) {
+                        json.skipValue();
+                    } else if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                        values[index] = json.nextString();
+                    } else if (token == JsonToken.BOOLEAN) {
+                        values[index] = Boolean.toString(json.nextBoolean());
+                    } else {
+                        json.skipValue(); // Null, or an array or object no field can hold
+                    }
+                }
+                json.endObject();
+                return true;
+            } catch (IllegalStateException notObject) {
+                throw new IOException("Expected a JSON object at " + json.getPath(), notObject);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+
+    // Writes records as the objects of a top-level JSON array
+    private static final class JsonRecordWriter implements RecordWriter {
+        private final JsonWriter json;
+        private final String[] fields;
+
+        JsonRecordWriter(Writer out, String[] fields) throws IOException {
+            json = new JsonWriter(out);
+            this.fields = fields;
+            json.beginArray();
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            json.beginObject();
+            for (int i = 0; i < fields.length; i++) {
+                json.name(fields[i]).value(values[i]);
+            }
+            json.endObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.endArray();
+            json.close();
+        }
+    }
+
+    // Streams the rows of a CSV file as described by RFC 4180, accepting LF as well as CRLF line ends
+    // An empty unquoted field is read as null and an empty quoted one as an empty string
+    private static final class CsvRecordReader implements RecordReader {
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private int position = 0;
+        private int limit = 0;
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> row = new ArrayList<>();
+        private final int[] columns; // Field index of each column, -1 for columns no field is read from
+
+        CsvRecordReader(Reader in, String[] fields) throws IOException {
+            this.in = in;
+            if (peek() == '\uFEFF') {
+                position++; // Byte order mark, as spreadsheets write at the start of a UTF-8 file
+            }
+            Map<String, Integer> indexes = indexFields(fields);
+            columns = new int[readRow() ? row.size() : 0];
+            for (int i = 0; i < columns.length; i++) {
+                String name = row.get(i);
+                Integer index = name == null ? null : indexes.get(name.trim().toLowerCase(Locale.ROOT));
+                columns[i] = index == null ? -1 : index;
+            }
+        }
+
+        @Override
+        public boolean read(String[] values) throws IOException {
+            do {
+                if (!readRow()) {
+                    return false;
+                }
+            } while (row.size() == 1 && row.get(0) == null); // Skips blank lines
+            Arrays.fill(values, null);
+            for (int i = 0; i < Math.min(row.size(), columns.length); i++) {
+                if (columns[i] != -1) {
+                    values[columns[i]] = row.get(i);
+                }
+            }
+            return true;
+        }
+
+        // Reads the fields of the next row into row, returning false at the end of the input
+        private boolean readRow() throws IOException {
+            row.clear();
+            int c = next();
+            if (c == -1) {
+                return false;
+            }
+            while (true) {
+                boolean quoted = c == '"';
+                field.setLength(0);
+                if (quoted) {
+                    while (true) {
+                        c = next();
+                        if (c == -1) {
+                            throw new IOException("Unterminated quoted field at the end of the CSV");
+                        }
+                        if (c == '"' && (c = next()) != '"') {
+                            break; // A doubled quote is a literal one, a single quote ends the field
+                        }
+                        field.append((char) c);
+                    }
+                }
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    field.append((char) c);
+                    c = next();
+                }
+                row.add(quoted || field.length() > 0 ? field.toString() : null);
+                if (c != ',') {
+                    if (c == '\r' && peek() == '\n') {
+                        position++;
+                    }
+                    return true;
+                }
+                c = next();
+            }
+        }
+
+        // Returns the next character without consuming it, or -1 at the end of the input
+        private int peek() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+
+        // Consumes and returns the next character, or -1 at the end of the input
+        private int next() throws IOException {
+            int c = peek();
+            if (c != -1) {
+                position++;
+            }
+            return c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Writes records as CSV rows after a header row of the field names
+    private static final class CsvRecordWriter implements RecordWriter {
+        private final Writer out;
+
+        CsvRecordWriter(Writer out, String[] fields) throws IOException {
+            this.out = out;
+            write(fields);
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String value = values[i];
+                if (value == null) {
+                    continue; // Left empty, which reads back as null
+                }
+                if (value.isEmpty() || needsQuotes(value)) {
+                    out.write('"');
+                    out.write(value.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        // Returns true if a value holds a character that would otherwise end its field or row
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
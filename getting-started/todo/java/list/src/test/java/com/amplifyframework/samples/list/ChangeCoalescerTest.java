@@ -0,0 +1,112 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeCoalescerTest {
+    private static final int WRITERS = 4;
+    private static final int ITEMS_PER_WRITER = 50;
+    private static final int CHANGES_PER_WRITER = 50000;
+
+    private static final class Item {
+        final String id;
+        final int version;
+
+        Item(String id, int version) {
+            this.id = id;
+            this.version = version;
+        }
+    }
+
+    private static final ListPartition.Keys<Item> KEYS = new ListPartition.Keys<Item>() {
+        @Override
+        public String idOf(Item item) {
+            return item.id;
+        }
+
+        @Override
+        public boolean isCompleted(Item item) {
+            return false;
+        }
+    };
+
+    private static String describe(List<ChangeCoalescer.Change<Item>> batch) {
+        List<String> changes = new ArrayList<>();
+        for (ChangeCoalescer.Change<Item> change : batch) {
+            changes.add(change.getType() + " " + change.getItem().id + change.getItem().version);
+        }
+        return changes.toString();
+    }
+
+    // Only the latest change to each item is kept, in the place of the item's first change
+    @Test
+    public void repeatedChangesToAnItemMergeIntoTheLatest() {
+        ChangeCoalescer<Item> changes = new ChangeCoalescer<>(KEYS);
+        assertTrue(changes.add(ListPartition.ChangeType.UPDATE, new Item("a", 1)));
+        assertFalse(changes.add(ListPartition.ChangeType.CREATE, new Item("b", 1)));
+        assertFalse(changes.add(ListPartition.ChangeType.UPDATE, new Item("a", 2)));
+        assertFalse(changes.add(ListPartition.ChangeType.DELETE, new Item("b", 1)));
+        assertFalse(changes.add(ListPartition.ChangeType.CREATE, new Item("c", 1)));
+        assertEquals("[UPDATE a2, DELETE b1, CREATE c1]", describe(changes.drain()));
+        assertEquals(5, changes.getAddedCount());
+        assertEquals(2, changes.getMergedCount());
+        assertEquals("[]", describe(changes.drain()));
+        assertTrue("The first change after a drain asks for another", changes.add(
+                ListPartition.ChangeType.UPDATE, new Item("a", 3)));
+    }
+
+    // Writers change their own items as fast as they can while batches are drained, applying the batches
+    // must leave every item at its last version and no batch can hold more than one change per item
+    @Test
+    public void drainedBatchesEndAtTheLastChangeWhileWritersRace() throws InterruptedException {
+        ChangeCoalescer<Item> changes = new ChangeCoalescer<>(KEYS);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            String prefix = "w" + w + "-";
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < CHANGES_PER_WRITER; i++) {
+                    changes.add(ListPartition.ChangeType.UPDATE, new Item(prefix + (i % ITEMS_PER_WRITER), i));
+                }
+            }));
+        }
+        Map<String, Integer> applied = new HashMap<>();
+        int[] largestBatch = new int[1];
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread frames = new Thread(() -> {
+            boolean last = false;
+            while (!last) {
+                last = !writing.get(); // One more drain after the writers finish picks up their last changes
+                List<ChangeCoalescer.Change<Item>> batch = changes.drain();
+                largestBatch[0] = Math.max(largestBatch[0], batch.size());
+                for (ChangeCoalescer.Change<Item> change : batch) {
+                    applied.put(change.getItem().id, change.getItem().version);
+                }
+            }
+        });
+        frames.start();
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        frames.join();
+
+        assertTrue("Largest batch " + largestBatch[0], largestBatch[0] <= WRITERS * ITEMS_PER_WRITER);
+        assertEquals(WRITERS * ITEMS_PER_WRITER, applied.size());
+        for (int version : applied.values()) {
+            assertTrue(version >= CHANGES_PER_WRITER - ITEMS_PER_WRITER);
+        }
+        assertEquals((long) WRITERS * CHANGES_PER_WRITER, changes.getAddedCount());
+    }
+}
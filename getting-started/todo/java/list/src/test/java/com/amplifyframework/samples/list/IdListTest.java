@@ -0,0 +1,123 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class IdListTest {
+    private static final int IDS = 200;
+    private static final int CHANGES = 20000;
+
+    // Returns the position of id in list found by scanning, as IdList must find it
+    private static int scan(List<String> list, String id) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Makes random edits to an IdList and an ArrayList side by side, looking up ids between them,
+    // every lookup must find what a scan finds however many edits came before it
+    @Test
+    public void lookupsMatchAScanAfterAnyEdits() {
+        Random random = new Random(7);
+        IdList<String> indexed = new IdList<>(id -> id);
+        List<String> plain = new ArrayList<>();
+        int next = 0;
+        for (int change = 0; change < CHANGES; change++) {
+            int size = plain.size();
+            int action = random.nextInt(10);
+            if (action < 3 || size == 0) {
+                String id = "id-" + next++;
+                int index = random.nextBoolean() ? size : random.nextInt(size + 1);
+                indexed.add(index, id);
+                plain.add(index, id);
+            } else if (action < 6) {
+                int index = random.nextInt(size);
+                assertEquals(plain.remove(index), indexed.remove(index));
+            } else if (action < 7) {
+                int index = random.nextInt(size);
+                String id = random.nextBoolean() ? plain.get(index) : "id-" + next++;
+                indexed.set(index, id);
+                plain.set(index, id);
+            } else if (action < 8) {
+                List<String> added = Arrays.asList("id-" + next++, "id-" + next++);
+                indexed.addAll(added);
+                plain.addAll(added);
+            } else if (action < 9) {
+                int from = random.nextInt(size);
+                int to = Math.min(size, from + random.nextInt(3));
+                indexed.subList(from, to).clear();
+                plain.subList(from, to).clear();
+            } else if (size > IDS) {
+                indexed.clear();
+                plain.clear();
+            }
+            for (int lookup = 0; lookup < 3; lookup++) {
+                String id = "id-" + random.nextInt(next + 1);
+                assertEquals(id, scan(plain, id), indexed.indexOfId(id));
+            }
+        }
+        assertEquals(plain, indexed);
+    }
+
+    private static final class Item {
+        final String id;
+        final boolean completed;
+
+        Item(String id, boolean completed) {
+            this.id = id;
+            this.completed = completed;
+        }
+    }
+
+    private static final ListPartition.Keys<Item> KEYS = new ListPartition.Keys<Item>() {
+        @Override
+        public String idOf(Item item) {
+            return item.id;
+        }
+
+        @Override
+        public boolean isCompleted(Item item) {
+            return item.completed;
+        }
+    };
+
+    // ListPartition looks items up in an IdList instead of scanning it, and must leave it as it leaves an ArrayList
+    @Test
+    public void partitionsApplyTheSameToAnIdList() {
+        Random random = new Random(11);
+        List<Item> plain = new ArrayList<>();
+        List<Item> indexed = new IdList<>(KEYS::idOf);
+        ListPartition<Item> plainPartition = new ListPartition<>(KEYS);
+        ListPartition<Item> indexedPartition = new ListPartition<>(KEYS);
+        plainPartition.setCompletedLoaded(true);
+        indexedPartition.setCompletedLoaded(true);
+        ListPartition.ChangeType[] types = ListPartition.ChangeType.values();
+        for (int change = 0; change < CHANGES; change++) {
+            Item item = new Item("id-" + random.nextInt(IDS), random.nextInt(4) == 0);
+            if (change % 50 == 0) {
+                List<Item> page = Arrays.asList(item, new Item("id-" + random.nextInt(IDS), false));
+                plainPartition.addLoaded(plain, page);
+                indexedPartition.addLoaded(indexed, page);
+            } else if (change % 20 == 0) {
+                List<Item> batch = Arrays.asList(item, new Item("id-" + random.nextInt(IDS), true));
+                plainPartition.applyAll(plain, batch);
+                indexedPartition.applyAll(indexed, batch);
+            } else {
+                ListPartition.ChangeType type = types[random.nextInt(types.length)];
+                plainPartition.apply(plain, type, item);
+                indexedPartition.apply(indexed, type, item);
+            }
+        }
+        assertEquals(plain, indexed);
+        assertEquals(plainPartition.getActiveCount(plain), indexedPartition.getActiveCount(indexed));
+    }
+}
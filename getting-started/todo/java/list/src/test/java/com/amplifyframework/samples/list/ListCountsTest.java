@@ -0,0 +1,129 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ListCountsTest {
+    private static final int GROUPS = 3;
+    private static final int IDS = 200;
+    private static final int CHANGES = 20000;
+
+    private static final class Item {
+        final String id;
+        final int group;
+        final boolean completed;
+
+        Item(String id, int group, boolean completed) {
+            this.id = id;
+            this.group = group;
+            this.completed = completed;
+        }
+    }
+
+    private static final ListCounts.Keys<Item> KEYS = new ListCounts.Keys<Item>() {
+        @Override
+        public String idOf(Item item) {
+            return item.id;
+        }
+
+        @Override
+        public boolean isCompleted(Item item) {
+            return item.completed;
+        }
+
+        @Override
+        public int groupOf(Item item) {
+            return item.group;
+        }
+    };
+
+    // Random creates, updates, deletes and repeated changes leave the same counts as counting the items from scratch
+    @Test
+    public void incrementalCountsMatchARecount() {
+        Random random = new Random(42);
+        ListCounts<Item> counts = new ListCounts<>(KEYS, GROUPS);
+        Map<String, Item> items = new HashMap<>();
+        for (int i = 0; i < CHANGES; i++) {
+            String id = "id" + random.nextInt(IDS);
+            if (random.nextInt(4) == 0) {
+                items.remove(id);
+                counts.remove(id);
+            } else {
+                Item item = new Item(id, random.nextInt(GROUPS), random.nextBoolean());
+                items.put(id, item);
+                counts.put(item);
+                if (random.nextBoolean()) {
+                    counts.put(item); // Echo of the same change
+                }
+            }
+        }
+        int[] open = new int[GROUPS];
+        int[] completed = new int[GROUPS];
+        for (Item item : items.values()) {
+            if (item.completed) {
+                completed[item.group]++;
+            } else {
+                open[item.group]++;
+            }
+        }
+        int openTotal = 0;
+        int completedTotal = 0;
+        for (int group = 0; group < GROUPS; group++) {
+            assertEquals(open[group], counts.getOpen(group));
+            assertEquals(completed[group], counts.getCompleted(group));
+            openTotal += open[group];
+            completedTotal += completed[group];
+        }
+        assertEquals(openTotal, counts.getOpenTotal());
+        assertEquals(completedTotal, counts.getCompletedTotal());
+    }
+
+    // The listener hears about changes that move a count, once for a batch, and not for repeats
+    @Test
+    public void listenerIsToldOnlyOfRealChanges() {
+        ListCounts<Item> counts = new ListCounts<>(KEYS, GROUPS);
+        int[] calls = new int[1];
+        counts.setListener(changed -> calls[0]++);
+        assertEquals(1, calls[0]);
+
+        List<Item> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new Item("id" + i, i % GROUPS, false));
+        }
+        counts.putAll(batch);
+        assertEquals(2, calls[0]);
+
+        counts.put(batch.get(0));
+        counts.remove("missing");
+        assertEquals(2, calls[0]);
+
+        counts.put(new Item("id0", 0, true));
+        counts.remove("id1");
+        assertEquals(4, calls[0]);
+        assertEquals(1, counts.getCompletedTotal());
+        assertEquals(8, counts.getOpenTotal());
+    }
+
+    // Each item's group and completion can be read back by id, as last counted
+    @Test
+    public void stateIsReadBackById() {
+        ListCounts<Item> counts = new ListCounts<>(KEYS, GROUPS);
+        counts.put(new Item("a", 2, false));
+        counts.put(new Item("b", 1, true));
+        counts.put(new Item("a", 0, true));
+        counts.remove("b");
+        assertEquals(0, counts.getGroup("a"));
+        assertTrue(counts.isCompleted("a"));
+        assertEquals(-1, counts.getGroup("b"));
+        assertFalse(counts.isCompleted("b"));
+    }
+}
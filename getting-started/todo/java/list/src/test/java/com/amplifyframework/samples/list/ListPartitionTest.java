@@ -0,0 +1,181 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ListPartitionTest {
+
+    private static final class Item {
+        final String id;
+        final boolean completed;
+
+        Item(String id, boolean completed) {
+            this.id = id;
+            this.completed = completed;
+        }
+    }
+
+    private static final ListPartition.Keys<Item> KEYS = new ListPartition.Keys<Item>() {
+        @Override
+        public String idOf(Item item) {
+            return item.id;
+        }
+
+        @Override
+        public boolean isCompleted(Item item) {
+            return item.completed;
+        }
+    };
+
+    // Returns a partition over active items a, b and c followed by completed items x and y
+    private static ListPartition<Item> load(List<Item> list, boolean completedLoaded) {
+        ListPartition<Item> partition = new ListPartition<>(KEYS);
+        partition.setCompletedLoaded(completedLoaded);
+        partition.addLoaded(list, Arrays.asList(
+                new Item("a", false), new Item("b", false), new Item("c", false),
+                new Item("x", true), new Item("y", true)));
+        return partition;
+    }
+
+    private static String ids(List<Item> list) {
+        StringBuilder ids = new StringBuilder();
+        for (Item item : list) {
+            ids.append(item.id);
+        }
+        return ids.toString();
+    }
+
+    @Test
+    public void completingMovesToTheEndOfTheCompletedSection() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        partition.apply(list, ListPartition.ChangeType.UPDATE, new Item("a", true));
+        assertEquals("bcxya", ids(list));
+        assertEquals(2, partition.getActiveCount(list));
+    }
+
+    @Test
+    public void uncompletingMovesToTheEndOfTheActiveSection() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        partition.apply(list, ListPartition.ChangeType.UPDATE, new Item("x", false));
+        assertEquals("abcxy", ids(list));
+        assertEquals(4, partition.getActiveCount(list));
+    }
+
+    // Until every completed item is loaded, a newly completed one is left for the page that holds it
+    @Test
+    public void completingBeforeTheCompletedSectionIsLoadedLeavesItForPaging() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, false);
+        partition.apply(list, ListPartition.ChangeType.UPDATE, new Item("b", true));
+        assertEquals("acxy", ids(list));
+        assertEquals(2, partition.getActiveCount(list));
+    }
+
+    @Test
+    public void updatesWithinASectionStayInPlace() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        Item b = new Item("b", false);
+        Item x = new Item("x", true);
+        partition.apply(list, ListPartition.ChangeType.UPDATE, b);
+        partition.apply(list, ListPartition.ChangeType.UPDATE, x);
+        assertEquals("abcxy", ids(list));
+        assertSame(b, list.get(1));
+        assertSame(x, list.get(3));
+    }
+
+    @Test
+    public void createsAndDeletesKeepTheSectionsApart() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        partition.apply(list, ListPartition.ChangeType.CREATE, new Item("d", false));
+        partition.apply(list, ListPartition.ChangeType.DELETE, new Item("x", true));
+        assertEquals("abcdy", ids(list));
+        assertEquals(4, partition.getActiveCount(list));
+    }
+
+    // New items go at the end of the active section, never after completed items already in the list
+    @Test
+    public void creatingWhileCompletedItemsAreLoaded() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        partition.apply(list, ListPartition.ChangeType.CREATE, new Item("d", false));
+        partition.apply(list, ListPartition.ChangeType.CREATE, new Item("e", false));
+        assertEquals("abcdexy", ids(list));
+        assertEquals(5, partition.getActiveCount(list));
+    }
+
+    // A batch applies as if its items were applied one at a time
+    @Test
+    public void batchesMatchApplyingEachItem() {
+        List<Item> batch = Arrays.asList(
+                new Item("d", false), new Item("z", true), new Item("b", true),
+                new Item("e", false), new Item("d", true), new Item("a", false));
+        List<Item> one = new ArrayList<>();
+        ListPartition<Item> each = load(one, true);
+        for (Item item : batch) {
+            each.apply(one, ListPartition.ChangeType.UPDATE, item);
+        }
+        List<Item> all = new ArrayList<>();
+        ListPartition<Item> batched = load(all, true);
+        batched.applyAll(all, batch);
+        assertEquals(ids(one), ids(all));
+        assertEquals(each.getActiveCount(one), batched.getActiveCount(all));
+    }
+
+    // A page that holds items a change already added leaves them as they are, active or completed
+    @Test
+    public void loadingSkipsItemsAlreadyInTheList() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        Item created = new Item("d", false);
+        partition.apply(list, ListPartition.ChangeType.CREATE, created);
+        partition.addLoaded(list, Arrays.asList(new Item("d", false), new Item("x", true), new Item("z", true)));
+        assertEquals("abcdxyz", ids(list));
+        assertSame(created, list.get(3));
+        assertEquals(3, partition.getCompletedItems().size());
+    }
+
+    // An undone delete goes back where it was if nothing has changed
+    @Test
+    public void restoringPutsAnItemBackWhereItWas() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        Item b = list.remove(1);
+        partition.restore(list, 1, b);
+        Item x = list.remove(3);
+        partition.forget(x);
+        partition.restore(list, 3, x);
+        assertEquals("abcxy", ids(list));
+        assertEquals(3, partition.getActiveCount(list));
+    }
+
+    // If items changed section while the delete could be undone, the item stays within its own section
+    @Test
+    public void restoringAfterTheSectionsChangedKeepsThemApart() {
+        List<Item> list = new ArrayList<>();
+        ListPartition<Item> partition = load(list, true);
+        Item c = list.remove(2);
+        partition.apply(list, ListPartition.ChangeType.UPDATE, new Item("a", true));
+        partition.apply(list, ListPartition.ChangeType.UPDATE, new Item("b", true));
+        partition.restore(list, 2, c);
+        assertEquals("cxyab", ids(list));
+        assertEquals(1, partition.getActiveCount(list));
+
+        Item y = list.remove(2);
+        partition.forget(y);
+        partition.apply(list, ListPartition.ChangeType.DELETE, new Item("x", true));
+        partition.apply(list, ListPartition.ChangeType.UPDATE, new Item("a", false));
+        partition.restore(list, 0, y);
+        assertEquals("cayb", ids(list));
+        assertEquals(2, partition.getActiveCount(list));
+    }
+}
@@ -0,0 +1,106 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ListSnapshotFileTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static final class Item {
+        final String id;
+        final String name;
+
+        Item(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return id + "=" + name;
+        }
+    }
+
+    private static final class Codec implements ModelCodec<Item> {
+        private final String[] fields;
+
+        Codec(String... fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public String[] getFields() {
+            return fields.clone();
+        }
+
+        @Override
+        public void encode(Item item, String[] values) {
+            values[0] = item.id;
+            values[1] = item.name;
+        }
+
+        @Override
+        public Item decode(String[] values) {
+            return new Item(values[0], values[1]);
+        }
+    }
+
+    private static final Codec CODEC = new Codec("id", "name");
+
+    @Test
+    public void writtenListsReadBack() throws IOException {
+        ListSnapshotFile<Item> snapshot = new ListSnapshotFile<>(folder.newFile(), CODEC);
+        List<Item> items = Arrays.asList(
+                new Item("1", "plain"), new Item("2", ""), new Item("3", null),
+                new Item("4", "\u00fcn\u00efc\u00f8d\u00e9 \ud83d\udcdd"));
+        snapshot.write("created", items);
+        assertEquals(items.toString(), String.valueOf(snapshot.read("created")));
+
+        // Long enough for lengths and counts of more than one varint byte
+        List<Item> many = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            many.add(new Item(Integer.toString(i), new String(new char[i]).replace('\0', 'x')));
+        }
+        snapshot.write("created", many);
+        assertEquals(many.toString(), String.valueOf(snapshot.read("created")));
+    }
+
+    // A list written for another key, by a codec with other fields, or never written is not read at all
+    @Test
+    public void onlyMatchingListsAreRead() throws IOException {
+        File file = new File(folder.getRoot(), "list");
+        ListSnapshotFile<Item> snapshot = new ListSnapshotFile<>(file, CODEC);
+        assertNull(snapshot.read("created"));
+        snapshot.write("created", Arrays.asList(new Item("1", "one")));
+        assertNull(snapshot.read("name"));
+        assertNull(new ListSnapshotFile<>(file, new Codec("id", "title")).read("created"));
+        snapshot.delete();
+        assertNull(snapshot.read("created"));
+    }
+
+    // However the file is cut short, it is read as no list rather than a partial one
+    @Test
+    public void truncatedFilesAreNotRead() throws IOException {
+        File file = folder.newFile();
+        ListSnapshotFile<Item> snapshot = new ListSnapshotFile<>(file, CODEC);
+        snapshot.write("created", Arrays.asList(new Item("1", "one"), new Item("2", "two")));
+        for (long length = file.length() - 1; length >= 0; length--) {
+            try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+                output.setLength(length);
+            }
+            assertNull("Length " + length, snapshot.read("created"));
+        }
+    }
+}
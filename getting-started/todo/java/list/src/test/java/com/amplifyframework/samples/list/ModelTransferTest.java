@@ -0,0 +1,148 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ModelTransferTest {
+
+    private static final class Item {
+        final String id;
+        final String name;
+
+        Item(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return id + "=" + name;
+        }
+    }
+
+    private static final ModelCodec<Item> CODEC = new ModelCodec<Item>() {
+        @Override
+        public String[] getFields() {
+            return new String[] {"id", "name"};
+        }
+
+        @Override
+        public void encode(Item item, String[] values) {
+            values[0] = item.id;
+            values[1] = item.name;
+        }
+
+        @Override
+        public Item decode(String[] values) {
+            if (values[0] == null) {
+                throw new IllegalArgumentException("Missing id");
+            }
+            return new Item(values[0], values[1]);
+        }
+    };
+
+    // Imports a file into a list, writing each batch straight away
+    private static List<Item> importAll(TransferFormat format, String file) throws Exception {
+        List<Item> imported = new ArrayList<>();
+        ModelTransfer<Item> transfer = new ModelTransfer<>(CODEC, 2, 1);
+        TransferFormat.RecordReader reader = format.openReader(new StringReader(file), CODEC.getFields());
+        transfer.importAll(reader, (batch, done) -> {
+            imported.addAll(batch);
+            done.onWritten();
+        }, count -> { });
+        return imported;
+    }
+
+    @Test
+    public void exportedFilesImportTheSameModels() throws Exception {
+        List<Item> items = Arrays.asList(
+                new Item("1", "plain"), new Item("2", "comma, \"quotes\"\nand a new line"),
+                new Item("3", ""), new Item("4", null), new Item("5", "\u00fcn\u00efc\u00f8d\u00e9"));
+        for (TransferFormat format : TransferFormat.values()) {
+            StringWriter file = new StringWriter();
+            try (TransferFormat.RecordWriter writer = format.openWriter(file, CODEC.getFields())) {
+                new ModelTransfer<>(CODEC).exportAll(items.iterator(), writer, count -> { });
+            }
+            assertEquals(format + " " + file, items.toString(), importAll(format, file.toString()).toString());
+        }
+    }
+
+    // Files from other tools can order fields freely, name them in any case and carry extra ones
+    @Test
+    public void fieldsAreReadByName() throws Exception {
+        String csv = "\uFEFFName,Extra,ID\r\nfirst,x,1\r\n\r\n\"second\",,2";
+        assertEquals("[1=first, 2=second]", importAll(TransferFormat.CSV, csv).toString());
+        String json = "[{\"NAME\": \"first\", \"extra\": {\"a\": [1]}, \"id\": 1}, {\"id\": \"2\", \"name\": null}]";
+        assertEquals("[1=first, 2=null]", importAll(TransferFormat.JSON, json).toString());
+    }
+
+    // Reading stops while the allowed number of batches are still being written, and resumes as they finish
+    @Test
+    public void importsNoMoreBatchesThanAllowedAtOnce() throws Exception {
+        StringBuilder file = new StringBuilder("id\n");
+        for (int i = 0; i < 1000; i++) {
+            file.append(i).append('\n');
+        }
+        ExecutorService store = Executors.newFixedThreadPool(4);
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger mostWriting = new AtomicInteger();
+        List<Long> progress = Collections.synchronizedList(new ArrayList<>());
+        ModelTransfer<Item> transfer = new ModelTransfer<>(CODEC, 10, 3);
+        long count = transfer.importAll(
+                TransferFormat.CSV.openReader(new StringReader(file.toString()), CODEC.getFields()),
+                (batch, done) -> {
+                    mostWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+                    store.execute(() -> {
+                        writing.decrementAndGet();
+                        done.onWritten();
+                    });
+                },
+                progress::add
+        );
+        store.shutdown();
+        assertTrue(store.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1000, count);
+        assertTrue("At most 3 batches, saw " + mostWriting.get(), mostWriting.get() <= 3);
+        assertEquals(100, progress.size());
+        for (int i = 0; i < progress.size(); i++) {
+            assertEquals((i + 1) * 10L, (long) progress.get(i));
+        }
+    }
+
+    @Test
+    public void aFailedBatchStopsTheImport() throws Exception {
+        AtomicInteger batches = new AtomicInteger();
+        try {
+            new ModelTransfer<>(CODEC, 1, 1).importAll(
+                    TransferFormat.CSV.openReader(new StringReader("id\n1\n2\n3\n"), CODEC.getFields()),
+                    (batch, done) -> {
+                        if (batches.incrementAndGet() == 2) {
+                            done.onFailed(new IllegalStateException("Store is full"));
+                        } else {
+                            done.onWritten();
+                        }
+                    },
+                    count -> { }
+            );
+            fail("Expected the import to fail");
+        } catch (IOException expected) {
+            assertEquals("Store is full", expected.getCause().getMessage());
+        }
+        assertEquals(2, batches.get());
+    }
+}
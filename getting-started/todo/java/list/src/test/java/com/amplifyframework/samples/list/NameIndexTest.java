@@ -0,0 +1,127 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class NameIndexTest {
+    private static final int IDS = 300;
+    private static final int CHANGES = 20000;
+
+    private static final class Item {
+        final String id;
+        final String name;
+
+        Item(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static final NameIndex.Keys<Item> KEYS = new NameIndex.Keys<Item>() {
+        @Override
+        public String idOf(Item item) {
+            return item.id;
+        }
+
+        @Override
+        public String nameOf(Item item) {
+            return item.name;
+        }
+    };
+
+    private static List<String> ids(List<Item> items) {
+        List<String> ids = new ArrayList<>();
+        for (Item item : items) {
+            ids.add(item.id);
+        }
+        return ids;
+    }
+
+    // Text of any length matches anywhere in a name, in any case, including its last characters
+    @Test
+    public void namesContainingTheTextAreFound() {
+        NameIndex<Item> index = new NameIndex<>(KEYS);
+        index.put(new Item("1", "Buy milk"));
+        index.put(new Item("2", "Call Mum"));
+        index.put(new Item("3", "Mulch the garden"));
+        index.put(new Item("4", "m"));
+        index.put(new Item("5", null));
+        assertEquals("[1, 2, 3, 4]", ids(index.search("M", 10)).toString());
+        assertEquals("[2, 3]", ids(index.search("mu", 10)).toString());
+        assertEquals("[1]", ids(index.search("lk", 10)).toString());
+        assertEquals("[2]", ids(index.search("CALL MUM", 10)).toString());
+        assertEquals("[3]", ids(index.search("the g", 10)).toString());
+        assertEquals("[]", ids(index.search("milkshake", 10)).toString());
+        assertEquals("[]", ids(index.search("", 10)).toString());
+        assertEquals("[1, 2]", ids(index.search("m", 2)).toString());
+    }
+
+    // A renamed item is found by its new name only, a removed one not at all
+    @Test
+    public void changesAreSearchedStraightAway() {
+        NameIndex<Item> index = new NameIndex<>(KEYS);
+        index.put(new Item("1", "Buy milk"));
+        index.put(new Item("2", "Buy bread"));
+        index.put(new Item("1", "Buy oat milk"));
+        assertEquals("[2, 1]", ids(index.search("buy", 10)).toString());
+        assertEquals("[]", ids(index.search("y m", 10)).toString());
+        index.remove("2");
+        assertEquals("[1]", ids(index.search("b", 10)).toString());
+        assertEquals(1, index.size());
+    }
+
+    // After any series of changes, including enough to clear out gaps many times over,
+    // every search finds exactly the items a scan of every name would
+    @Test
+    public void searchesMatchAScanOfEveryName() {
+        Random random = new Random(24);
+        NameIndex<Item> index = new NameIndex<>(KEYS);
+        Map<String, Item> current = new HashMap<>();
+        for (int i = 0; i < CHANGES; i++) {
+            String id = "id" + random.nextInt(IDS);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                current.remove(id);
+            } else {
+                Item item = new Item(id, randomText(random, random.nextInt(12)));
+                index.put(item);
+                current.put(id, item);
+            }
+        }
+        assertEquals(current.size(), index.size());
+        for (int length = 1; length <= 4; length++) {
+            for (int i = 0; i < 50; i++) {
+                String query = randomText(random, length);
+                List<String> expected = new ArrayList<>();
+                for (Item item : current.values()) {
+                    if (item.name.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT))) {
+                        expected.add(item.id);
+                    }
+                }
+                List<String> found = ids(index.search(query, IDS));
+                Collections.sort(expected);
+                Collections.sort(found);
+                assertEquals(query, expected, found);
+            }
+        }
+    }
+
+    // Returns text from a small alphabet in both cases, so short searches match many names and long ones a few
+    private static String randomText(Random random, int length) {
+        String alphabet = "abcdeABCDE ";
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
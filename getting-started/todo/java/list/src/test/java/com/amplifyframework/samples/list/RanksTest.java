@@ -0,0 +1,51 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RanksTest {
+
+    // Moving to either end of the list, or into an empty one, needs no neighbour on that side
+    @Test
+    public void openEndsStepAwayFromTheNeighbour() {
+        assertEquals(Ranks.STEP, Ranks.between(null, null), 0);
+        assertEquals(5 - Ranks.STEP, Ranks.between(null, 5.0), 0);
+        assertEquals(5 + Ranks.STEP, Ranks.between(5.0, null), 0);
+    }
+
+    // Moving into the same spot over and over keeps every rank in order until the gap is crowded,
+    // and takes far more moves than a user makes before the list needs spreading out
+    @Test
+    public void repeatedSplitsStayOrderedUntilCrowded() {
+        double before = Ranks.STEP;
+        double after = 2 * Ranks.STEP;
+        int splits = 0;
+        while (!Ranks.isCrowded(before, after)) {
+            double rank = Ranks.between(before, after);
+            assertTrue(before < rank && rank < after);
+            after = rank;
+            splits++;
+        }
+        assertTrue(splits > 20);
+    }
+
+    // Ranks large enough to have been appended for a long time are still split in order
+    @Test
+    public void crowdingIsRelativeToTheRanks() {
+        double before = 1e12;
+        assertFalse(Ranks.isCrowded(before, before + Ranks.STEP));
+        assertTrue(Ranks.isCrowded(before, before + 1e-4));
+    }
+
+    @Test
+    public void spreadRanksAreInOrderAndApart() {
+        double[] ranks = Ranks.spread(100);
+        for (int i = 1; i < ranks.length; i++) {
+            assertEquals(Ranks.STEP, ranks[i] - ranks[i - 1], 0);
+        }
+        assertFalse(Ranks.isCrowded(ranks[0], ranks[1]));
+    }
+}
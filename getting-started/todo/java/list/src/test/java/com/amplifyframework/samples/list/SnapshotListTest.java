@@ -0,0 +1,146 @@
+package com.amplifyframework.samples.list;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SnapshotListTest {
+    private static final int SIZE = 500;
+    private static final int CHANGES = 20000;
+    private static final int READERS = 4;
+
+    private static final class Item {
+        final String id;
+        final boolean completed;
+
+        Item(String id, boolean completed) {
+            this.id = id;
+            this.completed = completed;
+        }
+    }
+
+    private static final ListPartition.Keys<Item> KEYS = new ListPartition.Keys<Item>() {
+        @Override
+        public String idOf(Item item) {
+            return item.id;
+        }
+
+        @Override
+        public boolean isCompleted(Item item) {
+            return item.completed;
+        }
+    };
+
+    // Applies change events on a writer thread while reader threads scroll through published snapshots,
+    // every snapshot a reader sees must be a whole list, never one caught between a delete and its re-insert
+    @Test
+    public void readersOnlySeeWholeSnapshotsWhileChangesApply() throws Exception {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch published = new CountDownLatch(1);
+        AtomicReference<SnapshotList<Item>> holder = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            try {
+                SnapshotList<Item> list = holder.get();
+                ListPartition<Item> partition = new ListPartition<>(KEYS);
+                partition.setCompletedLoaded(true);
+                List<Item> loaded = new ArrayList<>();
+                for (int i = 0; i < SIZE; i++) {
+                    loaded.add(new Item("item-" + i, false));
+                }
+                partition.addLoaded(list.edit(), loaded);
+                list.publish();
+                published.countDown();
+                for (int i = 0; i < CHANGES; i++) {
+                    Item item = new Item("item-" + (i % SIZE), i % 3 == 0);
+                    partition.apply(list.edit(), ListPartition.ChangeType.DELETE, item);
+                    partition.apply(list.edit(), ListPartition.ChangeType.CREATE, item);
+                    partition.apply(list.edit(), ListPartition.ChangeType.UPDATE, item);
+                    list.publish();
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                published.countDown();
+                writing.set(false);
+            }
+        }, "writer");
+        holder.set(new SnapshotList<>(writer, KEYS::idOf));
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    published.await();
+                    while (writing.get()) {
+                        List<Item> snapshot = holder.get().current();
+                        Set<String> ids = new HashSet<>();
+                        for (Item item : snapshot) {
+                            ids.add(item.id);
+                        }
+                        assertEquals(SIZE, snapshot.size());
+                        assertEquals(SIZE, ids.size());
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }, "reader-" + r));
+        }
+
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertEquals(SIZE, holder.get().current().size());
+    }
+
+    // Published snapshots can't be edited, and a later edit leaves an earlier snapshot unchanged
+    @Test
+    public void publishedSnapshotsAreImmutable() {
+        SnapshotList<String> list = new SnapshotList<>(Thread.currentThread(), item -> item);
+        list.edit().add("a");
+        List<String> snapshot = list.publish();
+        list.edit().add("b");
+        assertEquals(1, snapshot.size());
+        try {
+            snapshot.add("c");
+            fail("Snapshot should be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+            assertTrue(list.current() == snapshot);
+        }
+    }
+
+    // Only the writer thread can edit the list
+    @Test
+    public void otherThreadsCannotEdit() throws Exception {
+        SnapshotList<String> list = new SnapshotList<>(Thread.currentThread(), item -> item);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            try {
+                list.edit();
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        other.start();
+        other.join();
+        assertTrue(thrown.get() instanceof IllegalStateException);
+    }
+}
@@ -0,0 +1,150 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.content.Context
+import android.content.res.ColorStateList
+import android.os.Bundle
+import android.os.Debug
+import android.util.Log
+import android.view.ContextThemeWrapper
+import android.widget.CheckBox
+import android.widget.FrameLayout
+import android.widget.TextView
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.amplifyframework.core.model.temporal.Temporal
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+import java.util.Date
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+// Binds TODOS Todos of every Priority, completed and not, to HOLDERS rows through the adapter over and over
+// as scrolling does, and counts the objects the main thread allocates once every row has been bound once.
+// The views themselves allocate when their text, tint or check state changes, so the same changes are first
+// made straight on the same views, and binding may allocate at most MAX_EXTRA_ALLOCATIONS more than that.
+// A bind that built a tint or drawable state of its own would allocate several objects every time.
+// Counts are logged under BindAllocationTest and reported as instrumentation status.
+@RunWith(AndroidJUnit4::class)
+class BindAllocationTest {
+    companion object {
+        private const val TAG = "BindAllocationTest"
+        private const val TODOS = 300
+        // About a screen of rows, not a multiple of the Priority count so reused rows change tint
+        private const val HOLDERS = 13
+        private const val BINDS = 20000
+        // One allocation per hundred binds, for one-off allocations such as a resized buffer
+        private const val MAX_EXTRA_ALLOCATIONS = BINDS / 100
+    }
+
+    private val instrumentation = InstrumentationRegistry.getInstrumentation()
+
+    @Test
+    @Suppress("DEPRECATION")
+    fun bindingRowsAllocatesNoMoreThanTheViews() {
+        val todos = buildTodos()
+        var viewAllocations = 0
+        var allocations = 0
+        instrumentation.runOnMainSync {
+            val context = ContextThemeWrapper(ApplicationProvider.getApplicationContext<Context>(), R.style.Theme_Todo)
+            val parent = FrameLayout(context)
+            val adapter = TodoItemAdapter(object : TodoItemAdapter.OnItemClickListener {
+                override fun onCheckClick(position: Int, isChecked: Boolean) {}
+
+                override fun onTextClick(position: Int, text: String, priority: Priority) {}
+            })
+            adapter.setList(todos.toMutableList())
+            adapter.submitList() // The first list is shown straight away, without a diff
+            assertEquals(TODOS, adapter.itemCount)
+            val holders = Array(HOLDERS) { adapter.onCreateViewHolder(parent, 0) as TodoItemAdapter.ItemViewHolder }
+            for (i in 0 until TODOS) {
+                adapter.onBindViewHolder(holders[i % HOLDERS], i) // Builds the shared tints and warms up each row
+            }
+            val tints = sharedTints(adapter, holders)
+
+            setViews(holders, todos, tints, TODOS) // Warms up setting the views directly
+            Debug.resetThreadAllocCount()
+            Debug.startAllocCounting()
+            setViews(holders, todos, tints, BINDS)
+            Debug.stopAllocCounting()
+            viewAllocations = Debug.getThreadAllocCount()
+
+            Debug.resetThreadAllocCount()
+            Debug.startAllocCounting()
+            for (i in 0 until BINDS) {
+                adapter.onBindViewHolder(holders[i % HOLDERS], i % TODOS)
+            }
+            Debug.stopAllocCounting()
+            allocations = Debug.getThreadAllocCount()
+        }
+
+        val results = Bundle()
+        report(results, "binds", BINDS.toLong())
+        report(results, "viewAllocations", viewAllocations.toLong())
+        report(results, "allocations", allocations.toLong())
+        instrumentation.sendStatus(0, results)
+        assertTrue(
+            "Allocated $allocations objects in $BINDS binds, the views alone $viewAllocations",
+            allocations <= viewAllocations + MAX_EXTRA_ALLOCATIONS
+        )
+    }
+
+    // Binds a row to a Todo of each Priority and returns the tint it gets, by Priority ordinal,
+    // checking two rows bound to different Todos of the same Priority get the same tint instance
+    private fun sharedTints(
+        adapter: TodoItemAdapter,
+        holders: Array<TodoItemAdapter.ItemViewHolder>
+    ): List<ColorStateList?> {
+        val priorities = Priority.values().size
+        val tints = (0 until priorities).map {
+            adapter.onBindViewHolder(holders[0], it)
+            checkBoxOf(holders[0]).buttonTintList
+        }
+        adapter.onBindViewHolder(holders[1], priorities)
+        assertSame(tints[0], checkBoxOf(holders[1]).buttonTintList)
+        return tints
+    }
+
+    // Makes the changes a bind makes straight on the views, in the same order binding would
+    private fun setViews(
+        holders: Array<TodoItemAdapter.ItemViewHolder>,
+        todos: List<Todo>,
+        tints: List<ColorStateList?>,
+        binds: Int
+    ) {
+        val names = Array<TextView>(HOLDERS) { holders[it].itemView.findViewById(R.id.todo_row_item) }
+        val checkBoxes = Array(HOLDERS) { checkBoxOf(holders[it]) }
+        for (i in 0 until binds) {
+            val todo = todos[i % TODOS]
+            val checkBox = checkBoxes[i % HOLDERS]
+            val tint = tints[todo.priority.ordinal]
+            names[i % HOLDERS].text = todo.name
+            if (checkBox.buttonTintList !== tint) checkBox.buttonTintList = tint
+            checkBox.isChecked = todo.completedAt != null
+        }
+    }
+
+    private fun checkBoxOf(holder: TodoItemAdapter.ItemViewHolder): CheckBox =
+        holder.itemView.findViewById(R.id.todo_checkbox)
+
+    // Returns Todos cycling through every Priority, every fourth one completed
+    private fun buildTodos(): List<Todo> {
+        val completedAt = Temporal.DateTime(Date(), 0)
+        return (0 until TODOS).map {
+            Todo.builder()
+                .name("Task $it")
+                .priority(Priority.values()[it % Priority.values().size])
+                .completedAt(if (it % 4 == 0) completedAt else null)
+                .rank(it.toDouble())
+                .build()
+        }
+    }
+
+    private fun report(results: Bundle, name: String, value: Long) {
+        Log.i(TAG, "$name: $value")
+        results.putLong(name, value)
+    }
+}
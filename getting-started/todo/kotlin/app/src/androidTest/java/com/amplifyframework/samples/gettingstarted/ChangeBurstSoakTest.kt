@@ -0,0 +1,166 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.os.Bundle
+import android.os.SystemClock
+import android.util.Log
+import android.view.Choreographer
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.LifecycleRegistry
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.amplifyframework.core.model.query.Where
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+import com.amplifyframework.samples.core.MainApplication
+import com.amplifyframework.samples.core.MemoryModelStore
+import java.util.UUID
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.LockSupport
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+// Fires EVENTS_PER_SECOND changes a second at TodoItemAdapter through its store for SECONDS, spread over TODOS ids
+// so most of them repeat an id changed earlier in the same frame, as a first sync or a reconnect does.
+// Checks the list is published at most once a frame however fast the changes come, and that it ends up
+// matching the store. Counts are logged under ChangeBurstSoakTest and reported as instrumentation status.
+@RunWith(AndroidJUnit4::class)
+class ChangeBurstSoakTest {
+    companion object {
+        private const val TAG = "ChangeBurstSoakTest"
+        private const val EVENTS_PER_SECOND = 10000
+        private const val SECONDS = 10
+        private const val TODOS = 500
+        private const val DELETE_EVERY = 97 // Every so often an event deletes its Todo, the next one recreates it
+        private const val TIMEOUT_SECONDS = 60L
+    }
+
+    private val instrumentation = InstrumentationRegistry.getInstrumentation()
+
+    @Test
+    fun burstsArePublishedAtMostOncePerFrame() {
+        val ready = CountDownLatch(1)
+        instrumentation.runOnMainSync { MainApplication.whenReady { ready.countDown() } }
+        await(ready)
+        val store = MemoryModelStore(TodoCodec.table())
+        val owner = TestOwner()
+        val frames = FrameCounter()
+        lateinit var adapter: TodoItemAdapter
+        instrumentation.runOnMainSync {
+            adapter = TodoItemAdapter(object : TodoItemAdapter.OnItemClickListener {
+                override fun onCheckClick(position: Int, isChecked: Boolean) {}
+
+                override fun onTextClick(position: Int, text: String, priority: Priority) {}
+            })
+            adapter.store = store
+            owner.registry.currentState = Lifecycle.State.RESUMED
+            adapter.bindTo(owner)
+            adapter.observe()
+            frames.start()
+        }
+
+        val expected = fireEvents(store)
+        awaitStore(store)
+        SystemClock.sleep(100) // A few frames for the last batch to be applied
+        var batches = 0
+        var merged = 0L
+        val listed = hashMapOf<String, String>()
+        instrumentation.runOnMainSync {
+            frames.stop()
+            batches = adapter.changeBatchCount
+            merged = adapter.mergedChangeCount
+            for (todo in adapter.getList()) listed[todo.id] = todo.name
+            owner.registry.currentState = Lifecycle.State.DESTROYED
+        }
+
+        val results = Bundle()
+        report(results, "events", (EVENTS_PER_SECOND * SECONDS).toLong())
+        report(results, "mergedEvents", merged)
+        report(results, "frames", frames.count.toLong())
+        report(results, "publishedBatches", batches.toLong())
+        instrumentation.sendStatus(0, results)
+        assertTrue("Published $batches batches in ${frames.count} frames", batches <= frames.count)
+        assertTrue("No events were merged", merged > 0)
+        assertEquals(expected, listed)
+    }
+
+    // Saves or deletes a Todo EVENTS_PER_SECOND times a second for SECONDS, returning the name of each Todo left
+    private fun fireEvents(store: MemoryModelStore<Todo>): Map<String, String> {
+        val ids = Array(TODOS) { UUID.randomUUID().toString() }
+        val saved = hashMapOf<String, Todo>()
+        val start = System.nanoTime()
+        val interval = TimeUnit.SECONDS.toNanos(1) / EVENTS_PER_SECOND
+        for (event in 0 until EVENTS_PER_SECOND * SECONDS) {
+            val wait = start + event * interval - System.nanoTime()
+            if (wait > 0) LockSupport.parkNanos(wait)
+            val id = ids[event % TODOS]
+            val previous = saved[id]
+            if (previous != null && event % DELETE_EVERY == 0) {
+                saved.remove(id)
+                store.delete(previous, {}, ::logFailure)
+                continue
+            }
+            val todo = Todo.builder()
+                .name("Task $event")
+                .priority(Priority.values()[event % Priority.values().size])
+                .completedAt(null)
+                .rank(event.toDouble())
+                .id(id)
+                .build()
+            saved[id] = todo
+            store.save(todo, {}, ::logFailure)
+        }
+        return saved.mapValues { it.value.name }
+    }
+
+    // Waits until the store has handled every save and delete, which it does in turn before a query
+    private fun awaitStore(store: MemoryModelStore<Todo>) {
+        val queried = CountDownLatch(1)
+        store.query(Where.matchesAll(), { queried.countDown() }, { queried.countDown() })
+        await(queried)
+    }
+
+    private fun logFailure(failure: Exception) {
+        Log.e(TAG, "Store operation failed", failure)
+    }
+
+    private fun report(results: Bundle, name: String, value: Long) {
+        Log.i(TAG, "$name: $value")
+        results.putLong(name, value)
+    }
+
+    private fun await(latch: CountDownLatch) {
+        assertTrue("Timed out", latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+    }
+
+    // Counts the frames drawn while it runs, on the main thread
+    private class FrameCounter : Choreographer.FrameCallback {
+        var count = 0
+        private var running = false
+
+        fun start() {
+            running = true
+            Choreographer.getInstance().postFrameCallback(this)
+        }
+
+        fun stop() {
+            running = false
+            Choreographer.getInstance().removeFrameCallback(this)
+        }
+
+        override fun doFrame(frameTimeNanos: Long) {
+            count++
+            if (running) Choreographer.getInstance().postFrameCallback(this)
+        }
+    }
+
+    // Stands in for TodoListActivity as the adapter's UI owner, driven by the test on the main thread
+    private class TestOwner : LifecycleOwner {
+        val registry = LifecycleRegistry(this)
+
+        override fun getLifecycle(): Lifecycle = registry
+    }
+}
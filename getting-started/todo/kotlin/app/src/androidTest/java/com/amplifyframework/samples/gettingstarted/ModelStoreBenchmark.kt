@@ -0,0 +1,209 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.os.Bundle
+import android.os.SystemClock
+import android.util.Log
+import androidx.test.platform.app.InstrumentationRegistry
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.core.model.query.QueryOptions
+import com.amplifyframework.core.model.temporal.Temporal
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+import com.amplifyframework.samples.core.DataStoreModelStore
+import com.amplifyframework.samples.core.MainApplication
+import com.amplifyframework.samples.core.MemoryModelStore
+import com.amplifyframework.samples.core.ModelStore
+import com.amplifyframework.samples.core.SqliteModelStore
+import java.util.Date
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+// Compares the stores ItemAdapter can use, for a table of size Todos: throughput of saving and deleting them all
+// at once, latency of one save or delete waited on before the next, and latency of the queries the list runs.
+// Results are logged under ModelStoreBenchmark and reported as instrumentation status.
+// DataStore queues every save to sync, so run it against a sandbox backend; its 100k run takes several minutes.
+@RunWith(Parameterized::class)
+class ModelStoreBenchmark(private val storeName: String, private val size: Int) {
+    companion object {
+        private const val TAG = "ModelStoreBenchmark"
+        private const val SAMPLES = 100 // Operations timed one at a time
+        private const val TIMEOUT_MINUTES = 30L
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0} {1}")
+        fun stores(): List<Array<Any>> {
+            return listOf(10000, 100000).flatMap { size ->
+                listOf("Memory", "Sqlite", "DataStore").map { arrayOf<Any>(it, size) }
+            }
+        }
+    }
+
+    private val instrumentation = InstrumentationRegistry.getInstrumentation()
+    private val databaseName = "benchmark-$size.db"
+    private lateinit var store: ModelStore<Todo>
+    private lateinit var todos: List<Todo>
+
+    @Before
+    fun openStore() {
+        val context = instrumentation.targetContext
+        store = when (storeName) {
+            "Memory" -> MemoryModelStore(TodoCodec.table())
+            "Sqlite" -> {
+                context.deleteDatabase(databaseName)
+                SqliteModelStore(context, databaseName, TodoCodec.table())
+            }
+            else -> {
+                val ready = CountDownLatch(1)
+                instrumentation.runOnMainSync { MainApplication.whenReady { ready.countDown() } }
+                await(ready)
+                clearDataStore()
+                DataStoreModelStore(Todo::class.java)
+            }
+        }
+        val priorities = Priority.values()
+        todos = List(size) { i ->
+            Todo.builder()
+                .name("Task $i")
+                .priority(priorities[i % priorities.size])
+                .completedAt(if (i % 4 == 3) Temporal.DateTime(Date(i * 1000L), 0) else null)
+                .rank(i.toDouble())
+                .build()
+        }
+    }
+
+    @After
+    fun closeStore() {
+        val opened = store
+        if (opened is SqliteModelStore) {
+            opened.close()
+            instrumentation.targetContext.deleteDatabase(databaseName)
+        } else if (opened is DataStoreModelStore) {
+            clearDataStore()
+        }
+    }
+
+    @Test
+    fun compareStores() {
+        val results = Bundle()
+        var start = SystemClock.elapsedRealtimeNanos()
+        saveAll(todos)
+        report(results, "saveAllPerSecond", size * 1e9 / (SystemClock.elapsedRealtimeNanos() - start))
+
+        val updated = todos.take(SAMPLES).mapIndexed { i, todo -> todo.copyOfBuilder().name("Renamed $i").build() }
+        report(results, "saveOneMicros", timeEach(updated) { saveAll(listOf(it)) })
+
+        val created = TodoQuery(TodoQuery.SortBy.CREATED, TodoItemAdapter.SortOrder.ASCENDING)
+        val priority = TodoQuery(TodoQuery.SortBy.PRIORITY, TodoItemAdapter.SortOrder.DESCENDING)
+        val manual = TodoQuery(TodoQuery.SortBy.MANUAL, TodoItemAdapter.SortOrder.ASCENDING)
+        assertEquals(size - size / 4, count(created.build()))
+        report(results, "queryActiveByCreatedMicros", timeQueries(created.build()))
+        report(results, "queryActiveByPriorityMicros", timeQueries(priority.build()))
+        report(results, "queryActiveByRankMicros", timeQueries(manual.build()))
+        report(
+            results, "queryCompletedPageMicros",
+            timeQueries(listOf(created.buildCompletedPage(0, 0), created.buildCompletedPage(0, 10)))
+        )
+
+        report(results, "deleteOneMicros", timeEach(todos.take(SAMPLES)) { deleteAll(listOf(it)) })
+        start = SystemClock.elapsedRealtimeNanos()
+        deleteAll(todos.drop(SAMPLES))
+        report(results, "deleteAllPerSecond", (size - SAMPLES) * 1e9 / (SystemClock.elapsedRealtimeNanos() - start))
+        instrumentation.sendStatus(0, results)
+    }
+
+    // Saves every model at once, returning when the last save has finished
+    private fun saveAll(models: List<Todo>) {
+        val saved = CountDownLatch(models.size)
+        val failure = AtomicReference<Exception>()
+        for (todo in models) store.save(todo, { saved.countDown() }, { failAll(failure, it, saved) })
+        await(saved)
+        assertNoFailure(failure)
+    }
+
+    // Deletes every model at once, returning when the last delete has finished
+    private fun deleteAll(models: List<Todo>) {
+        val deleted = CountDownLatch(models.size)
+        val failure = AtomicReference<Exception>()
+        for (todo in models) store.delete(todo, { deleted.countDown() }, { failAll(failure, it, deleted) })
+        await(deleted)
+        assertNoFailure(failure)
+    }
+
+    // Runs operation on each model after the last has finished, returning the mean time for one in microseconds
+    private fun timeEach(models: List<Todo>, operation: (Todo) -> Unit): Double {
+        var total = 0L
+        for (todo in models) {
+            val start = SystemClock.elapsedRealtimeNanos()
+            operation(todo)
+            total += SystemClock.elapsedRealtimeNanos() - start
+        }
+        return total / 1e3 / models.size
+    }
+
+    // Runs the queries one after another and reads every result, as the list does when it loads,
+    // returning the median time to run them all in microseconds
+    private fun timeQueries(queries: List<QueryOptions>): Double {
+        val samples = LongArray(9) {
+            val start = SystemClock.elapsedRealtimeNanos()
+            count(queries)
+            SystemClock.elapsedRealtimeNanos() - start
+        }
+        samples.sort()
+        return samples[samples.size / 2] / 1e3
+    }
+
+    // Runs the queries one after another, returning the number of models read
+    private fun count(queries: List<QueryOptions>): Int {
+        return queries.sumOf { query ->
+            val read = CountDownLatch(1)
+            val failure = AtomicReference<Exception>()
+            var rows = 0
+            store.query(
+                query,
+                { results ->
+                    results.forEach { _ -> rows++ }
+                    read.countDown()
+                },
+                { failAll(failure, it, read) }
+            )
+            await(read)
+            assertNoFailure(failure)
+            rows
+        }
+    }
+
+    private fun clearDataStore() {
+        val cleared = CountDownLatch(1)
+        val failure = AtomicReference<Exception>()
+        Amplify.DataStore.clear({ cleared.countDown() }, { failAll(failure, it, cleared) })
+        await(cleared)
+        assertNoFailure(failure)
+    }
+
+    private fun report(results: Bundle, name: String, value: Double) {
+        Log.i(TAG, "$storeName $size $name: ${"%.1f".format(value)}")
+        results.putDouble("${storeName}_${size}_$name", value)
+    }
+
+    // Keeps the first failure and releases whoever waits on latch, so the test fails rather than times out
+    private fun failAll(failure: AtomicReference<Exception>, error: Exception, latch: CountDownLatch) {
+        failure.compareAndSet(null, error)
+        while (latch.count > 0) latch.countDown()
+    }
+
+    private fun assertNoFailure(failure: AtomicReference<Exception>) {
+        failure.get()?.let { throw AssertionError("Store operation failed", it) }
+    }
+
+    private fun await(latch: CountDownLatch) {
+        assertTrue("Timed out", latch.await(TIMEOUT_MINUTES, TimeUnit.MINUTES))
+    }
+}
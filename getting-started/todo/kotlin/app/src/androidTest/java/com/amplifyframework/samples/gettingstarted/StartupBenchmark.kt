@@ -0,0 +1,170 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.app.Activity
+import android.app.Application
+import android.os.Bundle
+import android.os.SystemClock
+import android.util.Log
+import android.view.View
+import android.view.ViewTreeObserver
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ActivityScenario
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+import com.amplifyframework.samples.core.MainApplication
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+// Times launching TodoListActivity without a startup snapshot, from the launch to its first frame and to the frame
+// that first shows the loaded list of ROWS Todos, the point at which it reports itself fully drawn.
+// The first frame must not wait for the list, so it is checked to come no later than the loaded one.
+// The instrumented process has already configured Amplify, so this covers the activity's own startup; a cold start
+// also configures Amplify in the background, which README.md describes how to measure with am start.
+// Results are logged under StartupBenchmark and reported as instrumentation status.
+// The benchmark replaces every Todo in DataStore, so run it against a sandbox backend.
+@RunWith(AndroidJUnit4::class)
+class StartupBenchmark {
+    companion object {
+        private const val TAG = "StartupBenchmark"
+        private const val ROWS = 1000
+        private const val SAMPLES = 15
+        private const val TIMEOUT_SECONDS = 60L
+    }
+
+    private val application = ApplicationProvider.getApplicationContext<Application>()
+
+    @Before
+    fun seedDataStore() {
+        val ready = CountDownLatch(1)
+        InstrumentationRegistry.getInstrumentation().runOnMainSync { MainApplication.whenReady { ready.countDown() } }
+        await(ready)
+        clearDataStore()
+        val saved = CountDownLatch(ROWS)
+        val failure = AtomicReference<Exception>()
+        for (i in 0 until ROWS) {
+            val todo = Todo.builder()
+                .name("Task $i")
+                .priority(Priority.values()[i % Priority.values().size])
+                .completedAt(null)
+                .rank(i.toDouble())
+                .build()
+            Amplify.DataStore.save(todo, { saved.countDown() }, { failAll(failure, it, saved) })
+        }
+        await(saved)
+        assertNoFailure(failure)
+    }
+
+    @After
+    fun clear() {
+        TodoListActivity.startupSnapshotFile(application).delete()
+        clearDataStore()
+    }
+
+    @Test
+    fun timeToFirstFrameAndLoadedList() {
+        val firstFrame = LongArray(SAMPLES)
+        val loadedList = LongArray(SAMPLES)
+        for (i in 0 until SAMPLES) {
+            TodoListActivity.startupSnapshotFile(application).delete() // Written as each launch stops
+            val (first, loaded) = launch()
+            firstFrame[i] = first
+            loadedList[i] = loaded
+            assertTrue("The first frame waited for the list", first <= loaded)
+        }
+        val results = Bundle()
+        report(results, "firstFrameMillis", median(firstFrame))
+        report(results, "loadedListMillis", median(loadedList))
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results)
+    }
+
+    // Launches the activity and returns the milliseconds until its first frame and until the first frame drawn
+    // with every row loaded, then closes it
+    private fun launch(): Pair<Long, Long> {
+        val loaded = CountDownLatch(1)
+        var firstFrameAt = -1L
+        var loadedAt = -1L
+        val callbacks = ActivityStartedCallbacks { activity ->
+            val content = activity.findViewById<View>(android.R.id.content)
+            val recyclerView = activity.findViewById<RecyclerView>(R.id.recycler_view)
+            content.viewTreeObserver.addOnDrawListener(object : ViewTreeObserver.OnDrawListener {
+                override fun onDraw() {
+                    val now = SystemClock.uptimeMillis()
+                    if (firstFrameAt == -1L) firstFrameAt = now
+                    if (loaded.count > 0 && (recyclerView.adapter?.itemCount ?: 0) >= ROWS) {
+                        loadedAt = now
+                        loaded.countDown()
+                        content.post { content.viewTreeObserver.removeOnDrawListener(this) }
+                    }
+                }
+            })
+        }
+        application.registerActivityLifecycleCallbacks(callbacks)
+        val start = SystemClock.uptimeMillis()
+        try {
+            ActivityScenario.launch(TodoListActivity::class.java).use { await(loaded) }
+        } finally {
+            application.unregisterActivityLifecycleCallbacks(callbacks)
+        }
+        return Pair(firstFrameAt - start, loadedAt - start)
+    }
+
+    // Calls onStarted as each TodoListActivity starts, after onCreate has set up its list and before its first frame
+    private class ActivityStartedCallbacks(
+        private val onStarted: (Activity) -> Unit
+    ) : Application.ActivityLifecycleCallbacks {
+        override fun onActivityStarted(activity: Activity) {
+            if (activity is TodoListActivity) onStarted(activity)
+        }
+
+        override fun onActivityCreated(activity: Activity, savedInstanceState: Bundle?) {}
+
+        override fun onActivityResumed(activity: Activity) {}
+
+        override fun onActivityPaused(activity: Activity) {}
+
+        override fun onActivityStopped(activity: Activity) {}
+
+        override fun onActivitySaveInstanceState(activity: Activity, outState: Bundle) {}
+
+        override fun onActivityDestroyed(activity: Activity) {}
+    }
+
+    private fun median(samples: LongArray): Long = samples.sorted()[samples.size / 2]
+
+    private fun clearDataStore() {
+        val cleared = CountDownLatch(1)
+        val failure = AtomicReference<Exception>()
+        Amplify.DataStore.clear({ cleared.countDown() }, { failAll(failure, it, cleared) })
+        await(cleared)
+        assertNoFailure(failure)
+    }
+
+    private fun report(results: Bundle, name: String, value: Long) {
+        Log.i(TAG, "$ROWS $name: $value")
+        results.putLong("${ROWS}_$name", value)
+    }
+
+    // Keeps the first failure and releases whoever waits on latch, so the test fails rather than times out
+    private fun failAll(failure: AtomicReference<Exception>, error: Exception, latch: CountDownLatch) {
+        failure.compareAndSet(null, error)
+        while (latch.count > 0) latch.countDown()
+    }
+
+    private fun assertNoFailure(failure: AtomicReference<Exception>) {
+        failure.get()?.let { throw AssertionError("DataStore operation failed", it) }
+    }
+
+    private fun await(latch: CountDownLatch) {
+        assertTrue("Timed out", latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+    }
+}
@@ -0,0 +1,181 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.app.Activity
+import android.app.Application
+import android.os.Bundle
+import android.os.SystemClock
+import android.util.Log
+import android.view.ViewTreeObserver
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.core.app.ActivityScenario
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+import com.amplifyframework.samples.core.MainApplication
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+// Compares the time from launching TodoListActivity to the first frame that shows a row, with the startup snapshot
+// kept by the last launch and without it, for a list of ROWS Todos.
+// The instrumented process has already configured Amplify, so the launches without the snapshot only wait for
+// the DataStore query; on a cold start they also wait for Amplify to configure, which the snapshot does not.
+// Results are logged under StartupSnapshotBenchmark and reported as instrumentation status.
+// The benchmark replaces every Todo in DataStore, so run it against a sandbox backend.
+@RunWith(AndroidJUnit4::class)
+class StartupSnapshotBenchmark {
+    companion object {
+        private const val TAG = "StartupSnapshotBenchmark"
+        private const val ROWS = 1000
+        private const val SAMPLES = 15 // Launches timed each way
+        private const val TIMEOUT_SECONDS = 60L
+    }
+
+    private val application = ApplicationProvider.getApplicationContext<Application>()
+    private val snapshotFile = TodoListActivity.startupSnapshotFile(application)
+
+    @Before
+    fun seedDataStore() {
+        val ready = CountDownLatch(1)
+        InstrumentationRegistry.getInstrumentation().runOnMainSync { MainApplication.whenReady { ready.countDown() } }
+        await(ready)
+        clearDataStore()
+        val saved = CountDownLatch(ROWS)
+        val failure = AtomicReference<Exception>()
+        for (i in 0 until ROWS) {
+            val todo = Todo.builder()
+                .name("Task $i")
+                .priority(Priority.values()[i % Priority.values().size])
+                .completedAt(null)
+                .rank(i.toDouble())
+                .build()
+            Amplify.DataStore.save(todo, { saved.countDown() }, { failAll(failure, it, saved) })
+        }
+        await(saved)
+        assertNoFailure(failure)
+    }
+
+    @After
+    fun clearSnapshot() {
+        snapshotFile.delete()
+        clearDataStore()
+    }
+
+    @Test
+    fun compareTimeToFirstRow() {
+        timeToFirstRow() // Loads the list once, which keeps the snapshot as the activity stops
+        assertTrue("No startup snapshot was written", snapshotFile.isFile)
+        val withSnapshot = LongArray(SAMPLES)
+        val withoutSnapshot = LongArray(SAMPLES)
+        for (i in 0 until SAMPLES) {
+            withSnapshot[i] = timeToFirstRow()
+            snapshotFile.delete() // Written again as each launch stops, so deleted before every launch without it
+            withoutSnapshot[i] = timeToFirstRow()
+        }
+        val results = Bundle()
+        report(results, "firstRowWithSnapshotMillis", median(withSnapshot))
+        report(results, "firstRowWithoutSnapshotMillis", median(withoutSnapshot))
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results)
+    }
+
+    // Launches the activity and returns the milliseconds until a frame with at least one row has been drawn,
+    // closing it again once the whole list has loaded
+    private fun timeToFirstRow(): Long {
+        val drawn = CountDownLatch(1)
+        var drawnAt = 0L
+        val callbacks = ActivityStartedCallbacks { activity ->
+            val recyclerView = activity.findViewById<RecyclerView>(R.id.recycler_view)
+            recyclerView.viewTreeObserver.addOnDrawListener(object : ViewTreeObserver.OnDrawListener {
+                override fun onDraw() {
+                    if (drawn.count > 0 && recyclerView.childCount > 0) {
+                        drawnAt = SystemClock.uptimeMillis()
+                        drawn.countDown()
+                        recyclerView.post { recyclerView.viewTreeObserver.removeOnDrawListener(this) }
+                    }
+                }
+            })
+        }
+        application.registerActivityLifecycleCallbacks(callbacks)
+        val start = SystemClock.uptimeMillis()
+        try {
+            ActivityScenario.launch(TodoListActivity::class.java).use { scenario ->
+                await(drawn)
+                awaitLoaded(scenario)
+            }
+        } finally {
+            application.unregisterActivityLifecycleCallbacks(callbacks)
+        }
+        return drawnAt - start
+    }
+
+    // Waits until the activity's list holds every row from DataStore, so each launch stops with the same list
+    private fun awaitLoaded(scenario: ActivityScenario<TodoListActivity>) {
+        val deadline = SystemClock.uptimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS)
+        var count = 0
+        do {
+            SystemClock.sleep(10)
+            scenario.onActivity {
+                count = it.findViewById<RecyclerView>(R.id.recycler_view).adapter?.itemCount ?: 0
+            }
+        } while (count < ROWS && SystemClock.uptimeMillis() < deadline)
+        assertTrue("Timed out loading the list", count >= ROWS)
+    }
+
+    // Calls onStarted as each TodoListActivity starts, after onCreate has set up its list and before its first frame
+    private class ActivityStartedCallbacks(
+        private val onStarted: (Activity) -> Unit
+    ) : Application.ActivityLifecycleCallbacks {
+        override fun onActivityStarted(activity: Activity) {
+            if (activity is TodoListActivity) onStarted(activity)
+        }
+
+        override fun onActivityCreated(activity: Activity, savedInstanceState: Bundle?) {}
+
+        override fun onActivityResumed(activity: Activity) {}
+
+        override fun onActivityPaused(activity: Activity) {}
+
+        override fun onActivityStopped(activity: Activity) {}
+
+        override fun onActivitySaveInstanceState(activity: Activity, outState: Bundle) {}
+
+        override fun onActivityDestroyed(activity: Activity) {}
+    }
+
+    private fun median(samples: LongArray): Long = samples.sorted()[samples.size / 2]
+
+    private fun clearDataStore() {
+        val cleared = CountDownLatch(1)
+        val failure = AtomicReference<Exception>()
+        Amplify.DataStore.clear({ cleared.countDown() }, { failAll(failure, it, cleared) })
+        await(cleared)
+        assertNoFailure(failure)
+    }
+
+    private fun report(results: Bundle, name: String, value: Long) {
+        Log.i(TAG, "$ROWS $name: $value")
+        results.putLong("${ROWS}_$name", value)
+    }
+
+    // Keeps the first failure and releases whoever waits on latch, so the test fails rather than times out
+    private fun failAll(failure: AtomicReference<Exception>, error: Exception, latch: CountDownLatch) {
+        failure.compareAndSet(null, error)
+        while (latch.count > 0) latch.countDown()
+    }
+
+    private fun assertNoFailure(failure: AtomicReference<Exception>) {
+        failure.get()?.let { throw AssertionError("DataStore operation failed", it) }
+    }
+
+    private fun await(latch: CountDownLatch) {
+        assertTrue("Timed out", latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+    }
+}
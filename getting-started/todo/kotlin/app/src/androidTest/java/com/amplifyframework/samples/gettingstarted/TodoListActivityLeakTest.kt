@@ -0,0 +1,43 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.os.SystemClock
+import androidx.test.core.app.ActivityScenario
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import java.lang.ref.WeakReference
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class TodoListActivityLeakTest {
+    companion object {
+        private const val ROTATIONS = 20
+        private const val GC_TIMEOUT_MILLIS = 10000L
+    }
+
+    // Recreates the activity as a rotation would, then checks no destroyed activity is still reachable
+    @Test
+    fun rotatingDoesNotRetainDestroyedActivities() {
+        val destroyed = mutableListOf<WeakReference<TodoListActivity>>()
+        ActivityScenario.launch(TodoListActivity::class.java).use { scenario ->
+            repeat(ROTATIONS) {
+                scenario.onActivity { destroyed.add(WeakReference(it)) }
+                scenario.recreate()
+            }
+        }
+        assertEquals(0, countRetained(destroyed))
+    }
+
+    // Returns how many of the references are still reachable after collecting garbage for a while
+    private fun countRetained(references: List<WeakReference<TodoListActivity>>): Int {
+        val deadline = SystemClock.uptimeMillis() + GC_TIMEOUT_MILLIS
+        var retained: Int
+        do {
+            Runtime.getRuntime().gc()
+            System.runFinalization()
+            SystemClock.sleep(100)
+            retained = references.count { it.get() != null }
+        } while (retained > 0 && SystemClock.uptimeMillis() < deadline)
+        return retained
+    }
+}
@@ -20,7 +20,7 @@ class OptionsBarFragment : BottomSheetDialogFragment(), View.OnClickListener {
     private val binding get() = _binding!!
     private lateinit var sheetView: View
     private lateinit var itemAdapter: TodoItemAdapter
-    private var position: Int = 0
+    private var id: String? = null // Id of the Todo being edited, null for a new one
     private var isNewItem: Boolean = false
     private lateinit var priority: Priority
     private lateinit var saveBtn: ImageButton
@@ -29,21 +29,21 @@ class OptionsBarFragment : BottomSheetDialogFragment(), View.OnClickListener {
 
     companion object {
         const val IS_NEW_ITEM = "IsNewItem"
-        const val POSITION = "Position"
+        const val ITEM_ID = "ItemId"
         const val ITEM_ADAPTER = "ItemAdapter"
         const val ITEM_TEXT = "ItemText"
         const val PRIORITY = "Priority"
         fun newInstance(
             itemAdapter: TodoItemAdapter,
             isNewItem: Boolean,
-            position: Int,
+            id: String?,
             text: String,
             priority: Priority
         ): OptionsBarFragment {
             val b = Bundle()
             val optionsBar = OptionsBarFragment()
             b.putBoolean(IS_NEW_ITEM, isNewItem)
-            b.putInt(POSITION, position)
+            b.putString(ITEM_ID, id)
             b.putSerializable(ITEM_ADAPTER, itemAdapter)
             b.putString(ITEM_TEXT, text)
             b.putSerializable(PRIORITY, priority)
@@ -66,7 +66,7 @@ class OptionsBarFragment : BottomSheetDialogFragment(), View.OnClickListener {
         sheetView = binding.root
         val b: Bundle? = arguments
         itemAdapter = b?.getSerializable(ITEM_ADAPTER) as TodoItemAdapter
-        position = b.getInt(POSITION)
+        id = b.getString(ITEM_ID)
         isNewItem = b.getBoolean(IS_NEW_ITEM)
         priority = b.getSerializable(PRIORITY) as Priority
         val text: String? = b.getString(ITEM_TEXT)
@@ -142,13 +142,19 @@ class OptionsBarFragment : BottomSheetDialogFragment(), View.OnClickListener {
             priority = getPriority(sheetView, priorityRadioGroup, priority)
             val item = itemAdapter.createModel(todoEntry, priority)
             itemAdapter.addModel(item, true)
-            itemAdapter.notifyItemInserted(itemAdapter.itemCount - 1)
+            itemAdapter.submitList()
         } else {
-            val item = itemAdapter.getItem(position)
+            val item = id?.let { itemAdapter.getItem(it) }
+            if (item == null) {
+                dismiss() // Deleted while it was being edited
+                return
+            }
             val todoEntry = textBox.text.toString()
             priority = getPriority(sheetView, priorityRadioGroup, priority)
-            itemAdapter.setModel(position, itemAdapter.updateModel(item, todoEntry, priority, null))
-            itemAdapter.notifyItemChanged(position)
+            // Editing keeps the task's completion, so it stays in the same section
+            // Saving without changing the name or priority sends nothing and leaves the list as it is
+            val updated = itemAdapter.updateModel(item, todoEntry, priority, item.completedAt)
+            if (itemAdapter.setModel(updated)) itemAdapter.submitList()
         }
         textBox.text.clear()
     }
@@ -167,7 +173,7 @@ class OptionsBarFragment : BottomSheetDialogFragment(), View.OnClickListener {
         if (isNewItem) {
             dismiss()
         } else {
-            itemAdapter.deleteModel(position)
+            id?.let { itemAdapter.deleteModel(it) }
             textBox.text.clear()
             isNewItem = true
             priority = Priority.LOW
@@ -10,12 +10,15 @@ import androidx.recyclerview.widget.RecyclerView
 
 abstract class SwipeToDelete(context: Context) :
     ItemTouchHelper.SimpleCallback(0, ItemTouchHelper.LEFT) {
-    private val background = ColorDrawable()
-    private val backgroundColor = ContextCompat.getColor(context, R.color.red)
+    private val background = ColorDrawable(ContextCompat.getColor(context, R.color.red))
     private var deleteIcon: Drawable =
         requireNotNull(ContextCompat.getDrawable(context, R.drawable.ic_baseline_delete_24))
     private val inHeight = deleteIcon.intrinsicHeight
     private val inWidth = deleteIcon.intrinsicWidth
+    // Row bounds the delete icon was last placed for, the icon only moves when the row does
+    private var iconRowTop = -1
+    private var iconRowBottom = -1
+    private var iconRowRight = -1
 
     override fun onMove(
         recyclerView: RecyclerView,
@@ -35,9 +38,7 @@ abstract class SwipeToDelete(context: Context) :
         isCurrentlyActive: Boolean
     ) {
         val itemView = viewHolder.itemView
-        val itemHeight = itemView.bottom - itemView.top
 
-        background.color = backgroundColor
         background.setBounds(
             itemView.right + dX.toInt(),
             itemView.top,
@@ -46,13 +47,18 @@ abstract class SwipeToDelete(context: Context) :
         )
         background.draw(c)
 
-        val iconTop = itemView.top + (itemHeight - inHeight) / 2
-        val iconMargin = (itemHeight - inHeight) / 2
-        val iconLeft = itemView.right - iconMargin - inWidth
-        val iconRight = itemView.right - iconMargin
-        val iconBottom = iconTop + inHeight
-
-        deleteIcon.setBounds(iconLeft, iconTop, iconRight, iconBottom)
+        if (itemView.top != iconRowTop || itemView.bottom != iconRowBottom || itemView.right != iconRowRight) {
+            iconRowTop = itemView.top
+            iconRowBottom = itemView.bottom
+            iconRowRight = itemView.right
+            val itemHeight = itemView.bottom - itemView.top
+            val iconTop = itemView.top + (itemHeight - inHeight) / 2
+            val iconMargin = (itemHeight - inHeight) / 2
+            val iconLeft = itemView.right - iconMargin - inWidth
+            val iconRight = itemView.right - iconMargin
+            val iconBottom = iconTop + inHeight
+            deleteIcon.setBounds(iconLeft, iconTop, iconRight, iconBottom)
+        }
         deleteIcon.draw(c)
 
         super.onChildDraw(c, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive)
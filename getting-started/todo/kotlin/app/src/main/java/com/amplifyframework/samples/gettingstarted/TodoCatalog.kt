@@ -0,0 +1,205 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.os.Handler
+import android.os.Looper
+import android.util.Log
+import android.view.Choreographer
+import com.amplifyframework.core.async.Cancelable
+import com.amplifyframework.core.model.query.Where
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+import com.amplifyframework.samples.core.ModelStore
+import com.amplifyframework.samples.list.ChangeCoalescer
+import com.amplifyframework.samples.list.ListCounts
+import com.amplifyframework.samples.list.ListPartition
+import com.amplifyframework.samples.list.NameIndex
+
+// Counts every Todo by Priority and completion and indexes every name for search, for the whole process
+// The index keeps only each Todo's id and name, so whole Todos are not held for every row ever synced
+// The catalog observes the store from the first time a screen asks for it for as long as the process lives,
+// so a recreated screen finds the counts ready instead of reading every Todo again
+// Every Todo, completed ones included, is read once, but only when count is called: once a screen's first list
+// has loaded, or a search is typed first, so launch reads only the Todos the list shows. The store has no count
+// query and search needs every name, so the read itself cannot be avoided, only kept off the launch path;
+// until it finishes there are no counts and search returns null
+// Observed changes are merged by id and applied once a frame, then handed on to each screen's list
+// Must only be used on the main thread, once Amplify is configured
+internal class TodoCatalog private constructor(private val store: ModelStore<Todo>) {
+    // Told each batch of observed changes, the counts as they change, and asked which Todos are hidden
+    interface Listener {
+        // Called once a frame with the changes observed since the last one, merged by id, after they are counted
+        fun onChanges(batch: List<ChangeCoalescer.Change<Todo>>)
+
+        // Called with the counts each time they change, once every Todo has been counted
+        fun onCountsChanged(counts: ListCounts<Todo>)
+
+        // Returns true if the Todo is hidden waiting to be deleted, so changes to it are not counted
+        fun isDeletePending(id: String): Boolean
+    }
+
+    // What the search index keeps of each Todo, its priority and completion are read back from the counts
+    private class IndexedName(val id: String, val name: String) {
+        constructor(todo: Todo) : this(todo.id, todo.name)
+    }
+
+    companion object {
+        private var shared: TodoCatalog? = null // Catalog of the store in use, replaced if the store is
+
+        // Returns the catalog of store, starting it the first time it is asked for
+        fun of(store: ModelStore<Todo>): TodoCatalog {
+            shared?.let { if (it.store === store) return it else it.close() }
+            return TodoCatalog(store).also {
+                shared = it
+                it.start()
+            }
+        }
+    }
+
+    private val listeners = mutableListOf<Listener>()
+    private val changes = ChangeCoalescer<Todo> { it.id }
+    private val changesTask = Choreographer.FrameCallback { applyChanges() }
+    private val mainHandler = Handler(Looper.getMainLooper())
+    @Volatile
+    private var observation: Cancelable? = null // Set once observe has started
+    @Volatile
+    private var closed = false
+    private var counting = false // Set once count has started reading every Todo
+    private var counts: ListCounts<Todo>? = null // Null until every Todo has been counted
+    private var names: NameIndex<IndexedName>? = null // Set with counts once every Todo has been indexed
+    private val uncounted = LinkedHashMap<String, Todo?>() // Changes seen while counting, null for deletes
+
+    // The number of observed changes merged into a later change to the same Todo and never applied
+    val mergedChangeCount: Long
+        get() = changes.mergedCount
+
+    // Starts observing ahead of count, so nothing changed during the count is missed
+    private fun start() {
+        val choreographer = Choreographer.getInstance() // The main thread's, which any thread can post to
+        store.observe(
+            {
+                observation = it
+                if (closed) it.cancel()
+                Log.i("MyAmplifyApp", "Observation began")
+            },
+            { type, todo -> if (changes.add(type, todo)) choreographer.postFrameCallback(changesTask) },
+            { Log.e("MyAmplifyApp", "Observation failed", it) }
+        )
+    }
+
+    // Reads every Todo to count it and index its name, the first time it is called
+    fun count() {
+        if (counting) return
+        counting = true
+        store.query(
+            Where.matchesAll(),
+            { results ->
+                val counted = ListCounts<Todo>(
+                    { it.id }, { it.completedAt != null }, { it.priority.ordinal }, Priority.values().size
+                )
+                val indexed = NameIndex<IndexedName>({ it.id }, { it.name })
+                while (results.hasNext()) {
+                    val todo = results.next()
+                    counted.put(todo)
+                    indexed.put(IndexedName(todo))
+                }
+                mainHandler.post { setCounts(counted, indexed) }
+            },
+            { Log.e("Tutorial", "Count Failed", it) }
+        )
+    }
+
+    // Stops observing a store that is no longer in use
+    private fun close() {
+        closed = true
+        observation?.cancel()
+        Choreographer.getInstance().removeFrameCallback(changesTask)
+        listeners.clear()
+    }
+
+    // Takes over the counts and names built by start, applying the changes seen while they were built
+    private fun setCounts(counted: ListCounts<Todo>, indexed: NameIndex<IndexedName>) {
+        if (closed) return
+        for ((id, todo) in uncounted) {
+            if (todo == null) {
+                counted.remove(id)
+                indexed.remove(id)
+            } else {
+                counted.put(todo)
+                indexed.put(IndexedName(todo))
+            }
+        }
+        uncounted.clear()
+        counts = counted
+        names = indexed
+        counted.listener = { current -> listeners.toList().forEach { it.onCountsChanged(current) } }
+    }
+
+    // Adds a listener, telling it the counts straight away if they are known
+    fun addListener(listener: Listener) {
+        listeners.add(listener)
+        counts?.let { listener.onCountsChanged(it) }
+    }
+
+    fun removeListener(listener: Listener) {
+        listeners.remove(listener)
+    }
+
+    // Returns up to limit Todos whose name contains text, ignoring case, the active ones followed by the completed
+    // Returns null until every Todo has been indexed
+    fun search(text: String, limit: Int): List<TodoSearchAdapter.Result>? {
+        val indexed = names ?: return null
+        val counted = counts ?: return null
+        val priorities = Priority.values()
+        val results = indexed.search(text, limit).mapNotNull { found ->
+            val group = counted.getGroup(found.id)
+            if (group == -1) return@mapNotNull null // Never counted, so not a Todo that exists
+            TodoSearchAdapter.Result(found.id, found.name, priorities[group], counted.isCompleted(found.id))
+        }
+        val (active, completed) = results.partition { !it.isCompleted }
+        return active + completed
+    }
+
+    // Counts and indexes a created or updated Todo
+    fun put(todo: Todo) {
+        val current = counts
+        if (current != null) {
+            current.put(todo)
+            names?.put(IndexedName(todo))
+        } else {
+            uncounted[todo.id] = todo
+        }
+    }
+
+    // Counts and indexes a batch of Todos, telling listeners the counts once
+    fun putAll(batch: List<Todo>) {
+        val current = counts
+        if (current != null) {
+            current.putAll(batch)
+            names?.putAll(batch.map { IndexedName(it) })
+        } else {
+            batch.forEach { uncounted[it.id] = it }
+        }
+    }
+
+    // Stops counting and indexing a deleted Todo
+    fun remove(id: String) {
+        val current = counts
+        if (current != null) {
+            current.remove(id)
+            names?.remove(id)
+        } else {
+            uncounted[id] = null
+        }
+    }
+
+    // Counts the changes observed since the last frame, then hands them to every listener
+    private fun applyChanges() {
+        val batch = changes.drain()
+        for (change in batch) {
+            val todo = change.item
+            if (listeners.any { it.isDeletePending(todo.id) }) continue
+            if (change.type == ListPartition.ChangeType.DELETE) remove(todo.id) else put(todo)
+        }
+        listeners.toList().forEach { it.onChanges(batch) }
+    }
+}
@@ -0,0 +1,52 @@
+package com.amplifyframework.samples.gettingstarted
+
+import com.amplifyframework.core.model.temporal.Temporal
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+import com.amplifyframework.samples.core.ModelTable
+import com.amplifyframework.samples.list.ModelCodec
+import java.util.Locale
+import java.util.UUID
+
+// Converts Todos to and from the records of import and export files
+// An exported file imports back onto the same Todos, while records from other tools, whose ids are not
+// UUIDs and which may leave out everything but a name, become new Todos
+class TodoCodec : ModelCodec<Todo> {
+    companion object {
+        // Returns the table Todos are kept in by the stores that keep them outside DataStore
+        fun table(): ModelTable<Todo> {
+            val text = ModelTable.ColumnType.TEXT
+            return ModelTable("Todo", TodoCodec(), text, text, text, text, ModelTable.ColumnType.REAL)
+        }
+    }
+
+    override val fields = arrayOf("id", "name", "priority", "completedAt", "rank")
+
+    override fun encode(item: Todo, values: Array<String?>) {
+        values[0] = item.id
+        values[1] = item.name
+        values[2] = item.priority.name
+        values[3] = item.completedAt?.format()
+        values[4] = item.rank?.toString()
+    }
+
+    override fun decode(values: Array<String?>): Todo {
+        val builder = Todo.builder()
+            .name(values[1] ?: "")
+            .priority(values[2]?.let { Priority.valueOf(it.trim().uppercase(Locale.ROOT)) } ?: Priority.LOW)
+            .completedAt(values[3]?.takeIf { it.isNotBlank() }?.let { Temporal.DateTime(it.trim()) })
+            .rank(values[4]?.takeIf { it.isNotBlank() }?.toDouble())
+        val id = values[0]
+        if (id != null && isUuid(id)) builder.id(id)
+        return builder.build()
+    }
+
+    // Returns true if value is a UUID written out in full, the only ids Todos can be saved with
+    private fun isUuid(value: String): Boolean {
+        return try {
+            UUID.fromString(value).toString().equals(value, ignoreCase = true)
+        } catch (notUuid: IllegalArgumentException) {
+            false
+        }
+    }
+}
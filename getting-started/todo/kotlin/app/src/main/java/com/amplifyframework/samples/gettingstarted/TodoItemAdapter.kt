@@ -1,45 +1,238 @@
 package com.amplifyframework.samples.gettingstarted
 
-import android.app.Activity
+import android.content.Context
 import android.content.res.ColorStateList
+import android.os.Handler
+import android.os.Looper
+import android.os.MessageQueue
 import android.util.Log
 import android.view.View
 import android.widget.CheckBox
 import android.widget.TextView
 import androidx.core.content.ContextCompat
 import androidx.recyclerview.widget.RecyclerView
-import com.amplifyframework.core.Amplify
-import com.amplifyframework.core.model.query.QuerySortBy
-import com.amplifyframework.core.model.query.Where
+import com.amplifyframework.core.model.query.QueryOptions
 import com.amplifyframework.core.model.temporal.Temporal
 import com.amplifyframework.datastore.generated.model.Priority
 import com.amplifyframework.datastore.generated.model.Todo
+import com.amplifyframework.samples.core.DataStoreModelStore
 import com.amplifyframework.samples.core.ItemAdapter
+import com.amplifyframework.samples.core.MainApplication
+import com.amplifyframework.samples.list.ChangeCoalescer
+import com.amplifyframework.samples.list.IdList
+import com.amplifyframework.samples.list.ListCounts
+import com.amplifyframework.samples.list.ListPartition
+import com.amplifyframework.samples.list.ListSnapshotFile
+import com.amplifyframework.samples.list.Ranks
+import java.io.File
+import java.io.IOException
 import java.io.Serializable
 import java.util.Date
+import java.util.EnumMap
 import java.util.TimeZone
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
 
 class TodoItemAdapter(private val listener: OnItemClickListener) : ItemAdapter<Todo>(),
     Serializable {
-    private var completedItems = mutableListOf<Todo>() // A list to hold completed items
+    private val priorityTints = EnumMap<Priority, ColorStateList>(Priority::class.java) // Built on first bind
+    // Tracks completed items
+    private val partition = ListPartition<Todo>({ it.id }, { it.completedAt != null })
+    private var currentQuery = LAUNCH_QUERY
+    private var completedShown = false // Whether the completed section is attached and paged in as it scrolls
+    private var loading = true // Whether the current list is still loading, and so can't be cached
+    private var completedSegment = 0 // Segment of completed items the next page is read from
+    private var completedPage = 0 // Next page to read within completedSegment
+    private var loadingCompleted = false // Whether a page of completed items is being read
+    var onListLoaded: (() -> Unit)? = null // Runs each time a sort mode has finished loading its list
+    private var catalog: TodoCatalog? = null // Set once observing
+    private var listLoaded = false // Whether a list has finished loading, after which the catalog may count
+    private val catalogListener = CatalogListener()
+    // The number of batches of observed changes applied to the list, at most one a frame and each published once
+    var changeBatchCount = 0
+        private set
+    private var highestRank: Double? = null // Highest rank seen, new items are ranked after it
+    private var movedId: String? = null // Item being dragged, ranked once it is dropped
+    // Counts by Priority and completion, null until every Todo has been counted
+    private var counts: ListCounts<Todo>? = null
+    private val searchHandler = Handler(Looper.getMainLooper())
+    private val searchTask = Runnable { runSearch() }
+    private var searchText = "" // Text being searched for, empty when not searching
+    private var onSearchResults: ((String, List<TodoSearchAdapter.Result>) -> Unit)? = null
 
-    // Reacts dynamically to updates of data to the underlying Storage Engine
+    // Told the counts by Priority and completion each time they change, once they are known
+    // Groups are numbered by Priority.ordinal
+    var onCountsChanged: ((ListCounts<Todo>) -> Unit)? = null
+        set(value) {
+            field = value
+            counts?.let { value?.invoke(it) }
+        }
+    private var rebalanceQueued = false
+    private val rebalanceTask = MessageQueue.IdleHandler { rebalance() }
+    // Loaded lists keyed by sort mode, least recently used first
+    private val snapshots = LinkedHashMap<TodoQuery, Snapshot>(MAX_SNAPSHOTS, 0.75f, true)
+    private var snapshotItemCount = 0
+    private var startupSnapshot: ListSnapshotFile<Todo>? = null // Rows shown at launch, null until restored
+    private val unwrittenRows = AtomicReference<List<Todo>?>() // Next rows to write for the next launch
+    private var showingStartupRows = false // Whether the list still holds the rows restored at launch
+    private var reconciled: MutableList<Todo>? = null // Loaded rows waiting to replace the startup rows
+    private val changedWhileReconciling = LinkedHashMap<String, Todo?>() // Null for deletes
+
+    init {
+        store = dataStore
+    }
+
+    companion object {
+        // Shared by every screen using DataStore, so they also share one TodoCatalog
+        private val dataStore = DataStoreModelStore(Todo::class.java)
+        private val LAUNCH_QUERY = TodoQuery(TodoQuery.SortBy.CREATED, SortOrder.ASCENDING)
+        private const val SEARCH_DELAY_MILLIS = 150L // Typing pause after which a search runs
+        private const val MAX_SEARCH_RESULTS = 100
+        private const val MAX_STARTUP_ROWS = 500 // Active rows kept for the next launch, more than fill a screen
+        private const val STARTUP_WRITE_DELAY_MILLIS = 1000L // How long list changes are merged into one write
+        private val STARTUP_KEY = "${LAUNCH_QUERY.sortBy} ${LAUNCH_QUERY.sortOrder}"
+        // Writes the rows for the next launch, shared by every adapter so recreated screens add no threads
+        private val startupWriter = Executors.newSingleThreadScheduledExecutor { task ->
+            Thread(task, "StartupSnapshot").apply { isDaemon = true }
+        }
+        private const val MAX_SNAPSHOTS = 4 // Sort modes kept warm at once
+        private const val MAX_SNAPSHOT_ITEMS = 20000 // Rows kept across all snapshots
+        // Changes in one batch past which the snapshots are dropped rather than patched, as re-querying is cheaper
+        private const val MAX_PATCHED_CHANGES = 100
+        // Change payload flags, one for each part of a row that can be rebound on its own
+        private const val CHANGED_NAME = 1
+        private const val CHANGED_PRIORITY = 1 shl 1
+        private const val CHANGED_COMPLETED = 1 shl 2
+
+        // Defines the colors corresponding to each Priority
+        internal fun priorityColor(context: Context, priority: Priority): Int {
+            return when (priority) {
+                Priority.LOW -> ContextCompat.getColor(context, R.color.blue)
+                Priority.NORMAL -> ContextCompat.getColor(context, R.color.yellow)
+                Priority.HIGH -> ContextCompat.getColor(context, R.color.red)
+            }
+        }
+    }
+
+    // Reacts dynamically to updates of data to the underlying Storage Engine once Amplify is configured,
+    // until the UI owner is destroyed
+    // Changes and counts come from the process's TodoCatalog, which reads every Todo only once
     fun observe() {
-        Amplify.DataStore.observe(Todo::class.java,
-            { Log.i("MyAmplifyApp", "Observation began") },
-            { Log.i("MyAmplifyApp", it.item().toString()) },
-            { Log.e("MyAmplifyApp", "Observation failed", it) },
-            { Log.i("MyAmplifyApp", "Observation complete") }
-        )
+        MainApplication.whenReady {
+            if (!isBound) return@whenReady
+            catalog = TodoCatalog.of(store).also { it.addListener(catalogListener) }
+            countOnceLoaded()
+        }
+    }
+
+    // Lets the catalog read every Todo once the first list has loaded, so that read does not hold the list up
+    private fun countOnceLoaded() {
+        if (listLoaded) catalog?.count()
+    }
+
+    // Receives this screen's share of the catalog: observed changes, counts and which Todos it has hidden
+    private inner class CatalogListener : TodoCatalog.Listener {
+        override fun onChanges(batch: List<ChangeCoalescer.Change<Todo>>) = applyChanges(batch)
+
+        override fun onCountsChanged(counts: ListCounts<Todo>) {
+            val first = this@TodoItemAdapter.counts == null
+            this@TodoItemAdapter.counts = counts
+            onCountsChanged?.invoke(counts)
+            if (first && searchText.isNotEmpty()) runSearch() // Typed before there was anything to search
+        }
+
+        override fun isDeletePending(id: String) = this@TodoItemAdapter.isDeletePending(id)
+    }
+
+    // Counts and indexes a created or updated Todo
+    private fun count(todo: Todo) {
+        val current = catalog ?: return
+        current.put(todo)
+        queueSearch()
     }
 
-    // Creates and returns a model
+    // Stops counting and indexing a deleted Todo
+    private fun uncount(id: String) {
+        val current = catalog ?: return
+        current.remove(id)
+        queueSearch()
+    }
+
+    // Searches Todo names for text once it has stopped changing for SEARCH_DELAY_MILLIS, so a search runs
+    // once the user pauses rather than for every key; empty text ends the search
+    // onResults is told the active matches followed by the completed ones, at most MAX_SEARCH_RESULTS of them
+    fun search(text: String, onResults: (String, List<TodoSearchAdapter.Result>) -> Unit) {
+        searchText = text
+        onSearchResults = onResults
+        searchHandler.removeCallbacks(searchTask)
+        if (text.isEmpty()) onResults(text, emptyList()) else searchHandler.postDelayed(searchTask, SEARCH_DELAY_MILLIS)
+    }
+
+    // Searches again after a change, so the results shown stay current
+    private fun queueSearch() {
+        if (searchText.isEmpty()) return
+        searchHandler.removeCallbacks(searchTask)
+        searchHandler.postDelayed(searchTask, SEARCH_DELAY_MILLIS)
+    }
+
+    private fun runSearch() {
+        if (searchText.isEmpty() || !isBound) return
+        val current = catalog ?: return
+        current.count() // Searching needs every name, even if the list has not loaded yet
+        // Searched once every name has been indexed
+        val results = current.search(searchText, MAX_SEARCH_RESULTS) ?: return
+        onSearchResults?.invoke(searchText, results)
+    }
+
+    // Stops listening to the catalog once the UI owner is destroyed, so the catalog does not keep this adapter alive
+    override fun onUnbind() {
+        catalog?.removeListener(catalogListener)
+        catalog = null
+        searchHandler.removeCallbacks(searchTask)
+    }
+
+    // Applies the changes observed since the last frame, merged by id, and publishes the list once for all of them
+    // A burst of hundreds of changes a second, as during the first sync, then costs one diff and layout a frame
+    // The catalog has already counted and indexed them
+    private fun applyChanges(batch: List<ChangeCoalescer.Change<Todo>>) {
+        if (!isBound) return
+        if (batch.size > MAX_PATCHED_CHANGES) clearSnapshots()
+        var applied = false
+        for (change in batch) applied = applyChange(change.type, change.item) || applied
+        if (applied) {
+            changeBatchCount++
+            submitList()
+            queueSearch()
+        }
+    }
+
+    // The number of observed changes merged into a later change to the same Todo and never applied
+    val mergedChangeCount: Long
+        get() = catalog?.mergedChangeCount ?: 0
+
+    // Applies a created, updated or deleted Todo to the active or completed items without re-querying
+    // Returns true if the list was changed, for the caller to publish
+    private fun applyChange(type: ListPartition.ChangeType, todo: Todo): Boolean {
+        if (isDeletePending(todo.id)) return false
+        // Added to the list with the rest of its batch
+        if (type != ListPartition.ChangeType.DELETE && isImportEcho(todo)) return false
+        patchSnapshots(type, todo)
+        noteRank(todo)
+        noteReconcileChange(todo.id, if (type == ListPartition.ChangeType.DELETE) null else todo)
+        partition.apply(getList(), type, todo)
+        return true
+    }
+
+    // Creates and returns a model, ranked after every item so the manual sort shows it last
     fun createModel(name: String, priority: Priority): Todo {
+        val rank = Ranks.between(highestRank, null)
+        highestRank = rank
         return Todo.builder()
             .name(name)
             .priority(priority)
             .completedAt(null)
+            .rank(rank)
             .build()
     }
 
@@ -67,187 +260,540 @@ class TodoItemAdapter(private val listener: OnItemClickListener) : ItemAdapter<T
         return ItemViewHolder(view)
     }
 
-    // A custom query method specifically for TodoItemAdapter class
-    fun query(showStatus: Boolean) {
-        clearList()
-        completedItems.clear()
-        Amplify.DataStore.query(
-            getModelClass(),
-            { results ->
-                while (results.hasNext()) {
-                    val item = results.next()
-                    if (item.completedAt == null) {
-                        addModel(item, false)
-                    } else {
-                        completedItems.add(item)
-                    }
-                    Log.i("Tutorial", "Item loaded: ${item.id}")
-                }
-                if (!showStatus) {
-                    appendList(completedItems)
-                }
-                if (cont is Activity) {
-                    (cont as Activity).runOnUiThread {
-                        notifyDataSetChanged()
-                    }
+    // Returns flags for the shown fields that differ, fields that are not shown need no rebind at all
+    override fun getChangePayload(oldItem: Todo, newItem: Todo): Any {
+        var changes = 0
+        if (oldItem.name != newItem.name) changes = changes or CHANGED_NAME
+        if (oldItem.priority != newItem.priority) changes = changes or CHANGED_PRIORITY
+        if ((oldItem.completedAt == null) != (newItem.completedAt == null)) changes = changes or CHANGED_COMPLETED
+        return changes
+    }
+
+    // Compares the fields this app writes, so an edit that leaves them all as they were is not sent to DataStore
+    override fun hasChanges(current: Todo, updated: Todo): Boolean {
+        return current.name != updated.name ||
+            current.priority != updated.priority ||
+            current.completedAt != updated.completedAt ||
+            current.rank != updated.rank
+    }
+
+    // Reloads the current sort mode from the store
+    override fun query() {
+        clearSnapshots()
+        query(currentQuery, false)
+    }
+
+    // Clears the list and fills it from the snapshot for todoQuery if there is one,
+    // otherwise streams in the results of each query built from todoQuery, in order
+    private fun query(todoQuery: TodoQuery, useSnapshot: Boolean) {
+        if (useSnapshot && !loading) {
+            // The list being left has been kept current by observe, so it can be reused later
+            putSnapshot(currentQuery)
+        }
+        val generation = startQueryGeneration() // Stops any query still reading for the list being left
+        val snapshot = if (useSnapshot) snapshots[todoQuery] else null
+        val reconciling = snapshot == null && showingStartupRows && todoQuery == currentQuery
+        currentQuery = todoQuery
+        changedWhileReconciling.clear()
+        if (reconciling) {
+            reconciled = ArrayList() // The startup rows stay shown until every query has finished
+        } else {
+            showingStartupRows = false
+            reconciled = null
+            clearList()
+        }
+        partition.clear()
+        loadingCompleted = false
+        if (snapshot != null) {
+            addLoadedItems(snapshot.items)
+            completedSegment = snapshot.completedSegment
+            completedPage = snapshot.completedPage
+            partition.completedLoaded = !hasMoreCompleted()
+            loading = false
+            submitList()
+            loadMoreCompleted()
+        } else {
+            completedSegment = 0
+            completedPage = 0
+            partition.completedLoaded = false
+            loading = true
+            MainApplication.whenReady { runQueries(generation, todoQuery.build(), 0) }
+        }
+    }
+
+    // Runs the query at index and then the ones after it, publishing the list once all have finished
+    // and then reading the first page of completed items if they are shown
+    // The chain stops as soon as a newer query starts, so replaced sort modes cost no further scans
+    private fun runQueries(generation: Int, queries: List<QueryOptions>, index: Int) {
+        if (isStale(generation)) return
+        if (index == queries.size) {
+            if (reconciled != null) replaceStartupRows()
+            loading = false
+            submitList()
+            listLoaded = true
+            countOnceLoaded()
+            onListLoaded?.invoke()
+            loadMoreCompleted()
+            return
+        }
+        store.query(
+            queries[index],
+            { results -> loadResults(generation, results) { runQueries(generation, queries, index + 1) } },
+            { Log.e("Tutorial", "Query Failed: $it") }
+        )
+    }
+
+    // Streams query results into the list, dropping them if a newer query has started
+    private fun loadResults(generation: Int, results: Iterator<Todo>, onComplete: () -> Unit) {
+        streamResults(
+            generation,
+            results,
+            { chunk ->
+                val waiting = reconciled
+                if (waiting != null) {
+                    waiting.addAll(chunk) // Shown in one go, as the startup rows are replaced
+                } else {
+                    addLoadedItems(chunk)
+                    submitList()
                 }
             },
-            { Log.e("Tutorial", "Query Failed: $it") }
+            onComplete
         )
     }
 
-    // Sorts list by date created
-    fun sortDateCreated(showStatus: Boolean) {
-        query(showStatus)
+    // Shows the rows the last launch kept in file straight away, until the first query has loaded the real ones
+    // From then on the active rows of the launch sort mode are kept in file for the next launch as they change
+    // Must be called on the main thread before the first query
+    fun restoreStartupSnapshot(file: File) {
+        val snapshot = ListSnapshotFile(file, TodoCodec())
+        startupSnapshot = snapshot
+        if (getList().isNotEmpty() || currentQuery != LAUNCH_QUERY) return
+        val rows = try {
+            snapshot.read(STARTUP_KEY)
+        } catch (failure: IOException) {
+            Log.w("Tutorial", "Could not read the startup snapshot", failure)
+            return
+        }
+        if (rows.isNullOrEmpty()) return
+        addLoadedItems(rows)
+        showingStartupRows = true
+        submitList()
     }
 
-    enum class SortOrder {
-        ASCENDING, DESCENDING
+    // Swaps the startup rows for the loaded ones, then reapplies the changes seen while they loaded
+    // They are published as one list, so the diff leaves rows that were already right where they are
+    private fun replaceStartupRows() {
+        val loaded = reconciled ?: return
+        reconciled = null
+        showingStartupRows = false
+        clearList()
+        partition.clear()
+        addLoadedItems(loaded)
+        for ((id, todo) in changedWhileReconciling) {
+            if (todo != null) {
+                partition.apply(getList(), ListPartition.ChangeType.UPDATE, todo)
+                continue
+            }
+            val position = partition.indexOf(getList(), id)
+            if (position != -1) partition.forget(getList().removeAt(position))
+        }
+        changedWhileReconciling.clear()
+        Log.i("Tutorial", "Replaced startup rows with ${getList().size} loaded rows")
+    }
+
+    // Remembers a change made to the startup rows, which the loaded rows may be missing, null for a delete
+    private fun noteReconcileChange(id: String, todo: Todo?) {
+        if (reconciled != null) changedWhileReconciling[id] = todo
+    }
+
+    // Queues the active rows of a published list to be written for the next launch if it is in the launch sort mode,
+    // merging the lists published within STARTUP_WRITE_DELAY_MILLIS into one write
+    private fun queueStartupSnapshot(published: List<Todo>) {
+        if (startupSnapshot == null || loading || currentQuery != LAUNCH_QUERY) return
+        val rows = published.subList(0, minOf(sectionSplit(published), MAX_STARTUP_ROWS))
+        if (unwrittenRows.getAndSet(rows) == null) {
+            startupWriter.schedule({ writeStartupSnapshot() }, STARTUP_WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+        }
+    }
+
+    // Writes the queued rows for the next launch now, if any are waiting, from any thread
+    fun writeStartupSnapshot() {
+        val snapshot = startupSnapshot ?: return
+        synchronized(snapshot) { // Writes finish in the order their rows were taken, so the newest lands last
+            val rows = unwrittenRows.getAndSet(null) ?: return
+            try {
+                snapshot.write(STARTUP_KEY, rows)
+            } catch (failure: IOException) {
+                Log.w("Tutorial", "Could not write the startup snapshot", failure)
+            }
+        }
     }
 
-    // Sorts list by priority ascending
-    fun sortPriority(showStatus: Boolean, sort: SortOrder) {
-        val newList = getList().filter { !completedItems.contains(it) }
-        if (sort == SortOrder.ASCENDING) {
-            setList(newList.sortedBy { it.priority }.asReversed().toMutableList())
-            if (!showStatus) {
-                appendList(completedItems.sortedBy { it.priority }.asReversed().toMutableList())
+    // Publishes the list and queues its active rows to be shown on the next launch
+    override fun submitList() {
+        super.submitList()
+        queueStartupSnapshot(getSnapshot())
+    }
+
+    // Returns true if some completed items have not been read yet
+    fun hasMoreCompleted(): Boolean {
+        return completedSegment < currentQuery.completedSegmentCount
+    }
+
+    // Reads the next page of completed items onto the end of the list, if they are shown and any are left to read
+    fun loadMoreCompleted() {
+        if (!completedShown || loading || loadingCompleted || !hasMoreCompleted()) return
+        loadingCompleted = true
+        val generation = queryGeneration
+        store.query(
+            currentQuery.buildCompletedPage(completedSegment, completedPage),
+            { results ->
+                val page = ArrayList<Todo>(TodoQuery.COMPLETED_PAGE_SIZE)
+                while (results.hasNext() && !isStale(generation)) page.add(results.next())
+                runOnUiThread { addCompletedPage(generation, page) }
+            },
+            {
+                Log.e("Tutorial", "Query Failed: $it")
+                runOnUiThread { if (!isStale(generation)) loadingCompleted = false }
             }
-        } else if (sort == SortOrder.DESCENDING) {
-            setList(newList.sortedBy { it.priority }.toMutableList())
-            if (!showStatus) {
-                appendList(completedItems.sortedBy { it.priority }.toMutableList())
+        )
+    }
+
+    // Adds a page of completed items to the list and moves on to the next page, or the next segment
+    // once a short page shows the current one has been read to the end
+    private fun addCompletedPage(generation: Int, page: List<Todo>) {
+        if (isStale(generation)) return // The sort mode changed while the page was read
+        loadingCompleted = false
+        addLoadedItems(page)
+        submitList()
+        if (page.size == TodoQuery.COMPLETED_PAGE_SIZE) {
+            completedPage++
+            return
+        }
+        completedSegment++
+        completedPage = 0
+        partition.completedLoaded = !hasMoreCompleted()
+        loadMoreCompleted()
+    }
+
+    // Adds loaded items to the list, tracking completed items in partition
+    // Items already in the list came from observe or an earlier page and are at least as new as the loaded copy
+    private fun addLoadedItems(loaded: List<Todo>) {
+        val fresh = loaded.filterNot { isDeletePending(it.id) }
+        fresh.forEach { noteRank(it) }
+        partition.addLoaded(getList(), fresh)
+    }
+
+    // Remembers the highest rank seen, so items created later can be ranked after it
+    private fun noteRank(todo: Todo) {
+        val rank = todo.rank ?: return
+        if (highestRank.let { it == null || rank > it }) highestRank = rank
+    }
+
+    // Returns true if the row at position can be dragged, only active items in the manual sort can be
+    fun canMove(position: Int): Boolean {
+        if (currentQuery.sortBy != TodoQuery.SortBy.MANUAL || loading) return false
+        val todo = getItem(position)
+        return todo != null && todo.completedAt == null
+    }
+
+    // Moves a dragged row past another as it is dragged over it, nothing is saved until it is dropped
+    // The row moves on screen straight away, so each move starts from where the last one left it
+    fun moveItem(from: Int, to: Int): Boolean {
+        if (!canMove(from) || !canMove(to)) return false
+        movedId = getItem(from)!!.id
+        moveShown(from, to)
+        return true
+    }
+
+    // Ranks a dropped row between its new neighbours and saves only that row
+    // If the neighbours are unranked or too close to split, the list is spread out once the UI is idle instead
+    fun finishMove() {
+        endDrag()
+        val position = movedId?.let { positionOf(it) } ?: -1
+        movedId = null
+        if (position == -1) return
+        val list = getList()
+        val moved = list[position]
+        val before = list.getOrNull(position - 1)
+        val after = list.getOrNull(position + 1)?.takeIf { it.completedAt == null }
+        val beforeRank = before?.rank
+        val afterRank = after?.rank
+        if ((before != null && beforeRank == null) || (after != null && afterRank == null) ||
+            (beforeRank != null && afterRank != null && Ranks.isCrowded(beforeRank, afterRank))
+        ) {
+            queueRebalance()
+            return
+        }
+        val rank = moved.rank
+        if (rank != null && (beforeRank == null || beforeRank < rank) && (afterRank == null || rank < afterRank)) {
+            return // Dropped back where it already sorts
+        }
+        val ranked = moved.copyOfBuilder().rank(Ranks.between(beforeRank, afterRank)).build()
+        noteRank(ranked)
+        setModelAt(position, ranked)
+        submitList()
+    }
+
+    // Spreads the ranks out again the next time the main thread is idle
+    private fun queueRebalance() {
+        if (!rebalanceQueued) {
+            rebalanceQueued = true
+            Looper.myQueue().addIdleHandler(rebalanceTask)
+        }
+    }
+
+    // Gives the active items evenly spread ranks in the order they are shown, saving those whose rank changes
+    // Returns true to stay queued while a row is still being dragged
+    private fun rebalance(): Boolean {
+        if (movedId != null) return true
+        rebalanceQueued = false
+        if (currentQuery.sortBy != TodoQuery.SortBy.MANUAL || loading) {
+            return false // The next drop in the manual sort will find the ranks crowded again
+        }
+        val list = getList()
+        val activeCount = list.indexOfFirst { it.completedAt != null }.let { if (it == -1) list.size else it }
+        val ranks = Ranks.spread(activeCount)
+        for (i in 0 until activeCount) {
+            val todo = list[i]
+            if (todo.rank != ranks[i]) {
+                val ranked = todo.copyOfBuilder().rank(ranks[i]).build()
+                noteRank(ranked)
+                setModelAt(i, ranked)
             }
         }
-        notifyDataSetChanged()
+        submitList()
+        return false
     }
 
-    // Sorts by name
-    fun sortName(showStatus: Boolean, sort: SortOrder) {
-        if (sort == SortOrder.ASCENDING) {
-            sort(Todo.NAME.ascending(), showStatus)
-        } else if (sort == SortOrder.DESCENDING) {
-            sort(Todo.NAME.descending(), showStatus)
+    // A loaded list kept for a sort mode, with how far its completed items had been read
+    // Its items are indexed by id, so a change is patched in without scanning it
+    private class Snapshot(val items: IdList<Todo>, val completedSegment: Int, val completedPage: Int)
+
+    // Keeps a copy of the loaded list, evicting the least recently used snapshots to stay under the caps
+    private fun putSnapshot(key: TodoQuery) {
+        val list = getList()
+        val previous = snapshots.put(key, Snapshot(IdList({ it.id }, list), completedSegment, completedPage))
+        if (previous != null) snapshotItemCount -= previous.items.size
+        snapshotItemCount += list.size
+        val eldest = snapshots.values.iterator()
+        while ((snapshots.size > MAX_SNAPSHOTS || snapshotItemCount > MAX_SNAPSHOT_ITEMS) && eldest.hasNext()) {
+            snapshotItemCount -= eldest.next().items.size
+            eldest.remove()
         }
     }
 
-    // Sort method that takes in a QuerySortBy and sorts using DataStore.query()
-    private fun sort(sortBy: QuerySortBy, showStatus: Boolean) {
-        clearList()
-        completedItems.clear()
-        Amplify.DataStore.query(
-            getModelClass(),
-            Where.sorted(sortBy),
-            { results ->
-                while (results.hasNext()) {
-                    val item = results.next()
-                    if (item.completedAt == null) {
-                        addModel(item, false)
-                    } else {
-                        completedItems.add(item)
+    // Patches cached snapshots with a change, dropping any whose order or filter the change affects
+    private fun patchSnapshots(type: ListPartition.ChangeType, todo: Todo) {
+        val iterator = snapshots.entries.iterator()
+        while (iterator.hasNext()) {
+            val (key, entry) = iterator.next()
+            val snapshot = entry.items
+            val position = snapshot.indexOfId(todo.id)
+            when {
+                type == ListPartition.ChangeType.DELETE -> {
+                    if (position != -1) {
+                        snapshot.removeAt(position)
+                        snapshotItemCount--
                     }
-                    Log.i("Tutorial", "Item loaded: ${item.id}")
-                }
-                if (!showStatus) {
-                    appendList(completedItems)
                 }
-                if (cont is Activity) {
-                    (cont as Activity).runOnUiThread {
-                        notifyDataSetChanged()
-                    }
+                position != -1 && keepsOrder(snapshot[position], todo) -> snapshot[position] = todo
+                // Not paged in yet, it will be read in order with a later page of completed items
+                position == -1 && todo.completedAt != null &&
+                    entry.completedSegment < key.completedSegmentCount -> Unit
+                else -> {
+                    snapshotItemCount -= snapshot.size
+                    iterator.remove()
                 }
+            }
+        }
+    }
 
-            },
-            { Log.e("Tutorial", "Query Failed: $it") }
-        )
+    // Returns true if an update leaves every field the sort modes order or filter by unchanged
+    private fun keepsOrder(before: Todo, after: Todo): Boolean {
+        return before.name == after.name &&
+            before.priority == after.priority &&
+            before.completedAt == after.completedAt &&
+            before.rank == after.rank
+    }
+
+    // Drops every cached snapshot
+    private fun clearSnapshots() {
+        snapshots.clear()
+        snapshotItemCount = 0
     }
 
-    // Marks an item as complete by setting completedAt to current DateTime
+    // Sorts list by date created
+    fun sortDateCreated() {
+        query(TodoQuery(TodoQuery.SortBy.CREATED, SortOrder.ASCENDING), true)
+    }
+
+    enum class SortOrder {
+        ASCENDING, DESCENDING
+    }
+
+    // Sorts by priority
+    fun sortPriority(sort: SortOrder) {
+        query(TodoQuery(TodoQuery.SortBy.PRIORITY, sort), true)
+    }
+
+    // Sorts by name
+    fun sortName(sort: SortOrder) {
+        query(TodoQuery(TodoQuery.SortBy.NAME, sort), true)
+    }
+
+    // Sorts in the order set by dragging rows
+    fun sortManual() {
+        query(TodoQuery(TodoQuery.SortBy.MANUAL, SortOrder.ASCENDING), true)
+    }
+
+    // Marks an item as complete by setting completedAt to current DateTime, moving it to the completed section
     fun markComplete(todo: Todo) {
-        val date = Date()
-        val offsetMillis = TimeZone.getDefault().getOffset(date.time).toLong()
-        val offsetSeconds = TimeUnit.MILLISECONDS.toSeconds(offsetMillis).toInt()
-        val temporalDateTime = Temporal.DateTime(date, offsetSeconds)
+        val millis = System.currentTimeMillis()
+        val offsetSeconds = TimeZone.getDefault().getOffset(millis) / 1000
+        val temporalDateTime = Temporal.DateTime(Date(millis), offsetSeconds)
         val updatedTodo = updateModel(todo, todo.name, todo.priority, temporalDateTime)
-        completedItems.add(updatedTodo)
+        partition.apply(getList(), ListPartition.ChangeType.UPDATE, updatedTodo)
         save(updatedTodo)
+        submitList()
     }
 
-    // Marks an item as incomplete by setting completedAt to null
-    fun markIncomplete(position: Int, todo: Todo) {
-        completedItems.remove(todo)
+    // Marks an item as incomplete by setting completedAt to null, moving it to the end of the active section
+    fun markIncomplete(todo: Todo) {
         val updatedTodo = updateModel(todo, todo.name, todo.priority, null)
-        setModel(position, updatedTodo)
+        partition.apply(getList(), ListPartition.ChangeType.UPDATE, updatedTodo)
+        save(updatedTodo)
+        submitList()
     }
 
-    // Defines the colors corresponding to each Priority
-    private fun priorityColor(priority: Priority): Int {
-        return when (priority) {
-            Priority.LOW -> ContextCompat.getColor(cont, R.color.blue)
-            Priority.NORMAL -> ContextCompat.getColor(cont, R.color.yellow)
-            Priority.HIGH -> ContextCompat.getColor(cont, R.color.red)
+    // Returns the checkBox tint for a Priority, the same for checked and unchecked
+    // The tints are built once for every Priority and shared by all rows
+    private fun priorityTint(context: Context, priority: Priority): ColorStateList {
+        if (priorityTints.isEmpty()) {
+            for (each in Priority.values()) {
+                priorityTints[each] = ColorStateList.valueOf(priorityColor(context, each))
+            }
         }
+        return priorityTints.getValue(priority)
     }
 
-    // Sets the color of the checkBox
-    private fun CheckBox.setCheckBoxColor(color: Int) {
-        val colorStateList = ColorStateList(
-            arrayOf(
-                intArrayOf(-android.R.attr.state_checked), // unchecked
-                intArrayOf(android.R.attr.state_checked) // checked
-            ),
-            intArrayOf(
-                color, // unchecked color
-                color // checked color
-            )
-        )
-        // set the radio button's button tint list
-        buttonTintList = colorStateList
-    }
-
-    // Shows completed tasks in recyclerView
+    // Shows completed tasks by attaching the completed section, reading the first page of them if none are loaded
     fun showCompletedTasks() {
-        appendList(completedItems)
-        notifyDataSetChanged()
+        completedShown = true
+        isTailShown = true
+        loadMoreCompleted()
     }
 
-    // Hides completed tasks in recyclerView
+    // Hides completed tasks by detaching the completed section, the loaded ones are kept for when it is shown again
     fun hideCompletedTasks() {
-        setList(getList().filter { other -> !completedItems.any { it.id == other.id } }
-            .toMutableList())
-        notifyDataSetChanged()
+        completedShown = false
+        isTailShown = false
+    }
+
+    // Active items are shown in this adapter's section and completed items in the tail section
+    override fun sectionSplit(list: List<Todo>) = partition.activeCount(list)
+
+    // Adds a new model at the end of the active items, ahead of any completed items already loaded
+    override fun addModel(model: Todo, save: Boolean) {
+        partition.apply(getList(), ListPartition.ChangeType.CREATE, model)
+        if (save) save(model)
+    }
+
+    // Queues a model to be saved and counts it straight away, this covers creates, edits and marking complete
+    // or incomplete; the echo of the save from observe is then counted as no change
+    override fun save(model: Todo) {
+        super.save(model)
+        count(model)
+        noteReconcileChange(model.id, model)
     }
 
-    // Deletes model from ItemAdapter list and completedItems list
-    override fun deleteModel(position: Int): Todo {
-        val todo = super.deleteModel(position)
-        completedItems.remove(todo)
+    // Deletes model from ItemAdapter list, completed items and counts
+    override fun deleteModel(id: String): Todo? {
+        val todo = super.deleteModel(id) ?: return null
+        partition.forget(todo)
+        uncount(todo.id)
+        noteReconcileChange(todo.id, null)
         return todo
     }
 
+    // Hides model from ItemAdapter list, completed items and counts until its delete is sent or undone
+    override fun queueDelete(id: String): Todo? {
+        val todo = super.queueDelete(id) ?: return null
+        partition.forget(todo)
+        uncount(todo.id)
+        return todo
+    }
+
+    // Restores a hidden model to ItemAdapter list, completed items and counts
+    override fun undoDelete(position: Int, item: Todo): Boolean {
+        val restored = super.undoDelete(position, item)
+        if (restored) count(item)
+        return restored
+    }
+
+    // Restores a Todo within its own section, which may have grown or shrunk while the delete could be undone
+    override fun restoreToList(list: MutableList<Todo>, position: Int, item: Todo) {
+        partition.restore(list, position, item)
+    }
+
+    // Adds a batch of imported Todos to their sections with one notify, counting, indexing and ranking them as it goes
+    // Snapshots of other sort modes are dropped, as the imported Todos belong in them too
+    override fun onModelsImported(batch: List<Todo>) {
+        clearSnapshots()
+        batch.forEach { noteRank(it) }
+        catalog?.let {
+            it.putAll(batch)
+            queueSearch()
+        }
+        partition.applyAll(getList(), batch)
+        submitList()
+    }
+
     // ViewHolder class
     inner class ItemViewHolder(view: View) :
-        RecyclerView.ViewHolder(view), Binder<Todo>, View.OnClickListener {
+        RecyclerView.ViewHolder(view), PartialBinder<Todo>, View.OnClickListener {
         private val textView: TextView = view.findViewById(R.id.todo_row_item)
         private val checkBox: CheckBox = view.findViewById(R.id.todo_checkbox)
         private lateinit var text: String
         private lateinit var priority: Priority
 
         override fun bind(data: Todo) {
+            bindName(data)
+            bindPriority(data)
+            bindCompleted(data)
+        }
+
+        // Rebinds only the parts of the row flagged by getChangePayload
+        override fun bind(data: Todo, payloads: List<Any>) {
+            var changes = 0
+            for (payload in payloads) changes = changes or payload as Int
+            if (changes and CHANGED_NAME != 0) bindName(data)
+            if (changes and CHANGED_PRIORITY != 0) bindPriority(data)
+            if (changes and CHANGED_COMPLETED != 0) bindCompleted(data)
+        }
+
+        private fun bindName(data: Todo) {
             textView.text = data.name
-            checkBox.setCheckBoxColor(priorityColor(data.priority))
-            checkBox.isChecked = data.completedAt != null
             text = data.name
+        }
+
+        private fun bindPriority(data: Todo) {
+            val tint = priorityTint(itemView.context, data.priority)
+            if (checkBox.buttonTintList !== tint) checkBox.buttonTintList = tint
             priority = data.priority
         }
 
+        private fun bindCompleted(data: Todo) {
+            checkBox.isChecked = data.completedAt != null
+        }
+
         init {
             checkBox.setOnClickListener(this)
             textView.setOnClickListener(this)
         }
 
         override fun onClick(v: View?) {
-            val position: Int = adapterPosition
+            val position: Int = absoluteAdapterPosition
             when (v?.id) {
                 R.id.todo_checkbox -> {
                     listener.onCheckClick(position, checkBox.isChecked)
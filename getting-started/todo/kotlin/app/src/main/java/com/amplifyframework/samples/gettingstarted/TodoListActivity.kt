@@ -1,9 +1,14 @@
 package com.amplifyframework.samples.gettingstarted
 
+import android.content.Context
+import android.net.Uri
 import android.os.Bundle
+import android.os.Parcelable
 import android.view.Menu
 import android.view.MenuInflater
 import android.view.MenuItem
+import androidx.activity.result.contract.ActivityResultContracts
+import androidx.appcompat.widget.SearchView
 import androidx.recyclerview.widget.ItemTouchHelper
 import androidx.recyclerview.widget.LinearLayoutManager
 import androidx.recyclerview.widget.RecyclerView
@@ -13,37 +18,109 @@ import com.amplifyframework.datastore.generated.model.Todo
 import com.amplifyframework.samples.core.ItemAdapter
 import com.amplifyframework.samples.core.ListActivity
 import com.amplifyframework.samples.core.databinding.ActivityMainBinding
+import com.amplifyframework.samples.list.TransferFormat
+import com.google.android.material.snackbar.Snackbar
+import java.io.File
+import java.io.FileNotFoundException
+import java.io.InputStreamReader
+import java.io.OutputStreamWriter
 
 class TodoListActivity : ListActivity(), TodoItemAdapter.OnItemClickListener {
     private val itemAdapter: TodoItemAdapter = TodoItemAdapter(this)
-    private var hideStatus: Boolean = true // Whether we want to show or hide completed tasks
+    private val searchAdapter = TodoSearchAdapter { openSearchResult(it) }
+    private var searchItem: MenuItem? = null
+    private var showHideItem: MenuItem? = null
+    private var listState: Parcelable? = null // Where the list was scrolled to when search results replaced it
     private lateinit var binding: ActivityMainBinding
+    private var exportFormat = TransferFormat.JSON // Format of the file being created to export to
+    private val importPicker = registerForActivityResult(ActivityResultContracts.OpenDocument()) { importTasks(it) }
+    private val exportPicker = registerForActivityResult(ActivityResultContracts.CreateDocument()) { exportTasks(it) }
+
+    companion object {
+        private const val LOAD_MORE_DISTANCE = 20 // Rows from the end at which more completed tasks are read
+
+        // Returns the file the rows shown at launch are kept in, a cache the system may clear at any time
+        internal fun startupSnapshotFile(context: Context) = File(context.cacheDir, "todo_list.snapshot")
+    }
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
         binding = ActivityMainBinding.inflate(layoutInflater)
         val recyclerView = findViewById<RecyclerView>(R.id.recycler_view)
         val swipeRefresh = findViewById<SwipeRefreshLayout>(R.id.swiperefresh)
-        recyclerView.adapter = itemAdapter
-        recyclerView.layoutManager = LinearLayoutManager(this)
+        recyclerView.adapter = itemAdapter.getSections()
+        val layoutManager = LinearLayoutManager(this)
+        recyclerView.layoutManager = layoutManager
+
+        // Read completed tasks a page at a time as the end of the list comes into view
+        recyclerView.addOnScrollListener(object : RecyclerView.OnScrollListener() {
+            override fun onScrolled(view: RecyclerView, dx: Int, dy: Int) {
+                if (isSearching) return
+                val lastVisible = layoutManager.findLastVisibleItemPosition()
+                if (lastVisible >= layoutManager.itemCount - LOAD_MORE_DISTANCE) itemAdapter.loadMoreCompleted()
+            }
+        })
 
-        // Swipe to delete feature
+        // Swipe to delete feature, the delete is held back until the undo window closes
+        // In the manual sort, active rows can also be dragged up and down to reorder them
+        // Search results are not rows of the list, so they can be neither swiped nor dragged
         val swipeHandler = object : SwipeToDelete(this) {
+            override fun getSwipeDirs(recyclerView: RecyclerView, viewHolder: RecyclerView.ViewHolder): Int {
+                return if (isSearching) 0 else super.getSwipeDirs(recyclerView, viewHolder)
+            }
+
+            override fun getDragDirs(recyclerView: RecyclerView, viewHolder: RecyclerView.ViewHolder): Int {
+                return if (!isSearching && itemAdapter.canMove(viewHolder.absoluteAdapterPosition)) {
+                    ItemTouchHelper.UP or ItemTouchHelper.DOWN
+                } else {
+                    0
+                }
+            }
+
+            override fun onMove(
+                recyclerView: RecyclerView,
+                viewHolder: RecyclerView.ViewHolder,
+                target: RecyclerView.ViewHolder
+            ): Boolean {
+                return itemAdapter.moveItem(viewHolder.absoluteAdapterPosition, target.absoluteAdapterPosition)
+            }
+
+            override fun clearView(recyclerView: RecyclerView, viewHolder: RecyclerView.ViewHolder) {
+                super.clearView(recyclerView, viewHolder)
+                itemAdapter.finishMove()
+            }
+
             override fun onSwiped(viewHolder: RecyclerView.ViewHolder, direction: Int) {
-                val adapter = recyclerView.adapter as TodoItemAdapter
-                adapter.deleteModel(viewHolder.adapterPosition)
+                val position = viewHolder.absoluteAdapterPosition
+                // Null if already deleted, the row goes once the list catches up
+                val todo = itemAdapter.getItem(position)?.let { itemAdapter.queueDelete(it.id) } ?: return
+                Snackbar.make(recyclerView, R.string.task_deleted, itemAdapter.undoWindowMillis.toInt())
+                    .setAction(R.string.undo) { itemAdapter.undoDelete(position, todo) }
+                    .show()
             }
         }
 
         // Pull to refresh feature
         swipeRefresh.setOnRefreshListener {
-            itemAdapter.query(hideStatus)
+            itemAdapter.query()
             swipeRefresh.isRefreshing = false
         }
 
         val itemTouchHelper = ItemTouchHelper(swipeHandler)
         itemTouchHelper.attachToRecyclerView(recyclerView)
-        ItemAdapter.setContext(this)
+        itemAdapter.bindTo(this)
+
+        // Show the rows kept by the last launch in the first frame, the first query replaces them once it has loaded
+        itemAdapter.restoreStartupSnapshot(startupSnapshotFile(this))
+
+        // Tell the system when the first list is on screen, so startup time can be measured to real content
+        itemAdapter.onListLoaded = { reportFullyDrawn() }
+
+        // Show how many high priority tasks are open and how many are completed under the title
+        itemAdapter.onCountsChanged = { counts ->
+            supportActionBar?.subtitle =
+                getString(R.string.counts_summary, counts.getOpen(Priority.HIGH.ordinal), counts.completedTotal)
+        }
 
         // Observe changes bi-directional
         itemAdapter.observe()
@@ -52,49 +129,137 @@ class TodoListActivity : ListActivity(), TodoItemAdapter.OnItemClickListener {
     // Call query on start to load from backend
     override fun onStart() {
         super.onStart()
-        itemAdapter.query(hideStatus)
+        itemAdapter.query()
+    }
+
+    // Send any saves and deletes still being held back before the app goes to the background,
+    // and keep the rows to show on the next launch
+    override fun onStop() {
+        super.onStop()
+        itemAdapter.flushSaves()
+        itemAdapter.flushDeletes()
+        itemAdapter.writeStartupSnapshot()
     }
 
     // Inflates the options menu
     override fun onCreateOptionsMenu(menu: Menu): Boolean {
         val inflater: MenuInflater = menuInflater
         inflater.inflate(R.menu.todo_menu, menu)
+
+        // Search task names as they are typed, the results replace the list until the search is closed
+        showHideItem = menu.findItem(R.id.show_hide)
+        val item = menu.findItem(R.id.search)
+        searchItem = item
+        val searchView = item.actionView as SearchView
+        searchView.queryHint = getString(R.string.search_tasks)
+        searchView.setOnQueryTextListener(object : SearchView.OnQueryTextListener {
+            override fun onQueryTextSubmit(query: String): Boolean {
+                searchView.clearFocus()
+                return true
+            }
+
+            override fun onQueryTextChange(newText: String): Boolean {
+                itemAdapter.search(newText) { text, results -> showSearchResults(text, results) }
+                return true
+            }
+        })
         return true
     }
 
+    // True while search results are shown in place of the list
+    private val isSearching: Boolean
+        get() = findViewById<RecyclerView>(R.id.recycler_view).adapter === searchAdapter
+
+    // Shows search results in place of the list, or the list again where it was left once the text is cleared
+    private fun showSearchResults(text: String, results: List<TodoSearchAdapter.Result>) {
+        val recyclerView = findViewById<RecyclerView>(R.id.recycler_view)
+        val layoutManager = recyclerView.layoutManager ?: return
+        if (text.isEmpty()) {
+            if (isSearching) {
+                recyclerView.adapter = itemAdapter.getSections()
+                layoutManager.onRestoreInstanceState(listState)
+            }
+            return
+        }
+        searchAdapter.setResults(results)
+        if (!isSearching) {
+            listState = layoutManager.onSaveInstanceState()
+            recyclerView.adapter = searchAdapter
+        }
+    }
+
+    // Closes the search and, if the tapped Todo is loaded in the list, scrolls to it and opens it for editing
+    // A loaded completed Todo is shown first if completed tasks are hidden, one not paged in yet is only pointed out
+    private fun openSearchResult(result: TodoSearchAdapter.Result) {
+        searchItem?.collapseActionView()
+        val recyclerView = findViewById<RecyclerView>(R.id.recycler_view)
+        if (itemAdapter.positionOf(result.id) == -1) {
+            if (result.isCompleted) {
+                Snackbar.make(
+                    recyclerView, getString(R.string.search_result_not_loaded, result.name), Snackbar.LENGTH_LONG
+                ).show()
+            }
+            return
+        }
+        if (itemAdapter.sectionPositionOf(result.id) == -1) setCompletedShown(true)
+        recyclerView.scrollToPosition(itemAdapter.sectionPositionOf(result.id))
+        edit(result.id, result.name, result.priority)
+    }
+
+    // Shows or hides completed tasks, and names the other choice in the menu
+    private fun setCompletedShown(shown: Boolean) {
+        if (shown) {
+            itemAdapter.showCompletedTasks()
+            showHideItem?.title = getString(R.string.hide_tasks)
+        } else {
+            itemAdapter.hideCompletedTasks()
+            showHideItem?.title = getString(R.string.show_tasks)
+        }
+    }
+
     // Click listener for menu items
     override fun onOptionsItemSelected(item: MenuItem): Boolean {
         return when (item.itemId) {
             R.id.show_hide -> {
-                if (item.title == getString(R.string.show_tasks)) {
-                    hideStatus = false
-                    itemAdapter.showCompletedTasks()
-                    item.title = getString(R.string.hide_tasks)
-                } else {
-                    hideStatus = true
-                    itemAdapter.hideCompletedTasks()
-                    item.title = getString(R.string.show_tasks)
-                }
+                setCompletedShown(item.title == getString(R.string.show_tasks))
                 true
             }
             R.id.created -> {
-                itemAdapter.sortDateCreated(hideStatus)
+                itemAdapter.sortDateCreated()
                 true
             }
             R.id.priority_asc -> {
-                itemAdapter.sortPriority(hideStatus, TodoItemAdapter.SortOrder.ASCENDING)
+                itemAdapter.sortPriority(TodoItemAdapter.SortOrder.ASCENDING)
                 true
             }
             R.id.priority_des -> {
-                itemAdapter.sortPriority(hideStatus, TodoItemAdapter.SortOrder.DESCENDING)
+                itemAdapter.sortPriority(TodoItemAdapter.SortOrder.DESCENDING)
                 true
             }
             R.id.name_asc -> {
-                itemAdapter.sortName(hideStatus, TodoItemAdapter.SortOrder.ASCENDING)
+                itemAdapter.sortName(TodoItemAdapter.SortOrder.ASCENDING)
                 true
             }
             R.id.name_des -> {
-                itemAdapter.sortName(hideStatus, TodoItemAdapter.SortOrder.DESCENDING)
+                itemAdapter.sortName(TodoItemAdapter.SortOrder.DESCENDING)
+                true
+            }
+            R.id.manual -> {
+                itemAdapter.sortManual()
+                true
+            }
+            R.id.import_tasks -> {
+                importPicker.launch(arrayOf("application/json", "text/csv", "text/comma-separated-values"))
+                true
+            }
+            R.id.export_json -> {
+                exportFormat = TransferFormat.JSON
+                exportPicker.launch("todos.json")
+                true
+            }
+            R.id.export_csv -> {
+                exportFormat = TransferFormat.CSV
+                exportPicker.launch("todos.csv")
                 true
             }
             else -> super.onOptionsItemSelected(item)
@@ -103,29 +268,92 @@ class TodoListActivity : ListActivity(), TodoItemAdapter.OnItemClickListener {
 
     override fun fabAction() {
         val optionsInstance =
-            OptionsBarFragment.newInstance(itemAdapter, true, -1, "", Priority.LOW)
+            OptionsBarFragment.newInstance(itemAdapter, true, null, "", Priority.LOW)
         optionsInstance.show(supportFragmentManager, "TAG")
     }
 
-    // If hideStatus is true, when checkBox is clicked, remove item from list and mark it complete/incomplete
-    // Else, simply get the item and mark it complete/incomplete
+    // When checkBox is clicked, mark the item complete/incomplete, which moves it to the other section
     override fun onCheckClick(position: Int, isChecked: Boolean) {
-        val todo: Todo = if (hideStatus) {
-            itemAdapter.removeItemFromList(position)
-        } else {
-            itemAdapter.getItem(position)
-        }
+        val todo = itemAdapter.getItem(position) ?: return // Deleted since the row was drawn
         if (isChecked) {
             itemAdapter.markComplete(todo)
         } else {
-            itemAdapter.markIncomplete(position, todo)
+            itemAdapter.markIncomplete(todo)
         }
     }
 
     // When text is clicked, open up the OptionsBarFragment to edit item
     override fun onTextClick(position: Int, text: String, priority: Priority) {
+        itemAdapter.getItem(position)?.let { edit(it.id, text, priority) }
+    }
+
+    // Opens the OptionsBarFragment to edit the Todo with the given id, which it looks up again when saving
+    private fun edit(id: String, text: String, priority: Priority) {
         val optionsInstance =
-            OptionsBarFragment.newInstance(itemAdapter, false, position, text, priority)
+            OptionsBarFragment.newInstance(itemAdapter, false, id, text, priority)
         optionsInstance.show(supportFragmentManager, "TAG")
     }
+
+    // Imports tasks from the picked JSON or CSV file
+    private fun importTasks(uri: Uri?) {
+        if (uri == null) return // Nothing was picked
+        val type = contentResolver.getType(uri)
+        val format = if (type != null && (type.contains("csv") || type.contains("comma-separated"))) {
+            TransferFormat.CSV
+        } else {
+            TransferFormat.JSON
+        }
+        try {
+            // Null if the provider has crashed
+            val stream = contentResolver.openInputStream(uri) ?: throw FileNotFoundException("Could not open $uri")
+            val input = InputStreamReader(stream, Charsets.UTF_8)
+            itemAdapter.importModels(
+                input, format, TodoCodec(), transferListener(R.string.importing_tasks, R.string.tasks_imported)
+            )
+        } catch (failure: FileNotFoundException) {
+            showTransferFailure(failure)
+        }
+    }
+
+    // Exports every task to the created file, in exportFormat
+    private fun exportTasks(uri: Uri?) {
+        if (uri == null) return // No file was created
+        try {
+            // Null if the provider has crashed
+            val stream = contentResolver.openOutputStream(uri) ?: throw FileNotFoundException("Could not open $uri")
+            val output = OutputStreamWriter(stream, Charsets.UTF_8)
+            itemAdapter.exportModels(
+                output, exportFormat, TodoCodec(), transferListener(R.string.exporting_tasks, R.string.tasks_exported)
+            )
+        } catch (failure: FileNotFoundException) {
+            showTransferFailure(failure)
+        }
+    }
+
+    // Returns a listener that shows how many tasks an import or export has moved while it runs, then in total
+    private fun transferListener(progressText: Int, doneText: Int): ItemAdapter.TransferListener {
+        val view = findViewById<RecyclerView>(R.id.recycler_view)
+        val progressBar = Snackbar.make(view, getString(progressText, 0), Snackbar.LENGTH_INDEFINITE)
+        progressBar.show()
+        return object : ItemAdapter.TransferListener {
+            override fun onProgress(count: Long) {
+                progressBar.setText(getString(progressText, count))
+            }
+
+            override fun onComplete(count: Long) {
+                progressBar.dismiss()
+                Snackbar.make(view, getString(doneText, count), Snackbar.LENGTH_LONG).show()
+            }
+
+            override fun onFailure(error: Exception) {
+                progressBar.dismiss()
+                showTransferFailure(error)
+            }
+        }
+    }
+
+    private fun showTransferFailure(error: Exception) {
+        val view = findViewById<RecyclerView>(R.id.recycler_view)
+        Snackbar.make(view, getString(R.string.transfer_failed, error.message), Snackbar.LENGTH_LONG).show()
+    }
 }
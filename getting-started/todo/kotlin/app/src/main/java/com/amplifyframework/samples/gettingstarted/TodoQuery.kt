@@ -0,0 +1,76 @@
+package com.amplifyframework.samples.gettingstarted
+
+import com.amplifyframework.core.model.query.Page
+import com.amplifyframework.core.model.query.QueryOptions
+import com.amplifyframework.core.model.query.QuerySortBy
+import com.amplifyframework.core.model.query.Where
+import com.amplifyframework.core.model.query.predicate.QueryField
+import com.amplifyframework.datastore.generated.model.Priority
+import com.amplifyframework.datastore.generated.model.Todo
+
+// Turns a sort mode into DataStore queries for the active items and for pages of completed items,
+// so that SQLite does all of the ordering and filtering of the Todo list
+data class TodoQuery(
+    val sortBy: SortBy,
+    val sortOrder: TodoItemAdapter.SortOrder
+) {
+    enum class SortBy {
+        CREATED, PRIORITY, NAME, MANUAL
+    }
+
+    companion object {
+        const val COMPLETED_PAGE_SIZE = 100 // Completed items read at a time when they are shown
+        private val CREATED_AT: QueryField = QueryField.field("Todo", "createdAt")
+    }
+
+    // Returns the queries for active items (completedAt == null) to run in order; their results,
+    // read one after another, are the top of the list to display
+    fun build(): List<QueryOptions> {
+        return when (sortBy) {
+            // Priority is stored by name, which SQLite would order alphabetically, so each level gets its own query
+            SortBy.PRIORITY -> priorityOrder().map {
+                Where.matches(Todo.PRIORITY.eq(it).and(Todo.COMPLETED_AT.eq(null)))
+                    .sorted(CREATED_AT.ascending())
+            }
+            // Items that have never been ranked sort first, in the order they were created
+            SortBy.MANUAL -> listOf(
+                Where.matches(Todo.COMPLETED_AT.eq(null)).sorted(sortKey(), CREATED_AT.ascending())
+            )
+            else -> listOf(Where.matches(Todo.COMPLETED_AT.eq(null)).sorted(sortKey()))
+        }
+    }
+
+    // Returns how many segments completed items are read in
+    val completedSegmentCount: Int
+        get() = if (sortBy == SortBy.PRIORITY) Priority.values().size else 1
+
+    // Returns the query for one page of completed items within a segment; every page of every segment,
+    // read in order, follows the active items in the list to display
+    fun buildCompletedPage(segment: Int, page: Int): QueryOptions {
+        val query = if (sortBy == SortBy.PRIORITY) {
+            Where.matches(Todo.PRIORITY.eq(priorityOrder()[segment]).and(Todo.COMPLETED_AT.ne(null)))
+                .sorted(CREATED_AT.ascending())
+        } else {
+            Where.matches(Todo.COMPLETED_AT.ne(null)).sorted(sortKey())
+        }
+        return query.paginated(Page.startingAt(page).withLimit(COMPLETED_PAGE_SIZE))
+    }
+
+    // Returns the key that name, date created and manual sorts order by
+    private fun sortKey(): QuerySortBy {
+        if (sortBy == SortBy.MANUAL) {
+            return Todo.RANK.ascending()
+        }
+        val field = if (sortBy == SortBy.NAME) Todo.NAME else CREATED_AT
+        return if (sortOrder == TodoItemAdapter.SortOrder.ASCENDING) field.ascending() else field.descending()
+    }
+
+    // Returns every Priority in sort order, ascending lists the highest priority first
+    private fun priorityOrder(): List<Priority> {
+        return if (sortOrder == TodoItemAdapter.SortOrder.ASCENDING) {
+            Priority.values().reversed()
+        } else {
+            Priority.values().toList()
+        }
+    }
+}
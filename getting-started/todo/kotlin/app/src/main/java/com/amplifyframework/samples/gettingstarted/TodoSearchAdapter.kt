@@ -0,0 +1,68 @@
+package com.amplifyframework.samples.gettingstarted
+
+import android.content.res.ColorStateList
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import android.widget.CheckBox
+import android.widget.TextView
+import androidx.recyclerview.widget.RecyclerView
+import com.amplifyframework.datastore.generated.model.Priority
+import java.util.EnumMap
+
+// Shows the Todos found by TodoItemAdapter.search in place of the list while the user searches
+// Rows look like the list's, tapping one hands its Result to onResultClick
+class TodoSearchAdapter(private val onResultClick: (Result) -> Unit) :
+    RecyclerView.Adapter<TodoSearchAdapter.ResultViewHolder>() {
+    private val priorityTints = EnumMap<Priority, ColorStateList>(Priority::class.java) // Built on first bind
+    private var results: List<Result> = emptyList()
+
+    // A Todo found by a search, as much of it as a row shows
+    // Read from the search index and counts, which keep only ids, names and states rather than whole Todos
+    class Result(val id: String, val name: String, val priority: Priority, val isCompleted: Boolean)
+
+    // Shows a new set of results, which are few enough to rebind without diffing
+    fun setResults(results: List<Result>) {
+        this.results = results
+        notifyDataSetChanged()
+    }
+
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): ResultViewHolder {
+        val view = LayoutInflater.from(parent.context).inflate(R.layout.todo_item, parent, false)
+        return ResultViewHolder(view)
+    }
+
+    override fun onBindViewHolder(holder: ResultViewHolder, position: Int) {
+        holder.bind(results[position])
+    }
+
+    override fun getItemCount() = results.size
+
+    private fun priorityTint(view: View, priority: Priority): ColorStateList {
+        if (priorityTints.isEmpty()) {
+            for (each in Priority.values()) {
+                priorityTints[each] = ColorStateList.valueOf(TodoItemAdapter.priorityColor(view.context, each))
+            }
+        }
+        return priorityTints.getValue(priority)
+    }
+
+    // ViewHolder class, the checkBox only shows whether the Todo is completed
+    inner class ResultViewHolder(view: View) : RecyclerView.ViewHolder(view) {
+        private val textView: TextView = view.findViewById(R.id.todo_row_item)
+        private val checkBox: CheckBox = view.findViewById(R.id.todo_checkbox)
+        private lateinit var result: Result
+
+        init {
+            checkBox.isClickable = false
+            textView.setOnClickListener { onResultClick(result) }
+        }
+
+        fun bind(data: Result) {
+            result = data
+            textView.text = data.name
+            checkBox.buttonTintList = priorityTint(itemView, data.priority)
+            checkBox.isChecked = data.isCompleted
+        }
+    }
+}
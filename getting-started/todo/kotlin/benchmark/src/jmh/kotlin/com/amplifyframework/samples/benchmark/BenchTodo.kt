@@ -0,0 +1,16 @@
+package com.amplifyframework.samples.benchmark
+
+// A stand-in for the generated Todo model, holding only what ListPartition reads
+// and a priority from 0 to 2, standing in for the ordinal of Todo's Priority
+data class BenchTodo(val id: String, val completed: Boolean, val priority: Int = 0) {
+    companion object {
+        // Returns size items with every fourth one completed and priorities taking turns,
+        // active items first as the queries load them
+        fun generate(size: Int): List<BenchTodo> {
+            val (completed, active) = (0 until size)
+                .map { BenchTodo("todo-$it", it % 4 == 3, it % 3) }
+                .partition { it.completed }
+            return active + completed
+        }
+    }
+}
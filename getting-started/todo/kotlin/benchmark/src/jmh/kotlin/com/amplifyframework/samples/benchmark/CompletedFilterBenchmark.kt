@@ -0,0 +1,86 @@
+package com.amplifyframework.samples.benchmark
+
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+
+// Measures hiding and showing completed Todos and sorting by priority, the way TodoItemAdapter did in memory
+// before and after it kept completed Todos in a map by id instead of a list.
+// The *ListScan benchmarks replay the list code: hiding compares every shown id with every completed id,
+// and sorting filters with List.contains, which compares whole Todos with equals.
+// The *IdMap benchmarks replay the map code, which filters with containsKey.
+// TodoItemAdapter now sorts in SQLite and shows or hides completed Todos as a section of their own,
+// so these measure the change to the in-memory code, not what the app does today.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class CompletedFilterBenchmark {
+    @Param("50000")
+    var size = 0
+
+    private lateinit var shown: List<BenchTodo> // Every Todo, active first, as the list is while completed are shown
+    private lateinit var active: List<BenchTodo>
+    private lateinit var completedList: List<BenchTodo>
+    private lateinit var completedMap: LinkedHashMap<String, BenchTodo>
+
+    @Setup(Level.Trial)
+    fun generate() {
+        shown = BenchTodo.generate(size)
+        active = shown.filter { !it.completed }
+        completedList = shown.filter { it.completed }
+        completedMap = completedList.associateByTo(LinkedHashMap()) { it.id }
+    }
+
+    // Hides completed Todos by looking for each shown id in the list of completed Todos
+    @Benchmark
+    fun hideCompletedListScan(): List<BenchTodo> {
+        return shown.filter { todo -> completedList.none { it.id == todo.id } }
+    }
+
+    // Hides completed Todos by looking up each shown id in the map of completed Todos
+    @Benchmark
+    fun hideCompletedIdMap(): List<BenchTodo> {
+        return shown.filter { !completedMap.containsKey(it.id) }
+    }
+
+    // Shows completed Todos by appending the list of them
+    @Benchmark
+    fun showCompletedListScan(): List<BenchTodo> = append(completedList)
+
+    // Shows completed Todos by appending the map's values, without copying them first
+    @Benchmark
+    fun showCompletedIdMap(): List<BenchTodo> = append(completedMap.values)
+
+    // Sorts shown Todos by priority, filtering out completed ones with List.contains
+    // The completed Todos are sorted as a copy, so every call starts from the same order
+    @Benchmark
+    fun sortPriorityListScan(): List<BenchTodo> {
+        val list = shown.filter { !completedList.contains(it) }.sortedBy { it.priority }
+        return list + completedList.sortedBy { it.priority }
+    }
+
+    // Sorts shown Todos by priority, filtering out completed ones with containsKey,
+    // then keeps the completed Todos in their sorted order in a new map
+    @Benchmark
+    fun sortPriorityIdMap(blackhole: Blackhole) {
+        val list = shown.filter { !completedMap.containsKey(it.id) }.sortedBy { it.priority }
+        val completed = completedMap.values.sortedBy { it.priority }
+        blackhole.consume(completed.associateByTo(LinkedHashMap()) { it.id })
+        blackhole.consume(list + completed)
+    }
+
+    private fun append(completed: Collection<BenchTodo>): List<BenchTodo> {
+        return ArrayList<BenchTodo>(active.size + completed.size).apply {
+            addAll(active)
+            addAll(completed)
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.amplifyframework.samples.benchmark
+
+import com.amplifyframework.samples.list.IdList
+import com.amplifyframework.samples.list.ListPartition
+import com.amplifyframework.samples.list.SnapshotList
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OperationsPerInvocation
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+// Measures the client-side list work done by TodoItemAdapter: loading query results, sorting by priority,
+// hiding and showing completed items, applying a DataStore change, and deleting then restoring an item.
+// SQLite does the sorting itself, so sorting here is loading a result already in priority order.
+// Benchmarks that change the list undo the change before they return, so every call starts from the same list.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class ListPartitionBenchmark {
+    companion object {
+        private const val COMPLETED_PAGE_SIZE = 100 // Completed items read at a time, as in TodoQuery
+    }
+
+    @Param("1000", "10000", "100000")
+    var size = 0
+
+    private lateinit var loaded: List<BenchTodo>
+    private lateinit var activeByPriority: List<BenchTodo>
+    private lateinit var completedPages: List<List<BenchTodo>>
+    private lateinit var completedPagesByPriority: List<List<BenchTodo>>
+    private lateinit var items: SnapshotList<BenchTodo>
+    private lateinit var partition: ListPartition<BenchTodo>
+    private lateinit var lastActive: BenchTodo
+    private lateinit var lastActiveCompleted: BenchTodo
+
+    @Setup(Level.Trial)
+    fun generate() {
+        loaded = BenchTodo.generate(size)
+        val (completed, active) = loaded.partition { it.completed }
+        // The last active item, so a change that moves it to the end of the active section and its undo
+        // leave the list as it was
+        lastActive = active.last()
+        lastActiveCompleted = lastActive.copy(completed = true)
+        completedPages = completed.chunked(COMPLETED_PAGE_SIZE)
+        activeByPriority = active.sortedBy { it.priority }
+        completedPagesByPriority = completed.sortedBy { it.priority }.chunked(COMPLETED_PAGE_SIZE)
+    }
+
+    @Setup(Level.Iteration)
+    fun load() {
+        items = SnapshotList(Thread.currentThread()) { it.id }
+        partition = newPartition()
+        partition.addLoaded(items.edit(), loaded)
+    }
+
+    // Loads a full query result into an empty list
+    @Benchmark
+    fun loadResults(): List<BenchTodo> {
+        val rows = IdList<BenchTodo>({ it.id }) // As TodoItemAdapter's list is
+        newPartition().addLoaded(rows, loaded)
+        return rows
+    }
+
+    // Sorts by priority: loads the active items sorted by SQLite, then their completed items a page at a time
+    @Benchmark
+    fun sortPriority(): List<BenchTodo> {
+        val fresh = newPartition()
+        val rows = IdList<BenchTodo>({ it.id }) // As TodoItemAdapter's list is
+        fresh.addLoaded(rows, activeByPriority)
+        completedPagesByPriority.forEach { fresh.addLoaded(rows, it) }
+        return rows
+    }
+
+    // Hides completed items: publishes the list and shows only the active section of it
+    @Benchmark
+    fun hideCompleted(): List<BenchTodo> {
+        val snapshot = items.publish()
+        return snapshot.subList(0, partition.activeCount(snapshot))
+    }
+
+    // Shows completed items that have not been loaded yet, a page at a time after the active items
+    // The completed items the last call loaded are taken out first
+    @Benchmark
+    fun showCompleted(): List<BenchTodo> {
+        val list = items.edit()
+        list.subList(partition.activeCount(list), list.size).clear()
+        partition.clear()
+        completedPages.forEach { partition.addLoaded(list, it) }
+        return list
+    }
+
+    // Applies an update that marks the last active item complete, then one that marks it active again
+    @Benchmark
+    @OperationsPerInvocation(2)
+    fun applyUpdate(): List<BenchTodo> {
+        val list = items.edit()
+        partition.apply(list, ListPartition.ChangeType.UPDATE, lastActiveCompleted)
+        partition.apply(list, ListPartition.ChangeType.UPDATE, lastActive)
+        return list
+    }
+
+    // Deletes the last active item, then restores it as an undo would
+    @Benchmark
+    @OperationsPerInvocation(2)
+    fun deleteAndRestore(): List<BenchTodo> {
+        val list = items.edit()
+        partition.apply(list, ListPartition.ChangeType.DELETE, lastActive)
+        partition.apply(list, ListPartition.ChangeType.CREATE, lastActive)
+        return list
+    }
+
+    private fun newPartition(): ListPartition<BenchTodo> {
+        return ListPartition<BenchTodo>({ it.id }, { it.completed }).apply { completedLoaded = true }
+    }
+}
@@ -0,0 +1,114 @@
+package com.amplifyframework.samples.benchmark
+
+import com.amplifyframework.samples.list.ListPartition
+import com.amplifyframework.samples.list.ModelCodec
+import com.amplifyframework.samples.list.ModelTransfer
+import com.amplifyframework.samples.list.TransferFormat
+import java.io.StringReader
+import java.io.StringWriter
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OperationsPerInvocation
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+
+// Measures import and export throughput in items per second for a file of SIZE Todos.
+// Imports hand each batch to a store thread, standing in for Datastore, which adds it to the list the way
+// TodoItemAdapter does; importOneAtATime adds each item on its own instead, as one save and notify per item would.
+// Datastore's own write cost is not included, it can only be measured on a device.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+open class ModelTransferBenchmark {
+    companion object {
+        private const val SIZE = 20000
+    }
+
+    @Param("JSON", "CSV")
+    lateinit var format: TransferFormat
+
+    // Writes a name as well, so records are as long as a Todo's, though BenchTodo does not keep it
+    private object Codec : ModelCodec<BenchTodo> {
+        override val fields = arrayOf("id", "name", "completed")
+
+        override fun encode(item: BenchTodo, values: Array<String?>) {
+            values[0] = item.id
+            values[1] = "Follow up on ${item.id}, then \"file\" it"
+            values[2] = item.completed.toString()
+        }
+
+        override fun decode(values: Array<String?>) = BenchTodo(values[0]!!, values[2].toBoolean())
+    }
+
+    private lateinit var items: List<BenchTodo>
+    private lateinit var file: String
+    private lateinit var store: ExecutorService
+
+    @Setup(Level.Trial)
+    fun generate() {
+        items = BenchTodo.generate(SIZE)
+        file = export()
+        store = Executors.newSingleThreadExecutor()
+    }
+
+    @TearDown(Level.Trial)
+    fun stop() {
+        store.shutdown()
+    }
+
+    // Reads the file in batches, each added to the list in one go on the store thread
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    fun importBatches(): List<BenchTodo> {
+        val partition = newPartition()
+        val list = ArrayList<BenchTodo>(SIZE)
+        ModelTransfer(Codec).importAll(
+            format.openReader(StringReader(file), Codec.fields),
+            { batch, done ->
+                store.execute {
+                    partition.applyAll(list, batch)
+                    done.onWritten()
+                }
+            },
+            { }
+        )
+        return list
+    }
+
+    // Reads the file and adds each item to the list on its own
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    fun importOneAtATime(): List<BenchTodo> {
+        val partition = newPartition()
+        val list = ArrayList<BenchTodo>(SIZE)
+        val values = arrayOfNulls<String>(Codec.fields.size)
+        val reader = format.openReader(StringReader(file), Codec.fields)
+        while (reader.read(values)) {
+            partition.apply(list, ListPartition.ChangeType.CREATE, Codec.decode(values))
+        }
+        return list
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    fun exportAll(): String = export()
+
+    private fun export(): String {
+        val out = StringWriter(SIZE * 64)
+        format.openWriter(out, Codec.fields).use { ModelTransfer(Codec).exportAll(items.iterator(), it) { } }
+        return out.toString()
+    }
+
+    private fun newPartition(): ListPartition<BenchTodo> {
+        return ListPartition<BenchTodo>({ it.id }, { it.completed }).apply { completedLoaded = true }
+    }
+}
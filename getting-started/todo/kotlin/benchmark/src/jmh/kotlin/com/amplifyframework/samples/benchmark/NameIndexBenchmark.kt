@@ -0,0 +1,87 @@
+package com.amplifyframework.samples.benchmark
+
+import com.amplifyframework.samples.list.NameIndex
+import java.util.Random
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+// Measures searching Todo names as TodoItemAdapter does while the user types, for texts of one to five
+// characters, and keeping the index current as a Todo is renamed.
+// Names are made of words drawn from a fixed vocabulary, so short texts match many names and long ones a few.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class NameIndexBenchmark {
+    companion object {
+        private const val RESULTS = 100 // Results shown at a time, as in TodoItemAdapter
+        private const val WORDS = 2000
+
+        // Returns made-up words plus a few real ones that the searched texts appear in
+        private fun vocabulary(random: Random): List<String> {
+            val real = listOf("email", "mail", "making", "store", "storage", "water", "watering", "meeting")
+            return real + (real.size until WORDS).map {
+                val length = 3 + random.nextInt(7)
+                (0 until length).map { 'a' + random.nextInt(26) }.joinToString("")
+            }
+        }
+    }
+
+    @Param("1000", "10000", "100000")
+    var size = 0
+
+    @Param("e", "ma", "ing", "stor", "water")
+    var text = ""
+
+    // A Todo's id and name, which is all the index reads
+    class Named(val id: String, val name: String)
+
+    private lateinit var items: List<Named>
+    private lateinit var index: NameIndex<Named>
+    private lateinit var renamed: Named
+    private lateinit var original: Named
+
+    @Setup(Level.Trial)
+    fun generate() {
+        val random = Random(42)
+        val vocabulary = vocabulary(random)
+        items = (0 until size).map { i ->
+            val words = 2 + random.nextInt(4)
+            val name = (0 until words).joinToString(" ") { vocabulary[random.nextInt(vocabulary.size)] }
+            Named("todo-$i", name)
+        }
+        index = NameIndex({ it.id }, { it.name })
+        index.putAll(items)
+        original = items[size / 2]
+        renamed = Named(original.id, original.name + " later")
+    }
+
+    // Builds the index from every name, as TodoItemAdapter does once in the background
+    @Benchmark
+    fun build(): NameIndex<Named> {
+        val fresh = NameIndex<Named>({ it.id }, { it.name })
+        fresh.putAll(items)
+        return fresh
+    }
+
+    // Searches for the first page of names containing text
+    @Benchmark
+    fun search(): List<Named> {
+        return index.search(text, RESULTS)
+    }
+
+    // Renames an item and renames it back, as a save and then its undo would
+    @Benchmark
+    fun rename(): NameIndex<Named> {
+        index.put(renamed)
+        index.put(original)
+        return index
+    }
+}
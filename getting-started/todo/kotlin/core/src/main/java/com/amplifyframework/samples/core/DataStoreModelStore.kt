@@ -0,0 +1,38 @@
+package com.amplifyframework.samples.core
+
+import android.util.Log
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.core.async.Cancelable
+import com.amplifyframework.core.model.Model
+import com.amplifyframework.core.model.query.QueryOptions
+import com.amplifyframework.samples.list.ListPartition
+
+// Keeps models in Amplify DataStore, which syncs them with the backend
+// Must only be used once Amplify is configured
+class DataStoreModelStore<T : Model>(private val modelClass: Class<out T>) : ModelStore<T> {
+    override fun query(options: QueryOptions, onResults: (Iterator<T>) -> Unit, onFailure: (Exception) -> Unit) {
+        Amplify.DataStore.query(modelClass, options, { onResults(it) }, { onFailure(it) })
+    }
+
+    override fun save(model: T, onSaved: (T) -> Unit, onFailure: (Exception) -> Unit) {
+        Amplify.DataStore.save(model, { onSaved(it.item()) }, { onFailure(it) })
+    }
+
+    override fun delete(model: T, onDeleted: (T) -> Unit, onFailure: (Exception) -> Unit) {
+        Amplify.DataStore.delete(model, { onDeleted(it.item()) }, { onFailure(it) })
+    }
+
+    override fun observe(
+        onStart: (Cancelable) -> Unit,
+        onChange: (type: ListPartition.ChangeType, model: T) -> Unit,
+        onFailure: (Exception) -> Unit
+    ) {
+        Amplify.DataStore.observe(
+            modelClass,
+            { onStart(it) },
+            { onChange(ListPartition.ChangeType.valueOf(it.type().name), it.item()) },
+            { onFailure(it) },
+            { Log.i("MyAmplifyApp", "Observation complete") }
+        )
+    }
+}
@@ -1,25 +1,114 @@
 package com.amplifyframework.samples.core
 
-import android.app.Activity
-import android.content.Context
+import android.os.Handler
+import android.os.Looper
 import android.util.Log
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleEventObserver
+import androidx.lifecycle.LifecycleOwner
+import androidx.recyclerview.widget.AdapterListUpdateCallback
+import androidx.recyclerview.widget.AsyncDifferConfig
+import androidx.recyclerview.widget.AsyncListDiffer
+import androidx.recyclerview.widget.ConcatAdapter
+import androidx.recyclerview.widget.ListUpdateCallback
 import androidx.recyclerview.widget.RecyclerView
-import com.amplifyframework.core.Amplify
 import com.amplifyframework.core.model.Model
+import com.amplifyframework.core.model.query.Where
+import com.amplifyframework.samples.list.IdList
+import com.amplifyframework.samples.list.ModelCodec
+import com.amplifyframework.samples.list.ModelTransfer
+import com.amplifyframework.samples.list.SnapshotList
+import com.amplifyframework.samples.list.TransferFormat
+import java.io.Closeable
+import java.io.IOException
+import java.io.Reader
+import java.io.Writer
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
 
 abstract class ItemAdapter<T : Model>() : RecyclerView.Adapter<RecyclerView.ViewHolder>() {
-    private var items = mutableListOf<T>() // List that gets displayed by viewHolder
+    // List that changes are made to, edited on the main thread and published to the RecyclerView as immutable copies
+    private val snapshotList = SnapshotList<T>(Looper.getMainLooper().thread) { it.id }
+    private val items: IdList<T>
+        get() = snapshotList.edit()
+    // Diffs items against the list shown by viewHolder on a background thread
+    private val differ = AsyncListDiffer(HeadUpdates(), AsyncDifferConfig.Builder(ModelDiffCallback(this)).build())
+    // Rows of this adapter as shown while a row is dragged, moved in place rather than diffed, null otherwise
+    private var dragRows: MutableList<T>? = null
+    private val stableIds = hashMapOf<String, Long>() // RecyclerView item id given to each model id
+    private var stableIdLimit = MIN_STABLE_IDS // Size stableIds can grow to before it is pruned
+    private var nextStableId = 0L
+    private val tail = TailSection() // Shows the items after sectionSplit
+    private var sections: ConcatAdapter? = null // Built on first use, after stable ids are set
+    // Bumped by each new query, results of older queries are dropped and their reads stop early
+    @Volatile
+    protected var queryGeneration = 0
+        private set
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private val pendingSaves = linkedMapOf<String, T>() // Latest unsaved state of each model
+    private val flushTask = Runnable { flushSaves() }
+    private val pendingDeletes = linkedMapOf<String, T>() // Hidden models waiting to be deleted
+    private val deleteTask = Runnable { flushDeletes() }
+    // Ids of imported models saved but not yet echoed back by observe, written from the import thread
+    private val importing: MutableSet<String> = Collections.newSetFromMap(ConcurrentHashMap())
+    var saveWindowMillis = DEFAULT_SAVE_WINDOW_MILLIS // How long saves are held before being sent
+    var undoWindowMillis = DEFAULT_UNDO_WINDOW_MILLIS // How long a queued delete can be undone
+    var savedMutationCount = 0 // Saves sent to the store
+        private set
+    var coalescedSaveCount = 0 // Saves merged into a later save of the same model
+        private set
+    var skippedSaveCount = 0 // Saves skipped by setModel because the model was unchanged
+        private set
+
+    private var owner: LifecycleOwner? = null // UI owner results are delivered to, null once it is destroyed
+    @Volatile
+    private var modelStore: ModelStore<T>? = null // Set on first use of store unless set before
+    private val ownerObserver = LifecycleEventObserver { _, event ->
+        if (event == Lifecycle.Event.ON_DESTROY) unbind()
+    }
 
     companion object {
-        lateinit var cont: Context
-        fun setContext(con: Context) {
-            cont = con
-        }
+        private const val FIRST_CHUNK_SIZE = 32 // Enough rows to fill the first frame
+        private const val MAX_CHUNK_SIZE = 1024 // Upper bound on rows published at once
+        private const val DEFAULT_SAVE_WINDOW_MILLIS = 500L // How long saves are held to be merged
+        private const val DEFAULT_UNDO_WINDOW_MILLIS = 4000L // How long a queued delete can be undone
+        private const val MIN_STABLE_IDS = 256 // Stable ids kept before any are dropped
+    }
+
+    init {
+        setHasStableIds(true)
+    }
+
+    // Delivers results to owner until it is destroyed, replacing any owner bound before
+    // Must be called on the main thread
+    fun bindTo(owner: LifecycleOwner) {
+        unbind()
+        this.owner = owner
+        owner.lifecycle.addObserver(ownerObserver)
+    }
+
+    // Returns true while a UI owner is bound and not yet destroyed
+    val isBound: Boolean
+        get() = owner != null
+
+    // Lets go of the UI owner and drops in-flight queries, so nothing is retained or delivered to a dead screen
+    private fun unbind() {
+        val bound = owner ?: return
+        bound.lifecycle.removeObserver(ownerObserver)
+        owner = null
+        startQueryGeneration()
+        onUnbind()
     }
 
+    // Called once the UI owner is destroyed, for subclasses to stop any work they started for it
+    protected open fun onUnbind() {}
+
     override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): RecyclerView.ViewHolder {
         val adapterLayout = LayoutInflater.from(parent.context)
             .inflate(getLayout(), parent, false)
@@ -27,16 +116,183 @@ abstract class ItemAdapter<T : Model>() : RecyclerView.Adapter<RecyclerView.View
     }
 
     override fun onBindViewHolder(holder: RecyclerView.ViewHolder, position: Int) {
-        val item = items[position]
-        (holder as Binder<T>).bind(item)
+        bindModel(holder, shownHead[position], emptyList())
+    }
+
+    override fun onBindViewHolder(holder: RecyclerView.ViewHolder, position: Int, payloads: MutableList<Any>) {
+        bindModel(holder, shownHead[position], payloads)
+    }
+
+    // Rebinds only the parts of a row named by the payloads, falling back to a full bind when there are none
+    private fun bindModel(holder: RecyclerView.ViewHolder, item: T, payloads: List<Any>) {
+        if (payloads.isEmpty() || holder !is PartialBinder<*>) {
+            (holder as Binder<T>).bind(item)
+        } else {
+            (holder as PartialBinder<T>).bind(item, payloads)
+        }
+    }
+
+    // Told how an import or export is going, on the main thread
+    interface TransferListener {
+        fun onProgress(count: Long)
+
+        fun onComplete(count: Long)
+
+        fun onFailure(error: Exception)
     }
 
     interface Binder<T> {
         fun bind(data: T)
     }
 
-    // Returns the size of the list
-    override fun getItemCount() = items.size
+    // Binder that can update a row from the change payloads returned by getChangePayload
+    interface PartialBinder<T> : Binder<T> {
+        fun bind(data: T, payloads: List<Any>)
+    }
+
+    // Returns the size of the displayed list
+    override fun getItemCount() = shownHead.size
+
+    // Returns the stable id of the row at position, so RecyclerView can match views across changes
+    override fun getItemId(position: Int): Long {
+        return stableIdOf(shownHead[position].id)
+    }
+
+    // The rows this adapter shows, the dragged order while a row is being dragged
+    private val shownHead: List<T>
+        get() = dragRows ?: differ.currentList
+
+    // Passes the diffs of this adapter's rows on to the RecyclerView, except while dragRows are shown instead
+    private inner class HeadUpdates : ListUpdateCallback {
+        private val adapterUpdates = AdapterListUpdateCallback(this@ItemAdapter)
+
+        override fun onInserted(position: Int, count: Int) {
+            if (dragRows == null) adapterUpdates.onInserted(position, count)
+        }
+
+        override fun onRemoved(position: Int, count: Int) {
+            if (dragRows == null) adapterUpdates.onRemoved(position, count)
+        }
+
+        override fun onMoved(fromPosition: Int, toPosition: Int) {
+            if (dragRows == null) adapterUpdates.onMoved(fromPosition, toPosition)
+        }
+
+        override fun onChanged(position: Int, count: Int, payload: Any?) {
+            if (dragRows == null) adapterUpdates.onChanged(position, count, payload)
+        }
+    }
+
+    // Returns the adapter to give the RecyclerView: this adapter's rows, followed by the tail section when it is shown
+    // Positions in it are positions in the list as last diffed, use absoluteAdapterPosition to read them
+    // from a ViewHolder and getItem(Int) to find the model they show
+    fun getSections(): ConcatAdapter {
+        return sections ?: ConcatAdapter(
+            ConcatAdapter.Config.Builder()
+                .setIsolateViewTypes(false) // Rows look the same in both sections, so views are shared
+                .setStableIdMode(ConcatAdapter.Config.StableIdMode.SHARED_STABLE_IDS)
+                .build(),
+            this
+        ).also { sections = it }
+    }
+
+    // Whether the tail section is attached, its items stay in the list either way so nothing is copied or reloaded
+    var isTailShown: Boolean
+        get() = sections?.adapters?.contains(tail) == true
+        set(shown) {
+            if (shown == isTailShown) return
+            if (shown) getSections().addAdapter(tail) else getSections().removeAdapter(tail)
+        }
+
+    // Returns how many items at the start of list this adapter shows, the rest are shown by the tail section
+    // Every item is shown here unless a subclass splits its list into two sections
+    protected open fun sectionSplit(list: List<T>): Int = list.size
+
+    // Shows the items after the section split as a second adapter in getSections()
+    // While detached it keeps only the latest items, and diffs them once it is attached again
+    private inner class TailSection : RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+        private val tailDiffer = AsyncListDiffer(this, ModelDiffCallback(this@ItemAdapter))
+        private var latest: List<T> = emptyList()
+        private var attached = false
+
+        init {
+            setHasStableIds(true)
+        }
+
+        fun submitList(list: List<T>) {
+            latest = list
+            if (attached) tailDiffer.submitList(list)
+        }
+
+        override fun onAttachedToRecyclerView(recyclerView: RecyclerView) {
+            attached = true
+            tailDiffer.submitList(latest)
+        }
+
+        override fun onDetachedFromRecyclerView(recyclerView: RecyclerView) {
+            attached = false
+        }
+
+        override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): RecyclerView.ViewHolder {
+            return this@ItemAdapter.onCreateViewHolder(parent, viewType)
+        }
+
+        override fun onBindViewHolder(holder: RecyclerView.ViewHolder, position: Int) {
+            bindModel(holder, tailDiffer.currentList[position], emptyList())
+        }
+
+        override fun onBindViewHolder(holder: RecyclerView.ViewHolder, position: Int, payloads: MutableList<Any>) {
+            bindModel(holder, tailDiffer.currentList[position], payloads)
+        }
+
+        override fun getItemCount() = tailDiffer.currentList.size
+
+        override fun getItemId(position: Int): Long {
+            return stableIdOf(tailDiffer.currentList[position].id)
+        }
+
+        val currentList: List<T>
+            get() = tailDiffer.currentList
+    }
+
+    // Returns the model shown at a position of getSections(), or null if there is none
+    // Until the latest publish has been diffed this can differ from the model at the same position in getList()
+    private fun displayedAt(position: Int): T? {
+        val head = shownHead
+        if (position < 0) return null
+        if (position < head.size) return head[position]
+        val shownTail = if (isTailShown) tail.currentList else emptyList()
+        return shownTail.getOrNull(position - head.size)
+    }
+
+    // Returns the RecyclerView item id for a model id
+    // Ids are handed out in order rather than hashed from the model id, so two models can never share one
+    protected fun stableIdOf(modelId: String): Long {
+        return stableIds.getOrPut(modelId) { nextStableId++ }
+    }
+
+    // Drops the stable ids of models that are neither in the list nor shown, once twice as many are held
+    // as after the last time, so each id handed out costs a constant share of the scans. Called as a diff is applied
+    private fun pruneStableIds() {
+        if (stableIds.size <= stableIdLimit) return
+        val listed = hashSetOf<String>()
+        snapshotList.edit().mapTo(listed) { it.id }
+        differ.currentList.mapTo(listed) { it.id }
+        tail.currentList.mapTo(listed) { it.id }
+        dragRows?.mapTo(listed) { it.id }
+        stableIds.keys.retainAll(listed)
+        stableIdLimit = maxOf(MIN_STABLE_IDS, stableIds.size * 2)
+    }
+
+    // Returns what changed between two versions of a model, passed to PartialBinder to update part of its row,
+    // or null to rebind the whole row. Called on a background thread, so it must only read its arguments
+    open fun getChangePayload(oldItem: T, newItem: T): Any? {
+        return null
+    }
+
+    // Returns true if saving updated in place of current would change the stored model
+    // Every field is compared by default, subclasses can compare only the fields they write
+    protected open fun hasChanges(current: T, updated: T): Boolean = current != updated
 
     // Returns the ViewHolder
     abstract fun getViewHolder(view: View): RecyclerView.ViewHolder
@@ -47,73 +303,388 @@ abstract class ItemAdapter<T : Model>() : RecyclerView.Adapter<RecyclerView.View
     // Returns the model class
     abstract fun getModelClass(): Class<out T>
 
-    // Queries models from Datastore into a list
+    // Where models are read from and written to, DataStore unless set before anything is queried or saved
+    var store: ModelStore<T>
+        get() = modelStore ?: DataStoreModelStore(getModelClass()).also { modelStore = it }
+        set(value) {
+            modelStore = value
+        }
+
+    // Queries models from the store into a list once Amplify is configured
     open fun query() {
-        Amplify.DataStore.query(
-            getModelClass(),
-            { results ->
-                while (results.hasNext()) {
-                    val item = results.next()
-                    items.add(item)
-                    Log.i("Tutorial", "Item loaded: ${item.id}")
-                }
-                if (cont is Activity) {
-                    (cont as Activity).runOnUiThread {
-                        notifyDataSetChanged()
-                    }
-                }
-            },
-            { Log.e("Tutorial", "Query Failed: $it") }
-        )
+        val generation = startQueryGeneration()
+        MainApplication.whenReady {
+            if (isStale(generation)) return@whenReady
+            store.query(
+                Where.matchesAll(),
+                { results ->
+                    streamResults(
+                        generation,
+                        results,
+                        onChunk = { chunk ->
+                            items.addAll(chunk)
+                            submitList()
+                        }
+                    )
+                },
+                { Log.e("Tutorial", "Query Failed: $it") }
+            )
+        }
+    }
+
+    // Starts a new query generation, making every query of an older one stale
+    // Must be called on the main thread
+    protected fun startQueryGeneration(): Int {
+        return ++queryGeneration
+    }
+
+    // Returns true if a newer query has started since the query of the given generation
+    protected fun isStale(generation: Int): Boolean {
+        return generation != queryGeneration
     }
 
-    // Saves models into Datastore
-    fun save(model: T) {
-        Amplify.DataStore.save(
-            model,
-            { Log.i("Tutorial", "Saved item: ${model.id}") },
-            { Log.e("Tutorial", "Could not save item to DataStore", it) }
-        )
+    // Reads query results in growing chunks of at most MAX_CHUNK_SIZE rows and hands each one to
+    // onChunk on the main thread, so the first rows show before the whole table has been read
+    // Once the generation is stale, reading stops and no further chunks or onComplete are handed over
+    protected fun streamResults(
+        generation: Int,
+        results: Iterator<T>,
+        onChunk: (List<T>) -> Unit,
+        onComplete: () -> Unit = {}
+    ) {
+        val logItems = Log.isLoggable("Tutorial", Log.VERBOSE)
+        var chunkSize = FIRST_CHUNK_SIZE
+        var chunk = ArrayList<T>(chunkSize)
+        while (results.hasNext()) {
+            if (isStale(generation)) return
+            val item = results.next()
+            chunk.add(item)
+            if (logItems) Log.v("Tutorial", "Item loaded: ${item.id}")
+            if (chunk.size == chunkSize) {
+                val fullChunk = chunk
+                runOnUiThread { if (!isStale(generation)) onChunk(fullChunk) }
+                chunkSize = minOf(chunkSize * 2, MAX_CHUNK_SIZE)
+                chunk = ArrayList(chunkSize)
+            }
+        }
+        val lastChunk = chunk
+        runOnUiThread {
+            if (isStale(generation)) return@runOnUiThread
+            if (lastChunk.isNotEmpty()) onChunk(lastChunk)
+            onComplete()
+        }
     }
 
-    // Adds a model to DataStore if save is true, otherwise only adds model to list
-    fun addModel(model: T, save: Boolean) {
+    // Runs an action on the main thread if a UI owner is still bound by then, otherwise drops it
+    protected fun runOnUiThread(action: () -> Unit) {
+        mainHandler.post { if (owner != null) action() }
+    }
+
+    // Queues a model to be saved into the store, saves of the same model within the save window merge into one
+    // Must be called on the main thread
+    open fun save(model: T) {
+        if (pendingSaves.put(model.id, model) != null) {
+            coalescedSaveCount++
+        } else if (pendingSaves.size == 1) {
+            mainHandler.postDelayed(flushTask, saveWindowMillis)
+        }
+    }
+
+    // Saves the latest state of every queued model into the store now, or once Amplify is configured
+    fun flushSaves() {
+        mainHandler.removeCallbacks(flushTask)
+        if (!MainApplication.isReady) {
+            MainApplication.whenReady { flushSaves() } // Saves keep merging until then
+            return
+        }
+        for (model in pendingSaves.values) {
+            store.save(
+                model,
+                { Log.i("Tutorial", "Saved item: ${model.id}") },
+                { Log.e("Tutorial", "Could not save item", it) }
+            )
+            savedMutationCount++
+        }
+        pendingSaves.clear()
+        Log.i("Tutorial", "Saves sent: $savedMutationCount, merged: $coalescedSaveCount, skipped: $skippedSaveCount")
+    }
+
+    // Adds a model to the store if save is true, otherwise only adds model to list
+    open fun addModel(model: T, save: Boolean) {
         items.add(model)
         if (save) save(model)
     }
 
-    // Deletes a model from Datastore and list
-    open fun deleteModel(position: Int): T {
-        val item = removeItemFromList(position)
-        Amplify.DataStore.delete(
-            item,
-            { Log.i("Tutorial", "deleted item") },
-            { Log.e("Tutorial", "Could not delete item") }
-        )
+    // Deletes the model with the given id from the store and list, returns null if it is not in the list
+    open fun deleteModel(id: String): T? {
+        val item = removeItemFromList(id) ?: return null
+        pendingSaves.remove(item.id)
+        MainApplication.whenReady {
+            store.delete(
+                item,
+                { Log.i("Tutorial", "deleted item") },
+                { Log.e("Tutorial", "Could not delete item") }
+            )
+        }
         return item
     }
 
-    // Sets a model at a certain position in the list
-    fun setModel(position: Int, model: T) {
-        items[position] = model
+    // Hides the model with the given id and deletes it from the store once the undo window closes,
+    // returns null if it is not in the list. Deletes queued close together are sent in one batch
+    open fun queueDelete(id: String): T? {
+        val item = removeItemFromList(id) ?: return null
+        pendingDeletes[item.id] = item
+        mainHandler.removeCallbacks(deleteTask)
+        mainHandler.postDelayed(deleteTask, undoWindowMillis)
+        return item
+    }
+
+    // Puts a queued model back at its position instead of deleting it
+    open fun undoDelete(position: Int, item: T): Boolean {
+        if (pendingDeletes.remove(item.id) == null) return false
+        restoreToList(items, position, item)
+        submitList()
+        return true
+    }
+
+    // Puts a model whose delete was undone back in list at position, or at the end if the list is now shorter
+    // Subclasses that split the list into sections keep it within its own, as the list may have changed since
+    protected open fun restoreToList(list: MutableList<T>, position: Int, item: T) {
+        list.add(minOf(position, list.size), item)
+    }
+
+    // Deletes every queued model from the store now, or once Amplify is configured
+    fun flushDeletes() {
+        mainHandler.removeCallbacks(deleteTask)
+        if (!MainApplication.isReady) {
+            MainApplication.whenReady { flushDeletes() } // Deletes can still be undone until then
+            return
+        }
+        for (item in pendingDeletes.values) {
+            pendingSaves.remove(item.id)
+            store.delete(
+                item,
+                { Log.i("Tutorial", "deleted item") },
+                { Log.e("Tutorial", "Could not delete item") }
+            )
+        }
+        Log.i("Tutorial", "Deleted batch of ${pendingDeletes.size} items")
+        pendingDeletes.clear()
+    }
+
+    // Returns true if the model with the given id is hidden waiting to be deleted
+    fun isDeletePending(id: String): Boolean {
+        return pendingDeletes.containsKey(id)
+    }
+
+    // Imports every model read from input on a background thread, closing input once done
+    // Each batch is saved to the store and then added to the list with a single notify, and the next batch
+    // is only read once the store has caught up, so a large file is never held in memory as a whole
+    fun importModels(input: Reader, format: TransferFormat, codec: ModelCodec<T>, listener: TransferListener) {
+        MainApplication.whenFailed { abandonTransfer(input, listener, it) }
+        MainApplication.whenReady {
+            thread(name = "ModelImport") {
+                val count = try {
+                    input.use {
+                        format.openReader(it, codec.fields).use { reader ->
+                            ModelTransfer(codec).importAll(
+                                reader,
+                                { batch, done -> saveBatch(batch, done) },
+                                { progress -> runOnUiThread { listener.onProgress(progress) } }
+                            )
+                        }
+                    }
+                } catch (failure: IOException) {
+                    onImportFailed(failure, listener)
+                    return@thread
+                } catch (failure: InterruptedException) {
+                    onImportFailed(failure, listener)
+                    return@thread
+                } catch (failure: RuntimeException) {
+                    // Malformed files, which the JSON reader and codecs report unchecked
+                    onImportFailed(failure, listener)
+                    return@thread
+                }
+                runOnUiThread {
+                    importing.clear()
+                    listener.onComplete(count)
+                }
+            }
+        }
+    }
+
+    // Tells listener an import failed, reloading the list as models of a failed batch may be saved
+    // without having been added to it
+    private fun onImportFailed(failure: Exception, listener: TransferListener) {
+        Log.e("Tutorial", "Import failed", failure)
+        runOnUiThread {
+            importing.clear()
+            query()
+            listener.onFailure(failure)
+        }
+    }
+
+    // Closes the file of a transfer that can never start, because Amplify could not be configured,
+    // and tells listener why
+    private fun abandonTransfer(file: Closeable, listener: TransferListener, failure: Exception) {
+        try {
+            file.close()
+        } catch (closeFailure: IOException) {
+            Log.w("Tutorial", "Could not close the transfer file", closeFailure)
+        }
+        listener.onFailure(failure)
+    }
+
+    // Saves a batch of imported models into the store, then adds it to the list once every save has finished
+    private fun saveBatch(batch: List<T>, done: ModelTransfer.Done) {
+        batch.mapTo(importing) { it.id }
+        val unsaved = AtomicInteger(batch.size)
+        val failed = AtomicBoolean(false)
+        for (model in batch) {
+            store.save(
+                model,
+                {
+                    if (unsaved.decrementAndGet() == 0) {
+                        runOnUiThread { onModelsImported(batch) }
+                        done.onWritten()
+                    }
+                },
+                { if (failed.compareAndSet(false, true)) done.onFailed(it) }
+            )
+        }
+    }
+
+    // Adds a batch of imported models to the list and publishes it, called on the main thread
+    protected open fun onModelsImported(batch: List<T>) {
+        items.addAll(batch)
+        submitList()
+    }
+
+    // Returns true if a change from observe is the echo of an imported model's save, which onModelsImported
+    // has or will put in the list, so that each batch is shown with one notify rather than one per model
+    // Must be called on the main thread, at most once for each change
+    protected fun isImportEcho(model: T): Boolean {
+        return importing.remove(model.id)
+    }
+
+    // Exports every model in the store to output on a background thread, closing output once the file is finished
+    fun exportModels(output: Writer, format: TransferFormat, codec: ModelCodec<T>, listener: TransferListener) {
+        flushSaves()
+        MainApplication.whenFailed { abandonTransfer(output, listener, it) }
+        MainApplication.whenReady {
+            store.query(
+                Where.matchesAll(),
+                { results ->
+                    val count = try {
+                        output.use {
+                            format.openWriter(it, codec.fields).use { writer ->
+                                ModelTransfer(codec).exportAll(
+                                    results,
+                                    writer,
+                                    { progress -> runOnUiThread { listener.onProgress(progress) } }
+                                )
+                            }
+                        }
+                    } catch (failure: IOException) {
+                        Log.e("Tutorial", "Export failed", failure)
+                        runOnUiThread { listener.onFailure(failure) }
+                        return@query
+                    } catch (failure: RuntimeException) {
+                        Log.e("Tutorial", "Export failed", failure)
+                        runOnUiThread { listener.onFailure(failure) }
+                        return@query
+                    }
+                    runOnUiThread { listener.onComplete(count) } // Once the file is finished and closed
+                },
+                {
+                    Log.e("Tutorial", "Export query failed", it)
+                    runOnUiThread { listener.onFailure(it) }
+                }
+            )
+        }
+    }
+
+    // Replaces the model with the same id in the list and saves it, unless it is unchanged or no longer listed
+    // Returns true if the model was changed, so the caller knows whether there is anything to publish
+    fun setModel(model: T): Boolean {
+        val index = positionOf(model.id)
+        return index != -1 && setModelAt(index, model)
+    }
+
+    // Sets the model at an index of getList() and saves it, unless it is unchanged from the model there
+    protected fun setModelAt(index: Int, model: T): Boolean {
+        if (!hasChanges(items[index], model)) {
+            skippedSaveCount++
+            return false
+        }
+        items[index] = model
         save(model)
+        return true
+    }
+
+    // Moves a row of this adapter being dragged from one position to another straight away, without saving it
+    // Until endDrag the rows are moved in place and not diffed, so the RecyclerView keeps up with every move.
+    // The model is placed in the list after the row now shown before it, or failing that before the one after it
+    fun moveShown(from: Int, to: Int) {
+        val rows = dragRows ?: differ.currentList.toMutableList().also { dragRows = it }
+        val moved = rows.removeAt(from)
+        rows.add(to, moved)
+        notifyItemMoved(from, to)
+        val index = positionOf(moved.id)
+        if (index == -1) return // Removed since, it goes once the drag ends
+        items.removeAt(index)
+        var at = if (to > 0) positionOf(rows[to - 1].id).let { if (it != -1) it + 1 else -1 } else -1
+        if (at == -1 && to + 1 < rows.size) at = positionOf(rows[to + 1].id)
+        items.add(if (at != -1) at else index, moved)
+    }
+
+    // Diffs this adapter's rows again once a drag is over: the dragged order is taken as shown,
+    // and the list is then published against it
+    fun endDrag() {
+        val rows = dragRows ?: return
+        differ.submitList(rows.toList()) {
+            dragRows = null
+            submitList()
+        }
+    }
+
+    // Returns the model shown at a position of getSections() as it is now in the list,
+    // or null if it has been removed since, positions of rows in view always name the row the user sees
+    fun getItem(position: Int): T? {
+        return displayedAt(position)?.let { getItem(it.id) }
     }
 
-    // Returns a model at a certain position
-    fun getItem(position: Int): T {
-        return items[position]
+    // Returns the model with the given id, or null if it is not in the list
+    fun getItem(id: String): T? {
+        return items.getOrNull(positionOf(id))
     }
 
-    // Removes a model at a certain position
-    fun removeItemFromList(position: Int): T {
-        val item = items[position]
-        items.remove(item)
-        notifyItemRemoved(position)
+    // Returns the position of the model with the given id, or -1 if it is not in the list
+    // A hash lookup, unless the list was edited ahead of the model since it was last found, see IdList
+    fun positionOf(id: String): Int {
+        return items.indexOfId(id)
+    }
+
+    // Returns the position in getSections() the model with the given id is shown at once the list is diffed,
+    // or -1 if it is not in the list or is in the tail section while that is detached
+    fun sectionPositionOf(id: String): Int {
+        val index = positionOf(id)
+        // The tail section follows this adapter's rows, so positions run on across both
+        if (index == -1 || isTailShown) return index
+        return if (index < getSectionSplit(items)) index else -1
+    }
+
+    // Removes the model with the given id and publishes the list, returns null if it is not in the list
+    fun removeItemFromList(id: String): T? {
+        val index = positionOf(id)
+        if (index == -1) return null
+        val item = items.removeAt(index)
+        submitList()
         return item
     }
 
     // Appends another list to this list
-    fun appendList(list: List<T>) {
+    fun appendList(list: Collection<T>) {
         items.addAll(list)
     }
 
@@ -122,13 +693,30 @@ abstract class ItemAdapter<T : Model>() : RecyclerView.Adapter<RecyclerView.View
         items.clear()
     }
 
-    // Returns list
+    // Returns the list for editing, must be called on the main thread
     fun getList(): MutableList<T> {
         return items
     }
 
-    // Sets list with another list
+    // Returns the list as last published, from any thread without blocking
+    fun getSnapshot(): List<T> {
+        return snapshotList.current()
+    }
+
+    // Sets list with a copy of another list, must be called on the main thread
     fun setList(list: MutableList<T>) {
-        items = list
+        snapshotList.replace(list)
+    }
+
+    // Publishes a copy of the list to the RecyclerView, notifying only the rows that changed
+    // The items before the section split go to this adapter and the rest to the tail section
+    // Must be called on the main thread
+    open fun submitList() {
+        val snapshot = snapshotList.publish()
+        val split = sectionSplit(snapshot)
+        if (dragRows == null) {
+            differ.submitList(snapshot.subList(0, split)) { pruneStableIds() } // Otherwise once the drag ends
+        }
+        tail.submitList(snapshot.subList(split, snapshot.size))
     }
 }
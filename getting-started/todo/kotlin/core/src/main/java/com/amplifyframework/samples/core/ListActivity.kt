@@ -3,6 +3,7 @@ package com.amplifyframework.samples.core
 import android.os.Bundle
 import androidx.appcompat.app.AppCompatActivity
 import com.amplifyframework.samples.core.databinding.ActivityMainBinding
+import com.google.android.material.snackbar.Snackbar
 
 abstract class ListActivity : AppCompatActivity() {
     private lateinit var binding: ActivityMainBinding
@@ -17,6 +18,14 @@ abstract class ListActivity : AppCompatActivity() {
             fabAction()
         }
 
+        // Nothing can be loaded or saved if Amplify could not be configured, so say why
+        MainApplication.whenFailed { failure ->
+            if (!isDestroyed) {
+                Snackbar.make(view, getString(R.string.amplify_failed, failure.message), Snackbar.LENGTH_INDEFINITE)
+                    .show()
+            }
+        }
+
     }
 
     abstract fun fabAction()
@@ -1,24 +1,77 @@
 package com.amplifyframework.samples.core
 
 import android.app.Application
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
 import android.util.Log
 import com.amplifyframework.AmplifyException
 import com.amplifyframework.api.aws.AWSApiPlugin
 import com.amplifyframework.core.Amplify
 import com.amplifyframework.datastore.AWSDataStorePlugin
+import kotlin.concurrent.thread
 
 open class MainApplication : Application() {
+    companion object {
+        private val mainHandler = Handler(Looper.getMainLooper())
+        private val readyActions = mutableListOf<() -> Unit>() // Waiting for Amplify, main thread only
+        private val failureActions = mutableListOf<(AmplifyException) -> Unit>() // Main thread only
+        private var failure: AmplifyException? = null // Why Amplify could not be configured, main thread only
+
+        // Whether Amplify is configured and its categories can be used, main thread only
+        var isReady = false
+            private set
+
+        // Runs every action that was waiting for Amplify to be configured
+        private fun onReady() {
+            isReady = true
+            readyActions.forEach { it() }
+            readyActions.clear()
+            failureActions.clear()
+        }
+
+        // Drops every action that was waiting for Amplify, which will never be configured now,
+        // and tells whoever asked with whenFailed instead
+        private fun onFailed(error: AmplifyException) {
+            failure = error
+            readyActions.clear()
+            failureActions.forEach { it(error) }
+            failureActions.clear()
+        }
+
+        // Runs an action on the main thread once Amplify is configured, straight away if it already is
+        // The action is dropped if configuring fails, use whenFailed to hear about that
+        // Must be called on the main thread
+        fun whenReady(action: () -> Unit) {
+            if (isReady) action() else if (failure == null) readyActions.add(action)
+        }
+
+        // Runs an action on the main thread with the error if Amplify could not be configured, straight away
+        // if it already failed. The action is dropped once Amplify is configured
+        // Must be called on the main thread
+        fun whenFailed(action: (AmplifyException) -> Unit) {
+            val error = failure
+            if (error != null) action(error) else if (!isReady) failureActions.add(action)
+        }
+    }
+
     override fun onCreate() {
         super.onCreate()
-        // Add the necessary plugins to initialize Amplify
-        try {
-            Amplify.addPlugin(AWSDataStorePlugin())
-            Amplify.addPlugin(AWSApiPlugin())
-            Amplify.configure(applicationContext)
-
-            Log.i("MyAmplifyApp", "Initialized Amplify")
-        } catch (error: AmplifyException) {
-            Log.e("MyAmplifyApp", "Could not initialize Amplify", error)
+        // Configure Amplify off the main thread so the first activity can draw in the meantime
+        val startMillis = SystemClock.elapsedRealtime()
+        thread(name = "AmplifyInit") {
+            // Add the necessary plugins to initialize Amplify
+            try {
+                Amplify.addPlugin(AWSDataStorePlugin())
+                Amplify.addPlugin(AWSApiPlugin())
+                Amplify.configure(applicationContext)
+
+                Log.i("MyAmplifyApp", "Initialized Amplify in ${SystemClock.elapsedRealtime() - startMillis} ms")
+                mainHandler.post { onReady() }
+            } catch (error: AmplifyException) {
+                Log.e("MyAmplifyApp", "Could not initialize Amplify", error)
+                mainHandler.post { onFailed(error) }
+            }
         }
     }
 }
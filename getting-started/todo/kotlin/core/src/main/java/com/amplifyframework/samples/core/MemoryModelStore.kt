@@ -0,0 +1,76 @@
+package com.amplifyframework.samples.core
+
+import com.amplifyframework.core.async.Cancelable
+import com.amplifyframework.core.model.Model
+import com.amplifyframework.core.model.query.QueryOptions
+import com.amplifyframework.samples.list.ListPartition
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+
+// Keeps models in memory only, for benchmarks and for screens whose models need not outlive the process
+// Every call runs in turn on one store thread, so callbacks arrive off the main thread as DataStore's do
+// and a query always sees the saves and deletes made before it
+class MemoryModelStore<T : Model>(private val table: ModelTable<T>) : ModelStore<T> {
+    private val worker = Executors.newSingleThreadExecutor { task ->
+        Thread(task, "MemoryModelStore").apply { isDaemon = true }
+    }
+    private val stored = LinkedHashMap<String, Stored<T>>() // In creation order, store thread only
+    private val observers = CopyOnWriteArrayList<(ListPartition.ChangeType, T) -> Unit>()
+
+    // A model along with the values it is filtered and sorted by
+    private class Stored<T>(val model: T, val row: Array<Any?>)
+
+    override fun query(options: QueryOptions, onResults: (Iterator<T>) -> Unit, onFailure: (Exception) -> Unit) {
+        worker.execute {
+            val query = try {
+                StoreQuery(table, options)
+            } catch (unsupported: IllegalArgumentException) {
+                onFailure(unsupported)
+                return@execute
+            }
+            val matches = stored.values.filterTo(ArrayList()) { query.matches(it.row) }
+            onResults(query.sortAndPage(matches) { it.row }.map { it.model }.iterator())
+        }
+    }
+
+    override fun save(model: T, onSaved: (T) -> Unit, onFailure: (Exception) -> Unit) {
+        worker.execute {
+            val previous = stored[model.id]
+            val createdAt = previous?.row?.last() as Long? ?: System.currentTimeMillis()
+            val row = try {
+                table.toRow(model, createdAt)
+            } catch (failure: RuntimeException) { // A model that will not encode, which is left unsaved
+                onFailure(failure)
+                return@execute
+            }
+            stored[model.id] = Stored(model, row)
+            onSaved(model)
+            notifyObservers(
+                if (previous == null) ListPartition.ChangeType.CREATE else ListPartition.ChangeType.UPDATE, model
+            )
+        }
+    }
+
+    override fun delete(model: T, onDeleted: (T) -> Unit, onFailure: (Exception) -> Unit) {
+        worker.execute {
+            val removed = stored.remove(model.id)
+            onDeleted(model)
+            if (removed != null) notifyObservers(ListPartition.ChangeType.DELETE, removed.model)
+        }
+    }
+
+    override fun observe(
+        onStart: (Cancelable) -> Unit,
+        onChange: (type: ListPartition.ChangeType, model: T) -> Unit,
+        onFailure: (Exception) -> Unit
+    ) {
+        worker.execute {
+            observers.add(onChange)
+            onStart(Cancelable { observers.remove(onChange) })
+        }
+    }
+
+    private fun notifyObservers(type: ListPartition.ChangeType, model: T) {
+        for (observer in observers) observer(type, model)
+    }
+}
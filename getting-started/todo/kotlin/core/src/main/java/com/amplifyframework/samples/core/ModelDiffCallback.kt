@@ -0,0 +1,20 @@
+package com.amplifyframework.samples.core
+
+import androidx.recyclerview.widget.DiffUtil
+import com.amplifyframework.core.model.Model
+
+// Matches models by id so DiffUtil can work out inserts, removes, moves and changes
+// Changed models carry the adapter's change payload so their rows can be partly rebound
+class ModelDiffCallback<T : Model>(private val adapter: ItemAdapter<T>) : DiffUtil.ItemCallback<T>() {
+    override fun areItemsTheSame(oldItem: T, newItem: T): Boolean {
+        return oldItem.id == newItem.id
+    }
+
+    override fun areContentsTheSame(oldItem: T, newItem: T): Boolean {
+        return oldItem == newItem
+    }
+
+    override fun getChangePayload(oldItem: T, newItem: T): Any? {
+        return adapter.getChangePayload(oldItem, newItem)
+    }
+}
@@ -0,0 +1,26 @@
+package com.amplifyframework.samples.core
+
+import com.amplifyframework.core.async.Cancelable
+import com.amplifyframework.core.model.Model
+import com.amplifyframework.core.model.query.QueryOptions
+import com.amplifyframework.samples.list.ListPartition
+
+// Where an ItemAdapter reads and writes its models, so the storage engine can be swapped without touching the list
+// Calls return straight away and callbacks run later on a thread of the store's choosing, as DataStore's do
+interface ModelStore<T : Model> {
+    // Reads the models matching options, in the order they give
+    fun query(options: QueryOptions, onResults: (Iterator<T>) -> Unit, onFailure: (Exception) -> Unit)
+
+    // Creates the model, or replaces the stored model with the same id
+    fun save(model: T, onSaved: (T) -> Unit, onFailure: (Exception) -> Unit)
+
+    fun delete(model: T, onDeleted: (T) -> Unit, onFailure: (Exception) -> Unit)
+
+    // Tells onChange about every model saved or deleted from when onStart is called until the observation it is
+    // given is cancelled
+    fun observe(
+        onStart: (Cancelable) -> Unit,
+        onChange: (type: ListPartition.ChangeType, model: T) -> Unit,
+        onFailure: (Exception) -> Unit
+    )
+}
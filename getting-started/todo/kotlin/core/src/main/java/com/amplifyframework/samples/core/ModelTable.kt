@@ -0,0 +1,87 @@
+package com.amplifyframework.samples.core
+
+import com.amplifyframework.core.model.Model
+import com.amplifyframework.core.model.temporal.Temporal
+import com.amplifyframework.samples.list.ModelCodec
+
+// Lays a model class out as a table of typed columns, for the stores that keep models outside DataStore.
+// The columns are the codec's fields, the first of which must be the id, followed by createdAt, which the store
+// sets when a model is first saved as DataStore does. Values are stored and compared the way SQLite would.
+class ModelTable<T : Model>(val name: String, val codec: ModelCodec<T>, vararg fieldTypes: ColumnType) {
+    companion object {
+        const val CREATED_AT = "createdAt"
+
+        // Returns a value given in a query in the form the codecs write it in
+        internal fun toColumnValue(value: Any?): Any? {
+            return when (value) {
+                null, is String -> value
+                is Enum<*> -> value.name
+                is Temporal.DateTime -> value.format()
+                is Boolean -> if (value) 1L else 0L
+                is Double, is Float -> (value as Number).toDouble()
+                is Number -> value.toLong()
+                else -> value.toString()
+            }
+        }
+
+        // Orders two stored values as SQLite does: null first, then numbers, then text
+        internal fun compare(a: Any?, b: Any?): Int {
+            return when {
+                a == null || b == null -> if (a == null) (if (b == null) 0 else -1) else 1
+                a is Long && b is Long -> a.compareTo(b)
+                a is Number && b is Number -> a.toDouble().compareTo(b.toDouble())
+                a is Number || b is Number -> if (a is Number) -1 else 1
+                else -> (a as String).compareTo(b as String)
+            }
+        }
+
+        // Converts a value as SQLite does when storing it in a column of the given type,
+        // leaving text that is not a number as it is
+        private fun withAffinity(value: String?, type: ColumnType): Any? {
+            return when {
+                value == null || type == ColumnType.TEXT -> value
+                type == ColumnType.INTEGER -> value.toLongOrNull() ?: value
+                else -> value.toDoubleOrNull() ?: value
+            }
+        }
+    }
+
+    // How the values of a column are stored, as a SQLite type affinity
+    enum class ColumnType {
+        TEXT, INTEGER, REAL
+    }
+
+    private val columns: Array<String>
+    private val types: Array<ColumnType>
+
+    init {
+        val fields = codec.fields
+        require(fieldTypes.size == fields.size) { "Expected a type for each of ${fields.contentToString()}" }
+        require(fields[0] == "id") { "The first field must be the id" }
+        columns = arrayOf(*fields, CREATED_AT)
+        types = arrayOf(*fieldTypes, ColumnType.INTEGER)
+    }
+
+    // The number of columns, the codec's fields and then createdAt
+    internal val columnCount: Int
+        get() = columns.size
+
+    internal fun getColumn(column: Int) = columns[column]
+
+    internal fun getType(column: Int) = types[column]
+
+    // Returns the index of the named column
+    // Throws IllegalArgumentException if there is no such column
+    internal fun columnOf(column: String): Int {
+        val index = columns.indexOf(column)
+        require(index != -1) { "No column $column in $name" }
+        return index
+    }
+
+    // Returns the values model is stored as, typed by column and ending with createdAt
+    internal fun toRow(model: T, createdAt: Long): Array<Any?> {
+        val values = arrayOfNulls<String>(columns.size - 1)
+        codec.encode(model, values)
+        return Array(columns.size) { i -> if (i < values.size) withAffinity(values[i], types[i]) else createdAt }
+    }
+}
@@ -0,0 +1,173 @@
+package com.amplifyframework.samples.core
+
+import android.content.Context
+import android.database.sqlite.SQLiteDatabase
+import android.database.sqlite.SQLiteOpenHelper
+import android.database.sqlite.SQLiteStatement
+import com.amplifyframework.core.async.Cancelable
+import com.amplifyframework.core.model.Model
+import com.amplifyframework.core.model.query.QueryOptions
+import com.amplifyframework.samples.list.ListPartition
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+
+// Keeps models in a SQLite table of their own, one column per field, without DataStore's sync, mutation outbox
+// or JSON conversion. Writes go through statements compiled once, and every save and delete waiting when the
+// store thread gets to them is committed in one transaction, so a burst of writes costs one commit rather than one each
+// Every call runs in turn on one store thread, so callbacks arrive off the main thread as DataStore's do
+// Opens the database named databaseName in the app's storage, creating it with the table if it doesn't exist
+class SqliteModelStore<T : Model>(
+    context: Context,
+    databaseName: String,
+    private val table: ModelTable<T>
+) : ModelStore<T> {
+    private val helper = object : SQLiteOpenHelper(context.applicationContext, databaseName, null, 1) {
+        override fun onCreate(db: SQLiteDatabase) {
+            val columns = (0 until table.columnCount).joinToString { i ->
+                "${quote(table.getColumn(i))} ${table.getType(i).name}" + if (i == 0) " PRIMARY KEY NOT NULL" else ""
+            }
+            db.execSQL("CREATE TABLE ${quote(table.name)} ($columns)")
+        }
+
+        override fun onUpgrade(db: SQLiteDatabase, oldVersion: Int, newVersion: Int) = Unit
+    }
+    private val worker = Executors.newSingleThreadExecutor { task ->
+        Thread(task, "SqliteModelStore").apply { isDaemon = true }
+    }
+    private val writes = ConcurrentLinkedQueue<Write<T>>() // Waiting for the next commit
+    private val observers = CopyOnWriteArrayList<(ListPartition.ChangeType, T) -> Unit>()
+    // Compiled on the store thread on first use
+    private var insert: SQLiteStatement? = null
+    private var update: SQLiteStatement? = null
+    private var delete: SQLiteStatement? = null
+
+    // A save or delete waiting to be committed
+    private class Write<T>(
+        val model: T,
+        val isDelete: Boolean,
+        val onDone: (T) -> Unit,
+        val onFailure: (Exception) -> Unit
+    ) {
+        var change: ListPartition.ChangeType? = null // Set once written, null if a delete found nothing to delete
+    }
+
+    override fun query(options: QueryOptions, onResults: (Iterator<T>) -> Unit, onFailure: (Exception) -> Unit) {
+        worker.execute {
+            val results = ArrayList<T>()
+            val values = arrayOfNulls<String>(table.columnCount - 1)
+            try {
+                val query = StoreQuery(table, options)
+                helper.readableDatabase.rawQuery(query.toSql(), query.getArgs()).use { cursor ->
+                    while (cursor.moveToNext()) {
+                        for (i in values.indices) values[i] = cursor.getString(i)
+                        results.add(table.codec.decode(values))
+                    }
+                }
+            } catch (failure: RuntimeException) { // Opening the database, the query or a row that will not decode
+                onFailure(failure)
+                return@execute
+            }
+            onResults(results.iterator())
+        }
+    }
+
+    override fun save(model: T, onSaved: (T) -> Unit, onFailure: (Exception) -> Unit) {
+        writes.add(Write(model, false, onSaved, onFailure))
+        worker.execute { commitWrites() }
+    }
+
+    override fun delete(model: T, onDeleted: (T) -> Unit, onFailure: (Exception) -> Unit) {
+        writes.add(Write(model, true, onDeleted, onFailure))
+        worker.execute { commitWrites() }
+    }
+
+    override fun observe(
+        onStart: (Cancelable) -> Unit,
+        onChange: (type: ListPartition.ChangeType, model: T) -> Unit,
+        onFailure: (Exception) -> Unit
+    ) {
+        worker.execute {
+            observers.add(onChange)
+            onStart(Cancelable { observers.remove(onChange) })
+        }
+    }
+
+    // Writes every waiting save and delete in one transaction, then reports each of them
+    // Writes added meanwhile were already committed by an earlier call if none are left waiting
+    private fun commitWrites() {
+        val batch = generateSequence { writes.poll() }.toList()
+        if (batch.isEmpty()) return
+        try {
+            val db = helper.writableDatabase
+            db.beginTransaction()
+            try {
+                for (write in batch) {
+                    write.change = if (write.isDelete) deleteRow(db, write.model) else saveRow(db, write.model)
+                }
+                db.setTransactionSuccessful()
+            } finally {
+                db.endTransaction()
+            }
+        } catch (failure: RuntimeException) { // Opening the database, a statement or a model that will not encode
+            for (write in batch) write.onFailure(failure) // The whole transaction was rolled back
+            return
+        }
+        for (write in batch) {
+            write.onDone(write.model)
+            val change = write.change ?: continue
+            for (observer in observers) observer(change, write.model)
+        }
+    }
+
+    // Updates the row for model, or inserts one if there is none, keeping createdAt from when it was inserted
+    private fun saveRow(db: SQLiteDatabase, model: T): ListPartition.ChangeType {
+        val row = table.toRow(model, System.currentTimeMillis())
+        val createdAt = row.size - 1
+        val update = update ?: db.compileStatement(
+            "UPDATE ${quote(table.name)} SET " +
+                (1 until createdAt).joinToString { "${quote(table.getColumn(it))} = ?" } + " WHERE \"id\" = ?"
+        ).also { update = it }
+        val insert = insert ?: db.compileStatement(
+            "INSERT INTO ${quote(table.name)} (" + row.indices.joinToString { quote(table.getColumn(it)) } +
+                ") VALUES (" + row.indices.joinToString { "?" } + ")"
+        ).also { insert = it }
+        for (i in 1 until createdAt) bind(update, i, row[i])
+        bind(update, createdAt, row[0])
+        if (update.executeUpdateDelete() > 0) return ListPartition.ChangeType.UPDATE
+        for (i in row.indices) bind(insert, i + 1, row[i])
+        insert.executeInsert()
+        return ListPartition.ChangeType.CREATE
+    }
+
+    // Deletes the row for model, returning null if there was none
+    private fun deleteRow(db: SQLiteDatabase, model: T): ListPartition.ChangeType? {
+        val delete = delete ?: db.compileStatement("DELETE FROM ${quote(table.name)} WHERE \"id\" = ?")
+            .also { delete = it }
+        delete.bindString(1, model.id)
+        return if (delete.executeUpdateDelete() > 0) ListPartition.ChangeType.DELETE else null
+    }
+
+    // Binds a stored value to the parameter at index, which counts from 1
+    private fun bind(statement: SQLiteStatement, index: Int, value: Any?) {
+        when (value) {
+            null -> statement.bindNull(index)
+            is Long -> statement.bindLong(index, value)
+            is Double -> statement.bindDouble(index, value)
+            else -> statement.bindString(index, value.toString())
+        }
+    }
+
+    private fun quote(identifier: String) = "\"$identifier\""
+
+    // Closes the database once the writes and queries already asked for have finished
+    fun close() {
+        worker.execute {
+            insert?.close()
+            update?.close()
+            delete?.close()
+            helper.close()
+        }
+        worker.shutdown()
+    }
+}
@@ -0,0 +1,146 @@
+package com.amplifyframework.samples.core
+
+import com.amplifyframework.core.model.query.QueryOptions
+import com.amplifyframework.core.model.query.QuerySortOrder
+import com.amplifyframework.core.model.query.predicate.EqualQueryOperator
+import com.amplifyframework.core.model.query.predicate.GreaterOrEqualQueryOperator
+import com.amplifyframework.core.model.query.predicate.GreaterThanQueryOperator
+import com.amplifyframework.core.model.query.predicate.LessOrEqualQueryOperator
+import com.amplifyframework.core.model.query.predicate.LessThanQueryOperator
+import com.amplifyframework.core.model.query.predicate.NotEqualQueryOperator
+import com.amplifyframework.core.model.query.predicate.QueryOperator
+import com.amplifyframework.core.model.query.predicate.QueryPredicate
+import com.amplifyframework.core.model.query.predicate.QueryPredicateGroup
+import com.amplifyframework.core.model.query.predicate.QueryPredicateOperation
+import com.amplifyframework.core.model.query.predicate.QueryPredicates
+import java.util.Collections
+
+// A DataStore query compiled against a ModelTable, both to SQL for SqliteModelStore and to the same filter
+// and order over stored rows for MemoryModelStore, so the two return the same models in the same order
+// Supports what DataStore queries are built from here: AND and OR of comparisons, sorting and pages
+// Throws IllegalArgumentException if options filter or sort by anything the table can't
+internal class StoreQuery(private val table: ModelTable<*>, options: QueryOptions) {
+    private val where = StringBuilder() // SQL condition, with a ? for each of args
+    private val args = ArrayList<String>()
+    private val filter: (Array<Any?>) -> Boolean
+    private val orderBy = StringBuilder()
+    private val order = ArrayList<Comparator<Array<Any?>>>()
+    private val offset: Int
+    private val limit: Int? // Null for every row
+
+    init {
+        val predicate = options.queryPredicate
+        filter = if (predicate == null || predicate == QueryPredicates.all()) {
+            { true }
+        } else {
+            compile(predicate)
+        }
+        for (sort in options.sortBy.orEmpty()) {
+            val column = table.columnOf(sort.field)
+            val descending = sort.sortOrder == QuerySortOrder.DESCENDING
+            orderBy.append(quote(table.getColumn(column))).append(if (descending) " DESC, " else " ASC, ")
+            val ascending = Comparator<Array<Any?>> { a, b -> ModelTable.compare(a[column], b[column]) }
+            order.add(if (descending) Collections.reverseOrder(ascending) else ascending)
+        }
+        orderBy.append("rowid") // Ties stay in the order models were created, as the memory store keeps them
+        val page = options.paginationInput
+        offset = if (page == null) 0 else page.page * page.limit
+        limit = page?.limit
+    }
+
+    // Compiles a predicate into both a SQL condition appended to where and a filter over rows
+    private fun compile(predicate: QueryPredicate): (Array<Any?>) -> Boolean {
+        when (predicate) {
+            is QueryPredicateGroup -> {
+                // SQL's NOT treats nulls differently
+                require(predicate.type() != QueryPredicateGroup.Type.NOT) { "NOT is not supported" }
+                val any = predicate.type() == QueryPredicateGroup.Type.OR
+                where.append('(')
+                val filters = predicate.predicates().mapIndexed { i, member ->
+                    if (i > 0) where.append(if (any) " OR " else " AND ")
+                    compile(member)
+                }
+                where.append(')')
+                return if (any) {
+                    { row -> filters.any { it(row) } }
+                } else {
+                    { row -> filters.all { it(row) } }
+                }
+            }
+            is QueryPredicateOperation<*> -> return compare(table.columnOf(predicate.field()), predicate.operator())
+            else -> throw IllegalArgumentException("Unsupported predicate $predicate")
+        }
+    }
+
+    // Compiles a comparison of a column with a value, which like SQL never holds for a null unless it is
+    // an equality test against null
+    private fun compare(column: Int, operator: QueryOperator<*>): (Array<Any?>) -> Boolean {
+        val value = ModelTable.toColumnValue(operandOf(operator))
+        where.append(quote(table.getColumn(column)))
+        if (value == null) {
+            val isNull = operator.type() == QueryOperator.Type.EQUAL
+            require(isNull || operator.type() == QueryOperator.Type.NOT_EQUAL) {
+                "Only equality can be tested against null"
+            }
+            where.append(if (isNull) " IS NULL" else " IS NOT NULL")
+            return { row -> (row[column] == null) == isNull }
+        }
+        val (sql, test) = when (operator.type()) {
+            QueryOperator.Type.EQUAL -> " = ?" to { comparison: Int -> comparison == 0 }
+            QueryOperator.Type.NOT_EQUAL -> " <> ?" to { comparison: Int -> comparison != 0 }
+            QueryOperator.Type.LESS_THAN -> " < ?" to { comparison: Int -> comparison < 0 }
+            QueryOperator.Type.LESS_OR_EQUAL -> " <= ?" to { comparison: Int -> comparison <= 0 }
+            QueryOperator.Type.GREATER_THAN -> " > ?" to { comparison: Int -> comparison > 0 }
+            QueryOperator.Type.GREATER_OR_EQUAL -> " >= ?" to { comparison: Int -> comparison >= 0 }
+            else -> throw IllegalArgumentException("Unsupported operator ${operator.type()}")
+        }
+        where.append(sql)
+        args.add(value.toString())
+        return { row -> row[column] != null && test(ModelTable.compare(row[column], value)) }
+    }
+
+    // Returns the value an operator compares with
+    private fun operandOf(operator: QueryOperator<*>): Any? {
+        return when (operator) {
+            is EqualQueryOperator -> operator.value()
+            is NotEqualQueryOperator -> operator.value()
+            is LessThanQueryOperator<*> -> operator.value()
+            is LessOrEqualQueryOperator<*> -> operator.value()
+            is GreaterThanQueryOperator<*> -> operator.value()
+            is GreaterOrEqualQueryOperator<*> -> operator.value()
+            else -> throw IllegalArgumentException("Unsupported operator ${operator.type()}")
+        }
+    }
+
+    private fun quote(identifier: String) = "\"$identifier\""
+
+    // Returns the SQL that reads the codec's fields of the matching rows, in order and paged
+    fun toSql(): String {
+        val sql = StringBuilder("SELECT ")
+        (0 until table.columnCount - 1).joinTo(sql) { quote(table.getColumn(it)) }
+        sql.append(" FROM ").append(quote(table.name))
+        if (where.isNotEmpty()) sql.append(" WHERE ").append(where)
+        sql.append(" ORDER BY ").append(orderBy)
+        if (limit != null) sql.append(" LIMIT ").append(limit).append(" OFFSET ").append(offset)
+        return sql.toString()
+    }
+
+    // The values bound to the ? in toSql(), in order
+    fun getArgs(): Array<String> = args.toTypedArray()
+
+    fun matches(row: Array<Any?>) = filter(row)
+
+    // Sorts rows, matched and in creation order, into the query's order and returns the requested page of them
+    // Rows that tie keep their creation order, since the sort is stable
+    fun <R> sortAndPage(rows: MutableList<R>, rowOf: (R) -> Array<Any?>): List<R> {
+        if (order.isNotEmpty()) {
+            rows.sortWith(
+                Comparator { a, b ->
+                    order.asSequence().map { it.compare(rowOf(a), rowOf(b)) }.firstOrNull { it != 0 } ?: 0
+                }
+            )
+        }
+        if (limit == null) return rows
+        return rows.subList(minOf(offset, rows.size), minOf(offset + limit, rows.size))
+    }
+}
@@ -0,0 +1,41 @@
+package com.amplifyframework.samples.list
+
+// Buffers changes to a list's items from any thread until they are drained as one batch, such as once per frame.
+// Only the latest change to each item is kept, since it alone says what state the item ends up in,
+// so a burst of changes to a few items costs one change each however long the burst is.
+// Items keep the place of their first change in the batch, so new items are added in the order they arrived.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+class ChangeCoalescer<T>(private val idOf: (T) -> String) {
+    // A created, updated or deleted item
+    class Change<T> internal constructor(val type: ListPartition.ChangeType, val item: T)
+
+    private var pending = linkedMapOf<String, Change<T>>() // Latest change to each item, by id
+
+    // The number of changes added
+    @get:Synchronized
+    var addedCount = 0L
+        private set
+
+    // The number of changes that were replaced by a later change to the same item and never applied
+    @get:Synchronized
+    var mergedCount = 0L
+        private set
+
+    // Buffers a change, replacing any buffered change to the same item
+    // Returns true if the buffer was empty, when the caller should arrange for it to be drained
+    @Synchronized
+    fun add(type: ListPartition.ChangeType, item: T): Boolean {
+        val wasEmpty = pending.isEmpty()
+        addedCount++
+        if (pending.put(idOf(item), Change(type, item)) != null) mergedCount++
+        return wasEmpty
+    }
+
+    // Returns every buffered change, in the order their items were first changed, and empties the buffer
+    @Synchronized
+    fun drain(): List<Change<T>> {
+        val batch = ArrayList(pending.values)
+        pending = linkedMapOf() // Rather than cleared, so a burst's table is not kept once it is over
+        return batch
+    }
+}
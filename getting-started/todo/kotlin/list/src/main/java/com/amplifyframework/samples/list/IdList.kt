@@ -0,0 +1,82 @@
+package com.amplifyframework.samples.list
+
+// A list that also keeps the position of each item by id, so an item is found by id with a hash lookup
+// rather than a scan. Ids must be unique within the list.
+// Inserting or removing an item still shifts every item after it, as in an ArrayList, so both cost O(n).
+// Their positions are indexed again lazily: the next lookup after an edit indexes from the first shifted position
+// up to the item it looks for, so it costs at most the scan it replaces, and lookups between edits cost O(1).
+// Appends onto a fully indexed list are indexed as they are made.
+class IdList<T>(private val idOf: (T) -> String, list: Collection<T> = emptyList()) :
+    AbstractMutableList<T>(), RandomAccess {
+    private val items = ArrayList(list)
+    private val positions = HashMap<String, Int>() // Right for every item before indexed
+    private var indexed = 0 // Items before this position have been indexed since they last moved
+
+    override val size: Int
+        get() = items.size
+
+    // Returns the position of the item with the given id, or -1 if it is not in the list
+    fun indexOfId(id: String): Int {
+        val position = positions[id]
+        if (position != null && position < indexed && idOf(items[position]) == id) return position
+        // Any item indexed at its current position was found above, so the item can only be further on
+        while (indexed < items.size) {
+            val next = idOf(items[indexed])
+            positions[next] = indexed
+            indexed++
+            if (next == id) return indexed - 1
+        }
+        return -1
+    }
+
+    override fun get(index: Int): T = items[index]
+
+    override fun set(index: Int, element: T): T {
+        val previous = items.set(index, element)
+        val id = idOf(element)
+        val previousId = idOf(previous)
+        if (id != previousId) {
+            positions.remove(previousId)
+            if (index < indexed) positions[id] = index
+        }
+        return previous
+    }
+
+    override fun add(index: Int, element: T) {
+        items.add(index, element)
+        modCount++
+        if (index == indexed && index == items.size - 1) {
+            positions[idOf(element)] = index
+            indexed++
+        } else {
+            indexed = minOf(indexed, index)
+        }
+    }
+
+    override fun removeAt(index: Int): T {
+        val removed = items.removeAt(index)
+        modCount++
+        positions.remove(idOf(removed))
+        indexed = minOf(indexed, index)
+        return removed
+    }
+
+    override fun addAll(elements: Collection<T>): Boolean {
+        modCount++
+        return items.addAll(elements) // Indexed by the first lookup that reaches them
+    }
+
+    override fun clear() {
+        modCount++
+        items.clear()
+        positions.clear()
+        indexed = 0
+    }
+
+    override fun removeRange(fromIndex: Int, toIndex: Int) {
+        modCount++
+        for (i in fromIndex until toIndex) positions.remove(idOf(items[i]))
+        items.subList(fromIndex, toIndex).clear()
+        indexed = minOf(indexed, fromIndex)
+    }
+}
@@ -0,0 +1,91 @@
+package com.amplifyframework.samples.list
+
+// Counts a list's items by group and by completion, kept current one change at a time.
+// The state each item was last counted in is kept by id, so a change is counted against the state it replaces,
+// and the same change seen twice, such as a local save and its echo from observe, is only counted once.
+class ListCounts<T>(
+    private val idOf: (T) -> String,
+    private val isItemCompleted: (T) -> Boolean,
+    private val groupOf: (T) -> Int, // Groups are numbered from 0
+    groupCount: Int
+) {
+    private val open = IntArray(groupCount)
+    private val completed = IntArray(groupCount)
+    private val states = HashMap<String, Int>() // Counted state of each item, see stateOf
+
+    // Number of items that are not completed
+    var openTotal = 0
+        private set
+
+    // Number of items that are completed
+    var completedTotal = 0
+        private set
+
+    // Told each time the counts change, and told the current counts when it is set
+    var listener: ((ListCounts<T>) -> Unit)? = null
+        set(value) {
+            field = value
+            notifyListener()
+        }
+
+    // Counts an item that was created or updated
+    fun put(item: T) {
+        if (record(item)) notifyListener()
+    }
+
+    // Counts a batch of items, telling the listener once
+    fun putAll(items: Iterable<T>) {
+        var changed = false
+        for (item in items) {
+            changed = record(item) || changed
+        }
+        if (changed) notifyListener()
+    }
+
+    // Stops counting the item with the given id, used when it is deleted
+    fun remove(id: String) {
+        val previous = states.remove(id) ?: return
+        add(previous, -1)
+        notifyListener()
+    }
+
+    // Returns the number of items in a group that are not completed
+    fun getOpen(group: Int) = open[group]
+
+    // Returns the number of items in a group that are completed
+    fun getCompleted(group: Int) = completed[group]
+
+    // Returns the group the item with the given id was last counted in, or -1 if it is not counted
+    fun getGroup(id: String) = states[id]?.let { it / 2 } ?: -1
+
+    // Returns true if the item with the given id was last counted as completed
+    fun isCompleted(id: String) = states[id]?.let { it % 2 == 1 } ?: false
+
+    // Moves an item's count from its previous state to its current one, returns true if that changed anything
+    private fun record(item: T): Boolean {
+        val state = stateOf(item)
+        val previous = states.put(idOf(item), state)
+        if (previous == state) return false
+        if (previous != null) add(previous, -1)
+        add(state, 1)
+        return true
+    }
+
+    // Packs an item's group and completion state into one int
+    private fun stateOf(item: T) = groupOf(item) * 2 + if (isItemCompleted(item)) 1 else 0
+
+    private fun add(state: Int, delta: Int) {
+        val group = state / 2
+        if (state % 2 == 1) {
+            completed[group] += delta
+            completedTotal += delta
+        } else {
+            open[group] += delta
+            openTotal += delta
+        }
+    }
+
+    private fun notifyListener() {
+        listener?.invoke(this)
+    }
+}
@@ -0,0 +1,135 @@
+package com.amplifyframework.samples.list
+
+// Keeps track of which items in a list are completed and applies changes to the right section of it.
+// Active items come first in the list and the completed items loaded so far follow them,
+// so the list can be shown as an active section and a completed section.
+// Finding an item is a lookup when the list is an IdList and a scan otherwise, while moving one between sections
+// shifts the items after it as any insert or remove in an array does, so each change costs O(n) either way.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+class ListPartition<T>(
+    private val idOf: (T) -> String,
+    private val isItemCompleted: (T) -> Boolean
+) {
+    enum class ChangeType {
+        CREATE, UPDATE, DELETE
+    }
+
+    private val completedItems = linkedMapOf<String, T>() // Completed items keyed by id, in insertion order
+    // Whether every completed item has been loaded into the list, until then newly completed items
+    // are left for a later page to load in order
+    var completedLoaded = false
+
+    // Returns the completed items, in the order they were tracked
+    val completed: Collection<T>
+        get() = completedItems.values
+
+    // Records an item in the list as completed if it is, used as items are loaded
+    fun track(item: T) {
+        if (isItemCompleted(item)) completedItems[idOf(item)] = item
+    }
+
+    // Appends loaded items to the list, tracking the completed ones
+    // Items already in the list, such as ones a change added before their page loaded, are skipped
+    fun addLoaded(list: MutableList<T>, loaded: Collection<T>) {
+        val listed = listedIds(list)
+        for (item in loaded) {
+            val id = idOf(item)
+            if (listed?.add(id) ?: (indexOf(list, id) == -1)) {
+                list.add(item)
+                track(item)
+            }
+        }
+    }
+
+    // Stops tracking an item as completed, used when it is taken out of the list
+    fun forget(item: T) {
+        completedItems.remove(idOf(item))
+    }
+
+    // Returns true if the item with the given id is tracked as completed
+    fun isCompleted(id: String): Boolean {
+        return completedItems.containsKey(id)
+    }
+
+    // Stops tracking all completed items
+    fun clear() {
+        completedItems.clear()
+    }
+
+    // Returns the number of active items, which come before the completed ones in the list
+    fun activeCount(list: List<T>): Int {
+        return list.size - completedItems.size
+    }
+
+    // Applies a created, updated or deleted item to the list and the completed items
+    // An item whose completion changes moves from the end of one section to the end of the other
+    fun apply(list: MutableList<T>, type: ChangeType, item: T) {
+        val id = idOf(item)
+        val position = indexOf(list, id)
+        val wasCompleted = completedItems.containsKey(id)
+        val completed = isItemCompleted(item)
+
+        if (type != ChangeType.DELETE && position != -1 && wasCompleted == completed) {
+            list[position] = item
+            if (completed) completedItems[id] = item
+            return
+        }
+        if (position != -1) list.removeAt(position)
+        completedItems.remove(id)
+        if (type == ChangeType.DELETE) return
+        insert(list, id, item)
+    }
+
+    // Applies a batch of created or updated items as apply would one at a time, with one scan of the list
+    // rather than one per item: items new to the list go straight to the end of their section
+    fun applyAll(list: MutableList<T>, items: Collection<T>) {
+        val listed = listedIds(list)
+        for (item in items) {
+            val id = idOf(item)
+            if (listed?.add(id) ?: (indexOf(list, id) == -1)) {
+                insert(list, id, item)
+            } else {
+                apply(list, ChangeType.UPDATE, item)
+            }
+        }
+    }
+
+    // Puts back an item taken out of the list at position, as an undone delete does
+    // The list may have changed since, so the item goes to the nearest position within its own section,
+    // or is updated in place if a change has put it back in the list already
+    fun restore(list: MutableList<T>, position: Int, item: T) {
+        val id = idOf(item)
+        if (indexOf(list, id) != -1) {
+            apply(list, ChangeType.UPDATE, item)
+            return
+        }
+        val activeCount = activeCount(list)
+        if (!isItemCompleted(item)) {
+            list.add(position.coerceIn(0, activeCount), item)
+        } else {
+            list.add(position.coerceIn(activeCount, list.size), item)
+            completedItems[id] = item
+        }
+    }
+
+    // Adds an item that is not in the list to the end of its section, or leaves a completed one
+    // for paging until every completed item is loaded
+    private fun insert(list: MutableList<T>, id: String, item: T) {
+        if (!isItemCompleted(item)) {
+            list.add(activeCount(list), item)
+        } else if (completedLoaded) {
+            list.add(item)
+            completedItems[id] = item
+        }
+    }
+
+    // Returns the ids of the items in the list, or null if it is an IdList, which looks them up itself
+    private fun listedIds(list: List<T>): MutableSet<String>? {
+        return if (list is IdList) null else list.mapTo(HashSet()) { idOf(it) }
+    }
+
+    // Returns the position of the item with the given id in the list, or -1 if it is not there
+    fun indexOf(list: List<T>, id: String): Int {
+        return if (list is IdList) list.indexOfId(id) else list.indexOfFirst { idOf(it) == id }
+    }
+}
@@ -0,0 +1,132 @@
+package com.amplifyframework.samples.list
+
+import java.io.BufferedOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+
+// Keeps a list of models in a compact binary file that can be memory-mapped and decoded quickly,
+// so a list can be shown on launch before the store that really holds it has opened.
+// The file starts with a header of its format version, a key naming the list it holds and the codec's fields,
+// followed by each model's field values as a varint length plus one (zero for null) and UTF-8 bytes.
+// A file whose key or fields differ from the reader's, or that cannot be decoded, is read as no list at all.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+class ListSnapshotFile<T>(private val file: File, private val codec: ModelCodec<T>) {
+    private companion object {
+        const val MAGIC = 0x4C534E50 // "LSNP"
+        const val VERSION = 1
+
+        fun writeString(output: DataOutputStream, value: String?) {
+            if (value == null) {
+                writeVarint(output, 0)
+                return
+            }
+            val bytes = value.toByteArray(Charsets.UTF_8)
+            writeVarint(output, bytes.size + 1)
+            output.write(bytes)
+        }
+
+        fun readString(buffer: ByteBuffer): String? {
+            val length = readVarint(buffer)
+            if (length == 0) return null
+            if (length - 1 > buffer.remaining()) throw BufferUnderflowException()
+            val bytes = ByteArray(length - 1)
+            buffer.get(bytes)
+            return String(bytes, Charsets.UTF_8)
+        }
+
+        // Writes a non-negative int seven bits at a time, low bits first, so small numbers take one byte
+        fun writeVarint(output: DataOutputStream, value: Int) {
+            var remaining = value
+            while (remaining and 0x7F.inv() != 0) {
+                output.write((remaining and 0x7F) or 0x80)
+                remaining = remaining ushr 7
+            }
+            output.write(remaining)
+        }
+
+        fun readVarint(buffer: ByteBuffer): Int {
+            var value = 0
+            for (shift in 0 until 32 step 7) {
+                val next = buffer.get().toInt()
+                value = value or ((next and 0x7F) shl shift)
+                if (next >= 0) {
+                    if (value < 0) break
+                    return value
+                }
+            }
+            throw IllegalArgumentException("Invalid length in snapshot")
+        }
+    }
+
+    // Returns the list last written with key, or null if there is none
+    fun read(key: String): List<T>? {
+        if (!file.isFile) return null
+        return try {
+            RandomAccessFile(file, "r").use { input ->
+                input.channel.use { channel ->
+                    decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), key)
+                }
+            }
+        } catch (unreadable: BufferUnderflowException) {
+            null // Cut short, it will be replaced by the next write
+        } catch (unreadable: IllegalArgumentException) {
+            null // Written by a different version, it will be replaced by the next write
+        }
+    }
+
+    // Replaces the file with items under key, writing to a temporary file first so that a reader only ever
+    // finds a whole list; writes from different threads are made one after another
+    @Synchronized
+    fun write(key: String, items: List<T>) {
+        val fields = codec.fields
+        val values = arrayOfNulls<String>(fields.size)
+        val temporary = File(file.path + ".tmp")
+        FileOutputStream(temporary).use { stream ->
+            val output = DataOutputStream(BufferedOutputStream(stream))
+            output.writeInt(MAGIC)
+            output.writeInt(VERSION)
+            writeString(output, key)
+            writeVarint(output, fields.size)
+            for (field in fields) writeString(output, field)
+            writeVarint(output, items.size)
+            for (item in items) {
+                values.fill(null)
+                codec.encode(item, values)
+                for (value in values) writeString(output, value)
+            }
+            output.flush()
+            stream.fd.sync() // On disk before the rename makes it the list read on the next launch
+        }
+        if (!temporary.renameTo(file)) {
+            temporary.delete()
+            throw IOException("Could not replace $file")
+        }
+    }
+
+    // Deletes the file, so the next read finds no list
+    @Synchronized
+    fun delete() {
+        file.delete()
+    }
+
+    // Decodes the list in buffer, or returns null if it was written with a different key or fields
+    private fun decode(buffer: ByteBuffer, key: String): List<T>? {
+        if (buffer.int != MAGIC || buffer.int != VERSION || key != readString(buffer)) return null
+        val fields = codec.fields
+        if (readVarint(buffer) != fields.size) return null
+        if (fields.any { it != readString(buffer) }) return null
+        val count = readVarint(buffer)
+        if (count > buffer.remaining()) return null // Every value takes at least a byte, so the count is corrupt
+        val values = arrayOfNulls<String>(fields.size)
+        return List(count) {
+            for (field in values.indices) values[field] = readString(buffer)
+            codec.decode(values)
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.amplifyframework.samples.list
+
+// Converts a model to and from a record of named string fields, the form JSON and CSV files are read and written in.
+// The same values array is passed for every record, so a large file is encoded or decoded without a copy per row.
+interface ModelCodec<T> {
+    // The field names, in the order encode fills in values and decode reads them
+    val fields: Array<String>
+
+    // Fills in values with the fields of item, null for a field that is not set
+    fun encode(item: T, values: Array<String?>)
+
+    // Builds a model from values, where a field missing from the record is null
+    // Throws IllegalArgumentException if the values do not make a valid model
+    fun decode(values: Array<String?>): T
+}
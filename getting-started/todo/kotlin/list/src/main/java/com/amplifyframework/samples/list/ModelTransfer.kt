@@ -0,0 +1,113 @@
+package com.amplifyframework.samples.list
+
+import java.io.IOException
+import java.util.concurrent.Semaphore
+
+// Moves models between files and a store in bounded batches, reporting progress once per batch.
+// An import hands each batch to a sink that writes it asynchronously, and only reads the next batch
+// while fewer than maxPendingBatches are still being written, so memory stays flat however large the file is
+// and reading never runs ahead of the store.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+class ModelTransfer<T>(
+    private val codec: ModelCodec<T>,
+    private val batchSize: Int = DEFAULT_BATCH_SIZE,
+    private val maxPendingBatches: Int = DEFAULT_PENDING_BATCHES
+) {
+    companion object {
+        const val DEFAULT_BATCH_SIZE = 250 // Models read, written and shown at a time
+        const val DEFAULT_PENDING_BATCHES = 2 // Batches written at once, one can be read meanwhile
+    }
+
+    // Told the outcome of writing a batch, from any thread
+    interface Done {
+        fun onWritten()
+
+        fun onFailed(error: Exception)
+    }
+
+    // Reads every record from reader and writes them to sink in batches, blocking until the last batch is written
+    // Sink must call done exactly once, when all of the batch is stored or one model has failed
+    // Progress is told how many models have been imported so far, once per batch and always in increasing order
+    // Returns the number of models imported. Stops reading at the first failed batch or record and throws,
+    // batches already written stay written
+    fun importAll(
+        reader: TransferFormat.RecordReader,
+        sink: (batch: List<T>, done: Done) -> Unit,
+        progress: (count: Long) -> Unit
+    ): Long {
+        val batches = Batches(progress)
+        val values = arrayOfNulls<String>(codec.fields.size)
+        var batch = ArrayList<T>(batchSize)
+        var read = 0L
+        var invalid: IOException? = null
+        var more = true
+        while (more && batches.failure == null) {
+            more = reader.read(values)
+            if (more) {
+                read++
+                try {
+                    batch.add(codec.decode(values))
+                } catch (error: IllegalArgumentException) {
+                    invalid = IOException("Invalid record $read", error)
+                    break
+                }
+            }
+            if (batch.size == batchSize || (!more && batch.isNotEmpty())) {
+                batches.pending.acquire()
+                val full = batch
+                sink(
+                    full,
+                    object : Done {
+                        override fun onWritten() = batches.written(full.size)
+
+                        override fun onFailed(error: Exception) = batches.failed(error)
+                    }
+                )
+                batch = ArrayList(batchSize)
+            }
+        }
+        batches.pending.acquire(maxPendingBatches) // Waits for every batch still being written
+        if (invalid != null) throw invalid
+        val failure = batches.failure
+        if (failure != null) throw failure as? IOException ?: IOException("Could not write a batch", failure)
+        return batches.count
+    }
+
+    // Writes every model from models to writer, reporting progress once per batch of them
+    // Returns the number of models exported. The writer is left open for the caller to close, which finishes the file
+    fun exportAll(models: Iterator<T>, writer: TransferFormat.RecordWriter, progress: (count: Long) -> Unit): Long {
+        val values = arrayOfNulls<String>(codec.fields.size)
+        var count = 0L
+        for (model in models) {
+            codec.encode(model, values)
+            writer.write(values)
+            if (++count % batchSize == 0L) progress(count)
+        }
+        if (count % batchSize != 0L || count == 0L) progress(count)
+        return count
+    }
+
+    // Tracks the batches of one import as sinks finish writing them
+    private inner class Batches(private val progress: (Long) -> Unit) {
+        val pending = Semaphore(maxPendingBatches) // A permit for each batch that can be written
+        @Volatile
+        var count = 0L
+        @Volatile
+        var failure: Exception? = null
+
+        // Counts a written batch, reporting under the lock so counts are never reported out of order
+        @Synchronized
+        fun written(size: Int) {
+            count += size
+            progress(count)
+            pending.release()
+        }
+
+        // Keeps the first failure, which stops the import
+        @Synchronized
+        fun failed(error: Exception) {
+            if (failure == null) failure = error
+            pending.release()
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.amplifyframework.samples.list
+
+import java.util.Locale
+import java.util.PriorityQueue
+import java.util.TreeMap
+
+// Finds items whose name contains a piece of text, ignoring case, without reading every name.
+// Each name is indexed by the three-character sequences (trigrams) in it, so a search only reads the items
+// that have every trigram of the text. Names are padded at the end, so every character of a name starts a trigram
+// and searches shorter than a trigram read the trigrams that start with them.
+// Kept current one change at a time; a changed or removed item leaves a gap that is only cleared out
+// once there are more gaps than items, so changes stay cheap.
+// Has no Android or Amplify dependencies so that it can be benchmarked on the JVM.
+class NameIndex<T>(
+    private val idOf: (T) -> String,
+    private val nameOf: (T) -> String?
+) {
+    companion object {
+        private const val GRAM = 3
+        private const val PAD = '\u0000' // Pads names so their last characters start trigrams too, never searched for
+        private const val MIN_COMPACT_GAPS = 1024 // Gaps left before any are cleared out
+
+        private fun normalize(name: String?) = name?.lowercase(Locale.ROOT) ?: ""
+    }
+
+    private val grams = TreeMap<String, Postings>() // Documents containing each trigram
+    private val documents = hashMapOf<String, Int>() // Document of each item, by id
+    private val items = arrayListOf<T?>() // Item of each document, null once it is changed or removed
+    private val texts = arrayListOf<String?>() // Searched text of each document, null with its item
+    private var gaps = 0 // Documents whose item has been changed or removed
+
+    // The number of items indexed
+    val size: Int
+        get() = documents.size
+
+    // Indexes an item that was created or updated, replacing its previous name
+    fun put(item: T) {
+        val id = idOf(item)
+        val text = normalize(nameOf(item))
+        val document = documents[id]
+        if (document != null && texts[document] == text) {
+            items[document] = item // Same name, so the same trigrams
+            return
+        }
+        if (document != null) clear(document)
+        add(id, item, text)
+        compactIfSparse()
+    }
+
+    // Indexes a batch of items
+    fun putAll(items: Iterable<T>) {
+        for (item in items) put(item)
+    }
+
+    // Stops indexing the item with the given id, used when it is deleted
+    fun remove(id: String) {
+        val document = documents.remove(id) ?: return
+        clear(document)
+        compactIfSparse()
+    }
+
+    // Returns up to limit items whose name contains text, ignoring case, in the order they were last indexed
+    // Empty text matches nothing
+    fun search(text: String, limit: Int): List<T> {
+        val query = normalize(text).replace(PAD.toString(), "")
+        if (query.isEmpty() || limit <= 0) return emptyList()
+        return if (query.length < GRAM) searchPrefix(query, limit) else searchGrams(query, limit)
+    }
+
+    // Reads the documents that have every trigram in query, then checks each one holds the trigrams in order
+    private fun searchGrams(query: String, limit: Int): List<T> {
+        val queryGrams = linkedSetOf<String>()
+        for (i in 0..query.length - GRAM) queryGrams.add(query.substring(i, i + GRAM))
+        val lists = queryGrams.map { grams[it] ?: return emptyList() }
+            .sortedBy { it.size } // The rarest trigram bounds the work
+        val found = arrayListOf<T>()
+        val rarest = lists[0]
+        var i = 0
+        while (i < rarest.size && found.size < limit) {
+            val document = rarest.documents[i++]
+            val item = items[document] ?: continue
+            if (inAll(lists, document) && texts[document]!!.contains(query)) found.add(item)
+        }
+        return found
+    }
+
+    private fun inAll(lists: List<Postings>, document: Int): Boolean {
+        for (i in 1 until lists.size) {
+            if (lists[i].documents.binarySearch(document, 0, lists[i].size) < 0) return false
+        }
+        return true
+    }
+
+    // Merges the documents of every trigram starting with query in document order, each of them contains query
+    private fun searchPrefix(query: String, limit: Int): List<T> {
+        val cursors = PriorityQueue<Cursor>()
+        for (postings in grams.subMap(query, query + Char.MAX_VALUE).values) cursors.add(Cursor(postings))
+        val found = arrayListOf<T>()
+        var last = -1
+        while (cursors.isNotEmpty() && found.size < limit) {
+            val cursor = cursors.poll()
+            val document = cursor.current
+            if (document != last) items[document]?.let { found.add(it) }
+            last = document
+            if (cursor.advance()) cursors.add(cursor)
+        }
+        return found
+    }
+
+    // Gives an item a new document, after every other, and adds it to the postings of its trigrams
+    private fun add(id: String, item: T, text: String) {
+        val document = items.size
+        items.add(item)
+        texts.add(text)
+        documents[id] = document
+        val padded = "$text$PAD$PAD"
+        for (i in 0..padded.length - GRAM) {
+            grams.getOrPut(padded.substring(i, i + GRAM)) { Postings() }.add(document)
+        }
+    }
+
+    // Leaves a gap where a document was, its postings are skipped until compactIfSparse clears them out
+    private fun clear(document: Int) {
+        items[document] = null
+        texts[document] = null
+        gaps++
+    }
+
+    // Indexes every item again without gaps once gaps outnumber items, so searches do not slow down over time
+    private fun compactIfSparse() {
+        if (gaps < MIN_COMPACT_GAPS || gaps <= documents.size) return
+        val live = items.indices.filter { items[it] != null }.map { items[it]!! to texts[it]!! }
+        grams.clear()
+        documents.clear()
+        items.clear()
+        texts.clear()
+        gaps = 0
+        for ((item, text) in live) add(idOf(item), item, text)
+    }
+
+    // Documents containing a trigram, in ascending order as documents are only ever added after every other
+    private class Postings {
+        var documents = IntArray(2)
+        var size = 0
+
+        fun add(document: Int) {
+            if (size > 0 && documents[size - 1] == document) return // The trigram is in the name more than once
+            if (size == documents.size) documents = documents.copyOf(size * 2)
+            documents[size++] = document
+        }
+    }
+
+    // Reads one trigram's documents in order while they are merged with others
+    private class Cursor(private val postings: Postings) : Comparable<Cursor> {
+        private var position = 0
+
+        val current: Int
+            get() = postings.documents[position]
+
+        // Moves to the next document, returns false if there are none left
+        fun advance() = ++position < postings.size
+
+        override fun compareTo(other: Cursor) = current.compareTo(other.current)
+    }
+}
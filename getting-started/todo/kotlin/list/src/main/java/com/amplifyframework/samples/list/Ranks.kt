@@ -0,0 +1,33 @@
+package com.amplifyframework.samples.list
+
+import kotlin.math.abs
+import kotlin.math.max
+
+// Fractional ranks for a list ordered by hand. An item moved between two others takes a rank between theirs,
+// so a move writes only the moved item instead of renumbering the list.
+// Each split halves the gap, so after enough moves into the same spot the ranks are spread out again.
+object Ranks {
+    const val STEP = 1024.0 // Gap between neighbours when ranks are spread out
+    private const val MIN_GAP = 1e-12 // Gap, relative to the ranks, below which neighbours are crowded
+
+    // Returns a rank that sorts between before and after, either of which is null at that end of the list
+    fun between(before: Double?, after: Double?): Double {
+        return when {
+            before == null && after == null -> STEP
+            before == null -> after!! - STEP
+            after == null -> before + STEP
+            else -> before + (after - before) / 2
+        }
+    }
+
+    // Returns true if before and after are too close to split much further, so the list should be spread out
+    fun isCrowded(before: Double, after: Double): Boolean {
+        val scale = max(1.0, max(abs(before), abs(after)))
+        return after - before <= MIN_GAP * scale
+    }
+
+    // Returns count ranks STEP apart, in order
+    fun spread(count: Int): DoubleArray {
+        return DoubleArray(count) { (it + 1) * STEP }
+    }
+}
@@ -0,0 +1,42 @@
+package com.amplifyframework.samples.list
+
+import java.util.Collections
+
+// Holds a list that one writer thread edits and any thread can read.
+// The writer edits a working copy and publishes it as an immutable snapshot, so readers never block
+// and only ever see a list as it was when it was published, never one half way through an edit.
+// The working copy indexes its items by id, so the writer can find them without a scan.
+class SnapshotList<T>(private val writer: Thread, private val idOf: (T) -> String) {
+    private var working = IdList(idOf) // Only touched by the writer
+    @Volatile
+    private var published: List<T> = emptyList()
+
+    // Returns the working copy for the writer to edit, readers see none of it until it is published
+    fun edit(): IdList<T> {
+        checkWriter()
+        return working
+    }
+
+    // Replaces the working copy with a copy of list
+    fun replace(list: Collection<T>) {
+        checkWriter()
+        working = IdList(idOf, list)
+    }
+
+    // Publishes an immutable copy of the working copy and returns it
+    fun publish(): List<T> {
+        checkWriter()
+        val snapshot = Collections.unmodifiableList(ArrayList(working))
+        published = snapshot
+        return snapshot
+    }
+
+    // Returns the last published snapshot, from any thread
+    fun current(): List<T> {
+        return published
+    }
+
+    private fun checkWriter() {
+        check(Thread.currentThread() == writer) { "SnapshotList can only be edited on ${writer.name}" }
+    }
+}
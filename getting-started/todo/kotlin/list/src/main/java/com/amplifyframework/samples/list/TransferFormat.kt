@@ -0,0 +1,237 @@
+package com.amplifyframework.samples.list
+
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import com.google.gson.stream.JsonWriter
+import java.io.BufferedWriter
+import java.io.Closeable
+import java.io.IOException
+import java.io.Reader
+import java.io.Writer
+import java.util.Locale
+
+// File formats models are imported from and exported to, read and written one record at a time.
+// JSON files hold an array of objects, CSV files a header row naming the columns followed by one row per model.
+// Fields are matched to keys or columns by name, ignoring case, so files from other tools can order them freely
+// and carry extra ones; a field with no key or column is read as null.
+enum class TransferFormat {
+    JSON {
+        override fun openReader(input: Reader, fields: Array<String>): RecordReader = JsonRecordReader(input, fields)
+
+        override fun openWriter(output: Writer, fields: Array<String>): RecordWriter =
+            JsonRecordWriter(buffered(output), fields)
+    },
+    CSV {
+        override fun openReader(input: Reader, fields: Array<String>): RecordReader = CsvRecordReader(input, fields)
+
+        override fun openWriter(output: Writer, fields: Array<String>): RecordWriter =
+            CsvRecordWriter(buffered(output), fields)
+    };
+
+    // Reads records one at a time into a values array ordered like the fields it was opened with
+    interface RecordReader : Closeable {
+        // Fills in values with the next record and returns true, or returns false at the end of the input
+        fun read(values: Array<String?>): Boolean
+    }
+
+    // Writes records one at a time from a values array ordered like the fields it was opened with
+    // Closing it finishes the file and closes the underlying writer
+    interface RecordWriter : Closeable {
+        fun write(values: Array<String?>)
+    }
+
+    // Opens a reader for records in this format, with values ordered like fields
+    abstract fun openReader(input: Reader, fields: Array<String>): RecordReader
+
+    // Opens a writer for records in this format, with values ordered like fields
+    abstract fun openWriter(output: Writer, fields: Array<String>): RecordWriter
+
+    private companion object {
+        // Returns the index of each field keyed by its name in lower case
+        fun indexFields(fields: Array<String>): Map<String, Int> =
+            fields.withIndex().associate { (index, name) -> name.lowercase(Locale.ROOT) to index }
+
+        // Records are written a few fields at a time, so writes go through a buffer
+        fun buffered(output: Writer): Writer = output as? BufferedWriter ?: BufferedWriter(output)
+    }
+
+    // Streams the objects of a top-level JSON array
+    private class JsonRecordReader(input: Reader, fields: Array<String>) : RecordReader {
+        private val json = JsonReader(input)
+        private val indexes = indexFields(fields)
+        private var ended = false
+
+        init {
+            try {
+                json.beginArray()
+            } catch (notArray: IllegalStateException) {
+                throw IOException("Expected a JSON array of objects", notArray)
+            }
+        }
+
+        override fun read(values: Array<String?>): Boolean {
+            if (ended) return false
+            try {
+                if (!json.hasNext()) {
+                    json.endArray()
+                    ended = true
+                    return false
+                }
+                values.fill(null)
+                json.beginObject()
+                while (json.hasNext()) {
+                    val index = indexes[json.nextName().lowercase(Locale.ROOT)]
+                    when {
+                        index == null -> json.skipValue()
+                        json.peek() == JsonToken.STRING || json.peek() == JsonToken.NUMBER ->
+                            values[index] = json.nextString()
+                        json.peek() == JsonToken.BOOLEAN -> values[index] = json.nextBoolean().toString()
+                        else -> json.skipValue() // Null, or an array or object no field can hold
+                    }
+                }
+                json.endObject()
+                return true
+            } catch (notObject: IllegalStateException) {
+                throw IOException("Expected a JSON object at ${json.path}", notObject)
+            }
+        }
+
+        override fun close() {
+            json.close()
+        }
+    }
+
+    // Writes records as the objects of a top-level JSON array
+    private class JsonRecordWriter(output: Writer, private val fields: Array<String>) : RecordWriter {
+        private val json = JsonWriter(output)
+
+        init {
+            json.beginArray()
+        }
+
+        override fun write(values: Array<String?>) {
+            json.beginObject()
+            for (i in fields.indices) json.name(fields[i]).value(values[i])
+            json.endObject()
+        }
+
+        override fun close() {
+            json.endArray()
+            json.close()
+        }
+    }
+
+    // Streams the rows of a CSV file as described by RFC 4180, accepting LF as well as CRLF line ends
+    // An empty unquoted field is read as null and an empty quoted one as an empty string
+    private class CsvRecordReader(private val input: Reader, fields: Array<String>) : RecordReader {
+        private val buffer = CharArray(8192)
+        private var position = 0
+        private var limit = 0
+        private val field = StringBuilder()
+        private val row = ArrayList<String?>()
+        private val columns: IntArray // Field index of each column, -1 for columns no field is read from
+
+        init {
+            if (peek() == '\uFEFF'.code) {
+                position++ // Byte order mark, as spreadsheets write at the start of a UTF-8 file
+            }
+            val indexes = indexFields(fields)
+            columns = IntArray(if (readRow()) row.size else 0) { i ->
+                row[i]?.let { indexes[it.trim().lowercase(Locale.ROOT)] } ?: -1
+            }
+        }
+
+        override fun read(values: Array<String?>): Boolean {
+            do {
+                if (!readRow()) return false
+            } while (row.size == 1 && row[0] == null) // Skips blank lines
+            values.fill(null)
+            for (i in 0 until minOf(row.size, columns.size)) {
+                if (columns[i] != -1) values[columns[i]] = row[i]
+            }
+            return true
+        }
+
+        // Reads the fields of the next row into row, returning false at the end of the input
+        private fun readRow(): Boolean {
+            row.clear()
+            var c = next()
+            if (c == -1) return false
+            while (true) {
+                val quoted = c == '"'.code
+                field.setLength(0)
+                if (quoted) {
+                    while (true) {
+                        c = next()
+                        if (c == -1) throw IOException("Unterminated quoted field at the end of the CSV")
+                        if (c == '"'.code) {
+                            c = next()
+                            if (c != '"'.code) break // A doubled quote is a literal one, a single quote ends the field
+                        }
+                        field.append(c.toChar())
+                    }
+                }
+                while (c != ','.code && c != '\n'.code && c != '\r'.code && c != -1) {
+                    field.append(c.toChar())
+                    c = next()
+                }
+                row.add(if (quoted || field.isNotEmpty()) field.toString() else null)
+                if (c != ','.code) {
+                    if (c == '\r'.code && peek() == '\n'.code) position++
+                    return true
+                }
+                c = next()
+            }
+        }
+
+        // Returns the next character without consuming it, or -1 at the end of the input
+        private fun peek(): Int {
+            if (position == limit) {
+                limit = input.read(buffer, 0, buffer.size)
+                position = 0
+                if (limit <= 0) {
+                    limit = 0
+                    return -1
+                }
+            }
+            return buffer[position].code
+        }
+
+        // Consumes and returns the next character, or -1 at the end of the input
+        private fun next(): Int {
+            val c = peek()
+            if (c != -1) position++
+            return c
+        }
+
+        override fun close() {
+            input.close()
+        }
+    }
+
+    // Writes records as CSV rows after a header row of the field names
+    private class CsvRecordWriter(private val output: Writer, fields: Array<String>) : RecordWriter {
+        init {
+            write(arrayOf<String?>(*fields))
+        }
+
+        override fun write(values: Array<String?>) {
+            for (i in values.indices) {
+                if (i > 0) output.write(','.code)
+                val value = values[i] ?: continue // Left empty, which reads back as null
+                if (value.isEmpty() || value.any { it == ',' || it == '"' || it == '\n' || it == '\r' }) {
+                    output.write('"'.code)
+                    output.write(value.replace("\"", "\"\""))
+                    output.write('"'.code)
+                } else {
+                    output.write(value)
+                }
+            }
+            output.write("\r\n")
+        }
+
+        override fun close() {
+            output.close()
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.amplifyframework.samples.list
+
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.concurrent.thread
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class ChangeCoalescerTest {
+    companion object {
+        private const val WRITERS = 4
+        private const val ITEMS_PER_WRITER = 50
+        private const val CHANGES_PER_WRITER = 50000
+    }
+
+    private class Item(val id: String, val version: Int)
+
+    private fun describe(batch: List<ChangeCoalescer.Change<Item>>) =
+        batch.map { "${it.type} ${it.item.id}${it.item.version}" }.toString()
+
+    // Only the latest change to each item is kept, in the place of the item's first change
+    @Test
+    fun repeatedChangesToAnItemMergeIntoTheLatest() {
+        val changes = ChangeCoalescer<Item> { it.id }
+        assertTrue(changes.add(ListPartition.ChangeType.UPDATE, Item("a", 1)))
+        assertFalse(changes.add(ListPartition.ChangeType.CREATE, Item("b", 1)))
+        assertFalse(changes.add(ListPartition.ChangeType.UPDATE, Item("a", 2)))
+        assertFalse(changes.add(ListPartition.ChangeType.DELETE, Item("b", 1)))
+        assertFalse(changes.add(ListPartition.ChangeType.CREATE, Item("c", 1)))
+        assertEquals("[UPDATE a2, DELETE b1, CREATE c1]", describe(changes.drain()))
+        assertEquals(5L, changes.addedCount)
+        assertEquals(2L, changes.mergedCount)
+        assertEquals("[]", describe(changes.drain()))
+        assertTrue(
+            "The first change after a drain asks for another",
+            changes.add(ListPartition.ChangeType.UPDATE, Item("a", 3))
+        )
+    }
+
+    // Writers change their own items as fast as they can while batches are drained, applying the batches
+    // must leave every item at its last version and no batch can hold more than one change per item
+    @Test
+    fun drainedBatchesEndAtTheLastChangeWhileWritersRace() {
+        val changes = ChangeCoalescer<Item> { it.id }
+        val applied = hashMapOf<String, Int>()
+        var largestBatch = 0
+        val writing = AtomicBoolean(true)
+        val frames = thread {
+            var last = false
+            while (!last) {
+                last = !writing.get() // One more drain after the writers finish picks up their last changes
+                val batch = changes.drain()
+                largestBatch = maxOf(largestBatch, batch.size)
+                for (change in batch) applied[change.item.id] = change.item.version
+            }
+        }
+        val writers = (0 until WRITERS).map { w ->
+            thread {
+                for (i in 0 until CHANGES_PER_WRITER) {
+                    changes.add(ListPartition.ChangeType.UPDATE, Item("w$w-${i % ITEMS_PER_WRITER}", i))
+                }
+            }
+        }
+        writers.forEach { it.join() }
+        writing.set(false)
+        frames.join()
+
+        assertTrue("Largest batch $largestBatch", largestBatch <= WRITERS * ITEMS_PER_WRITER)
+        assertEquals(WRITERS * ITEMS_PER_WRITER, applied.size)
+        for (version in applied.values) assertTrue(version >= CHANGES_PER_WRITER - ITEMS_PER_WRITER)
+        assertEquals(WRITERS.toLong() * CHANGES_PER_WRITER, changes.addedCount)
+    }
+}
@@ -0,0 +1,99 @@
+package com.amplifyframework.samples.list
+
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class IdListTest {
+    companion object {
+        private const val IDS = 200
+        private const val CHANGES = 20000
+    }
+
+    private data class Item(val id: String, val completed: Boolean)
+
+    // Makes random edits to an IdList and an ArrayList side by side, looking up ids between them,
+    // every lookup must find what a scan finds however many edits came before it
+    @Test
+    fun lookupsMatchAScanAfterAnyEdits() {
+        val random = Random(7)
+        val indexed = IdList<String>({ it })
+        val plain = ArrayList<String>()
+        var next = 0
+        repeat(CHANGES) {
+            val size = plain.size
+            val action = random.nextInt(10)
+            when {
+                action < 3 || size == 0 -> {
+                    val id = "id-${next++}"
+                    val index = if (random.nextBoolean()) size else random.nextInt(size + 1)
+                    indexed.add(index, id)
+                    plain.add(index, id)
+                }
+                action < 6 -> {
+                    val index = random.nextInt(size)
+                    assertEquals(plain.removeAt(index), indexed.removeAt(index))
+                }
+                action < 7 -> {
+                    val index = random.nextInt(size)
+                    val id = if (random.nextBoolean()) plain[index] else "id-${next++}"
+                    indexed[index] = id
+                    plain[index] = id
+                }
+                action < 8 -> {
+                    val added = listOf("id-${next++}", "id-${next++}")
+                    indexed.addAll(added)
+                    plain.addAll(added)
+                }
+                action < 9 -> {
+                    val from = random.nextInt(size)
+                    val to = minOf(size, from + random.nextInt(3))
+                    indexed.subList(from, to).clear()
+                    plain.subList(from, to).clear()
+                }
+                size > IDS -> {
+                    indexed.clear()
+                    plain.clear()
+                }
+            }
+            repeat(3) {
+                val id = "id-${random.nextInt(next + 1)}"
+                assertEquals(id, plain.indexOf(id), indexed.indexOfId(id))
+            }
+        }
+        assertEquals(plain, indexed)
+    }
+
+    // ListPartition looks items up in an IdList instead of scanning it, and must leave it as it leaves an ArrayList
+    @Test
+    fun partitionsApplyTheSameToAnIdList() {
+        val random = Random(11)
+        val plain = ArrayList<Item>()
+        val indexed = IdList<Item>({ it.id })
+        val plainPartition = ListPartition<Item>({ it.id }, { it.completed }).apply { completedLoaded = true }
+        val indexedPartition = ListPartition<Item>({ it.id }, { it.completed }).apply { completedLoaded = true }
+        val types = ListPartition.ChangeType.values()
+        for (change in 0 until CHANGES) {
+            val item = Item("id-${random.nextInt(IDS)}", random.nextInt(4) == 0)
+            when {
+                change % 50 == 0 -> {
+                    val page = listOf(item, Item("id-${random.nextInt(IDS)}", false))
+                    plainPartition.addLoaded(plain, page)
+                    indexedPartition.addLoaded(indexed, page)
+                }
+                change % 20 == 0 -> {
+                    val batch = listOf(item, Item("id-${random.nextInt(IDS)}", true))
+                    plainPartition.applyAll(plain, batch)
+                    indexedPartition.applyAll(indexed, batch)
+                }
+                else -> {
+                    val type = types[random.nextInt(types.size)]
+                    plainPartition.apply(plain, type, item)
+                    indexedPartition.apply(indexed, type, item)
+                }
+            }
+        }
+        assertEquals(plain, indexed)
+        assertEquals(plainPartition.activeCount(plain), indexedPartition.activeCount(indexed))
+    }
+}
@@ -0,0 +1,82 @@
+package com.amplifyframework.samples.list
+
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class ListCountsTest {
+    companion object {
+        private const val GROUPS = 3
+        private const val IDS = 200
+        private const val CHANGES = 20000
+    }
+
+    private data class Item(val id: String, val group: Int, val completed: Boolean)
+
+    private fun newCounts() = ListCounts<Item>({ it.id }, { it.completed }, { it.group }, GROUPS)
+
+    // Random creates, updates, deletes and repeated changes leave the same counts as counting the items from scratch
+    @Test
+    fun incrementalCountsMatchARecount() {
+        val random = Random(42)
+        val counts = newCounts()
+        val items = HashMap<String, Item>()
+        repeat(CHANGES) {
+            val id = "id" + random.nextInt(IDS)
+            if (random.nextInt(4) == 0) {
+                items.remove(id)
+                counts.remove(id)
+            } else {
+                val item = Item(id, random.nextInt(GROUPS), random.nextBoolean())
+                items[id] = item
+                counts.put(item)
+                if (random.nextBoolean()) counts.put(item) // Echo of the same change
+            }
+        }
+        for (group in 0 until GROUPS) {
+            assertEquals(items.values.count { it.group == group && !it.completed }, counts.getOpen(group))
+            assertEquals(items.values.count { it.group == group && it.completed }, counts.getCompleted(group))
+        }
+        assertEquals(items.values.count { !it.completed }, counts.openTotal)
+        assertEquals(items.values.count { it.completed }, counts.completedTotal)
+    }
+
+    // The listener hears about changes that move a count, once for a batch, and not for repeats
+    @Test
+    fun listenerIsToldOnlyOfRealChanges() {
+        val counts = newCounts()
+        var calls = 0
+        counts.listener = { calls++ }
+        assertEquals(1, calls)
+
+        val batch = (0 until 10).map { Item("id$it", it % GROUPS, false) }
+        counts.putAll(batch)
+        assertEquals(2, calls)
+
+        counts.put(batch[0])
+        counts.remove("missing")
+        assertEquals(2, calls)
+
+        counts.put(Item("id0", 0, true))
+        counts.remove("id1")
+        assertEquals(4, calls)
+        assertEquals(1, counts.completedTotal)
+        assertEquals(8, counts.openTotal)
+    }
+
+    // Each item's group and completion can be read back by id, as last counted
+    @Test
+    fun stateIsReadBackById() {
+        val counts = newCounts()
+        counts.put(Item("a", 2, false))
+        counts.put(Item("b", 1, true))
+        counts.put(Item("a", 0, true))
+        counts.remove("b")
+        assertEquals(0, counts.getGroup("a"))
+        assertTrue(counts.isCompleted("a"))
+        assertEquals(-1, counts.getGroup("b"))
+        assertFalse(counts.isCompleted("b"))
+    }
+}
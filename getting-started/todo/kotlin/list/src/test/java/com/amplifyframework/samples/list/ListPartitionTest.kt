@@ -0,0 +1,150 @@
+package com.amplifyframework.samples.list
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class ListPartitionTest {
+
+    private data class Item(val id: String, val completed: Boolean)
+
+    // Returns a partition over active items a, b and c followed by completed items x and y
+    private fun load(list: MutableList<Item>, completedLoaded: Boolean): ListPartition<Item> {
+        val partition = ListPartition<Item>({ it.id }, { it.completed })
+        partition.completedLoaded = completedLoaded
+        partition.addLoaded(
+            list,
+            listOf(Item("a", false), Item("b", false), Item("c", false), Item("x", true), Item("y", true))
+        )
+        return partition
+    }
+
+    private fun ids(list: List<Item>) = list.joinToString("") { it.id }
+
+    @Test
+    fun completingMovesToTheEndOfTheCompletedSection() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        partition.apply(list, ListPartition.ChangeType.UPDATE, Item("a", true))
+        assertEquals("bcxya", ids(list))
+        assertEquals(2, partition.activeCount(list))
+    }
+
+    @Test
+    fun uncompletingMovesToTheEndOfTheActiveSection() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        partition.apply(list, ListPartition.ChangeType.UPDATE, Item("x", false))
+        assertEquals("abcxy", ids(list))
+        assertEquals(4, partition.activeCount(list))
+    }
+
+    // Until every completed item is loaded, a newly completed one is left for the page that holds it
+    @Test
+    fun completingBeforeTheCompletedSectionIsLoadedLeavesItForPaging() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, false)
+        partition.apply(list, ListPartition.ChangeType.UPDATE, Item("b", true))
+        assertEquals("acxy", ids(list))
+        assertEquals(2, partition.activeCount(list))
+    }
+
+    @Test
+    fun updatesWithinASectionStayInPlace() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        val b = Item("b", false)
+        val x = Item("x", true)
+        partition.apply(list, ListPartition.ChangeType.UPDATE, b)
+        partition.apply(list, ListPartition.ChangeType.UPDATE, x)
+        assertEquals("abcxy", ids(list))
+        assertSame(b, list[1])
+        assertSame(x, list[3])
+    }
+
+    @Test
+    fun createsAndDeletesKeepTheSectionsApart() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        partition.apply(list, ListPartition.ChangeType.CREATE, Item("d", false))
+        partition.apply(list, ListPartition.ChangeType.DELETE, Item("x", true))
+        assertEquals("abcdy", ids(list))
+        assertEquals(4, partition.activeCount(list))
+    }
+
+    // New items go at the end of the active section, never after completed items already in the list
+    @Test
+    fun creatingWhileCompletedItemsAreLoaded() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        partition.apply(list, ListPartition.ChangeType.CREATE, Item("d", false))
+        partition.apply(list, ListPartition.ChangeType.CREATE, Item("e", false))
+        assertEquals("abcdexy", ids(list))
+        assertEquals(5, partition.activeCount(list))
+    }
+
+    // A batch applies as if its items were applied one at a time
+    @Test
+    fun batchesMatchApplyingEachItem() {
+        val batch = listOf(
+            Item("d", false), Item("z", true), Item("b", true),
+            Item("e", false), Item("d", true), Item("a", false)
+        )
+        val one = mutableListOf<Item>()
+        val each = load(one, true)
+        for (item in batch) each.apply(one, ListPartition.ChangeType.UPDATE, item)
+        val all = mutableListOf<Item>()
+        val batched = load(all, true)
+        batched.applyAll(all, batch)
+        assertEquals(ids(one), ids(all))
+        assertEquals(each.activeCount(one), batched.activeCount(all))
+    }
+
+    // A page that holds items a change already added leaves them as they are, active or completed
+    @Test
+    fun loadingSkipsItemsAlreadyInTheList() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        val created = Item("d", false)
+        partition.apply(list, ListPartition.ChangeType.CREATE, created)
+        partition.addLoaded(list, listOf(Item("d", false), Item("x", true), Item("z", true)))
+        assertEquals("abcdxyz", ids(list))
+        assertSame(created, list[3])
+        assertEquals(3, partition.completed.size)
+    }
+
+    // An undone delete goes back where it was if nothing has changed
+    @Test
+    fun restoringPutsAnItemBackWhereItWas() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        val b = list.removeAt(1)
+        partition.restore(list, 1, b)
+        val x = list.removeAt(3)
+        partition.forget(x)
+        partition.restore(list, 3, x)
+        assertEquals("abcxy", ids(list))
+        assertEquals(3, partition.activeCount(list))
+    }
+
+    // If items changed section while the delete could be undone, the item stays within its own section
+    @Test
+    fun restoringAfterTheSectionsChangedKeepsThemApart() {
+        val list = mutableListOf<Item>()
+        val partition = load(list, true)
+        val c = list.removeAt(2)
+        partition.apply(list, ListPartition.ChangeType.UPDATE, Item("a", true))
+        partition.apply(list, ListPartition.ChangeType.UPDATE, Item("b", true))
+        partition.restore(list, 2, c)
+        assertEquals("cxyab", ids(list))
+        assertEquals(1, partition.activeCount(list))
+
+        val y = list.removeAt(2)
+        partition.forget(y)
+        partition.apply(list, ListPartition.ChangeType.DELETE, Item("x", true))
+        partition.apply(list, ListPartition.ChangeType.UPDATE, Item("a", false))
+        partition.restore(list, 0, y)
+        assertEquals("cayb", ids(list))
+        assertEquals(2, partition.activeCount(list))
+    }
+}
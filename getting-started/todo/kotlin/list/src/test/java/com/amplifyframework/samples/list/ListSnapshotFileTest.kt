@@ -0,0 +1,69 @@
+package com.amplifyframework.samples.list
+
+import java.io.File
+import java.io.RandomAccessFile
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class ListSnapshotFileTest {
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private data class Item(val id: String?, val name: String?) {
+        override fun toString() = "$id=$name"
+    }
+
+    private class Codec(vararg fieldNames: String) : ModelCodec<Item> {
+        override val fields = arrayOf(*fieldNames)
+
+        override fun encode(item: Item, values: Array<String?>) {
+            values[0] = item.id
+            values[1] = item.name
+        }
+
+        override fun decode(values: Array<String?>) = Item(values[0], values[1])
+    }
+
+    private val codec = Codec("id", "name")
+
+    @Test
+    fun writtenListsReadBack() {
+        val snapshot = ListSnapshotFile(folder.newFile(), codec)
+        val items = listOf(Item("1", "plain"), Item("2", ""), Item("3", null), Item("4", "ünïcødé 📝"))
+        snapshot.write("created", items)
+        assertEquals(items, snapshot.read("created"))
+
+        // Long enough for lengths and counts of more than one varint byte
+        val many = (0 until 1000).map { Item(it.toString(), "x".repeat(it)) }
+        snapshot.write("created", many)
+        assertEquals(many, snapshot.read("created"))
+    }
+
+    // A list written for another key, by a codec with other fields, or never written is not read at all
+    @Test
+    fun onlyMatchingListsAreRead() {
+        val file = File(folder.root, "list")
+        val snapshot = ListSnapshotFile(file, codec)
+        assertNull(snapshot.read("created"))
+        snapshot.write("created", listOf(Item("1", "one")))
+        assertNull(snapshot.read("name"))
+        assertNull(ListSnapshotFile(file, Codec("id", "title")).read("created"))
+        snapshot.delete()
+        assertNull(snapshot.read("created"))
+    }
+
+    // However the file is cut short, it is read as no list rather than a partial one
+    @Test
+    fun truncatedFilesAreNotRead() {
+        val file = folder.newFile()
+        val snapshot = ListSnapshotFile(file, codec)
+        snapshot.write("created", listOf(Item("1", "one"), Item("2", "two")))
+        for (length in file.length() - 1 downTo 0) {
+            RandomAccessFile(file, "rw").use { it.setLength(length) }
+            assertNull("Length $length", snapshot.read("created"))
+        }
+    }
+}
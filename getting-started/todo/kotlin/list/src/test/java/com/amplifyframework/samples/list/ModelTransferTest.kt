@@ -0,0 +1,117 @@
+package com.amplifyframework.samples.list
+
+import java.io.IOException
+import java.io.StringReader
+import java.io.StringWriter
+import java.util.Collections
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+
+class ModelTransferTest {
+
+    private data class Item(val id: String, val name: String?) {
+        override fun toString() = "$id=$name"
+    }
+
+    private object Codec : ModelCodec<Item> {
+        override val fields = arrayOf("id", "name")
+
+        override fun encode(item: Item, values: Array<String?>) {
+            values[0] = item.id
+            values[1] = item.name
+        }
+
+        override fun decode(values: Array<String?>): Item {
+            return Item(requireNotNull(values[0]) { "Missing id" }, values[1])
+        }
+    }
+
+    // Imports a file into a list, writing each batch straight away
+    private fun importAll(format: TransferFormat, file: String): List<Item> {
+        val imported = mutableListOf<Item>()
+        ModelTransfer(Codec, 2, 1).importAll(
+            format.openReader(StringReader(file), Codec.fields),
+            { batch, done ->
+                imported.addAll(batch)
+                done.onWritten()
+            },
+            { }
+        )
+        return imported
+    }
+
+    @Test
+    fun exportedFilesImportTheSameModels() {
+        val items = listOf(
+            Item("1", "plain"), Item("2", "comma, \"quotes\"\nand a new line"),
+            Item("3", ""), Item("4", null), Item("5", "\u00fcn\u00efc\u00f8d\u00e9")
+        )
+        for (format in TransferFormat.values()) {
+            val file = StringWriter()
+            format.openWriter(file, Codec.fields).use { ModelTransfer(Codec).exportAll(items.iterator(), it) { } }
+            assertEquals("$format $file", items.toString(), importAll(format, file.toString()).toString())
+        }
+    }
+
+    // Files from other tools can order fields freely, name them in any case and carry extra ones
+    @Test
+    fun fieldsAreReadByName() {
+        val csv = "\uFEFFName,Extra,ID\r\nfirst,x,1\r\n\r\n\"second\",,2"
+        assertEquals("[1=first, 2=second]", importAll(TransferFormat.CSV, csv).toString())
+        val json = """[{"NAME": "first", "extra": {"a": [1]}, "id": 1}, {"id": "2", "name": null}]"""
+        assertEquals("[1=first, 2=null]", importAll(TransferFormat.JSON, json).toString())
+    }
+
+    // Reading stops while the allowed number of batches are still being written, and resumes as they finish
+    @Test
+    fun importsNoMoreBatchesThanAllowedAtOnce() {
+        val file = (0 until 1000).joinToString("\n", prefix = "id\n")
+        val store = Executors.newFixedThreadPool(4)
+        val writing = AtomicInteger()
+        val mostWriting = AtomicInteger()
+        val progress = Collections.synchronizedList(mutableListOf<Long>())
+        val count = ModelTransfer(Codec, 10, 3).importAll(
+            TransferFormat.CSV.openReader(StringReader(file), Codec.fields),
+            { _, done ->
+                mostWriting.accumulateAndGet(writing.incrementAndGet(), { a, b -> maxOf(a, b) })
+                store.execute {
+                    writing.decrementAndGet()
+                    done.onWritten()
+                }
+            },
+            { progress.add(it) }
+        )
+        store.shutdown()
+        assertTrue(store.awaitTermination(5, TimeUnit.SECONDS))
+        assertEquals(1000L, count)
+        assertTrue("At most 3 batches, saw ${mostWriting.get()}", mostWriting.get() <= 3)
+        assertEquals((1..100).map { it * 10L }, progress)
+    }
+
+    @Test
+    fun aFailedBatchStopsTheImport() {
+        val batches = AtomicInteger()
+        try {
+            ModelTransfer(Codec, 1, 1).importAll(
+                TransferFormat.CSV.openReader(StringReader("id\n1\n2\n3\n"), Codec.fields),
+                { _, done ->
+                    if (batches.incrementAndGet() == 2) {
+                        done.onFailed(IllegalStateException("Store is full"))
+                    } else {
+                        done.onWritten()
+                    }
+                },
+                { }
+            )
+            fail("Expected the import to fail")
+        } catch (expected: IOException) {
+            assertEquals("Store is full", expected.cause?.message)
+        }
+        assertEquals(2, batches.get())
+    }
+}
@@ -0,0 +1,89 @@
+package com.amplifyframework.samples.list
+
+import java.util.Locale
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class NameIndexTest {
+    companion object {
+        private const val IDS = 300
+        private const val CHANGES = 20000
+    }
+
+    private data class Item(val id: String, val name: String?)
+
+    private fun newIndex() = NameIndex<Item>({ it.id }, { it.name })
+
+    private fun ids(items: List<Item>) = items.map { it.id }.toString()
+
+    // Text of any length matches anywhere in a name, in any case, including its last characters
+    @Test
+    fun namesContainingTheTextAreFound() {
+        val index = newIndex()
+        index.put(Item("1", "Buy milk"))
+        index.put(Item("2", "Call Mum"))
+        index.put(Item("3", "Mulch the garden"))
+        index.put(Item("4", "m"))
+        index.put(Item("5", null))
+        assertEquals("[1, 2, 3, 4]", ids(index.search("M", 10)))
+        assertEquals("[2, 3]", ids(index.search("mu", 10)))
+        assertEquals("[1]", ids(index.search("lk", 10)))
+        assertEquals("[2]", ids(index.search("CALL MUM", 10)))
+        assertEquals("[3]", ids(index.search("the g", 10)))
+        assertEquals("[]", ids(index.search("milkshake", 10)))
+        assertEquals("[]", ids(index.search("", 10)))
+        assertEquals("[1, 2]", ids(index.search("m", 2)))
+    }
+
+    // A renamed item is found by its new name only, a removed one not at all
+    @Test
+    fun changesAreSearchedStraightAway() {
+        val index = newIndex()
+        index.put(Item("1", "Buy milk"))
+        index.put(Item("2", "Buy bread"))
+        index.put(Item("1", "Buy oat milk"))
+        assertEquals("[2, 1]", ids(index.search("buy", 10)))
+        assertEquals("[]", ids(index.search("y m", 10)))
+        index.remove("2")
+        assertEquals("[1]", ids(index.search("b", 10)))
+        assertEquals(1, index.size)
+    }
+
+    // After any series of changes, including enough to clear out gaps many times over,
+    // every search finds exactly the items a scan of every name would
+    @Test
+    fun searchesMatchAScanOfEveryName() {
+        val random = Random(24)
+        val index = newIndex()
+        val current = HashMap<String, Item>()
+        repeat(CHANGES) {
+            val id = "id" + random.nextInt(IDS)
+            if (random.nextInt(4) == 0) {
+                index.remove(id)
+                current.remove(id)
+            } else {
+                val item = Item(id, randomText(random, random.nextInt(12)))
+                index.put(item)
+                current[id] = item
+            }
+        }
+        assertEquals(current.size, index.size)
+        for (length in 1..4) {
+            repeat(50) {
+                val query = randomText(random, length)
+                val expected = current.values
+                    .filter { it.name!!.lowercase(Locale.ROOT).contains(query.lowercase(Locale.ROOT)) }
+                    .map { it.id }
+                    .sorted()
+                assertEquals(query, expected, index.search(query, IDS).map { it.id }.sorted())
+            }
+        }
+    }
+
+    // Returns text from a small alphabet in both cases, so short searches match many names and long ones a few
+    private fun randomText(random: Random, length: Int): String {
+        val alphabet = "abcdeABCDE "
+        return (0 until length).map { alphabet[random.nextInt(alphabet.length)] }.joinToString("")
+    }
+}
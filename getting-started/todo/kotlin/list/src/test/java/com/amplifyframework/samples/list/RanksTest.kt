@@ -0,0 +1,50 @@
+package com.amplifyframework.samples.list
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class RanksTest {
+
+    // Moving to either end of the list, or into an empty one, needs no neighbour on that side
+    @Test
+    fun openEndsStepAwayFromTheNeighbour() {
+        assertEquals(Ranks.STEP, Ranks.between(null, null), 0.0)
+        assertEquals(5 - Ranks.STEP, Ranks.between(null, 5.0), 0.0)
+        assertEquals(5 + Ranks.STEP, Ranks.between(5.0, null), 0.0)
+    }
+
+    // Moving into the same spot over and over keeps every rank in order until the gap is crowded,
+    // and takes far more moves than a user makes before the list needs spreading out
+    @Test
+    fun repeatedSplitsStayOrderedUntilCrowded() {
+        val before = Ranks.STEP
+        var after = 2 * Ranks.STEP
+        var splits = 0
+        while (!Ranks.isCrowded(before, after)) {
+            val rank = Ranks.between(before, after)
+            assertTrue(before < rank && rank < after)
+            after = rank
+            splits++
+        }
+        assertTrue(splits > 20)
+    }
+
+    // Ranks large enough to have been appended for a long time are still split in order
+    @Test
+    fun crowdingIsRelativeToTheRanks() {
+        val before = 1e12
+        assertFalse(Ranks.isCrowded(before, before + Ranks.STEP))
+        assertTrue(Ranks.isCrowded(before, before + 1e-4))
+    }
+
+    @Test
+    fun spreadRanksAreInOrderAndApart() {
+        val ranks = Ranks.spread(100)
+        for (i in 1 until ranks.size) {
+            assertEquals(Ranks.STEP, ranks[i] - ranks[i - 1], 0.0)
+        }
+        assertFalse(Ranks.isCrowded(ranks[0], ranks[1]))
+    }
+}
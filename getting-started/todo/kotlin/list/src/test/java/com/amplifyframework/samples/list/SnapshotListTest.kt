@@ -0,0 +1,100 @@
+package com.amplifyframework.samples.list
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.concurrent.thread
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class SnapshotListTest {
+    companion object {
+        private const val SIZE = 500
+        private const val CHANGES = 20000
+        private const val READERS = 4
+    }
+
+    private data class Item(val id: String, val completed: Boolean)
+
+    // Applies change events on a writer thread while reader threads scroll through published snapshots,
+    // every snapshot a reader sees must be a whole list, never one caught between a delete and its re-insert
+    @Test
+    fun readersOnlySeeWholeSnapshotsWhileChangesApply() {
+        val failure = AtomicReference<Throwable>()
+        val writing = AtomicBoolean(true)
+        val published = CountDownLatch(1)
+        val holder = AtomicReference<SnapshotList<Item>>()
+
+        val writer = thread(start = false, name = "writer") {
+            try {
+                val list = holder.get()
+                val partition = ListPartition<Item>({ it.id }, { it.completed })
+                partition.completedLoaded = true
+                partition.addLoaded(list.edit(), (0 until SIZE).map { Item("item-$it", false) })
+                list.publish()
+                published.countDown()
+                for (i in 0 until CHANGES) {
+                    val item = Item("item-${i % SIZE}", i % 3 == 0)
+                    partition.apply(list.edit(), ListPartition.ChangeType.DELETE, item)
+                    partition.apply(list.edit(), ListPartition.ChangeType.CREATE, item)
+                    partition.apply(list.edit(), ListPartition.ChangeType.UPDATE, item)
+                    list.publish()
+                }
+            } catch (t: Throwable) {
+                failure.compareAndSet(null, t)
+            } finally {
+                published.countDown()
+                writing.set(false)
+            }
+        }
+        holder.set(SnapshotList(writer) { it.id })
+
+        val readers = (0 until READERS).map { r ->
+            thread(start = false, name = "reader-$r") {
+                try {
+                    published.await()
+                    while (writing.get()) {
+                        val snapshot = holder.get().current()
+                        val ids = snapshot.mapTo(HashSet()) { it.id }
+                        assertEquals(SIZE, snapshot.size)
+                        assertEquals(SIZE, ids.size)
+                    }
+                } catch (t: Throwable) {
+                    failure.compareAndSet(null, t)
+                }
+            }
+        }
+
+        writer.start()
+        readers.forEach { it.start() }
+        writer.join()
+        readers.forEach { it.join() }
+        assertNull(failure.get())
+        assertEquals(SIZE, holder.get().current().size)
+    }
+
+    // Published snapshots can't be edited, and a later edit leaves an earlier snapshot unchanged
+    @Test
+    fun publishedSnapshotsAreImmutable() {
+        val list = SnapshotList<String>(Thread.currentThread()) { it }
+        list.edit().add("a")
+        val snapshot = list.publish()
+        list.edit().add("b")
+        assertEquals(1, snapshot.size)
+        val thrown = runCatching { (snapshot as MutableList<String>).add("c") }.exceptionOrNull()
+        assertTrue(thrown is UnsupportedOperationException)
+        assertSame(snapshot, list.current())
+    }
+
+    // Only the writer thread can edit the list
+    @Test
+    fun otherThreadsCannotEdit() {
+        val list = SnapshotList<String>(Thread.currentThread()) { it }
+        val thrown = AtomicReference<Throwable>()
+        thread { runCatching { list.edit() }.onFailure { thrown.set(it) } }.join()
+        assertTrue(thrown.get() is IllegalStateException)
+    }
+}